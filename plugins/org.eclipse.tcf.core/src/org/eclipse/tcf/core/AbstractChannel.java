@@ -18,6 +18,7 @@ import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.tcf.internal.core.ServiceManager;
 import org.eclipse.tcf.internal.core.Token;
@@ -30,6 +31,7 @@ import org.eclipse.tcf.protocol.IPeer;
 import org.eclipse.tcf.protocol.IService;
 import org.eclipse.tcf.protocol.IToken;
 import org.eclipse.tcf.protocol.JSON;
+import org.eclipse.tcf.protocol.JSONCodec;
 import org.eclipse.tcf.protocol.Protocol;
 import org.eclipse.tcf.services.ILocator;
 
@@ -77,7 +79,7 @@ public abstract class AbstractChannel implements IChannel {
          * "P" for Progress Result.
          * "E" for Events.
          */
-        final char type;
+        char type;
         /**
          * Token associated with the Command
          */
@@ -95,9 +97,27 @@ public abstract class AbstractChannel implements IChannel {
          */
         byte[] data;
 
+        /**
+         * Command result arguments, if the data was parsed by the I/O thread, see {@link #parseResult(Message, JSONCodec)}
+         */
+        Object[] args;
+        Exception args_error;
+        boolean args_parsed;
+
         boolean is_sent;
         boolean is_canceled;
 
+        /**
+         * System.nanoTime() when a command was transmitted
+         */
+        volatile long sent_time;
+
+        /**
+         * Command statistics and System.nanoTime() when the command was created, if metrics are enabled
+         */
+        ChannelMetrics.CommandMetrics metrics;
+        long create_time;
+
         Collection<TraceListener> trace;
 
         /**
@@ -157,8 +177,8 @@ public abstract class AbstractChannel implements IChannel {
     private final Map<String,IChannel.ICommandServer> command_servers = new HashMap<String,IChannel.ICommandServer>();
     private final LinkedList<IPeer> remote_peer_list = new LinkedList<IPeer>();
     private final Map<String,Message> out_tokens = new LinkedHashMap<String,Message>();
-    private final Thread inp_thread;
-    private final Thread out_thread;
+    private Thread inp_thread;
+    private Thread out_thread;
     private boolean notifying_channel_opened;
     private boolean registered_with_trasport;
     private int state = STATE_OPENING;
@@ -167,10 +187,35 @@ public abstract class AbstractChannel implements IChannel {
     private IPeer remote_peer;
     private Proxy proxy;
     private boolean zero_copy;
-
-    private static final int pending_command_limit = 32;
+    private boolean parse_results = Boolean.getBoolean("org.eclipse.tcf.core.parse_results");
+
+    /* Compression is advertised unless "org.eclipse.tcf.core.compression" is "false", and used if it is "true" */
+    private static final String COMPRESSION = "Deflate";
+    private final String compression_mode = System.getProperty("org.eclipse.tcf.core.compression");
+    private boolean compression_enabled = "true".equals(compression_mode);
+    private boolean remote_compression;
+    /* Compression is negotiated only with the directly connected peer, Hello messages after redirect() come from other peers */
+    private boolean redirected;
+
+    /** True if the transmitter should compress large messages, read by I/O threads */
+    volatile boolean compression;
+
+    /* Messages that are held until the end of current batch, see startBatch() and setAutoBatching() */
+    private final ArrayList<Message> batch = new ArrayList<Message>();
+    private int batch_level;
+    private boolean batch_posted;
+    private boolean auto_batching = Boolean.getBoolean("org.eclipse.tcf.core.auto_batch");
+
+    /* Merges identical commands, created by setCommandCoalescing() */
+    private CommandCoalescer coalescer;
+
+    /** IDs of pending commands which results should be parsed by the I/O thread, mapped to binary slices flag */
+    private final Map<String,Boolean> parse_tokens = new ConcurrentHashMap<String,Boolean>();
+
+    private final CongestionWindow congestion = new CongestionWindow(
+            !"false".equals(System.getProperty("org.eclipse.tcf.core.congestion_window")));
+    private final ChannelMetrics metrics = ChannelMetrics.isEnabled() ? new ChannelMetrics(this) : null;
     private int local_congestion_level = -100;
-    private int remote_congestion_level = -100;
     private long local_congestion_time;
     private int local_congestion_cnt;
     private Collection<TraceListener> trace_listeners;
@@ -190,6 +235,13 @@ public abstract class AbstractChannel implements IChannel {
          */
         EOM = -2;
 
+    /**
+     * Marker that is returned by {@link #pollOutput()} when the channel output
+     * should be terminated by End Of Stream.
+     * @since 1.8
+     */
+    protected static final Message END_OF_STREAM = new Message((char)EOS);
+
     protected AbstractChannel(IPeer remote_peer) {
         this(LocatorService.getLocalPeer(), remote_peer);
     }
@@ -199,11 +251,11 @@ public abstract class AbstractChannel implements IChannel {
         this.remote_peer = remote_peer;
         this.local_peer = local_peer;
         remote_peer_list.add(remote_peer);
+    }
 
-        /**
-         * Thread used handles messages received through the channel
-         */
-        inp_thread = new Thread() {
+    private Thread createReceiver() {
+        /* Thread used handles messages received through the channel */
+        Thread thread = new Thread() {
 
             /**
              * Empty byte array used when returning a zero-length byte array on {@code readBytes}
@@ -324,6 +376,22 @@ public abstract class AbstractChannel implements IChannel {
             @Override
             public void run() {
                 try {
+                    JSONCodec codec = new JSONCodec();
+                    InputDispatcher dispatcher = new InputDispatcher(AbstractChannel.this);
+                    FrameDecoder decoder = new FrameDecoder(dispatcher);
+                    if (readFrames(decoder)) {
+                        for (;;) {
+                            int cnt = dispatcher.flush();
+                            if (decoder.isEndOfStream()) return;
+                            /*
+                             * When the dispatch thread is congested, wait until it takes the messages,
+                             * but no longer than same delay per message as below
+                             */
+                            int delay = congestion.receive_delay;
+                            if (delay > 0 && cnt > 0) dispatcher.await((long)delay * cnt);
+                            readFrames(decoder);
+                        }
+                    }
                     while (true) {
                         int n = read();
                         if (n == EOM) continue;
@@ -362,6 +430,7 @@ public abstract class AbstractChannel implements IChannel {
                         default:
                             error();
                         }
+                        parseResult(msg, codec);
                         /*
                          * Message handling is done in the dispatch thread
                          */
@@ -370,28 +439,12 @@ public abstract class AbstractChannel implements IChannel {
                                 handleInput(msg);
                             }
                         });
-                        int delay = local_congestion_level;
+                        int delay = congestion.receive_delay;
                         if (delay > 0) sleep(delay);
                     }
                     Protocol.invokeLater(new Runnable() {
                         public void run() {
-                            if (out_tokens.isEmpty() && eos_err_report == null && state != STATE_OPENING) {
-                                close();
-                            }
-                            else {
-                                IOException x = new IOException("Communication channel is closed by remote peer");
-                                if (eos_err_report != null) {
-                                    try {
-                                        Object[] args = JSON.parseSequence(eos_err_report);
-                                        if (args.length > 0 && args[0] != null) {
-                                            x.initCause(new Exception(Command.toErrorString(args[0])));
-                                        }
-                                    }
-                                    catch (IOException e) {
-                                    }
-                                }
-                                terminate(x);
-                            }
+                            handleEndOfStream(eos_err_report);
                         }
                     });
                 }
@@ -409,11 +462,13 @@ public abstract class AbstractChannel implements IChannel {
                 }
             }
         };
+        thread.setName("TCF Channel Receiver");
+        return thread;
+    }
 
-        /**
-         * Thread used to handle messages sent through the channel
-         */
-        out_thread = new Thread() {
+    private Thread createTransmitter() {
+        /* Thread used to handle messages sent through the channel */
+        Thread thread = new Thread() {
 
             private final byte[] out_buf = new byte[0x4000];
             private int out_buf_pos;
@@ -477,6 +532,11 @@ public abstract class AbstractChannel implements IChannel {
             @Override
             public void run() {
                 try {
+                    FrameEncoder.Output output = getFrameOutput();
+                    if (output != null) {
+                        writeFrames(output);
+                        return;
+                    }
                     while (true) {
                         Message msg = null;
                         boolean last = false;
@@ -490,23 +550,9 @@ public abstract class AbstractChannel implements IChannel {
                                 continue;
                             }
                             msg.is_sent = true;
+                            if (msg.type == 'C') msg.sent_time = System.nanoTime();
                         }
-                        if (msg.trace != null) {
-                            final Message m = msg;
-                            Protocol.invokeLater(new Runnable() {
-                                public void run() {
-                                    for (TraceListener l : m.trace) {
-                                        try {
-                                            l.onMessageSent(m.type, m.token == null ? null : m.token.getID(),
-                                                    m.service, m.name, m.data);
-                                        }
-                                        catch (Throwable x) {
-                                            Protocol.log("Exception in channel listener", x);
-                                        }
-                                    }
-                                }
-                            });
-                        }
+                        if (msg.trace != null) notifyMessageSent(msg);
                         out_buf_pos = 0;
                         out_buf[out_buf_pos++] = (byte)msg.type;
                         out_buf[out_buf_pos++] = 0;
@@ -516,9 +562,7 @@ public abstract class AbstractChannel implements IChannel {
                         if (msg.data != null) writeBytes(msg.data);
                         write(out_buf, 0, out_buf_pos);
                         write(EOM);
-                        int delay = 0;
-                        int level = remote_congestion_level;
-                        if (level > 0) delay = level * 10;
+                        int delay = congestion.transmit_delay;
                         if (last || delay > 0) flush();
                         if (delay > 0) sleep(delay);
                         else yield();
@@ -541,8 +585,8 @@ public abstract class AbstractChannel implements IChannel {
                 }
             }
         };
-        inp_thread.setName("TCF Channel Receiver");
-        out_thread.setName("TCF Channel Transmitter");
+        thread.setName("TCF Channel Transmitter");
+        return thread;
     }
 
     protected void start() {
@@ -553,6 +597,13 @@ public abstract class AbstractChannel implements IChannel {
                     if (proxy != null) return;
                     if (state == STATE_CLOSED) return;
                     ServiceManager.onChannelCreated(AbstractChannel.this, local_service_by_name);
+                    if (isDecompressionSupported() && !"false".equals(compression_mode)) {
+                        local_service_by_name.put(COMPRESSION, new IService() {
+                            public String getName() {
+                                return COMPRESSION;
+                            }
+                        });
+                    }
                     makeServiceByClassMap(local_service_by_name, local_service_by_class);
                     Object[] args = new Object[]{ local_service_by_name.keySet() };
                     sendEvent(Protocol.getLocator(), "Hello", JSON.toJSONSequence(args));
@@ -562,10 +613,107 @@ public abstract class AbstractChannel implements IChannel {
                 }
             }
         });
+        startIO();
+    }
+
+    /**
+     * Start channel I/O.
+     * Default implementation starts the receiver and the transmitter threads,
+     * which use blocking read() and write() to exchange messages with the remote peer.
+     * Subclasses that implement non-blocking I/O can override this method,
+     * poll outgoing messages with {@link #pollOutput()}, and pass received messages to
+     * {@link #handleInput(Message)}, see ChannelNIO.
+     * @since 1.8
+     */
+    protected void startIO() {
+        inp_thread = createReceiver();
+        out_thread = createTransmitter();
         inp_thread.start();
         out_thread.start();
     }
 
+    /**
+     * Read next block of input in StreamChannel wire format and pass it to the frame decoder.
+     * The receiver thread uses the method to decode whole blocks of input
+     * instead of calling read() for every byte.
+     * Default implementation does not support block input.
+     * @param decoder - the frame decoder.
+     * @return false if block input is not supported by the channel.
+     * @throws IOException
+     */
+    boolean readFrames(FrameDecoder decoder) throws IOException {
+        return false;
+    }
+
+    /**
+     * Parse data of a command result message, if the command was sent while result parsing was enabled.
+     * Called by I/O threads before the message is passed to the dispatch thread,
+     * see {@link #setResultParsing(boolean)}.
+     * @param msg - received message.
+     * @param codec - JSON codec that belongs to the calling thread.
+     */
+    final void parseResult(Message msg, JSONCodec codec) {
+        if (msg.type != 'R' || parse_tokens.isEmpty()) return;
+        Boolean binary_slices = parse_tokens.remove(msg.token.getID());
+        if (binary_slices == null) return;
+        try {
+            msg.args = codec.parseSequence(msg.data, binary_slices.booleanValue());
+        }
+        catch (Exception x) {
+            msg.args_error = x;
+        }
+        msg.args_parsed = true;
+    }
+
+    /**
+     * Check if the channel input can decode compressed message data, see FrameDecoder.
+     * If true, the channel advertises support of compression to the remote peer in Hello message.
+     * Default implementation returns false.
+     * @return true if compressed input is supported.
+     */
+    boolean isDecompressionSupported() {
+        return false;
+    }
+
+    /**
+     * Get output for messages encoded in StreamChannel wire format.
+     * If the channel provides the output, the transmitter thread takes all queued messages at once,
+     * encodes them into a single buffer and flushes the channel once per batch,
+     * instead of writing and flushing messages one by one.
+     * Default implementation does not support batch output.
+     * @return the output, or null if batch output is not supported by the channel.
+     */
+    FrameEncoder.Output getFrameOutput() {
+        return null;
+    }
+
+    /**
+     * Transmitter thread main loop for channels that support batch output.
+     * @param output - the channel output.
+     * @throws Exception
+     */
+    private void writeFrames(FrameEncoder.Output output) throws Exception {
+        FrameEncoder encoder = new FrameEncoder(output);
+        ArrayList<Message> batch = new ArrayList<Message>();
+        for (;;) {
+            synchronized (out_queue) {
+                while (out_queue.size() == 0) out_queue.wait();
+            }
+            /* When the remote peer is congested, messages are sent one at a time with a delay */
+            int delay = congestion.transmit_delay;
+            boolean eos = pollOutput(batch, delay > 0 ? 1 : Integer.MAX_VALUE);
+            boolean zero_copy = isZeroCopySupported();
+            encoder.setCompression(compression);
+            for (Message msg : batch) encoder.writeMessage(msg, zero_copy);
+            batch.clear();
+            if (eos) encoder.writeEndOfStream();
+            encoder.flush();
+            flush();
+            if (eos) break;
+            if (delay > 0) Thread.sleep(delay);
+        }
+    }
+
     /**
      * Redirect this channel to given peer using this channel remote peer locator service as a proxy.
      * @param peer_id - peer that will become new remote communication endpoint of this channel
@@ -664,6 +812,7 @@ public abstract class AbstractChannel implements IChannel {
                     });
                 }
                 state = STATE_OPENING;
+                redirected = true;
             }
             catch (Throwable x) {
                 terminate(x);
@@ -786,12 +935,14 @@ public abstract class AbstractChannel implements IChannel {
     }
 
     private void sendEndOfStream(long timeout) throws Exception {
+        batch.clear();
         synchronized (out_queue) {
             out_queue.clear();
             out_queue.add(null);
             out_queue.notifyAll();
         }
-        out_thread.join(timeout);
+        onOutputQueued();
+        if (out_thread != null && out_thread.isAlive()) out_thread.join(timeout);
     }
 
     private void close(final Throwable error) {
@@ -837,6 +988,7 @@ public abstract class AbstractChannel implements IChannel {
                     else x = new IOException("Channel is closed");
                     for (Message msg : out_tokens.values()) {
                         assert msg.token != null;
+                        if (msg.metrics != null) metrics.onCommandAborted(msg.metrics);
                         try {
                             String s = msg.toString();
                             if (s.length() > 72) s = s.substring(0, 72) + "...]";
@@ -850,6 +1002,7 @@ public abstract class AbstractChannel implements IChannel {
                     }
                     out_tokens.clear();
                 }
+                parse_tokens.clear();
                 if (channel_listeners.size() > 0) {
                     for (IChannelListener l : channel_listeners.toArray(
                             new IChannelListener[channel_listeners.size()])) {
@@ -880,10 +1033,58 @@ public abstract class AbstractChannel implements IChannel {
 
     public int getCongestion() {
         assert Protocol.isDispatchThread();
-        int level = out_tokens.size() * 100 / pending_command_limit - 100;
-        if (remote_congestion_level > level) level = remote_congestion_level;
-        if (level > 100) level = 100;
-        return level;
+        return congestion.getLevel(out_tokens.size());
+    }
+
+    /**
+     * Get metrics of the channel: message and byte counts, and per command counts and latency histograms.
+     * The returned object is updated by the channel, and it must be accessed only by the dispatch thread.
+     * @return channel metrics, or null if metrics collection was not enabled when the channel was created,
+     * see {@link ChannelMetrics#setEnabled(boolean)}.
+     * @since 1.8
+     */
+    public ChannelMetrics getMetrics() {
+        assert Protocol.isDispatchThread();
+        return metrics;
+    }
+
+    /**
+     * @return number of messages waiting in the output queue.
+     */
+    int getOutputQueueSize() {
+        synchronized (out_queue) {
+            return out_queue.size();
+        }
+    }
+
+    /**
+     * @return number of registered channel listeners.
+     */
+    int getChannelListenerCount() {
+        return channel_listeners.size();
+    }
+
+    /**
+     * @return number of registered event listeners of all services.
+     */
+    int getEventListenerCount() {
+        int cnt = 0;
+        for (IChannel.IEventListener[] list : event_listeners.values()) cnt += list.length;
+        return cnt;
+    }
+
+    /**
+     * Get congestion control statistics of the channel.
+     * Number of commands the channel can keep pending before it reports congestion
+     * is adjusted according to measured command round-trip times, unless
+     * system property "org.eclipse.tcf.core.congestion_window" is set to "false".
+     * Must be called from the dispatch thread.
+     * @return statistics snapshot.
+     * @since 1.8
+     */
+    public CongestionStatistics getCongestionStatistics() {
+        assert Protocol.isDispatchThread();
+        return new CongestionStatistics(congestion, out_tokens.size(), local_congestion_level);
     }
 
     public IPeer getLocalPeer() {
@@ -958,16 +1159,226 @@ public abstract class AbstractChannel implements IChannel {
 
     private void addToOutQueue(Message msg) {
         msg.trace = trace_listeners;
+        if (metrics != null) msg.metrics = metrics.onMessageSent(msg);
+        if (batch_level > 0 || auto_batching) {
+            batch.add(msg);
+            if (batch_level == 0 && !batch_posted) {
+                batch_posted = true;
+                Protocol.invokeLater(new Runnable() {
+                    public void run() {
+                        batch_posted = false;
+                        if (batch_level == 0) flushBatch();
+                    }
+                });
+            }
+            return;
+        }
         synchronized (out_queue) {
             out_queue.add(msg);
             out_queue.notifyAll();
         }
+        onOutputQueued();
+    }
+
+    private void flushBatch() {
+        if (batch.isEmpty()) return;
+        if (metrics != null) metrics.onBatchFlushed(batch.size());
+        synchronized (out_queue) {
+            out_queue.addAll(batch);
+            out_queue.notifyAll();
+        }
+        batch.clear();
+        onOutputQueued();
+    }
+
+    /**
+     * Start a batch of messages.
+     * Messages sent by the dispatch thread after this call, including commands, results and events,
+     * are held by the channel until matching {@link #endBatch()}, and then they are passed to the
+     * transmitter at once, so the transmitter writes them to the transport as a single burst.
+     * It is useful when a client sends many small commands, for example, to retrieve properties of
+     * every thread of a target: the transmitter is woken up once per batch instead of once per command.
+     * Message order and command callbacks are not affected.
+     * Batches can be nested, messages are released when the outermost batch ends.
+     * @since 1.8
+     */
+    public void startBatch() {
+        assert Protocol.isDispatchThread();
+        batch_level++;
+    }
+
+    /**
+     * End a batch of messages, see {@link #startBatch()}.
+     * @since 1.8
+     */
+    public void endBatch() {
+        assert Protocol.isDispatchThread();
+        assert batch_level > 0;
+        if (--batch_level == 0) flushBatch();
+    }
+
+    /**
+     * Enable or disable automatic batching of outgoing messages.
+     * When enabled, messages sent by the dispatch thread are held by the channel until the dispatch thread
+     * runs events that are already in the event queue, and then passed to the transmitter as one batch.
+     * It collects commands that are sent by different events of the same dispatch cycle, for example,
+     * by a debugger model that handles a burst of viewer update requests,
+     * at the cost of small additional latency of every message.
+     * Default is value of system property "org.eclipse.tcf.core.auto_batch", or false if not set.
+     * @param enable - true to enable automatic batching.
+     * @since 1.8
+     */
+    public void setAutoBatching(boolean enable) {
+        assert Protocol.isDispatchThread();
+        auto_batching = enable;
+        if (!enable && batch_level == 0) flushBatch();
+    }
+
+    /**
+     * @return true if automatic batching of outgoing messages is enabled.
+     * @since 1.8
+     */
+    public boolean isAutoBatching() {
+        return auto_batching;
+    }
+
+    /**
+     * Enable or disable coalescing of a read-only command.
+     * When enabled, a command that is identical - same service, name and arguments - to a command
+     * that is already waiting for result is not sent, instead, it gets the result of the pending command.
+     * This reduces traffic when several clients, like different views of a debugger, request same data at same time.
+     * Optionally, results are kept in a cache for a short time, and identical commands are served from the cache.
+     * Any event of the service invalidates the cached results, and commands that are sent after the event
+     * are not merged with commands that were sent before it.
+     * Only commands which results depend solely on their arguments and state reported by the service events
+     * should be coalesced.
+     * Numbers of coalesced commands and cache hits are reported by {@link #getMetrics()}.
+     * @param service - service name.
+     * @param command - command name.
+     * @param ttl - time to keep results in the cache in milliseconds, 0 - do not cache results,
+     * negative value disables coalescing of the command.
+     * @since 1.8
+     */
+    public void setCommandCoalescing(String service, String command, long ttl) {
+        assert Protocol.isDispatchThread();
+        if (coalescer == null) {
+            if (ttl < 0) return;
+            coalescer = new CommandCoalescer(this, metrics);
+        }
+        coalescer.setRule(service, command, ttl);
+        if (coalescer.isEmpty()) coalescer = null;
+    }
+
+    /**
+     * Called after a message is added to the output queue.
+     * The method can be called by any thread.
+     * Default implementation does nothing - the transmitter thread is notified through the queue monitor.
+     * Subclasses that override {@link #startIO()} should use this method to schedule
+     * a call of {@link #pollOutput()}.
+     * @since 1.8
+     */
+    protected void onOutputQueued() {
+    }
+
+    /**
+     * Remove next message from the output queue.
+     * Canceled messages are skipped, returned message is marked as sent, and trace listeners are notified.
+     * The method can be called by any thread, but it is expected to be called by a single I/O thread at a time.
+     * @return next message to transmit, {@link #END_OF_STREAM} if the channel output should be
+     * terminated by End Of Stream marker, or null if the queue is empty.
+     * @since 1.8
+     */
+    protected final Message pollOutput() {
+        Message msg = null;
+        synchronized (out_queue) {
+            for (;;) {
+                if (out_queue.isEmpty()) return null;
+                msg = out_queue.removeFirst();
+                if (msg == null) {
+                    out_queue.clear();
+                    return END_OF_STREAM;
+                }
+                if (!msg.is_canceled) break;
+            }
+            msg.is_sent = true;
+            if (msg.type == 'C') msg.sent_time = System.nanoTime();
+        }
+        if (msg.trace != null) notifyMessageSent(msg);
+        return msg;
+    }
+
+    /**
+     * Remove a batch of messages from the output queue.
+     * Canceled messages are skipped, returned messages are marked as sent,
+     * and trace listeners are notified about all of them by a single dispatch thread event.
+     * @param list - list to add the messages to.
+     * @param max - max number of messages to remove.
+     * @return true if the channel output should be terminated by End Of Stream marker.
+     */
+    final boolean pollOutput(List<Message> list, int max) {
+        boolean eos = false;
+        int start = list.size();
+        int traced = 0;
+        synchronized (out_queue) {
+            while (max > 0 && !out_queue.isEmpty()) {
+                Message msg = out_queue.removeFirst();
+                if (msg == null) {
+                    out_queue.clear();
+                    eos = true;
+                    break;
+                }
+                if (msg.is_canceled) continue;
+                msg.is_sent = true;
+                if (msg.type == 'C') msg.sent_time = System.nanoTime();
+                if (msg.trace != null) traced++;
+                list.add(msg);
+                max--;
+            }
+        }
+        if (traced > 0) {
+            final Message[] arr = new Message[traced];
+            int i = 0;
+            for (int j = start; j < list.size(); j++) {
+                Message msg = list.get(j);
+                if (msg.trace != null) arr[i++] = msg;
+            }
+            Protocol.invokeLater(new Runnable() {
+                public void run() {
+                    for (Message m : arr) notifyMessageSent(m.trace, m);
+                }
+            });
+        }
+        return eos;
+    }
+
+    private void notifyMessageSent(Collection<TraceListener> trace, Message m) {
+        for (TraceListener l : trace) {
+            try {
+                l.onMessageSent(m.type, m.token == null ? null : m.token.getID(),
+                        m.service, m.name, m.data);
+            }
+            catch (Throwable x) {
+                Protocol.log("Exception in channel listener", x);
+            }
+        }
+    }
+
+    private void notifyMessageSent(final Message m) {
+        Protocol.invokeLater(new Runnable() {
+            public void run() {
+                notifyMessageSent(m.trace, m);
+            }
+        });
     }
 
     public IToken sendCommand(IService service, String name, byte[] args, ICommandListener listener) {
         assert Protocol.isDispatchThread();
         if (state == STATE_OPENING) throw new Error("Channel is waiting for Hello message");
         if (state == STATE_CLOSED) throw new Error("Channel is closed");
+        if (coalescer != null) {
+            IToken t = coalescer.sendCommand(service, name, args, listener);
+            if (t != null) return t;
+        }
         final Message msg = new Message('C');
         msg.service = service.getName();
         msg.name = name;
@@ -983,11 +1394,17 @@ public abstract class AbstractChannel implements IChannel {
                     msg.is_canceled = true;
                 }
                 out_tokens.remove(getID());
+                parse_tokens.remove(getID());
+                if (msg.metrics != null) metrics.onCommandAborted(msg.metrics);
                 return true;
             }
         };
         msg.token = token;
+        if (metrics != null) msg.create_time = System.nanoTime();
         out_tokens.put(token.getID(), msg);
+        if (parse_results && listener instanceof Command) {
+            parse_tokens.put(token.getID(), ((Command)listener).isBinarySliceSupported());
+        }
         addToOutQueue(msg);
         return token;
     }
@@ -1060,6 +1477,55 @@ public abstract class AbstractChannel implements IChannel {
         return zero_copy;
     }
 
+    /**
+     * Enable or disable parsing of command results by the channel I/O thread.
+     * When enabled, JSON data of results of commands sent with {@link Command}
+     * is parsed before the result is passed to the dispatch thread, and {@link Command#done(Exception, Object[])}
+     * receives pre-parsed arguments. It reduces dispatch thread load when commands return large replies.
+     * Message order is not affected. Command.result(IToken, byte[]) is not called for such commands.
+     * The setting applies to commands sent after the call.
+     * Default is value of system property "org.eclipse.tcf.core.parse_results", or false if not set.
+     * @param enable - true to parse results by the I/O thread.
+     * @since 1.8
+     */
+    public void setResultParsing(boolean enable) {
+        assert Protocol.isDispatchThread();
+        parse_results = enable;
+    }
+
+    /**
+     * @return true if command results are parsed by the channel I/O thread.
+     * @since 1.8
+     */
+    public boolean isResultParsing() {
+        return parse_results;
+    }
+
+    /**
+     * Enable or disable compression of large outgoing messages.
+     * Compression reduces amount of data sent over slow links at the cost of CPU time.
+     * It is used only if the directly connected peer advertises support of compression in its Hello message,
+     * so older peers are not affected. Hello messages of peers reached through {@link #redirect(String)}
+     * don't change it, since the compressed data is decoded by the directly connected peer. Only messages sent by batch output are compressed,
+     * see system property "org.eclipse.tcf.core.batch_output".
+     * Default is true if system property "org.eclipse.tcf.core.compression" is "true".
+     * @param enable - true to compress outgoing messages.
+     * @since 1.8
+     */
+    public void setCompression(boolean enable) {
+        assert Protocol.isDispatchThread();
+        compression_enabled = enable;
+        compression = compression_enabled && remote_compression;
+    }
+
+    /**
+     * @return true if large outgoing messages are compressed.
+     * @since 1.8
+     */
+    public boolean isCompression() {
+        return compression;
+    }
+
     /**
      * Handles the message received from the channel
      * @param msg
@@ -1092,12 +1558,23 @@ public abstract class AbstractChannel implements IChannel {
             case 'N':
                 String token_id = msg.token.getID();
                 cmd = msg.type == 'P' ? out_tokens.get(token_id) : out_tokens.remove(token_id);
+                /* 'R' entries are removed by parseResult(), a rejected command leaves its entry */
+                if (msg.type == 'N') parse_tokens.remove(token_id);
                 if (cmd == null) {
                     throw new Exception("Invalid token received: " + token_id);
                 }
                 token = cmd.token;
+                if (msg.type != 'P') congestion.onResult(cmd.sent_time, System.nanoTime());
                 break;
             }
+            if (metrics != null) {
+                ChannelMetrics.CommandMetrics m = cmd != null ? cmd.metrics : null;
+                metrics.onMessageReceived(msg, m);
+                if (m != null) {
+                    if (msg.type == 'R') metrics.onCommandDone(m, System.nanoTime() - cmd.create_time);
+                    else if (msg.type == 'N') metrics.onCommandAborted(m);
+                }
+            }
             switch (msg.type) {
             case 'C':
                 assert msg.service != null;
@@ -1124,7 +1601,8 @@ public abstract class AbstractChannel implements IChannel {
                 sendCongestionLevel();
                 break;
             case 'R':
-                token.getListener().result(token, msg.data);
+                if (msg.args_parsed) ((Command)token.getListener()).result(token, msg.args, msg.args_error);
+                else token.getListener().result(token, msg.data);
                 sendCongestionLevel();
                 break;
             case 'N':
@@ -1143,12 +1621,17 @@ public abstract class AbstractChannel implements IChannel {
                 assert msg.service != null;
                 assert msg.name != null;
                 boolean hello = msg.service.equals(ILocator.NAME) && msg.name.equals("Hello");
+                if (coalescer != null) coalescer.onEvent(msg.service);
                 if (hello) {
                     remote_service_by_name.clear();
                     remote_service_by_class.clear();
                     ServiceManager.onChannelOpened(this, (Collection<String>)JSON.parseSequence(msg.data)[0], remote_service_by_name);
                     makeServiceByClassMap(remote_service_by_name, remote_service_by_class);
                     zero_copy = remote_service_by_name.containsKey("ZeroCopy");
+                    if (!redirected) {
+                        remote_compression = remote_service_by_name.containsKey(COMPRESSION);
+                        compression = compression_enabled && remote_compression;
+                    }
                 }
                 if (proxy != null && state == STATE_OPEN) {
                     proxy.onEvent(msg.service, msg.name, msg.data);
@@ -1196,7 +1679,7 @@ public abstract class AbstractChannel implements IChannel {
             case 'F':
                 int len = msg.data.length;
                 if (len > 0 && msg.data[len - 1] == 0) len--;
-                remote_congestion_level = Integer.parseInt(new String(msg.data, 0, len, "ASCII"));
+                congestion.setRemoteLevel(Integer.parseInt(new String(msg.data, 0, len, "ASCII")));
                 for (IChannelListener l : channel_listeners.toArray(
                         new IChannelListener[channel_listeners.size()])) {
                     try {
@@ -1217,6 +1700,35 @@ public abstract class AbstractChannel implements IChannel {
         }
     }
 
+    /**
+     * Handles end of the channel input stream.
+     * The channel is closed normally if there are no pending commands and no error report,
+     * otherwise it is terminated with an error.
+     * @param err_report - error report that was sent by the remote peer
+     * after End Of Stream marker, or null.
+     * @since 1.8
+     */
+    protected void handleEndOfStream(byte[] err_report) {
+        assert Protocol.isDispatchThread();
+        if (out_tokens.isEmpty() && err_report == null && state != STATE_OPENING) {
+            close();
+        }
+        else {
+            IOException x = new IOException("Communication channel is closed by remote peer");
+            if (err_report != null) {
+                try {
+                    Object[] args = JSON.parseSequence(err_report);
+                    if (args.length > 0 && args[0] != null) {
+                        x.initCause(new Exception(Command.toErrorString(args[0])));
+                    }
+                }
+                catch (IOException e) {
+                }
+            }
+            terminate(x);
+        }
+    }
+
     /**
      *
      * @throws IOException
@@ -1253,15 +1765,22 @@ public abstract class AbstractChannel implements IChannel {
             msg.trace = trace_listeners;
             local_congestion_level = level;
         }
+        congestion.setLocalLevel(level);
+        onOutputQueued();
     }
 
     /**
      * Read one byte from the channel input stream.
+     * Called by the receiver thread that is started by the default implementation of {@link #startIO()}.
+     * Default implementation does not support blocking input,
+     * subclasses that use the receiver thread must override the method.
      * @return next data byte or EOS (-1) if end of stream is reached,
      * or EOM (-2) if end of message is reached.
      * @throws IOException
      */
-    protected abstract int read() throws IOException;
+    protected int read() throws IOException {
+        throw new IOException("Blocking input is not supported by the channel");
+    }
 
     /**
      * Write one byte into the channel output stream.
@@ -1269,17 +1788,23 @@ public abstract class AbstractChannel implements IChannel {
      *   EOS (-1) end of stream marker;
      *   EOM (-2) end of message marker.
      * The stream can put the byte into a buffer instead of transmitting it right away.
+     * Default implementation does not support blocking output,
+     * subclasses that use the transmitter thread must override the method.
      * @param n - the data byte.
      * @throws IOException
      */
-    protected abstract void write(int n) throws IOException;
+    protected void write(int n) throws IOException {
+        throw new IOException("Blocking output is not supported by the channel");
+    }
 
     /**
      * Flush the channel output stream.
      * All buffered data should be transmitted immediately.
+     * Default implementation does nothing.
      * @throws IOException
      */
-    protected abstract void flush() throws IOException;
+    protected void flush() throws IOException {
+    }
 
     /**
      * Stop (close) channel underlying streams.
@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.core;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * ByteRing is a lock-free single-producer single-consumer ring buffer of bytes.
+ *
+ * Data is copied in and out in blocks. Read and write positions are counters that
+ * only grow, each one is updated by one thread only. A thread that has to wait
+ * for data or free space is parked, and the other thread unparks it after updating
+ * its position, so the ring does not use locks or monitor notifications.
+ */
+final class ByteRing {
+
+    private final byte[] buf;
+    private final int mask;
+
+    /** Read position, updated by the consumer */
+    private final AtomicLong head = new AtomicLong();
+
+    /** Write position, updated by the producer */
+    private final AtomicLong tail = new AtomicLong();
+
+    private volatile Thread reader;
+    private volatile Thread writer;
+    private volatile boolean closed;
+
+    /**
+     * @param size - ring capacity, rounded up to a power of two.
+     */
+    ByteRing(int size) {
+        int n = 0x100;
+        while (n < size) n <<= 1;
+        buf = new byte[n];
+        mask = n - 1;
+    }
+
+    /**
+     * Read available bytes, wait if the ring is empty.
+     * @return number of bytes read, or -1 if the ring is closed and all data was read.
+     * @throws InterruptedIOException
+     */
+    int read(byte[] b, int pos, int len) throws InterruptedIOException {
+        if (len == 0) return 0;
+        long h = head.get();
+        long t;
+        for (;;) {
+            t = tail.get();
+            if (t != h) break;
+            if (closed) {
+                t = tail.get();
+                if (t != h) break;
+                return -1;
+            }
+            reader = Thread.currentThread();
+            if (tail.get() == h && !closed) LockSupport.park(this);
+            reader = null;
+            if (Thread.interrupted()) throw new InterruptedIOException();
+        }
+        int n = (int)Math.min(t - h, len);
+        int p = (int)h & mask;
+        int m = Math.min(n, buf.length - p);
+        System.arraycopy(buf, p, b, pos, m);
+        if (m < n) System.arraycopy(buf, 0, b, pos + m, n - m);
+        head.set(h + n);
+        Thread w = writer;
+        if (w != null) LockSupport.unpark(w);
+        return n;
+    }
+
+    /**
+     * Write bytes, wait while the ring is full.
+     * If the ring is closed, remaining data is discarded.
+     * @throws InterruptedIOException
+     */
+    void write(byte[] b, int pos, int len) throws InterruptedIOException {
+        long t = tail.get();
+        while (len > 0) {
+            if (closed) return;
+            long h = head.get();
+            int free = buf.length - (int)(t - h);
+            if (free == 0) {
+                writer = Thread.currentThread();
+                if (head.get() == h && !closed) LockSupport.park(this);
+                writer = null;
+                if (Thread.interrupted()) throw new InterruptedIOException();
+                continue;
+            }
+            int n = Math.min(free, len);
+            int p = (int)t & mask;
+            int m = Math.min(n, buf.length - p);
+            System.arraycopy(b, pos, buf, p, m);
+            if (m < n) System.arraycopy(b, pos + m, buf, 0, n - m);
+            t += n;
+            pos += n;
+            len -= n;
+            tail.set(t);
+            Thread r = reader;
+            if (r != null) LockSupport.unpark(r);
+        }
+    }
+
+    /**
+     * Close the ring: the reader gets end of stream after all data is read,
+     * the writer discards data, waiting threads are released.
+     */
+    void close() {
+        closed = true;
+        Thread r = reader;
+        if (r != null) LockSupport.unpark(r);
+        Thread w = writer;
+        if (w != null) LockSupport.unpark(w);
+    }
+}
@@ -0,0 +1,505 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IEventQueue;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.util.TCFEventQueue;
+
+/**
+ * ChannelMetrics collects statistics of a channel: number of messages and bytes
+ * sent and received, and, per service and command name, number of commands, commands in flight,
+ * bytes of command arguments and results, and histograms of command latency.
+ * Command latency is the time from sending a command until its result is received.
+ *
+ * Collection is opt-in: metrics are collected only for channels that are created after
+ * {@link #setEnabled(boolean) setEnabled(true)} is called, {@link AbstractChannel#getMetrics()}
+ * returns null for other channels. The initial value of the switch is true if system property
+ * "org.eclipse.tcf.core.metrics" or "org.eclipse.tcf.core.jmx" is set to "true".
+ * The object is updated by the dispatch thread, and it should be accessed only by the dispatch thread.
+ *
+ * @since 1.8
+ */
+public final class ChannelMetrics {
+
+    private static volatile boolean enabled =
+        Boolean.getBoolean("org.eclipse.tcf.core.metrics") || Boolean.getBoolean("org.eclipse.tcf.core.jmx");
+
+    /**
+     * Enable or disable metrics collection. The setting applies to channels that are created after the call.
+     * The method can be invoked from any thread.
+     * @param on - true to collect metrics.
+     */
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    /**
+     * Check if metrics are collected for new channels.
+     * @return true if collection is enabled.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Histogram of values with bounded relative error, similar to HDR histogram.
+     * Values below 32 are counted exactly, larger values are counted in 16 buckets per power of two,
+     * so relative error of percentiles is less than 1/16. Values are clamped to MAX_VALUE.
+     */
+    public static final class Histogram {
+
+        private static final int SUB_BITS = 4;
+        private static final int SUB_CNT = 1 << SUB_BITS;
+        private static final int MAX_BITS = 36;
+
+        /** Max value that can be recorded, larger values are clamped */
+        public static final long MAX_VALUE = (1L << MAX_BITS) - 1;
+
+        private final long[] counts = new long[(MAX_BITS - SUB_BITS + 1) * SUB_CNT];
+        private long count;
+        private long total;
+        private long min = Long.MAX_VALUE;
+        private long max;
+
+        private static int getIndex(long value) {
+            if (value < SUB_CNT * 2) return (int)value;
+            int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+            return (shift + 1) * SUB_CNT + (int)(value >> shift) - SUB_CNT;
+        }
+
+        private static long getUpperBound(int index) {
+            if (index < SUB_CNT * 2) return index;
+            int shift = index / SUB_CNT - 1;
+            long sub = index - shift * SUB_CNT;
+            return ((sub + 1) << shift) - 1;
+        }
+
+        /**
+         * Add a value to the histogram.
+         * @param value - the value, negative values are counted as 0.
+         */
+        public void record(long value) {
+            if (value < 0) value = 0;
+            if (value > MAX_VALUE) value = MAX_VALUE;
+            counts[getIndex(value)]++;
+            count++;
+            total += value;
+            if (value < min) min = value;
+            if (value > max) max = value;
+        }
+
+        /**
+         * Add all values of another histogram to this histogram.
+         * @param h - the histogram to add.
+         */
+        public void add(Histogram h) {
+            for (int i = 0; i < counts.length; i++) counts[i] += h.counts[i];
+            count += h.count;
+            total += h.total;
+            if (h.min < min) min = h.min;
+            if (h.max > max) max = h.max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMin() {
+            return count == 0 ? 0 : min;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public double getMean() {
+            return count == 0 ? 0 : (double)total / count;
+        }
+
+        /**
+         * Get value at given percentile.
+         * @param percentile - the percentile, 0..100.
+         * @return highest value that is equivalent to the value at the percentile, 0 if the histogram is empty.
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (count == 0) return 0;
+            long n = (long)Math.ceil(count * percentile / 100);
+            if (n < 1) n = 1;
+            long cnt = 0;
+            for (int i = 0; i < counts.length; i++) {
+                cnt += counts[i];
+                if (cnt >= n) {
+                    long v = getUpperBound(i);
+                    return v > max ? max : v;
+                }
+            }
+            return max;
+        }
+    }
+
+    /**
+     * Statistics of a command.
+     */
+    public static final class CommandMetrics {
+
+        private final String service;
+        private final String name;
+        private final Histogram latency = new Histogram();
+        private long count;
+        private long pending;
+        private long aborted;
+        private long coalesced;
+        private long cache_hits;
+        private long bytes_sent;
+        private long bytes_received;
+
+        CommandMetrics(String service, String name) {
+            this.service = service;
+            this.name = name;
+        }
+
+        public String getService() {
+            return service;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return number of commands sent.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return number of commands waiting for results.
+         */
+        public long getPending() {
+            return pending;
+        }
+
+        /**
+         * @return number of commands that were cancelled, rejected by the remote peer
+         * or aborted because the channel was closed.
+         */
+        public long getAborted() {
+            return aborted;
+        }
+
+        /**
+         * @return number of commands that were not sent because an identical command was pending,
+         * see {@link AbstractChannel#setCommandCoalescing(String, String, long)}.
+         * Memory "get" requests that wait for pages being read by other requests are counted as coalesced.
+         */
+        public long getCoalesced() {
+            return coalesced;
+        }
+
+        /**
+         * @return number of commands that were not sent because the result was cached,
+         * see {@link AbstractChannel#setCommandCoalescing(String, String, long)}.
+         * Memory "get" requests served by the memory cache are counted as cache hits.
+         */
+        public long getCacheHits() {
+            return cache_hits;
+        }
+
+        /**
+         * @return fraction of requests that were coalesced or served from the cache, from 0 to 1.
+         */
+        public double getHitRate() {
+            long hits = coalesced + cache_hits;
+            if (hits == 0) return 0;
+            return (double)hits / (count + hits);
+        }
+
+        /**
+         * @return total size of command arguments in bytes.
+         */
+        public long getBytesSent() {
+            return bytes_sent;
+        }
+
+        /**
+         * @return total size of command progress and result data in bytes.
+         */
+        public long getBytesReceived() {
+            return bytes_received;
+        }
+
+        /**
+         * @return histogram of command latency in microseconds.
+         */
+        public Histogram getLatency() {
+            return latency;
+        }
+    }
+
+    private static final Comparator<CommandMetrics> total_time_comparator = new Comparator<CommandMetrics>() {
+        public int compare(CommandMetrics x, CommandMetrics y) {
+            if (x.latency.total > y.latency.total) return -1;
+            if (x.latency.total < y.latency.total) return +1;
+            return 0;
+        }
+    };
+
+    private final AbstractChannel channel;
+    private final Map<String,Map<String,CommandMetrics>> commands = new HashMap<String,Map<String,CommandMetrics>>();
+    private final long start_time = System.currentTimeMillis();
+    private long messages_sent;
+    private long messages_received;
+    private long bytes_sent;
+    private long bytes_received;
+    private long pending;
+    private final Histogram batch_sizes = new Histogram();
+
+    ChannelMetrics(AbstractChannel channel) {
+        this.channel = channel;
+    }
+
+    private CommandMetrics getCommand(String service, String name) {
+        Map<String,CommandMetrics> m = commands.get(service);
+        if (m == null) commands.put(service, m = new HashMap<String,CommandMetrics>());
+        CommandMetrics c = m.get(name);
+        if (c == null) m.put(name, c = new CommandMetrics(service, name));
+        return c;
+    }
+
+    /**
+     * Called when a message is added to the output queue.
+     * @return command statistics if the message is a command, null otherwise.
+     */
+    CommandMetrics onMessageSent(AbstractChannel.Message msg) {
+        int size = msg.data != null ? msg.data.length : 0;
+        messages_sent++;
+        bytes_sent += size;
+        if (msg.type != 'C') return null;
+        CommandMetrics c = getCommand(msg.service, msg.name);
+        c.count++;
+        c.pending++;
+        c.bytes_sent += size;
+        pending++;
+        return c;
+    }
+
+    /**
+     * Called when a message is received.
+     * @param cmd - statistics of the command if the message is a command response, null otherwise.
+     */
+    void onMessageReceived(AbstractChannel.Message msg, CommandMetrics cmd) {
+        int size = msg.data != null ? msg.data.length : 0;
+        messages_received++;
+        bytes_received += size;
+        if (cmd != null) cmd.bytes_received += size;
+    }
+
+    /**
+     * Called when a command result is received.
+     * @param time - command latency in nanoseconds.
+     */
+    void onCommandDone(CommandMetrics cmd, long time) {
+        cmd.pending--;
+        pending--;
+        cmd.latency.record(time / 1000);
+    }
+
+    /**
+     * Called when a command is cancelled, rejected or aborted.
+     */
+    void onCommandAborted(CommandMetrics cmd) {
+        cmd.pending--;
+        pending--;
+        cmd.aborted++;
+    }
+
+    /**
+     * Called when a command is attached to an identical pending command instead of being sent.
+     * Service proxies that merge requests call the method to make the requests visible in the metrics.
+     * @param service - service name.
+     * @param name - command name.
+     */
+    public void onCommandCoalesced(String service, String name) {
+        getCommand(service, name).coalesced++;
+    }
+
+    /**
+     * Called when a command result is served from the coalescing cache, or from a cache of a service proxy.
+     * @param service - service name.
+     * @param name - command name.
+     */
+    public void onCommandCached(String service, String name) {
+        getCommand(service, name).cache_hits++;
+    }
+
+    /**
+     * Called when a batch of messages is passed to the transmitter.
+     * @param size - number of messages in the batch.
+     */
+    void onBatchFlushed(int size) {
+        batch_sizes.record(size);
+    }
+
+    /**
+     * @return histogram of number of messages per batch,
+     * see {@link AbstractChannel#startBatch()} and {@link AbstractChannel#setAutoBatching(boolean)}.
+     */
+    public Histogram getBatchSizes() {
+        return batch_sizes;
+    }
+
+    /**
+     * @return time when the metrics collection started, same as System.currentTimeMillis().
+     */
+    public long getStartTime() {
+        return start_time;
+    }
+
+    public long getMessagesSent() {
+        return messages_sent;
+    }
+
+    public long getMessagesReceived() {
+        return messages_received;
+    }
+
+    /**
+     * @return total size of data of sent messages in bytes, not including message headers.
+     */
+    public long getBytesSent() {
+        return bytes_sent;
+    }
+
+    /**
+     * @return total size of data of received messages in bytes, not including message headers.
+     */
+    public long getBytesReceived() {
+        return bytes_received;
+    }
+
+    /**
+     * @return number of commands waiting for results.
+     */
+    public long getPendingCommands() {
+        return pending;
+    }
+
+    /**
+     * @return number of messages waiting in the channel output queue.
+     */
+    public int getOutputQueueSize() {
+        return channel.getOutputQueueSize();
+    }
+
+    /**
+     * @return number of channel listeners, see {@link IChannel#addChannelListener(IChannel.IChannelListener)}.
+     */
+    public int getChannelListenerCount() {
+        return channel.getChannelListenerCount();
+    }
+
+    /**
+     * @return number of event listeners of all services,
+     * see {@link IChannel#addEventListener(org.eclipse.tcf.protocol.IService, IChannel.IEventListener)}.
+     */
+    public int getEventListenerCount() {
+        return channel.getEventListenerCount();
+    }
+
+    /**
+     * @return number of events waiting in the dispatch queue, or -1 if the event queue does not report it.
+     */
+    public int getDispatchQueueSize() {
+        IEventQueue queue = Protocol.getEventQueue();
+        if (queue instanceof TCFEventQueue) return ((TCFEventQueue)queue).getQueueSize();
+        return -1;
+    }
+
+    /**
+     * Get statistics of a command.
+     * @param service - service name.
+     * @param name - command name.
+     * @return command statistics, or null if the command was not sent.
+     */
+    public CommandMetrics getCommandMetrics(String service, String name) {
+        Map<String,CommandMetrics> m = commands.get(service);
+        if (m == null) return null;
+        return m.get(name);
+    }
+
+    /**
+     * @return statistics of all commands sent through the channel,
+     * sorted by total latency, most time consuming commands first.
+     */
+    public List<CommandMetrics> getCommandMetrics() {
+        List<CommandMetrics> list = new ArrayList<CommandMetrics>();
+        for (Map<String,CommandMetrics> m : commands.values()) list.addAll(m.values());
+        Collections.sort(list, total_time_comparator);
+        return list;
+    }
+
+    /**
+     * Get a text report of the channel metrics, one line per command.
+     * Latencies are reported in milliseconds.
+     * @return the report.
+     */
+    public String getReport() {
+        StringBuffer bf = new StringBuffer();
+        bf.append("Messages sent ").append(messages_sent);
+        bf.append(", received ").append(messages_received);
+        bf.append("; bytes sent ").append(bytes_sent);
+        bf.append(", received ").append(bytes_received);
+        bf.append("; pending commands ").append(pending);
+        bf.append("; output queue ").append(getOutputQueueSize());
+        bf.append("; dispatch queue ").append(getDispatchQueueSize());
+        if (batch_sizes.getCount() > 0) {
+            bf.append("; batches ").append(batch_sizes.getCount());
+            bf.append(" mean size ").append((long)batch_sizes.getMean());
+            bf.append(" max ").append(batch_sizes.getMax());
+        }
+        bf.append('\n');
+        for (CommandMetrics c : getCommandMetrics()) {
+            Histogram h = c.latency;
+            bf.append(c.service).append('.').append(c.name);
+            bf.append(": count ").append(c.count);
+            bf.append(", pending ").append(c.pending);
+            bf.append(", aborted ").append(c.aborted);
+            if (c.coalesced + c.cache_hits > 0) {
+                bf.append(", coalesced ").append(c.coalesced);
+                bf.append(", cached ").append(c.cache_hits);
+            }
+            bf.append(", bytes ").append(c.bytes_sent).append('/').append(c.bytes_received);
+            bf.append(", latency total ").append(toMillis(h.total));
+            bf.append(" mean ").append(toMillis((long)h.getMean()));
+            bf.append(" p50 ").append(toMillis(h.getValueAtPercentile(50)));
+            bf.append(" p99 ").append(toMillis(h.getValueAtPercentile(99)));
+            bf.append(" max ").append(toMillis(h.getMax()));
+            bf.append('\n');
+        }
+        return bf.toString();
+    }
+
+    private static String toMillis(long us) {
+        long ms = us / 1000;
+        int fr = (int)(us % 1000) / 10;
+        return ms + (fr < 10 ? ".0" : ".") + fr;
+    }
+}
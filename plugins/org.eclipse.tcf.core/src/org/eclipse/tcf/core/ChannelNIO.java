@@ -0,0 +1,407 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.core;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.tcf.protocol.IPeer;
+import org.eclipse.tcf.protocol.Protocol;
+
+/**
+ * ChannelNIO is a IChannel implementation that works on top of non-blocking TCP sockets.
+ *
+ * The channel uses same wire format as StreamChannel and ChannelTCP, but instead of
+ * dedicated receiver and transmitter threads, socket I/O is done by a small shared pool of
+ * java.nio selector threads. Connecting the socket does not need a thread either.
+ * It allows a client to keep hundreds of channels open without consuming two threads per channel.
+ *
+ * Received messages are decoded by the selector thread and dispatched in the TCF dispatch
+ * thread, same as with other channel implementations. While decoded messages are waiting
+ * for the dispatch thread, the channel does not read the socket.
+ *
+ * SSL is not supported by this implementation, use ChannelTCP for secure connections.
+ * @since 1.8
+ */
+public class ChannelNIO extends AbstractChannel implements SelectorPool.Handler {
+
+    /** Max size of encoded output that is waiting for the socket to become writable */
+    private static final int OUT_BUF_LIMIT = 0x40000;
+
+    /** Max number of messages taken from the output queue at once */
+    private static final int OUT_BATCH_SIZE = 256;
+
+    /** Time to wait for End Of Stream to be transmitted when the channel is closed */
+    private static final long STOP_TIMEOUT = 10000;
+
+    private final SocketChannel socket;
+    private final SelectorPool.Worker worker;
+    private final InputDispatcher dispatcher = new InputDispatcher(this);
+    private final FrameDecoder decoder;
+    private final AtomicBoolean output_scheduled = new AtomicBoolean();
+
+    private final FrameEncoder encoder = new FrameEncoder(null);
+    private final ArrayList<Message> out_batch = new ArrayList<Message>();
+    private ByteBuffer out_bbf = ByteBuffer.wrap(encoder.buf);
+    private boolean out_eos;
+    private boolean out_done;
+
+    private SelectionKey key;
+    private boolean input_suspended;
+
+    /** Called by the dispatch thread when it takes posted input messages */
+    private final Runnable resume_input = new Runnable() {
+        public void run() {
+            worker.execute(new Runnable() {
+                public void run() {
+                    resumeInput();
+                }
+            });
+        }
+    };
+    private boolean connecting;
+    private int timeout;
+    private volatile boolean started;
+    private volatile boolean closed;
+
+    /**
+     * Construct a channel and connect it to a remote peer.
+     * @param remote_peer Remote Peer to which we want to connect
+     * @param host Hostname or IP Address of the Remote Peer
+     * @param port Port of the Remote Peer
+     */
+    public ChannelNIO(IPeer remote_peer, final String host, final int port) {
+        this(remote_peer, new Address() {
+            public SocketChannel open() throws IOException {
+                return SocketChannel.open();
+            }
+            public SocketAddress get() throws IOException {
+                InetSocketAddress addr = new InetSocketAddress(host, port);
+                if (addr.isUnresolved()) throw new UnknownHostException(host);
+                return addr;
+            }
+        });
+    }
+
+    /**
+     * Construct a channel on top of a connected socket, for example, a socket accepted by a server.
+     * @param local_peer local peer
+     * @param remote_peer remote peer
+     * @param socket connected socket channel
+     * @throws IOException
+     */
+    public ChannelNIO(IPeer local_peer, IPeer remote_peer, SocketChannel socket) throws IOException {
+        super(local_peer, remote_peer);
+        this.socket = socket;
+        worker = SelectorPool.getWorker();
+        decoder = new FrameDecoder(dispatcher);
+        socket.configureBlocking(false);
+        setSocketOptions();
+        onSocketConnected(null);
+    }
+
+    /**
+     * Remote address of a channel: creates a socket of proper type,
+     * and resolves the address by a selector thread right before connecting.
+     */
+    interface Address {
+        SocketChannel open() throws IOException;
+        SocketAddress get() throws IOException;
+    }
+
+    /**
+     * Construct a channel and connect it to a remote peer.
+     * @param remote_peer remote peer
+     * @param address remote address
+     */
+    ChannelNIO(IPeer remote_peer, final Address address) {
+        super(remote_peer);
+        SocketChannel socket = null;
+        SelectorPool.Worker w = null;
+        Throwable error = null;
+        try {
+            socket = address.open();
+            socket.configureBlocking(false);
+            w = SelectorPool.getWorker();
+        }
+        catch (Throwable x) {
+            error = x;
+        }
+        this.socket = socket;
+        worker = w;
+        decoder = new FrameDecoder(dispatcher);
+        if (error != null) {
+            onSocketConnected(error);
+            return;
+        }
+        Protocol.invokeLater(new Runnable() {
+            public void run() {
+                if (timeout > 0) {
+                    Protocol.invokeLater(timeout, new Runnable() {
+                        public void run() {
+                            worker.execute(new Runnable() {
+                                public void run() {
+                                    if (!connecting) return;
+                                    connecting = false;
+                                    onSocketConnected(new IOException("Connection timed out"));
+                                }
+                            });
+                        }
+                    });
+                }
+                worker.execute(new Runnable() {
+                    public void run() {
+                        try {
+                            connecting = true;
+                            key = ChannelNIO.this.socket.register(worker.getSelector(), 0, ChannelNIO.this);
+                            if (ChannelNIO.this.socket.connect(address.get())) {
+                                finishConnect();
+                            }
+                            else {
+                                key.interestOps(SelectionKey.OP_CONNECT);
+                            }
+                        }
+                        catch (Throwable x) {
+                            connecting = false;
+                            onSocketConnected(x);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Set socket options after the socket is connected.
+     * @throws IOException
+     */
+    protected void setSocketOptions() throws IOException {
+        socket.socket().setTcpNoDelay(true);
+        socket.socket().setKeepAlive(true);
+    }
+
+    public void setConnectTimeout(int timeout) {
+        this.timeout = timeout;
+    }
+
+    private void finishConnect() throws IOException {
+        assert worker.isWorkerThread();
+        if (!connecting) return;
+        if (!socket.finishConnect()) return;
+        connecting = false;
+        key.interestOps(0);
+        setSocketOptions();
+        onSocketConnected(null);
+    }
+
+    private void onSocketConnected(final Throwable x) {
+        Protocol.invokeLater(new Runnable() {
+            public void run() {
+                if (x != null) {
+                    terminate(x);
+                    closed = true;
+                }
+                if (closed) {
+                    closeSocket();
+                }
+                else {
+                    started = true;
+                    start();
+                }
+            }
+        });
+    }
+
+    @Override
+    protected void startIO() {
+        worker.execute(new Runnable() {
+            public void run() {
+                try {
+                    if (closed) return;
+                    if (key == null) key = socket.register(worker.getSelector(), 0, ChannelNIO.this);
+                    key.interestOps(SelectionKey.OP_READ);
+                    flushOutput();
+                }
+                catch (Throwable x) {
+                    onIOError(x);
+                }
+            }
+        });
+    }
+
+    @Override
+    protected void onOutputQueued() {
+        if (worker == null || !output_scheduled.compareAndSet(false, true)) return;
+        worker.execute(new Runnable() {
+            public void run() {
+                output_scheduled.set(false);
+                try {
+                    if (key == null || !key.isValid() || connecting) return;
+                    flushOutput();
+                }
+                catch (Throwable x) {
+                    onIOError(x);
+                }
+            }
+        });
+    }
+
+    @Override
+    boolean isDecompressionSupported() {
+        return true;
+    }
+
+    public void handleIO(SelectionKey key) {
+        try {
+            if (key.isConnectable()) finishConnect();
+            if (key.isValid() && key.isReadable()) readInput();
+            if (key.isValid() && key.isWritable()) flushOutput();
+        }
+        catch (Throwable x) {
+            if (connecting) {
+                connecting = false;
+                onSocketConnected(x);
+            }
+            else {
+                onIOError(x);
+            }
+        }
+    }
+
+    private void readInput() throws IOException {
+        ByteBuffer inp_buf = worker.getInputBuffer();
+        for (;;) {
+            if (decoder.isEndOfStream()) {
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+                return;
+            }
+            inp_buf.clear();
+            int n = socket.read(inp_buf);
+            if (n == 0) return;
+            if (n < 0) {
+                decoder.endOfInput();
+                continue;
+            }
+            decoder.decode(inp_buf.array(), 0, n);
+            dispatcher.flush();
+            if (dispatcher.suspend(resume_input)) {
+                /* Stop reading until the dispatch thread takes the posted messages */
+                input_suspended = true;
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+                return;
+            }
+            if (n < inp_buf.capacity()) return;
+        }
+    }
+
+    private void resumeInput() {
+        assert worker.isWorkerThread();
+        if (!input_suspended) return;
+        input_suspended = false;
+        if (key == null || !key.isValid() || decoder.isEndOfStream()) return;
+        key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+    }
+
+    private void flushOutput() throws IOException {
+        assert worker.isWorkerThread();
+        for (;;) {
+            while (encoder.len - encoder.pos < OUT_BUF_LIMIT && !out_eos) {
+                out_eos = pollOutput(out_batch, OUT_BATCH_SIZE);
+                if (out_batch.isEmpty() && !out_eos) break;
+                boolean zero_copy = isZeroCopySupported();
+                encoder.setCompression(compression);
+                for (Message msg : out_batch) encoder.writeMessage(msg, zero_copy);
+                out_batch.clear();
+                if (out_eos) encoder.writeEndOfStream();
+            }
+            if (encoder.pos == encoder.len) break;
+            if (out_bbf.array() != encoder.buf) out_bbf = ByteBuffer.wrap(encoder.buf);
+            out_bbf.limit(encoder.len);
+            out_bbf.position(encoder.pos);
+            socket.write(out_bbf);
+            encoder.pos = out_bbf.position();
+            if (encoder.pos < encoder.len) break;
+            encoder.pos = encoder.len = 0;
+        }
+        if (encoder.pos < encoder.len) {
+            key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+        }
+        else {
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+            if (out_eos) onOutputDone();
+        }
+    }
+
+    private synchronized void onOutputDone() {
+        out_done = true;
+        notifyAll();
+    }
+
+    private void onIOError(final Throwable x) {
+        if (key != null) key.cancel();
+        onOutputDone();
+        if (closed) return;
+        try {
+            Protocol.invokeLater(new Runnable() {
+                public void run() {
+                    terminate(x);
+                }
+            });
+        }
+        catch (IllegalStateException y) {
+            // TCF event dispatcher has shut down
+        }
+    }
+
+    private void closeSocket() {
+        Runnable r = new Runnable() {
+            public void run() {
+                try {
+                    if (key != null) key.cancel();
+                    if (socket != null) socket.close();
+                }
+                catch (IOException x) {
+                    Protocol.log("Cannot close socket", x);
+                }
+            }
+        };
+        if (worker != null) worker.execute(r);
+        else r.run();
+    }
+
+    @Override
+    protected void stop() throws IOException {
+        closed = true;
+        if (started) {
+            synchronized (this) {
+                long time = System.currentTimeMillis() + STOP_TIMEOUT;
+                while (!out_done) {
+                    long delay = time - System.currentTimeMillis();
+                    if (delay <= 0) break;
+                    try {
+                        wait(delay);
+                    }
+                    catch (InterruptedException x) {
+                        break;
+                    }
+                }
+            }
+            closeSocket();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.core;
+
+import java.io.IOException;
+
+import org.eclipse.tcf.protocol.IPeer;
+
+/**
+ * ChannelRing is a IChannel implementation that connects two end points in the same process.
+ * Each direction of the connection is a lock-free single-producer single-consumer ring buffer:
+ * the transmitter thread copies whole blocks of encoded messages into the ring, and
+ * the receiver thread of the other end decodes them straight out of the ring.
+ *
+ * The channel is intended for in-process agents and test setups,
+ * where cost of the transport should be negligible compared to the services under test.
+ * @since 1.8
+ */
+public class ChannelRing extends StreamChannel {
+
+    /** Capacity of each ring buffer in bytes */
+    public static final int RING_SIZE = 0x20000;
+
+    private final ByteRing inp;
+    private final ByteRing out;
+    private final byte[] inp_byte = new byte[1];
+    private final byte[] out_byte = new byte[1];
+
+    /**
+     * Construct a loopback channel: messages sent through the channel are received by the same channel.
+     * @param peer - the peer that represents both ends of the channel.
+     */
+    protected ChannelRing(IPeer peer) {
+        super(peer);
+        inp = out = new ByteRing(RING_SIZE);
+    }
+
+    private ChannelRing(IPeer remote_peer, ByteRing inp, ByteRing out) {
+        super(remote_peer);
+        this.inp = inp;
+        this.out = out;
+    }
+
+    private ChannelRing(IPeer local_peer, IPeer remote_peer, ByteRing inp, ByteRing out) {
+        super(local_peer, remote_peer);
+        this.inp = inp;
+        this.out = out;
+    }
+
+    /**
+     * Open a channel to an in-process server.
+     * Creates and starts both ends of the connection: the server end, which provides local services
+     * to the client same way as a channel accepted by ServerTCP, and the client end, which is returned.
+     * Must be called from the dispatch thread.
+     * @param server_peer - peer that represents the server, it is local peer of the server end
+     * and remote peer of the client end of the connection.
+     * @param client_peer - peer that represents the client, it is remote peer of the server end.
+     * @return the client end of the connection.
+     */
+    public static ChannelRing connect(IPeer server_peer, IPeer client_peer) {
+        ByteRing c2s = new ByteRing(RING_SIZE);
+        ByteRing s2c = new ByteRing(RING_SIZE);
+        ChannelRing server = new ChannelRing(server_peer, client_peer, c2s, s2c);
+        ChannelRing client = new ChannelRing(server_peer, s2c, c2s);
+        server.start();
+        client.start();
+        return client;
+    }
+
+    @Override
+    protected final int get() throws IOException {
+        if (inp.read(inp_byte, 0, 1) < 0) return -1;
+        return inp_byte[0] & 0xff;
+    }
+
+    @Override
+    protected final int get(byte[] buf) throws IOException {
+        return inp.read(buf, 0, buf.length);
+    }
+
+    @Override
+    protected final void put(int b) throws IOException {
+        assert b >= 0 && b <= 0xff;
+        out_byte[0] = (byte)b;
+        out.write(out_byte, 0, 1);
+    }
+
+    @Override
+    protected final void put(byte[] buf) throws IOException {
+        out.write(buf, 0, buf.length);
+    }
+
+    @Override
+    protected final void put(byte[] buf, int pos, int len) throws IOException {
+        out.write(buf, pos, len);
+    }
+
+    @Override
+    protected void flush() throws IOException {
+    }
+
+    @Override
+    protected void stop() throws IOException {
+        inp.close();
+        out.close();
+    }
+}
@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.core;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.SocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import org.eclipse.tcf.protocol.IPeer;
+
+/**
+ * ChannelUNIX is a IChannel implementation that works on top of UNIX domain sockets.
+ * It is intended for agents that run on the same host, for example, simulators or
+ * a TCF agent started by the IDE. Compared to TCP loopback, UNIX domain sockets
+ * avoid TCP/IP stack overhead, and the channel does not need a thread to connect the socket.
+ *
+ * Socket I/O is done by selector threads, same as in ChannelNIO.
+ * UNIX domain socket channels are available in Java 16 and later, see {@link #isSupported()}.
+ *
+ * Same as TCF agent, "UNIX" transport peers keep socket path in "Port" attribute.
+ * @since 1.8
+ */
+public class ChannelUNIX extends ChannelNIO {
+
+    private static Object protocol_family;
+    private static Method open_socket;
+    private static Method open_server;
+    private static Method get_address;
+    private static Method bind;
+    private static Throwable init_error;
+
+    static {
+        try {
+            Class<?> family = Class.forName("java.net.ProtocolFamily");
+            Class<?> std_family = Class.forName("java.net.StandardProtocolFamily");
+            Class<?> address = Class.forName("java.net.UnixDomainSocketAddress");
+            protocol_family = std_family.getField("UNIX").get(null);
+            open_socket = SocketChannel.class.getMethod("open", family);
+            open_server = ServerSocketChannel.class.getMethod("open", family);
+            get_address = address.getMethod("of", String.class);
+            bind = ServerSocketChannel.class.getMethod("bind", SocketAddress.class);
+        }
+        catch (Throwable x) {
+            init_error = x;
+        }
+    }
+
+    /**
+     * Construct a channel and connect it to a remote peer.
+     * @param remote_peer Remote Peer to which we want to connect
+     * @param path file system path of the socket of the Remote Peer
+     */
+    public ChannelUNIX(IPeer remote_peer, final String path) {
+        super(remote_peer, new Address() {
+            public SocketChannel open() throws IOException {
+                return openSocketChannel();
+            }
+            public SocketAddress get() throws IOException {
+                return getSocketAddress(path);
+            }
+        });
+    }
+
+    /**
+     * Construct a channel on top of a connected socket, for example, a socket accepted by ServerUNIX.
+     * @param local_peer local peer
+     * @param remote_peer remote peer
+     * @param socket connected UNIX domain socket channel
+     * @throws IOException
+     */
+    public ChannelUNIX(IPeer local_peer, IPeer remote_peer, SocketChannel socket) throws IOException {
+        super(local_peer, remote_peer, socket);
+    }
+
+    /**
+     * UNIX domain sockets don't have TCP options.
+     */
+    @Override
+    protected void setSocketOptions() throws IOException {
+    }
+
+    /**
+     * Check if the Java runtime supports UNIX domain socket channels.
+     * @return true if the channel can be used.
+     */
+    public static boolean isSupported() {
+        return init_error == null;
+    }
+
+    private static void checkSupported() throws IOException {
+        if (init_error == null) return;
+        IOException x = new IOException("UNIX domain sockets are not supported by the Java runtime");
+        x.initCause(init_error);
+        throw x;
+    }
+
+    private static Object invoke(Method m, Object obj, Object arg) throws IOException {
+        checkSupported();
+        try {
+            return m.invoke(obj, arg);
+        }
+        catch (InvocationTargetException x) {
+            Throwable y = x.getCause();
+            if (y instanceof IOException) throw (IOException)y;
+            if (y instanceof RuntimeException) throw (RuntimeException)y;
+            if (y instanceof Error) throw (Error)y;
+            IOException z = new IOException(y.getMessage());
+            z.initCause(y);
+            throw z;
+        }
+        catch (IllegalAccessException x) {
+            IOException z = new IOException(x.getMessage());
+            z.initCause(x);
+            throw z;
+        }
+    }
+
+    static SocketChannel openSocketChannel() throws IOException {
+        return (SocketChannel)invoke(open_socket, null, protocol_family);
+    }
+
+    static ServerSocketChannel openServerSocketChannel(String path) throws IOException {
+        ServerSocketChannel server = (ServerSocketChannel)invoke(open_server, null, protocol_family);
+        try {
+            invoke(bind, server, getSocketAddress(path));
+        }
+        catch (IOException x) {
+            server.close();
+            throw x;
+        }
+        return server;
+    }
+
+    static SocketAddress getSocketAddress(String path) throws IOException {
+        if (path == null || path.length() == 0) throw new IOException("No socket path");
+        return (SocketAddress)invoke(get_address, null, path);
+    }
+}
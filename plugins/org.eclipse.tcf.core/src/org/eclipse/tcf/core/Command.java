@@ -111,11 +111,20 @@ public abstract class Command implements IChannel.ICommandListener {
         Exception error = null;
         Object[] args = null;
         try {
-            args = JSON.parseSequence(data);
+            args = JSON.parseSequence(data, isBinarySliceSupported());
         }
         catch (Exception e) {
             error = e;
         }
+        result(token, args, error);
+    }
+
+    /**
+     * Called instead of result(IToken, byte[]) when the result data was already parsed
+     * by the channel I/O thread, see {@link AbstractChannel#setResultParsing(boolean)}.
+     */
+    void result(IToken token, Object[] args, Exception error) {
+        assert this.token == token;
         assert !done;
         done = true;
         done(error, args);
@@ -130,6 +139,19 @@ public abstract class Command implements IChannel.ICommandListener {
 
     public abstract void done(Exception error, Object[] args);
 
+    /**
+     * Check if done() accepts binary data of the result as {@link JSON.Binary} slices of the result message,
+     * instead of byte arrays. Commands that copy binary data into a destination buffer, for example by calling
+     * {@link JSON#toByteArray(byte[], int, int, Object)}, can override the method to return true,
+     * which saves a copy of the data. The method is called when the command is sent, it should
+     * not use fields of the subclass.
+     * @return true if binary data can be passed as slices.
+     * @since 1.8
+     */
+    protected boolean isBinarySliceSupported() {
+        return false;
+    }
+
     private int getArgSizeLimit() {
         if (arg_size_limit == Integer.MAX_VALUE) {
             arg_size_limit = 100;
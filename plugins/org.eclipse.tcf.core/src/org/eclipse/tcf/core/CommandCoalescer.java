@@ -0,0 +1,272 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.tcf.internal.core.Token;
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IService;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.Protocol;
+
+/**
+ * CommandCoalescer merges identical read-only commands of a channel.
+ *
+ * A command is coalesced if it is enabled by AbstractChannel.setCommandCoalescing().
+ * If an identical command - same service, name and arguments - is already waiting for result,
+ * the new command is not sent, its listener is attached to the pending command instead,
+ * and it gets the same result with its own token. Optionally, results are kept in a cache
+ * for a short time. Any event of a service invalidates cached results of the service,
+ * and new commands are not attached to commands that were sent before the event.
+ *
+ * The object is accessed by the dispatch thread only.
+ */
+final class CommandCoalescer {
+
+    /** Max number of cached results */
+    private static final int MAX_CACHE_SIZE = 1000;
+
+    private final AbstractChannel channel;
+    private final ChannelMetrics metrics;
+
+    /** Cache time to live in milliseconds, mapped by service and command name */
+    private final Map<String,Map<String,Long>> rules = new HashMap<String,Map<String,Long>>();
+
+    private final Map<Key,Group> pending = new HashMap<Key,Group>();
+
+    private final LinkedHashMap<Key,Result> cache = new LinkedHashMap<Key,Result>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key,Result> eldest) {
+            return size() > MAX_CACHE_SIZE;
+        }
+    };
+
+    private boolean sending;
+
+    private static final class Key {
+        final String service;
+        final String name;
+        final byte[] args;
+        final int hash;
+
+        Key(String service, String name, byte[] args) {
+            this.service = service;
+            this.name = name;
+            this.args = args;
+            hash = (service.hashCode() * 31 + name.hashCode()) * 31 + Arrays.hashCode(args);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key k = (Key)o;
+            return hash == k.hash && service.equals(k.service) && name.equals(k.name) && Arrays.equals(args, k.args);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Result {
+        final byte[] data;
+        final long expires;
+
+        Result(byte[] data, long expires) {
+            this.data = data;
+            this.expires = expires;
+        }
+    }
+
+    /**
+     * Token of a command that shares a pending command.
+     */
+    private final class Member extends Token {
+
+        final Group group;
+
+        Member(Group group, IChannel.ICommandListener listener) {
+            super(listener);
+            this.group = group;
+        }
+
+        @Override
+        public boolean cancel() {
+            assert Protocol.isDispatchThread();
+            if (!group.members.remove(this)) return false;
+            if (group.members.isEmpty() && group.token.cancel()) {
+                if (pending.get(group.key) == group) pending.remove(group.key);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Token of a command that is served from the cache, the result is delivered by a dispatch event.
+     */
+    private final class CachedResult extends Token implements Runnable {
+
+        final byte[] data;
+        boolean done;
+
+        CachedResult(IChannel.ICommandListener listener, byte[] data) {
+            super(listener);
+            this.data = data;
+        }
+
+        @Override
+        public boolean cancel() {
+            assert Protocol.isDispatchThread();
+            if (done) return false;
+            done = true;
+            return true;
+        }
+
+        public void run() {
+            if (done) return;
+            done = true;
+            if (channel.getState() == IChannel.STATE_CLOSED) getListener().terminated(this, new Exception("Channel is closed"));
+            else getListener().result(this, data);
+        }
+    }
+
+    /**
+     * Listener of a command that is actually sent, it passes the results to all members.
+     */
+    private final class Group implements IChannel.ICommandListener {
+
+        final Key key;
+        final long ttl;
+        final List<Member> members = new ArrayList<Member>();
+        IToken token;
+        boolean valid = true;
+
+        Group(Key key, long ttl) {
+            this.key = key;
+            this.ttl = ttl;
+        }
+
+        private Member[] done() {
+            if (pending.get(key) == this) pending.remove(key);
+            Member[] arr = members.toArray(new Member[members.size()]);
+            members.clear();
+            return arr;
+        }
+
+        public void progress(IToken token, byte[] data) {
+            for (Member m : members.toArray(new Member[members.size()])) m.getListener().progress(m, data);
+        }
+
+        public void result(IToken token, byte[] data) {
+            Member[] arr = done();
+            if (valid && ttl > 0) cache.put(key, new Result(data, System.currentTimeMillis() + ttl));
+            for (Member m : arr) m.getListener().result(m, data);
+        }
+
+        public void terminated(IToken token, Exception error) {
+            for (Member m : done()) m.getListener().terminated(m, error);
+        }
+    }
+
+    CommandCoalescer(AbstractChannel channel, ChannelMetrics metrics) {
+        this.channel = channel;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Enable or disable coalescing of a command.
+     * @param ttl - time to keep results in the cache in milliseconds, 0 - no caching, negative - disable coalescing.
+     */
+    void setRule(String service, String name, long ttl) {
+        Map<String,Long> m = rules.get(service);
+        if (ttl < 0) {
+            if (m != null && m.remove(name) != null && m.isEmpty()) rules.remove(service);
+            onEvent(service);
+            return;
+        }
+        if (m == null) rules.put(service, m = new HashMap<String,Long>());
+        m.put(name, ttl);
+    }
+
+    boolean isEmpty() {
+        return rules.isEmpty();
+    }
+
+    /**
+     * Send a command if it is not coalesced.
+     * @return token of the command, or null if the command is not subject to coalescing and should be sent as usual.
+     */
+    IToken sendCommand(IService service, String name, byte[] args, IChannel.ICommandListener listener) {
+        if (sending) return null;
+        Map<String,Long> m = rules.get(service.getName());
+        if (m == null) return null;
+        Long ttl = m.get(name);
+        if (ttl == null) return null;
+        Key key = new Key(service.getName(), name, args);
+        Result r = cache.get(key);
+        if (r != null) {
+            if (r.expires > System.currentTimeMillis()) {
+                if (metrics != null) metrics.onCommandCached(key.service, key.name);
+                return deliver(listener, r.data);
+            }
+            cache.remove(key);
+        }
+        Group g = pending.get(key);
+        if (g != null) {
+            if (metrics != null) metrics.onCommandCoalesced(key.service, key.name);
+        }
+        else {
+            g = new Group(key, ttl.longValue());
+            sending = true;
+            try {
+                g.token = channel.sendCommand(service, name, args, g);
+            }
+            finally {
+                sending = false;
+            }
+            pending.put(key, g);
+        }
+        Member t = new Member(g, listener);
+        g.members.add(t);
+        return t;
+    }
+
+    private IToken deliver(IChannel.ICommandListener listener, byte[] data) {
+        CachedResult t = new CachedResult(listener, data);
+        Protocol.invokeLater(t);
+        return t;
+    }
+
+    /**
+     * Called when an event is received: results of the service commands can be out of date.
+     */
+    void onEvent(String service) {
+        for (Iterator<Key> i = cache.keySet().iterator(); i.hasNext();) {
+            if (i.next().service.equals(service)) i.remove();
+        }
+        for (Iterator<Group> i = pending.values().iterator(); i.hasNext();) {
+            Group g = i.next();
+            if (g.key.service.equals(service)) {
+                g.valid = false;
+                i.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.core;
+
+/**
+ * CongestionStatistics is a snapshot of channel congestion control state,
+ * see {@link AbstractChannel#getCongestionStatistics()}.
+ *
+ * @since 1.8
+ */
+public final class CongestionStatistics {
+
+    private final boolean adaptive;
+    private final int window;
+    private final int pending;
+    private final long srtt;
+    private final long min_rtt;
+    private final double rate;
+    private final int local_level;
+    private final int remote_level;
+    private final int level;
+
+    CongestionStatistics(CongestionWindow w, int pending, int local_level) {
+        adaptive = w.isAdaptive();
+        window = w.getWindow();
+        this.pending = pending;
+        srtt = w.getSmoothedRTT();
+        min_rtt = w.getMinRTT();
+        rate = w.getDeliveryRate();
+        this.local_level = local_level;
+        remote_level = w.getRemoteLevel();
+        level = w.getLevel(pending);
+    }
+
+    /**
+     * @return true if the congestion window is adjusted according to measured round-trip times.
+     */
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    /**
+     * @return number of pending commands at which the channel reports congestion level 0.
+     */
+    public int getWindowSize() {
+        return window;
+    }
+
+    /**
+     * @return number of commands waiting for results.
+     */
+    public int getPendingCommands() {
+        return pending;
+    }
+
+    /**
+     * @return smoothed command round-trip time in microseconds, -1 if not measured yet.
+     */
+    public long getSmoothedRTT() {
+        return srtt < 0 ? -1 : srtt / 1000;
+    }
+
+    /**
+     * @return min command round-trip time in microseconds, -1 if not measured yet.
+     */
+    public long getMinRTT() {
+        return min_rtt < 0 ? -1 : min_rtt / 1000;
+    }
+
+    /**
+     * @return max recent command delivery rate, commands per second.
+     */
+    public double getDeliveryRate() {
+        return rate;
+    }
+
+    /**
+     * @return congestion level of the local dispatch thread, as last reported to the remote peer.
+     */
+    public int getLocalCongestionLevel() {
+        return local_level;
+    }
+
+    /**
+     * @return congestion level reported by the remote peer.
+     */
+    public int getRemoteCongestionLevel() {
+        return remote_level;
+    }
+
+    /**
+     * @return channel congestion level, same as {@link AbstractChannel#getCongestion()}.
+     */
+    public int getCongestion() {
+        return level;
+    }
+
+    @Override
+    public String toString() {
+        StringBuffer bf = new StringBuffer();
+        bf.append("[window=").append(window);
+        bf.append(",pending=").append(pending);
+        bf.append(",srtt=").append(getSmoothedRTT());
+        bf.append(",min_rtt=").append(getMinRTT());
+        bf.append(",rate=").append((long)rate);
+        bf.append(",local=").append(local_level);
+        bf.append(",remote=").append(remote_level);
+        bf.append(",congestion=").append(level);
+        bf.append(']');
+        return bf.toString();
+    }
+}
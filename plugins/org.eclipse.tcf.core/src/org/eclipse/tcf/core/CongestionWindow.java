@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.core;
+
+/**
+ * CongestionWindow estimates how many commands a channel can keep in flight.
+ *
+ * The estimate is similar to BBR: the window is twice the product of max recent command
+ * delivery rate and min round-trip time, so it grows on high latency links until the link
+ * or the remote peer becomes the bottleneck. The window is never smaller than MIN_WINDOW,
+ * which is the fixed limit used by older versions of TCF.
+ * Flow control "F" messages of the remote peer are taken into account by getLevel(),
+ * and they also control the transmitter delay. Congestion of the local dispatch thread controls
+ * the receiver delay. Both delays are scaled by the measured round-trip time.
+ *
+ * The object is accessed by the dispatch thread, except transmit_delay and receive_delay,
+ * which are read by I/O threads.
+ */
+final class CongestionWindow {
+
+    static final int MIN_WINDOW = 32;
+    static final int MAX_WINDOW = 4096;
+
+    /** Min RTT is re-measured if it was not confirmed during this time */
+    private static final long MIN_RTT_LIFETIME = 10000000000L;
+
+    /** Delivery rate sampling interval if min RTT is less than that */
+    private static final long MIN_INTERVAL = 1000000L;
+
+    /** Number of delivery rate samples in the max filter */
+    private static final int RATE_SAMPLES = 8;
+
+    private final boolean adaptive;
+    private int window = MIN_WINDOW;
+
+    private long srtt = -1;
+    private long min_rtt = Long.MAX_VALUE;
+    private long min_rtt_time;
+
+    private long interval_start;
+    private int interval_cnt;
+    private final double[] rates = new double[RATE_SAMPLES];
+    private int rate_pos;
+    private double max_rate;
+
+    private int remote_level = -100;
+    private int local_level = -100;
+
+    /** Delay after each transmitted message in milliseconds, zero if the remote peer is not congested */
+    volatile int transmit_delay;
+
+    /** Delay after each received message in milliseconds, zero if the local dispatch thread is not congested */
+    volatile int receive_delay;
+
+    /**
+     * @param adaptive - false to use fixed window MIN_WINDOW and fixed transmitter delays.
+     */
+    CongestionWindow(boolean adaptive) {
+        this.adaptive = adaptive;
+    }
+
+    /**
+     * Update the estimates when a command result is received.
+     * @param sent_time - System.nanoTime() when the command was transmitted, 0 if unknown.
+     * @param time - current System.nanoTime().
+     */
+    void onResult(long sent_time, long time) {
+        if (!adaptive || sent_time == 0) return;
+        long rtt = time - sent_time;
+        if (rtt < 0) rtt = 0;
+        srtt = srtt < 0 ? rtt : srtt + (rtt - srtt) / 8;
+        if (rtt <= min_rtt || time - min_rtt_time > MIN_RTT_LIFETIME) {
+            min_rtt = rtt;
+            min_rtt_time = time;
+        }
+        if (interval_cnt++ == 0) {
+            interval_start = time;
+            return;
+        }
+        long interval = time - interval_start;
+        if (interval < min_rtt || interval < MIN_INTERVAL) return;
+        rates[rate_pos] = (interval_cnt - 1) * 1e9 / interval;
+        rate_pos = (rate_pos + 1) % RATE_SAMPLES;
+        interval_start = time;
+        interval_cnt = 1;
+        max_rate = 0;
+        for (double r : rates) if (r > max_rate) max_rate = r;
+        double w = 2 * max_rate * min_rtt / 1e9;
+        window = w <= MIN_WINDOW ? MIN_WINDOW : w >= MAX_WINDOW ? MAX_WINDOW : (int)Math.ceil(w);
+        updateDelays();
+    }
+
+    /**
+     * Set congestion level reported by the remote peer.
+     * @param level - the level, -100..100.
+     */
+    void setRemoteLevel(int level) {
+        remote_level = level;
+        updateDelays();
+    }
+
+    /**
+     * Set congestion level of the local dispatch thread, as reported to the remote peer.
+     * @param level - the level, -100..100.
+     */
+    void setLocalLevel(int level) {
+        local_level = level;
+        updateDelays();
+    }
+
+    private void updateDelays() {
+        transmit_delay = scaleDelay(remote_level > 0 ? remote_level * 10 : 0);
+        receive_delay = scaleDelay(local_level > 0 ? local_level : 0);
+    }
+
+    private int scaleDelay(int delay) {
+        if (delay <= 0 || !adaptive || srtt < 0) return delay;
+        /* Same as fixed delay on a 100ms link, less on faster links */
+        long d = delay * (srtt / 1000) / 100000;
+        if (d < 1) d = 1;
+        return d < delay ? (int)d : delay;
+    }
+
+    /**
+     * Compute congestion level, see IChannel.getCongestion().
+     * @param pending - number of commands waiting for results.
+     * @return congestion level in range -100..100.
+     */
+    int getLevel(int pending) {
+        int level = pending * 100 / window - 100;
+        if (remote_level > level) level = remote_level;
+        if (level > 100) level = 100;
+        return level;
+    }
+
+    int getWindow() {
+        return window;
+    }
+
+    int getRemoteLevel() {
+        return remote_level;
+    }
+
+    long getSmoothedRTT() {
+        return srtt;
+    }
+
+    long getMinRTT() {
+        return min_rtt == Long.MAX_VALUE ? -1 : min_rtt;
+    }
+
+    double getDeliveryRate() {
+        return max_rate;
+    }
+
+    boolean isAdaptive() {
+        return adaptive;
+    }
+}
@@ -0,0 +1,370 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.core;
+
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.eclipse.tcf.internal.core.Token;
+
+/**
+ * FrameDecoder converts a byte stream in StreamChannel wire format into channel messages.
+ *
+ * Unlike StreamChannel.read(), the decoder does not pull bytes from the stream,
+ * instead it is given blocks of bytes as they arrive, which allows it to be used
+ * with non-blocking I/O. Escape sequences, including binary data blocks, can be split
+ * between blocks at any position.
+ *
+ * The decoder searches for ESC byte in whole blocks of input and copies spans of plain bytes
+ * with System.arraycopy(), so the cost per byte is small. Message fields are sliced out of
+ * a single reusable frame buffer. Service and command names are interned in a small cache,
+ * so a stream of similar messages does not create new String objects for them.
+ *
+ * Message data compressed by the remote peer (ESC 4 sequence) is inflated into the frame buffer.
+ *
+ * The decoder is not thread safe, it is expected to be used by a single I/O thread at a time.
+ */
+final class FrameDecoder {
+
+    interface Handler {
+
+        /**
+         * Called when a complete message is decoded.
+         * @param type - message type: 'C', 'R', 'N', 'P', 'E' or 'F'.
+         * @param token - message token, or null.
+         * @param service - service name, or null.
+         * @param name - command or event name, or null.
+         * @param data - message data.
+         */
+        void onMessage(char type, Token token, String service, String name, byte[] data) throws IOException;
+
+        /**
+         * Called when End Of Stream marker is decoded.
+         * @param err_report - error report that follows the marker, or null.
+         */
+        void onEndOfStream(byte[] err_report) throws IOException;
+    }
+
+    private static final int ESC = StreamChannel.ESC;
+
+    private static final byte[] empty_byte_array = new byte[0];
+
+    /** Size of service and command names cache, must be power of 2 */
+    private static final int NAME_CACHE_SIZE = 256;
+
+    /** Max length of a name that is stored in the cache */
+    private static final int NAME_CACHE_MAX_LEN = 64;
+
+    private final Handler handler;
+
+    private byte[] frm = new byte[0x1000];
+    private int frm_len;
+
+    private boolean esc;
+    private boolean bin_size;
+    private int bin_size_shift;
+    private int bin_data_size;
+    private boolean eos;
+    private boolean eos_done;
+
+    /* Compressed block state: header field being decoded (1 - data size, 2 - compressed size), sizes and data */
+    private int zip_hdr;
+    private int zip_hdr_shift;
+    private int zip_hdr_value;
+    private int zip_data_size;
+    private int zip_size;
+    private int zip_pos;
+    private byte[] zip_buf;
+    private Inflater inflater;
+
+    private final String[] names = new String[NAME_CACHE_SIZE];
+
+    FrameDecoder(Handler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Check if end of stream was reported to the handler.
+     * @return true if the stream is ended.
+     */
+    boolean isEndOfStream() {
+        return eos_done;
+    }
+
+    /**
+     * Get number of bytes remaining in current binary data block.
+     * Stream readers can use the value to avoid blocking while waiting
+     * for more data than the remote peer is going to send.
+     * @return number of bytes, 0 if the decoder is not inside a binary data block.
+     */
+    int getBinaryDataSize() {
+        if (bin_size || zip_hdr > 0) return 1;
+        if (zip_pos < zip_size) return zip_size - zip_pos;
+        return bin_data_size;
+    }
+
+    /**
+     * Notify the decoder that the underlying stream is closed.
+     * If end of stream was not reported yet, the handler is notified
+     * about end of stream without an error report.
+     * @throws IOException
+     */
+    void endOfInput() throws IOException {
+        if (eos_done) return;
+        eos = true;
+        eos_done = true;
+        frm_len = 0;
+        handler.onEndOfStream(null);
+    }
+
+    /**
+     * Decode a block of bytes received from the stream.
+     * @param buf - buffer that contains the bytes.
+     * @param pos - position of first byte.
+     * @param len - number of bytes.
+     * @throws IOException if the stream is not properly formatted.
+     */
+    void decode(byte[] buf, int pos, int len) throws IOException {
+        int end = pos + len;
+        while (pos < end) {
+            if (bin_size) {
+                int m = buf[pos++] & 0xff;
+                bin_data_size |= (m & 0x7f) << bin_size_shift;
+                bin_size_shift += 7;
+                if ((m & 0x80) == 0) {
+                    bin_size = false;
+                    /* Make room for whole binary block at once, instead of growing the frame buffer step by step */
+                    if (frm_len + bin_data_size > frm.length) grow(frm_len + bin_data_size);
+                }
+                continue;
+            }
+            if (zip_hdr > 0) {
+                int m = buf[pos++] & 0xff;
+                zip_hdr_value |= (m & 0x7f) << zip_hdr_shift;
+                zip_hdr_shift += 7;
+                if ((m & 0x80) == 0) {
+                    if (zip_hdr == 1) {
+                        zip_data_size = zip_hdr_value;
+                        zip_hdr = 2;
+                    }
+                    else {
+                        zip_hdr = 0;
+                        zip_size = zip_hdr_value;
+                        zip_pos = 0;
+                        if (zip_buf == null || zip_buf.length < zip_size) zip_buf = new byte[zip_size];
+                        if (zip_size == 0) inflate();
+                    }
+                    zip_hdr_shift = 0;
+                    zip_hdr_value = 0;
+                }
+                continue;
+            }
+            if (zip_pos < zip_size) {
+                int n = end - pos;
+                if (n > zip_size - zip_pos) n = zip_size - zip_pos;
+                System.arraycopy(buf, pos, zip_buf, zip_pos, n);
+                zip_pos += n;
+                pos += n;
+                if (zip_pos == zip_size) inflate();
+                continue;
+            }
+            if (bin_data_size > 0) {
+                int n = end - pos;
+                if (n > bin_data_size) n = bin_data_size;
+                append(buf, pos, n);
+                bin_data_size -= n;
+                pos += n;
+                continue;
+            }
+            if (esc) {
+                esc = false;
+                int n = buf[pos++] & 0xff;
+                switch (n) {
+                case 0:
+                    append(ESC);
+                    break;
+                case 1:
+                    endOfMessage();
+                    break;
+                case 2:
+                    if (!eos) {
+                        eos = true;
+                        frm_len = 0;
+                    }
+                    break;
+                case 3:
+                    bin_size = true;
+                    bin_size_shift = 0;
+                    bin_data_size = 0;
+                    break;
+                case 4:
+                    zip_hdr = 1;
+                    zip_hdr_shift = 0;
+                    zip_hdr_value = 0;
+                    break;
+                default:
+                    throw new IOException("Invalid escape sequence: " + ESC + " " + n);
+                }
+                continue;
+            }
+            int i = pos;
+            while (i < end && buf[i] != ESC) i++;
+            if (i > pos) append(buf, pos, i - pos);
+            if (i < end) {
+                esc = true;
+                i++;
+            }
+            pos = i;
+        }
+    }
+
+    private void inflate() throws IOException {
+        int n = zip_data_size;
+        if (inflater == null) inflater = new Inflater();
+        if (frm_len + n > frm.length) grow(frm_len + n);
+        inflater.reset();
+        inflater.setInput(zip_buf, 0, zip_size);
+        zip_pos = zip_size = 0;
+        try {
+            int m = 0;
+            while (m < n && !inflater.finished()) {
+                int k = inflater.inflate(frm, frm_len + m, n - m);
+                if (k == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                m += k;
+            }
+            if (m != n || !inflater.finished()) throw new IOException("Invalid compressed data");
+        }
+        catch (DataFormatException x) {
+            IOException y = new IOException("Invalid compressed data");
+            y.initCause(x);
+            throw y;
+        }
+        frm_len += n;
+    }
+
+    private void append(int b) {
+        if (frm_len >= frm.length) grow(frm_len + 1);
+        frm[frm_len++] = (byte)b;
+    }
+
+    private void append(byte[] buf, int pos, int len) {
+        if (frm_len + len > frm.length) grow(frm_len + len);
+        System.arraycopy(buf, pos, frm, frm_len, len);
+        frm_len += len;
+    }
+
+    private void grow(int size) {
+        int n = frm.length * 2;
+        while (n < size) n *= 2;
+        byte[] tmp = new byte[n];
+        System.arraycopy(frm, 0, tmp, 0, frm_len);
+        frm = tmp;
+    }
+
+    private void endOfMessage() throws IOException {
+        int len = frm_len;
+        frm_len = 0;
+        if (eos) {
+            if (eos_done) return;
+            eos_done = true;
+            byte[] err_report = null;
+            if (len > 1 || len == 1 && frm[0] != 0) err_report = copy(0, len);
+            handler.onEndOfStream(err_report);
+            return;
+        }
+        if (len == 0) return;
+        if (len < 2 || frm[1] != 0) throw new IOException("Protocol syntax error");
+        char type = (char)(frm[0] & 0xff);
+        Token token = null;
+        String service = null;
+        String name = null;
+        int pos = 2;
+        int i = 0;
+        switch (type) {
+        case 'C':
+            i = scanString(pos, len);
+            token = new Token(copy(pos, i - pos));
+            pos = i + 1;
+            i = scanString(pos, len);
+            service = getName(pos, i);
+            pos = i + 1;
+            i = scanString(pos, len);
+            name = getName(pos, i);
+            pos = i + 1;
+            break;
+        case 'P':
+        case 'R':
+        case 'N':
+            i = scanString(pos, len);
+            token = new Token(copy(pos, i - pos));
+            pos = i + 1;
+            break;
+        case 'E':
+            i = scanString(pos, len);
+            service = getName(pos, i);
+            pos = i + 1;
+            i = scanString(pos, len);
+            name = getName(pos, i);
+            pos = i + 1;
+            break;
+        case 'F':
+            break;
+        default:
+            throw new IOException("Protocol syntax error");
+        }
+        handler.onMessage(type, token, service, name, copy(pos, len - pos));
+    }
+
+    private int scanString(int pos, int len) throws IOException {
+        int i = pos;
+        while (i < len && frm[i] != 0) i++;
+        if (i >= len) throw new IOException("Unexpected end of message");
+        return i;
+    }
+
+    /**
+     * Get a name string from frame buffer.
+     * Plain ASCII names are looked up in the cache first.
+     * @param pos - position of the first byte of the name.
+     * @param end - position after the last byte of the name.
+     * @return the name.
+     * @throws IOException
+     */
+    private String getName(int pos, int end) throws IOException {
+        int len = end - pos;
+        if (len > NAME_CACHE_MAX_LEN) return new String(frm, pos, len, "UTF-8");
+        int h = len;
+        for (int i = pos; i < end; i++) {
+            byte b = frm[i];
+            if (b < 0) return new String(frm, pos, len, "UTF-8");
+            h = h * 31 + b;
+        }
+        int idx = (h ^ (h >>> 8)) & (NAME_CACHE_SIZE - 1);
+        String s = names[idx];
+        if (s != null && s.length() == len) {
+            int i = 0;
+            while (i < len && s.charAt(i) == frm[pos + i]) i++;
+            if (i == len) return s;
+        }
+        char[] arr = new char[len];
+        for (int i = 0; i < len; i++) arr[i] = (char)frm[pos + i];
+        names[idx] = s = new String(arr);
+        return s;
+    }
+
+    private byte[] copy(int pos, int len) {
+        if (len == 0) return empty_byte_array;
+        byte[] res = new byte[len];
+        System.arraycopy(frm, pos, res, 0, len);
+        return res;
+    }
+}
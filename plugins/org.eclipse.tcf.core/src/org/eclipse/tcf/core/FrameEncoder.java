@@ -0,0 +1,234 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.core;
+
+import java.io.IOException;
+import java.util.zip.Deflater;
+
+import org.eclipse.tcf.core.AbstractChannel.Message;
+
+/**
+ * FrameEncoder converts channel messages into StreamChannel wire format.
+ *
+ * Any number of messages can be encoded into the encoder buffer and then transmitted by a single write.
+ * If the encoder is created with an Output, the buffer is passed to the output when it grows large,
+ * and big binary data blocks are passed to the output directly, without copying them into the buffer.
+ * Without an Output, all data is kept in the buffer, and it is up to the caller to consume it,
+ * see ChannelNIO.
+ *
+ * The encoder is not thread safe, it is expected to be used by a single I/O thread at a time.
+ */
+final class FrameEncoder {
+
+    interface Output {
+
+        /**
+         * Write encoded bytes.
+         * @param buf - buffer that contains the bytes.
+         * @param pos - position of first byte.
+         * @param len - number of bytes.
+         * @throws IOException
+         */
+        void put(byte[] buf, int pos, int len) throws IOException;
+    }
+
+    private static final int ESC = StreamChannel.ESC;
+
+    /** Binary data blocks of this size or larger are passed to the output without copying */
+    private static final int DIRECT_DATA_SIZE = 0x2000;
+
+    /** Buffered bytes are passed to the output when the buffer reaches this size */
+    private static final int FLUSH_SIZE = 0x10000;
+
+    /** Message data of this size or larger is compressed, if compression is enabled */
+    private static final int COMPRESS_SIZE = 512;
+
+    private final Output out;
+
+    private boolean compress;
+    private Deflater deflater;
+    private byte[] zip_buf;
+
+    /** Encoder buffer, can be reallocated when more space is needed */
+    byte[] buf = new byte[0x4000];
+
+    /** Position of first byte in the buffer that is not consumed yet */
+    int pos;
+
+    /** Position after last encoded byte in the buffer */
+    int len;
+
+    FrameEncoder(Output out) {
+        this.out = out;
+    }
+
+    /**
+     * Enable or disable compression of message data.
+     * Compressed data is encoded as ESC 4 sequence, which can be used only if the remote peer supports it.
+     * @param compress - true to compress large messages.
+     */
+    void setCompression(boolean compress) {
+        this.compress = compress;
+    }
+
+    /**
+     * Encode a message.
+     * @param msg - the message.
+     * @param zero_copy - true if the remote peer supports binary data blocks.
+     * @throws IOException
+     */
+    void writeMessage(Message msg, boolean zero_copy) throws IOException {
+        ensure(2);
+        buf[len++] = (byte)msg.type;
+        buf[len++] = 0;
+        if (msg.token != null) writeString(msg.token.getID());
+        if (msg.service != null) writeString(msg.service);
+        if (msg.name != null) writeString(msg.name);
+        if (msg.data != null && !(compress && writeCompressed(msg.data))) writeData(msg.data, zero_copy);
+        writeEscape(1);
+        if (out != null && len - pos >= FLUSH_SIZE) flush();
+    }
+
+    /**
+     * Encode End Of Stream marker.
+     */
+    void writeEndOfStream() {
+        writeEscape(2);
+        writeEscape(1);
+    }
+
+    /**
+     * Pass buffered bytes to the output.
+     * @throws IOException
+     */
+    void flush() throws IOException {
+        assert out != null;
+        if (len > pos) out.put(buf, pos, len - pos);
+        pos = len = 0;
+    }
+
+    private void writeEscape(int n) {
+        ensure(2);
+        buf[len++] = ESC;
+        buf[len++] = (byte)n;
+    }
+
+    private void writeString(String s) {
+        int l = s.length();
+        ensure(l * 4 + 1);
+        for (int i = 0; i < l; i++) {
+            int ch = s.charAt(i);
+            if (ch < 0x80) {
+                buf[len++] = (byte)ch;
+                if (ch == ESC) buf[len++] = 0;
+            }
+            else if (ch < 0x800) {
+                buf[len++] = (byte)((ch >> 6) | 0xc0);
+                buf[len++] = (byte)(ch & 0x3f | 0x80);
+            }
+            else {
+                buf[len++] = (byte)((ch >> 12) | 0xe0);
+                buf[len++] = (byte)((ch >> 6) & 0x3f | 0x80);
+                buf[len++] = (byte)(ch & 0x3f | 0x80);
+            }
+        }
+        buf[len++] = 0;
+    }
+
+    private void writeData(byte[] data, boolean zero_copy) throws IOException {
+        int l = data.length;
+        if (l > 32 && zero_copy) {
+            ensure(7);
+            buf[len++] = ESC;
+            buf[len++] = 3;
+            writeSize(l);
+            if (out != null && l >= DIRECT_DATA_SIZE) {
+                flush();
+                out.put(data, 0, l);
+            }
+            else {
+                ensure(l);
+                System.arraycopy(data, 0, buf, len, l);
+                len += l;
+            }
+        }
+        else {
+            ensure(l * 2);
+            for (int i = 0; i < l; i++) {
+                byte b = data[i];
+                buf[len++] = b;
+                if (b == ESC) buf[len++] = 0;
+            }
+        }
+    }
+
+    /**
+     * Encode message data as a compressed block: ESC 4, data size, compressed size, compressed bytes.
+     * @param data - message data.
+     * @return false if the data is too small or does not compress well, nothing is encoded in that case.
+     * @throws IOException
+     */
+    private boolean writeCompressed(byte[] data) throws IOException {
+        int l = data.length;
+        if (l < COMPRESS_SIZE) return false;
+        if (deflater == null) deflater = new Deflater(Deflater.BEST_SPEED);
+        if (zip_buf == null || zip_buf.length < l) zip_buf = new byte[l];
+        /* Compressed block must be at least 1/8 smaller than the data, otherwise it is not worth the effort */
+        int max = l - l / 8;
+        int n = 0;
+        deflater.reset();
+        deflater.setInput(data);
+        deflater.finish();
+        while (!deflater.finished() && n < max) n += deflater.deflate(zip_buf, n, max - n);
+        if (!deflater.finished()) return false;
+        ensure(12);
+        buf[len++] = ESC;
+        buf[len++] = 4;
+        writeSize(l);
+        writeSize(n);
+        if (out != null && n >= DIRECT_DATA_SIZE) {
+            flush();
+            out.put(zip_buf, 0, n);
+        }
+        else {
+            ensure(n);
+            System.arraycopy(zip_buf, 0, buf, len, n);
+            len += n;
+        }
+        return true;
+    }
+
+    private void writeSize(int n) {
+        for (;;) {
+            if (n <= 0x7f) {
+                buf[len++] = (byte)n;
+                break;
+            }
+            buf[len++] = (byte)((n & 0x7f) | 0x80);
+            n = n >> 7;
+        }
+    }
+
+    private void ensure(int size) {
+        if (len + size <= buf.length) return;
+        if (pos > 0) {
+            System.arraycopy(buf, pos, buf, 0, len - pos);
+            len -= pos;
+            pos = 0;
+            if (len + size <= buf.length) return;
+        }
+        int n = buf.length * 2;
+        while (n < len + size) n *= 2;
+        byte[] tmp = new byte[n];
+        System.arraycopy(buf, 0, tmp, 0, len);
+        buf = tmp;
+    }
+}
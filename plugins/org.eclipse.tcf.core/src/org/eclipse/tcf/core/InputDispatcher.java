@@ -0,0 +1,227 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.core;
+
+import java.util.ArrayList;
+
+import org.eclipse.tcf.core.AbstractChannel.Message;
+import org.eclipse.tcf.internal.core.Token;
+import org.eclipse.tcf.protocol.JSONCodec;
+import org.eclipse.tcf.protocol.Protocol;
+
+/**
+ * InputDispatcher passes messages from FrameDecoder to the channel's handleInput().
+ *
+ * Messages decoded from a block of input are collected in a batch, and the whole batch
+ * is handled by a single dispatch thread event when the I/O thread calls flush().
+ * If the previous batch is still waiting in the dispatch queue, new messages are appended to it,
+ * so a channel never has more than one input event waiting in the queue.
+ * Batches are returned to a pool after they are handled. Message envelopes are reused too,
+ * unless a channel subclass overrides handleInput() and might keep references to the messages,
+ * so in steady state the dispatcher does not allocate memory.
+ * If the channel has result parsing enabled, command results are parsed here, by the I/O thread.
+ *
+ * onMessage(), onEndOfStream() and flush() are expected to be called by a single I/O thread.
+ */
+final class InputDispatcher implements FrameDecoder.Handler {
+
+    /** Max number of idle batches kept in the pool */
+    private static final int POOL_SIZE = 4;
+
+    private final class Batch implements Runnable {
+
+        Message[] arr = new Message[16];
+        int cnt;
+
+        /**
+         * Add a message slot to the batch, reusing the envelope that is already there, if any.
+         * @return the message envelope.
+         */
+        Message add() {
+            if (cnt >= arr.length) {
+                Message[] tmp = new Message[arr.length * 2];
+                System.arraycopy(arr, 0, tmp, 0, cnt);
+                arr = tmp;
+            }
+            Message msg = arr[cnt];
+            if (msg == null) arr[cnt] = msg = new Message('E');
+            cnt++;
+            return msg;
+        }
+
+        public void run() {
+            Runnable r = null;
+            synchronized (pool) {
+                if (posted == this) {
+                    posted = null;
+                    if (waiting) pool.notifyAll();
+                    r = resume;
+                    resume = null;
+                }
+            }
+            if (r != null) r.run();
+            try {
+                for (int i = 0; i < cnt; i++) {
+                    Message msg = arr[i];
+                    channel.handleInput(msg);
+                    if (!reuse_messages) {
+                        arr[i] = null;
+                        continue;
+                    }
+                    msg.token = null;
+                    msg.service = null;
+                    msg.name = null;
+                    msg.data = null;
+                    msg.args = null;
+                    msg.args_error = null;
+                    msg.args_parsed = false;
+                }
+            }
+            finally {
+                cnt = 0;
+                recycle(this);
+            }
+        }
+    }
+
+    private final AbstractChannel channel;
+    private final ArrayList<Batch> pool = new ArrayList<Batch>();
+    private final JSONCodec codec = new JSONCodec();
+    private final boolean reuse_messages;
+
+    private Batch batch;
+
+    /** Batch that is waiting in the dispatch queue, guarded by pool lock */
+    private Batch posted;
+
+    /** True when the I/O thread waits for the posted batch to be taken, guarded by pool lock */
+    private boolean waiting;
+
+    /** Called when the posted batch is taken, see suspend(), guarded by pool lock */
+    private Runnable resume;
+
+    InputDispatcher(AbstractChannel channel) {
+        this.channel = channel;
+        reuse_messages = !overridesHandleInput(channel.getClass());
+    }
+
+    private static boolean overridesHandleInput(Class<?> c) {
+        while (c != AbstractChannel.class) {
+            try {
+                c.getDeclaredMethod("handleInput", Message.class);
+                return true;
+            }
+            catch (NoSuchMethodException x) {
+                c = c.getSuperclass();
+            }
+        }
+        return false;
+    }
+
+    private Batch obtain() {
+        synchronized (pool) {
+            int n = pool.size();
+            if (n > 0) return pool.remove(n - 1);
+        }
+        return new Batch();
+    }
+
+    private void recycle(Batch b) {
+        synchronized (pool) {
+            if (pool.size() < POOL_SIZE) pool.add(b);
+        }
+    }
+
+    public void onMessage(char type, Token token, String service, String name, byte[] data) {
+        if (batch == null) batch = obtain();
+        Message msg = batch.add();
+        msg.type = type;
+        msg.token = token;
+        msg.service = service;
+        msg.name = name;
+        msg.data = data;
+        channel.parseResult(msg, codec);
+    }
+
+    public void onEndOfStream(final byte[] err_report) {
+        flush();
+        Protocol.invokeLater(new Runnable() {
+            public void run() {
+                channel.handleEndOfStream(err_report);
+            }
+        });
+    }
+
+    /**
+     * Post messages collected since last flush to the dispatch thread.
+     * @return number of messages posted.
+     */
+    int flush() {
+        Batch b = batch;
+        if (b == null) return 0;
+        int n = b.cnt;
+        synchronized (pool) {
+            if (posted != null) {
+                /* Move the messages into the waiting batch, swapping envelopes */
+                Batch p = posted;
+                for (int i = 0; i < n; i++) {
+                    Message msg = b.arr[i];
+                    p.add();
+                    b.arr[i] = p.arr[p.cnt - 1];
+                    p.arr[p.cnt - 1] = msg;
+                }
+                b.cnt = 0;
+                return n;
+            }
+            posted = b;
+        }
+        batch = null;
+        Protocol.invokeLater(b);
+        return n;
+    }
+
+    /**
+     * Check if messages posted by flush() are still waiting for the dispatch thread.
+     * If they are, the dispatch thread calls the given runnable when it takes them.
+     * Non-blocking I/O uses the method to stop reading input while the dispatch thread is busy.
+     * @param r - runnable to call when the messages are taken.
+     * @return true if the messages are waiting, false if there are no messages waiting.
+     */
+    boolean suspend(Runnable r) {
+        synchronized (pool) {
+            if (posted == null) return false;
+            resume = r;
+            return true;
+        }
+    }
+
+    /**
+     * Wait until messages posted by flush() are taken by the dispatch thread.
+     * @param timeout - max time to wait in milliseconds.
+     * @throws InterruptedException
+     */
+    void await(long timeout) throws InterruptedException {
+        long end = System.currentTimeMillis() + timeout;
+        synchronized (pool) {
+            try {
+                waiting = true;
+                while (posted != null) {
+                    long delay = end - System.currentTimeMillis();
+                    if (delay <= 0) break;
+                    pool.wait(delay);
+                }
+            }
+            finally {
+                waiting = false;
+            }
+        }
+    }
+}
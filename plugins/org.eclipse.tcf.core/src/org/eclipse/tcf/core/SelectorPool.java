@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.eclipse.tcf.protocol.Protocol;
+
+/**
+ * SelectorPool is a small, shared set of threads that perform non-blocking I/O for
+ * ChannelNIO instances. Each thread owns a java.nio Selector and serves any number of channels,
+ * so the number of I/O threads does not depend on the number of open channels.
+ *
+ * The number of threads is controlled by "org.eclipse.tcf.core.nio.selectors" system property,
+ * default is half of available processors, but not less than 1 and not more than 4.
+ */
+final class SelectorPool {
+
+    interface Handler {
+
+        /**
+         * Called by a selector thread when the handler's selection key is ready for I/O.
+         * @param key - the selection key.
+         */
+        void handleIO(SelectionKey key);
+    }
+
+    static final class Worker extends Thread {
+
+        private final Selector selector;
+        private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<Runnable>();
+        private final ByteBuffer inp_buf = ByteBuffer.allocate(0x10000);
+
+        private Worker(int id) throws IOException {
+            selector = Selector.open();
+            setName("TCF NIO Selector " + id);
+            setDaemon(true);
+        }
+
+        /**
+         * Get the selector of this worker.
+         * Can only be used by the worker thread.
+         * @return the selector.
+         */
+        Selector getSelector() {
+            assert Thread.currentThread() == this;
+            return selector;
+        }
+
+        /**
+         * Get input buffer of this worker.
+         * The buffer is shared by all channels served by the worker,
+         * so received data must be consumed before the handler returns.
+         * Can only be used by the worker thread.
+         * @return the buffer.
+         */
+        ByteBuffer getInputBuffer() {
+            assert Thread.currentThread() == this;
+            return inp_buf;
+        }
+
+        /**
+         * Check if the calling thread is this worker thread.
+         * @return true if running on the worker thread.
+         */
+        boolean isWorkerThread() {
+            return Thread.currentThread() == this;
+        }
+
+        /**
+         * Run a task on the worker thread.
+         * This method can be invoked from any thread.
+         * @param r - the task.
+         */
+        void execute(Runnable r) {
+            tasks.add(r);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            for (;;) {
+                try {
+                    selector.select();
+                    for (;;) {
+                        Runnable r = tasks.poll();
+                        if (r == null) break;
+                        try {
+                            r.run();
+                        }
+                        catch (Throwable x) {
+                            Protocol.log("Unhandled exception in TCF NIO selector", x);
+                        }
+                    }
+                    Iterator<SelectionKey> i = selector.selectedKeys().iterator();
+                    while (i.hasNext()) {
+                        SelectionKey key = i.next();
+                        i.remove();
+                        if (!key.isValid()) continue;
+                        ((Handler)key.attachment()).handleIO(key);
+                    }
+                }
+                catch (Throwable x) {
+                    Protocol.log("Unhandled exception in TCF NIO selector", x);
+                }
+            }
+        }
+    }
+
+    private static Worker[] workers;
+    private static int next_worker;
+
+    private static int getWorkerCount() {
+        int n = Runtime.getRuntime().availableProcessors() / 2;
+        if (n > 4) n = 4;
+        String s = System.getProperty("org.eclipse.tcf.core.nio.selectors");
+        if (s != null) {
+            try {
+                n = Integer.parseInt(s);
+            }
+            catch (NumberFormatException x) {
+                Protocol.log("Invalid value of system property org.eclipse.tcf.core.nio.selectors", x);
+            }
+        }
+        if (n < 1) n = 1;
+        return n;
+    }
+
+    /**
+     * Get a selector thread for a new channel.
+     * Threads are started on first use and assigned to channels in round-robin order.
+     * This method can be invoked from any thread.
+     * @return the worker.
+     * @throws IOException if a selector cannot be created.
+     */
+    static synchronized Worker getWorker() throws IOException {
+        if (workers == null) {
+            Worker[] arr = new Worker[getWorkerCount()];
+            for (int i = 0; i < arr.length; i++) arr[i] = new Worker(i);
+            for (Worker w : arr) w.start();
+            workers = arr;
+        }
+        Worker w = workers[next_worker];
+        next_worker = (next_worker + 1) % workers.length;
+        return w;
+    }
+}
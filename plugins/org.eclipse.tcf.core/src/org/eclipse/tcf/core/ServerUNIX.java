@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.tcf.internal.core.ServiceManager;
+import org.eclipse.tcf.protocol.IPeer;
+import org.eclipse.tcf.protocol.Protocol;
+
+/**
+ * ServerUNIX is a UNIX domain socket server that is listening for incoming connection requests
+ * and creates TCF communication channels over UNIX domain sockets for such requests.
+ *
+ * The server peer is advertised by the Locator service on the loopback interface only,
+ * since the socket can be reached only from the same host.
+ * The socket file is created when the server is started and deleted when the server is closed.
+ *
+ * Clients may create objects of this class to become a TCF server.
+ * @since 1.8
+ */
+public class ServerUNIX {
+
+    private static class ServerPeer extends AbstractPeer {
+        ServerPeer(Map<String,String> attrs) {
+            super(attrs);
+        }
+    }
+
+    private final String path;
+    private final ServerSocketChannel server;
+    private ServerPeer peer;
+    private Thread thread;
+    private volatile boolean closed;
+
+    /**
+     * Start the server. Must be called from the dispatch thread.
+     * @param name - server name.
+     * @param path - file system path of the socket, the file must not exist.
+     * @throws IOException
+     */
+    public ServerUNIX(String name, String path) throws IOException {
+        this.path = path;
+        server = ChannelUNIX.openServerSocketChannel(path);
+        Map<String,String> attrs = new HashMap<String,String>();
+        attrs.put(IPeer.ATTR_ID, "UNIX:" + path);
+        attrs.put(IPeer.ATTR_SERVICE_MANGER_ID, ServiceManager.getID());
+        attrs.put(IPeer.ATTR_AGENT_ID, Protocol.getAgentID());
+        attrs.put(IPeer.ATTR_NAME, name);
+        attrs.put(IPeer.ATTR_OS_NAME, System.getProperty("os.name"));
+        attrs.put(IPeer.ATTR_TRANSPORT_NAME, "UNIX");
+        attrs.put(IPeer.ATTR_IP_HOST, "127.0.0.1");
+        attrs.put(IPeer.ATTR_IP_PORT, path);
+        attrs.put(IPeer.ATTR_PROXY, "");
+        peer = new ServerPeer(attrs);
+        thread = new Thread() {
+            @Override
+            public void run() {
+                while (true) {
+                    try {
+                        final SocketChannel socket = server.accept();
+                        Protocol.invokeLater(new Runnable() {
+                            public void run() {
+                                try {
+                                    if (peer == null) socket.close();
+                                    else new ChannelUNIX(peer, getTransientPeer(), socket);
+                                }
+                                catch (final Throwable x) {
+                                    Protocol.log("TCF Server: failed to create a channel", x);
+                                }
+                            }
+                        });
+                    }
+                    catch (final Throwable x) {
+                        if (closed) break;
+                        Protocol.invokeLater(new Runnable() {
+                            public void run() {
+                                Protocol.log("TCF Server thread aborted", x);
+                            }
+                        });
+                        break;
+                    }
+                }
+            }
+        };
+        thread.setName(name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private IPeer getTransientPeer() {
+        Map<String,String> attrs = new HashMap<String,String>();
+        attrs.put(IPeer.ATTR_ID, "UNIX:Transient:" + path);
+        attrs.put(IPeer.ATTR_TRANSPORT_NAME, "UNIX");
+        attrs.put(IPeer.ATTR_IP_PORT, path);
+        return new TransientPeer(attrs);
+    }
+
+    /**
+     * @return file system path of the server socket.
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return the peer that represents this server in the Locator service.
+     */
+    public IPeer getPeer() {
+        return peer;
+    }
+
+    /**
+     * Stop the server and delete the socket file.
+     * Must be called from the dispatch thread.
+     * Channels that were accepted by the server are not closed.
+     * @throws IOException
+     */
+    public void close() throws IOException {
+        if (peer != null) {
+            peer.dispose();
+            peer = null;
+        }
+        closed = true;
+        server.close();
+        new File(path).delete();
+        if (thread != null) {
+            try {
+                thread.join();
+                thread = null;
+            }
+            catch (InterruptedException e) {
+                throw new InterruptedIOException();
+            }
+        }
+    }
+}
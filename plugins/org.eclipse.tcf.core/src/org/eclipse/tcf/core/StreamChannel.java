@@ -11,6 +11,8 @@
 package org.eclipse.tcf.core;
 
 import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
 
 import org.eclipse.tcf.protocol.IPeer;
 
@@ -37,6 +39,18 @@ public abstract class StreamChannel extends AbstractChannel {
     private int inp_buf_pos;
     private int inp_buf_len;
 
+    private byte[] zip_buf;
+    private byte[] zip_data;
+    private int zip_data_pos;
+    private int zip_data_len;
+    private Inflater inflater;
+
+    /* Block input decoding can be disabled by setting "org.eclipse.tcf.core.frame_decoder" to "false" */
+    private final boolean frame_input = !"false".equals(System.getProperty("org.eclipse.tcf.core.frame_decoder"));
+
+    /* Batch output can be disabled by setting "org.eclipse.tcf.core.batch_output" to "false" */
+    private final boolean frame_output = !"false".equals(System.getProperty("org.eclipse.tcf.core.batch_output"));
+
     public StreamChannel(IPeer remote_peer) {
         super(remote_peer);
     }
@@ -77,8 +91,35 @@ public abstract class StreamChannel extends AbstractChannel {
         while (pos < end) put(buf[pos++] & 0xff);
     }
 
+    @Override
+    boolean readFrames(FrameDecoder decoder) throws IOException {
+        if (!frame_input) return false;
+        /* Tell default get(byte[]) how many bytes can be read without blocking */
+        bin_data_size = decoder.getBinaryDataSize();
+        int n = get(inp_buf);
+        if (n < 0) decoder.endOfInput();
+        else decoder.decode(inp_buf, 0, n);
+        return true;
+    }
+
+    @Override
+    boolean isDecompressionSupported() {
+        return true;
+    }
+
+    @Override
+    FrameEncoder.Output getFrameOutput() {
+        if (!frame_output) return null;
+        return new FrameEncoder.Output() {
+            public void put(byte[] buf, int pos, int len) throws IOException {
+                StreamChannel.this.put(buf, pos, len);
+            }
+        };
+    }
+
     @Override
     protected final int read() throws IOException {
+        if (zip_data_pos < zip_data_len) return zip_data[zip_data_pos++] & 0xff;
         for (;;) {
             while (inp_buf_pos >= inp_buf_len) {
                 inp_buf_len = get(inp_buf);
@@ -113,12 +154,83 @@ public abstract class StreamChannel extends AbstractChannel {
                     if ((m & 0x80) == 0) break;
                 }
                 break;
+            case 4:
+                if (!readCompressed()) return EOS;
+                if (zip_data_pos < zip_data_len) return zip_data[zip_data_pos++] & 0xff;
+                break;
             default:
                 throw new IOException("Invalid escape sequence: " + ESC + " " + n);
             }
         }
     }
 
+    private int readByte() throws IOException {
+        while (inp_buf_pos >= inp_buf_len) {
+            inp_buf_len = get(inp_buf);
+            inp_buf_pos = 0;
+            if (inp_buf_len < 0) return -1;
+        }
+        return inp_buf[inp_buf_pos++] & 0xff;
+    }
+
+    private int readSize() throws IOException {
+        int n = 0;
+        for (int i = 0;; i += 7) {
+            int m = readByte();
+            if (m < 0) return -1;
+            n |= (m & 0x7f) << i;
+            if ((m & 0x80) == 0) return n;
+        }
+    }
+
+    /**
+     * Read and inflate a compressed block of message data, see FrameEncoder.
+     * @return false if end of stream is reached.
+     * @throws IOException
+     */
+    private boolean readCompressed() throws IOException {
+        int data_size = readSize();
+        if (data_size < 0) return false;
+        int size = readSize();
+        if (size < 0) return false;
+        if (zip_buf == null || zip_buf.length < size) zip_buf = new byte[size];
+        int pos = 0;
+        while (pos < size) {
+            if (inp_buf_pos >= inp_buf_len) {
+                inp_buf_len = get(inp_buf);
+                inp_buf_pos = 0;
+                if (inp_buf_len < 0) return false;
+                continue;
+            }
+            int n = inp_buf_len - inp_buf_pos;
+            if (n > size - pos) n = size - pos;
+            System.arraycopy(inp_buf, inp_buf_pos, zip_buf, pos, n);
+            inp_buf_pos += n;
+            pos += n;
+        }
+        if (zip_data == null || zip_data.length < data_size) zip_data = new byte[data_size];
+        if (inflater == null) inflater = new Inflater();
+        inflater.reset();
+        inflater.setInput(zip_buf, 0, size);
+        try {
+            int m = 0;
+            while (m < data_size && !inflater.finished()) {
+                int k = inflater.inflate(zip_data, m, data_size - m);
+                if (k == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                m += k;
+            }
+            if (m != data_size || !inflater.finished()) throw new IOException("Invalid compressed data");
+        }
+        catch (DataFormatException x) {
+            IOException y = new IOException("Invalid compressed data");
+            y.initCause(x);
+            throw y;
+        }
+        zip_data_pos = 0;
+        zip_data_len = data_size;
+        return true;
+    }
+
     @Override
     protected final void write(int n) throws IOException {
         switch (n) {
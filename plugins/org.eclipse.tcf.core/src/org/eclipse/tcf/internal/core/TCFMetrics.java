@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.internal.core;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.ObjectName;
+
+import org.eclipse.tcf.core.AbstractChannel;
+import org.eclipse.tcf.core.ChannelMetrics;
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IEventQueue;
+import org.eclipse.tcf.protocol.IPeer;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.util.TCFEventQueue;
+
+/**
+ * TCFMetrics is a JMX MBean that exposes metrics of open TCF channels, see {@link ChannelMetrics}.
+ * The MBean is registered as "org.eclipse.tcf:type=Metrics" when first channel is opened,
+ * if system property "org.eclipse.tcf.core.jmx" is "true".
+ * MBean methods are called by JMX threads, they read the metrics in the dispatch thread.
+ */
+public class TCFMetrics implements TCFMetricsMBean {
+
+    public static final String OBJECT_NAME = "org.eclipse.tcf:type=Metrics";
+
+    private static final boolean enabled = Boolean.getBoolean("org.eclipse.tcf.core.jmx");
+    private static boolean registered;
+
+    /**
+     * Register the MBean with platform MBean server, if enabled and not registered yet.
+     */
+    static synchronized void register() {
+        if (!enabled || registered) return;
+        registered = true;
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new TCFMetrics(), new ObjectName(OBJECT_NAME));
+        }
+        catch (Throwable x) {
+            Protocol.log("Cannot register TCF metrics MBean", x);
+        }
+    }
+
+    private interface Reader<V> {
+        V read(List<ChannelMetrics> list);
+    }
+
+    private static <V> V read(final Reader<V> reader) {
+        final List<V> res = new ArrayList<V>(1);
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                List<ChannelMetrics> list = new ArrayList<ChannelMetrics>();
+                for (IChannel c : TransportManager.getOpenChannels()) {
+                    ChannelMetrics m = ((AbstractChannel)c).getMetrics();
+                    if (m != null) list.add(m);
+                }
+                res.add(reader.read(list));
+            }
+        });
+        return res.get(0);
+    }
+
+    public int getChannelCount() {
+        return read(new Reader<Integer>() {
+            public Integer read(List<ChannelMetrics> list) {
+                return list.size();
+            }
+        });
+    }
+
+    public int getDispatchQueueSize() {
+        IEventQueue queue = Protocol.getEventQueue();
+        if (queue instanceof TCFEventQueue) return ((TCFEventQueue)queue).getQueueSize();
+        return -1;
+    }
+
+    public int getOutputQueueSize() {
+        return read(new Reader<Integer>() {
+            public Integer read(List<ChannelMetrics> list) {
+                int n = 0;
+                for (ChannelMetrics m : list) n += m.getOutputQueueSize();
+                return n;
+            }
+        });
+    }
+
+    public long getPendingCommands() {
+        return read(new Reader<Long>() {
+            public Long read(List<ChannelMetrics> list) {
+                long n = 0;
+                for (ChannelMetrics m : list) n += m.getPendingCommands();
+                return n;
+            }
+        });
+    }
+
+    public long getMessagesSent() {
+        return read(new Reader<Long>() {
+            public Long read(List<ChannelMetrics> list) {
+                long n = 0;
+                for (ChannelMetrics m : list) n += m.getMessagesSent();
+                return n;
+            }
+        });
+    }
+
+    public long getMessagesReceived() {
+        return read(new Reader<Long>() {
+            public Long read(List<ChannelMetrics> list) {
+                long n = 0;
+                for (ChannelMetrics m : list) n += m.getMessagesReceived();
+                return n;
+            }
+        });
+    }
+
+    public long getBytesSent() {
+        return read(new Reader<Long>() {
+            public Long read(List<ChannelMetrics> list) {
+                long n = 0;
+                for (ChannelMetrics m : list) n += m.getBytesSent();
+                return n;
+            }
+        });
+    }
+
+    public long getBytesReceived() {
+        return read(new Reader<Long>() {
+            public Long read(List<ChannelMetrics> list) {
+                long n = 0;
+                for (ChannelMetrics m : list) n += m.getBytesReceived();
+                return n;
+            }
+        });
+    }
+
+    public String[] getReport() {
+        return read(new Reader<String[]>() {
+            public String[] read(List<ChannelMetrics> list) {
+                List<String> lines = new ArrayList<String>();
+                for (IChannel c : TransportManager.getOpenChannels()) {
+                    ChannelMetrics m = ((AbstractChannel)c).getMetrics();
+                    if (m == null) continue;
+                    IPeer peer = c.getRemotePeer();
+                    lines.add("Channel " + Integer.toHexString(c.hashCode()) + " " + peer.getName() + " (" + peer.getID() + ")");
+                    for (String s : m.getReport().split("\n")) lines.add("  " + s);
+                }
+                return lines.toArray(new String[lines.size()]);
+            }
+        });
+    }
+}
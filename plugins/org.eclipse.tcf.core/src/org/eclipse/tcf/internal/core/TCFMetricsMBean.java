@@ -0,0 +1,39 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.internal.core;
+
+/**
+ * JMX management interface of TCF channel metrics, see {@link TCFMetrics}.
+ * Counters are totals over currently open channels.
+ */
+public interface TCFMetricsMBean {
+
+    int getChannelCount();
+
+    int getDispatchQueueSize();
+
+    int getOutputQueueSize();
+
+    long getPendingCommands();
+
+    long getMessagesSent();
+
+    long getMessagesReceived();
+
+    long getBytesSent();
+
+    long getBytesReceived();
+
+    /**
+     * @return metrics report of every open channel, one line per command.
+     */
+    String[] getReport();
+}
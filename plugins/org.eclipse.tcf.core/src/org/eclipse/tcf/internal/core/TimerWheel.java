@@ -0,0 +1,314 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.internal.core;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import org.eclipse.tcf.protocol.Protocol;
+
+/**
+ * Hierarchical timing wheel that implements delayed TCF events, see {@link Protocol#schedule(long, Runnable)}.
+ *
+ * Level 1 wheel has a slot for every millisecond of next WHEEL_SIZE milliseconds,
+ * level 2 wheel has a slot for every WHEEL_SIZE milliseconds block of next WHEEL_SIZE blocks.
+ * Timers that are due later than level 2 horizon are kept in its last slot and re-inserted
+ * when the slot is cascaded. Slots are doubly linked lists, so adding and cancelling a timer
+ * are O(1) operations.
+ *
+ * The timer thread sleeps until next non-empty slot, and posts all timers of a slot
+ * to the event queue at once. Timers that are due at same millisecond are posted in order of creation.
+ */
+public class TimerWheel extends Thread {
+
+    private static final int WHEEL_BITS = 10;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private static final int
+        STATE_WAITING = 0,
+        STATE_POSTED = 1,
+        STATE_CANCELED = 2,
+        STATE_DONE = 3;
+
+    private static final AtomicIntegerFieldUpdater<Entry> state_updater =
+        AtomicIntegerFieldUpdater.newUpdater(Entry.class, "state");
+
+    private static final Comparator<Entry> seq_comparator = new Comparator<Entry>() {
+        public int compare(Entry x, Entry y) {
+            if (x.seq < y.seq) return -1;
+            if (x.seq > y.seq) return +1;
+            return 0;
+        }
+    };
+
+    private final class Entry implements Protocol.Timer, Runnable {
+
+        final long time;
+        final Runnable run;
+        long seq;
+        Entry[] wheel;
+        int slot;
+        Entry prev;
+        Entry next;
+        volatile int state;
+
+        Entry(long time, Runnable run) {
+            this.time = time;
+            this.run = run;
+        }
+
+        public boolean cancel() {
+            if (state == STATE_WAITING) {
+                synchronized (TimerWheel.this) {
+                    if (state == STATE_WAITING) {
+                        unlink(this);
+                        state = STATE_CANCELED;
+                        return true;
+                    }
+                }
+            }
+            return state_updater.compareAndSet(this, STATE_POSTED, STATE_CANCELED);
+        }
+
+        public void run() {
+            if (state_updater.compareAndSet(this, STATE_POSTED, STATE_DONE)) run.run();
+        }
+    }
+
+    private final Entry[] level1 = new Entry[WHEEL_SIZE];
+    private final Entry[] level2 = new Entry[WHEEL_SIZE];
+    private final long time_base = System.nanoTime();
+
+    private Entry[] expired = new Entry[64];
+    private int level1_cnt;
+    private int level2_cnt;
+    private long seq_cnt;
+
+    /** Next tick (millisecond) to be processed */
+    private long cur;
+
+    /** Tick when the timer thread is going to wake up, Long.MAX_VALUE if it waits for notification */
+    private long wake_tick = Long.MAX_VALUE;
+
+    public TimerWheel() {
+        setName("TCF Timer Dispatcher");
+        setDaemon(true);
+    }
+
+    private long getTime() {
+        return (System.nanoTime() - time_base) / 1000000;
+    }
+
+    /**
+     * Add a timer.
+     * This method can be invoked from any thread.
+     * @param delay - milliseconds to delay event dispatch.
+     * @param runnable - the event.
+     * @return timer handle.
+     */
+    public Protocol.Timer add(long delay, Runnable runnable) {
+        Entry e = new Entry(getTime() + delay, runnable);
+        synchronized (this) {
+            e.seq = seq_cnt++;
+            insert(e);
+            if (e.time < wake_tick) notify();
+        }
+        return e;
+    }
+
+    /**
+     * @return number of timers that are waiting to be posted to the event queue.
+     */
+    public synchronized int size() {
+        return level1_cnt + level2_cnt;
+    }
+
+    private void insert(Entry e) {
+        long tick = e.time < cur ? cur : e.time;
+        if (tick - cur < WHEEL_SIZE) {
+            link(level1, (int)tick & WHEEL_MASK, e);
+            level1_cnt++;
+        }
+        else {
+            long block = tick >> WHEEL_BITS;
+            long last = (cur >> WHEEL_BITS) + WHEEL_SIZE - 1;
+            if (block > last) block = last;
+            link(level2, (int)block & WHEEL_MASK, e);
+            level2_cnt++;
+        }
+    }
+
+    private void link(Entry[] wheel, int slot, Entry e) {
+        Entry first = wheel[slot];
+        e.wheel = wheel;
+        e.slot = slot;
+        if (first == null) {
+            e.prev = e.next = e;
+            wheel[slot] = e;
+        }
+        else {
+            Entry last = first.prev;
+            e.prev = last;
+            e.next = first;
+            last.next = e;
+            first.prev = e;
+        }
+    }
+
+    private void unlink(Entry e) {
+        Entry[] wheel = e.wheel;
+        if (wheel == level1) level1_cnt--;
+        else level2_cnt--;
+        if (e.next == e) {
+            wheel[e.slot] = null;
+        }
+        else {
+            e.prev.next = e.next;
+            e.next.prev = e.prev;
+            if (wheel[e.slot] == e) wheel[e.slot] = e.next;
+        }
+        e.prev = e.next = null;
+        e.wheel = null;
+    }
+
+    /**
+     * Move level 2 slot entries of 'cur' block into level 1 wheel.
+     * Called every time 'cur' enters a new block, so level 2 slot of current block is always empty.
+     */
+    private void cascade() {
+        int slot = (int)(cur >> WHEEL_BITS) & WHEEL_MASK;
+        Entry e = level2[slot];
+        if (e == null) return;
+        level2[slot] = null;
+        e.prev.next = null;
+        while (e != null) {
+            Entry next = e.next;
+            level2_cnt--;
+            insert(e);
+            e = next;
+        }
+    }
+
+    /**
+     * Remove all entries of level 1 slot of 'cur' tick, and append them to 'expired' array.
+     * @param n - number of entries in 'expired' array.
+     * @return new number of entries in 'expired' array.
+     */
+    private int expire(int n) {
+        int slot = (int)cur & WHEEL_MASK;
+        Entry e = level1[slot];
+        if (e == null) return n;
+        level1[slot] = null;
+        e.prev.next = null;
+        int n0 = n;
+        while (e != null) {
+            Entry next = e.next;
+            e.prev = e.next = null;
+            e.wheel = null;
+            e.state = STATE_POSTED;
+            level1_cnt--;
+            if (n >= expired.length) {
+                Entry[] tmp = new Entry[expired.length * 2];
+                System.arraycopy(expired, 0, tmp, 0, n);
+                expired = tmp;
+            }
+            expired[n++] = e;
+            e = next;
+        }
+        /* Cascaded entries can be linked after newer ones */
+        for (int i = n0 + 1; i < n; i++) {
+            if (expired[i - 1].seq > expired[i].seq) {
+                Arrays.sort(expired, n0, n, seq_comparator);
+                break;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Process all ticks up to given time.
+     * @return number of expired entries.
+     */
+    private int advance(long time) {
+        int n = 0;
+        while (cur <= time) {
+            if (level1_cnt > 0) {
+                n = expire(n);
+                cur++;
+            }
+            else if (level2_cnt > 0) {
+                /* Skip to next block */
+                long next = ((cur >> WHEEL_BITS) + 1) << WHEEL_BITS;
+                cur = next < time + 1 ? next : time + 1;
+            }
+            else {
+                cur = time + 1;
+            }
+            if ((cur & WHEEL_MASK) == 0) cascade();
+        }
+        return n;
+    }
+
+    /**
+     * @return next tick that needs processing, or Long.MAX_VALUE if the wheel is empty.
+     */
+    private long getNextTick() {
+        long tick = Long.MAX_VALUE;
+        if (level2_cnt > 0) {
+            long block = (cur >> WHEEL_BITS) + 1;
+            for (int i = 0; i < WHEEL_SIZE; i++) {
+                if (level2[(int)(block + i) & WHEEL_MASK] != null) {
+                    tick = (block + i) << WHEEL_BITS;
+                    break;
+                }
+            }
+        }
+        if (level1_cnt > 0) {
+            for (long t = cur; t < cur + WHEEL_SIZE && t < tick; t++) {
+                if (level1[(int)t & WHEEL_MASK] != null) return t;
+            }
+        }
+        return tick;
+    }
+
+    @Override
+    public void run() {
+        try {
+            for (;;) {
+                int n = 0;
+                synchronized (this) {
+                    for (;;) {
+                        long time = getTime();
+                        n = advance(time);
+                        if (n > 0) break;
+                        wake_tick = getNextTick();
+                        if (wake_tick == Long.MAX_VALUE) wait();
+                        else wait(wake_tick - time);
+                        wake_tick = Long.MAX_VALUE;
+                    }
+                }
+                for (int i = 0; i < n; i++) {
+                    Entry e = expired[i];
+                    expired[i] = null;
+                    Protocol.invokeLater(e);
+                }
+            }
+        }
+        catch (IllegalStateException x) {
+            // Dispatch is shut down, exit this thread
+        }
+        catch (Throwable x) {
+            Protocol.log("Exception in TCF dispatch loop", x);
+        }
+    }
+}
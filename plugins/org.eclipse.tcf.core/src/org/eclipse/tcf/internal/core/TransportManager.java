@@ -19,8 +19,10 @@ import java.util.Set;
 
 import org.eclipse.tcf.core.AbstractChannel;
 import org.eclipse.tcf.core.ChannelHTTP;
+import org.eclipse.tcf.core.ChannelNIO;
 import org.eclipse.tcf.core.ChannelPIPE;
 import org.eclipse.tcf.core.ChannelTCP;
+import org.eclipse.tcf.core.ChannelUNIX;
 import org.eclipse.tcf.protocol.IChannel;
 import org.eclipse.tcf.protocol.IPeer;
 import org.eclipse.tcf.protocol.IService;
@@ -53,6 +55,10 @@ public class TransportManager {
      */
     private static final HashMap<String,ITransportProvider> transports =
         new HashMap<String,ITransportProvider>();
+    /**
+     * If true, "TCP" transport uses non-blocking ChannelNIO instead of ChannelTCP
+     */
+    private static final boolean use_nio = Boolean.getBoolean("org.eclipse.tcf.core.nio");
 
     static {
         addTransportProvider(new ITransportProvider() {
@@ -67,6 +73,7 @@ public class TransportManager {
                 String host = attrs.get(IPeer.ATTR_IP_HOST);
                 String port = attrs.get(IPeer.ATTR_IP_PORT);
                 if (host == null) throw new IllegalArgumentException("No host name");
+                if (use_nio) return new ChannelNIO(peer, host, parsePort(port));
                 return new ChannelTCP(peer, host, parsePort(port), false);
             }
         });
@@ -101,6 +108,20 @@ public class TransportManager {
             }
         });
 
+        addTransportProvider(new ITransportProvider() {
+
+            public String getName() {
+                return "UNIX";
+            }
+
+            public IChannel openChannel(IPeer peer) {
+                assert getName().equals(peer.getTransportName());
+                String path = peer.getAttributes().get(IPeer.ATTR_IP_PORT);
+                if (path == null) throw new IllegalArgumentException("No socket path");
+                return new ChannelUNIX(peer, path);
+            }
+        });
+
         addTransportProvider(new ITransportProvider() {
 
             public String getName() {
@@ -213,6 +234,7 @@ public class TransportManager {
     public static void channelOpened(final AbstractChannel channel) {
         assert !channels.contains(channel);
         channels.add(channel);
+        TCFMetrics.register();
         Protocol.ChannelOpenListener[] array = listeners.toArray(new Protocol.ChannelOpenListener[listeners.size()]);
         for (Protocol.ChannelOpenListener l : array) {
             try {
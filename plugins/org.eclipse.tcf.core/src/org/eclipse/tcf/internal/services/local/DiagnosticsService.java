@@ -18,10 +18,12 @@ import org.eclipse.tcf.internal.core.Token;
 import org.eclipse.tcf.core.Command;
 import org.eclipse.tcf.protocol.IChannel;
 import org.eclipse.tcf.protocol.IErrorReport;
+import org.eclipse.tcf.protocol.IService;
 import org.eclipse.tcf.protocol.IToken;
 import org.eclipse.tcf.protocol.JSON;
 import org.eclipse.tcf.protocol.Protocol;
 import org.eclipse.tcf.services.IDiagnostics;
+import org.eclipse.tcf.services.IStreams;
 
 
 public class DiagnosticsService implements IDiagnostics {
@@ -61,6 +63,24 @@ public class DiagnosticsService implements IDiagnostics {
                 Map<String,Object> err = (Map<String,Object>)args[0];
                 channel.sendResult(token, JSON.toJSONSequence(new Object[]{ err, Command.toErrorString(err) }));
             }
+            else if (name.equals("createTestStreams")) {
+                if (args.length != 2) throw new Exception("Invalid number of arguments");
+                SimulatedStreamsService streams = getSimulatedStreams();
+                if (streams == null) {
+                    channel.rejectCommand(token);
+                    return;
+                }
+                streams.createTestStreams(token);
+            }
+            else if (name.equals("disposeTestStream")) {
+                if (args.length != 1) throw new Exception("Invalid number of arguments");
+                SimulatedStreamsService streams = getSimulatedStreams();
+                if (streams == null) {
+                    channel.rejectCommand(token);
+                    return;
+                }
+                streams.disposeTestStream(token, (String)args[0]);
+            }
             else if (name.equals("getTestList")) {
                 if (args.length != 0) throw new Exception("Invalid number of arguments");
                 channel.sendResult(token, JSON.toJSONSequence(new Object[]{ null, new String[0] }));
@@ -71,6 +91,15 @@ public class DiagnosticsService implements IDiagnostics {
         }
     }
 
+    /**
+     * Test streams are implemented only in channels of a simulated agent.
+     */
+    private SimulatedStreamsService getSimulatedStreams() {
+        IService service = channel.getLocalService(IStreams.NAME);
+        if (service instanceof SimulatedStreamsService) return (SimulatedStreamsService)service;
+        return null;
+    }
+
     public DiagnosticsService(IChannel channel) {
         this.channel = channel;
         channel.addCommandServer(this, new CommandServer());
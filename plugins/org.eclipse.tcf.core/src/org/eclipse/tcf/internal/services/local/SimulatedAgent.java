@@ -0,0 +1,444 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.internal.services.local;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.tcf.core.AbstractChannel;
+import org.eclipse.tcf.core.ChannelRing;
+import org.eclipse.tcf.core.ServerTCP;
+import org.eclipse.tcf.core.TransientPeer;
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IPeer;
+import org.eclipse.tcf.protocol.IService;
+import org.eclipse.tcf.protocol.IServiceProvider;
+import org.eclipse.tcf.protocol.JSON;
+import org.eclipse.tcf.protocol.Protocol;
+
+/**
+ * SimulatedAgent provides RunControl, Memory, Registers, StackTrace, Symbols, SysMonitor, FileSystem and Streams
+ * services for a synthetic target, which exists only in memory of the client process.
+ * The agent is intended for profiling and regression testing of client side code,
+ * like debugger and target explorer models, without a real agent and a real target.
+ *
+ * Size of the target is configurable, see {@link #SimulatedAgent(String)}.
+ * Target data is computed from context IDs and addresses when requested, so even a very large target
+ * does not use memory until the client writes to it.
+ *
+ * Services of the agent are provided only to the server end of channels created by {@link #connect(IPeer)},
+ * and channels accepted by the server started with {@link #startServer(int)}.
+ * Multiple channels share same target state, and events are sent to all of them.
+ * Streams service provides the test streams of Diagnostics 'createTestStreams' command.
+ */
+public class SimulatedAgent {
+
+    /** Default configuration of the agent */
+    public static final String DEFAULT_OPTIONS =
+        "processes=1,threads=4,frames=8,registers=32,symbols=1000,sysmon=100,dirs=10,files=100,depth=2,file_size=4096,latency=0";
+
+    /** Address of the first function symbol */
+    static final long CODE_ADDR = 0x400000;
+
+    /** Size of each function symbol */
+    static final long FUNC_SIZE = 0x100;
+
+    /** Stack top address of the first thread */
+    static final long STACK_ADDR = 0x7ff00000;
+
+    private static int agent_cnt;
+
+    final int processes;
+    final int threads;
+    final int frames;
+    final int registers;
+    final int symbols;
+    final int sysmon;
+    final int dirs;
+    final int files;
+    final int depth;
+    final int file_size;
+    final long latency;
+
+    final SimulatedFileSystem file_system = new SimulatedFileSystem(this);
+
+    private final boolean[] thread_running;
+    private final long[] thread_pc;
+    private final Map<String,byte[]> memory = new HashMap<String,byte[]>();
+    private final Map<String,byte[]> reg_values = new HashMap<String,byte[]>();
+    final Map<String,SimulatedStreamsService.Stream> streams = new HashMap<String,SimulatedStreamsService.Stream>();
+    int stream_cnt;
+    private final List<SimulatedService> services = new ArrayList<SimulatedService>();
+
+    private final IPeer peer;
+    private ServerTCP server;
+    private boolean disposed;
+
+    private final IServiceProvider provider = new IServiceProvider() {
+
+        public IService[] getLocalService(IChannel channel) {
+            if (disposed || !isServerChannel(channel)) return null;
+            return new IService[]{
+                new SimulatedRunControlService(SimulatedAgent.this, channel),
+                new SimulatedMemoryService(SimulatedAgent.this, channel),
+                new SimulatedRegistersService(SimulatedAgent.this, channel),
+                new SimulatedStackTraceService(SimulatedAgent.this, channel),
+                new SimulatedSymbolsService(SimulatedAgent.this, channel),
+                new SimulatedSysMonitorService(SimulatedAgent.this, channel),
+                new SimulatedFileSystemService(SimulatedAgent.this, channel),
+                new SimulatedStreamsService(SimulatedAgent.this, channel),
+            };
+        }
+
+        public IService getServiceProxy(IChannel channel, String service_name) {
+            return null;
+        }
+    };
+
+    /**
+     * Create a simulated agent and register its service provider.
+     * Options is a comma separated list of NAME=VALUE pairs, names that are not listed use values from
+     * {@link #DEFAULT_OPTIONS}:
+     * <ul>
+     * <li>processes - number of debug processes, shown by RunControl and Memory services;
+     * <li>threads - number of threads in each process;
+     * <li>frames - stack depth of each thread;
+     * <li>registers - number of registers of each thread and stack frame;
+     * <li>symbols - number of function symbols in each process;
+     * <li>sysmon - number of processes shown by SysMonitor service;
+     * <li>dirs, files, depth - shape of read-only file tree under "/sim": every directory contains
+     * "dirs" subdirectories, down to "depth" levels, and "files" files of "file_size" bytes;
+     * <li>latency - delay, in milliseconds, of every command reply.
+     * </ul>
+     * For example, "threads=10000" simulates a process with 10000 threads, "sysmon=100000" shows 100000 processes,
+     * and "dirs=100,depth=2,files=100" creates a tree of about 1 million files.
+     * Must be called from the dispatch thread.
+     * @param options - agent options, can be null.
+     * @throws IllegalArgumentException if the options are invalid.
+     */
+    public SimulatedAgent(String options) {
+        assert Protocol.isDispatchThread();
+        Map<String,Integer> m = new HashMap<String,Integer>();
+        parseOptions(DEFAULT_OPTIONS, m);
+        if (options != null) parseOptions(options, m);
+        processes = m.get("processes");
+        threads = m.get("threads");
+        frames = m.get("frames");
+        registers = m.get("registers");
+        symbols = m.get("symbols");
+        sysmon = m.get("sysmon");
+        dirs = m.get("dirs");
+        files = m.get("files");
+        depth = m.get("depth");
+        file_size = m.get("file_size");
+        latency = m.get("latency");
+        if (processes < 1 || threads < 1 || frames < 1 || registers < 3 || symbols < 1) {
+            throw new IllegalArgumentException("Invalid simulated agent options: " + options);
+        }
+        thread_running = new boolean[processes * threads];
+        thread_pc = new long[processes * threads];
+        for (int i = 0; i < thread_pc.length; i++) {
+            thread_pc[i] = getFuncAddress(i % symbols) + 0x10;
+        }
+        peer = new TransientPeer(createPeerAttributes("Sim:" + agent_cnt++));
+        Protocol.addServiceProvider(provider);
+    }
+
+    private static void parseOptions(String options, Map<String,Integer> m) {
+        boolean defaults = m.isEmpty();
+        for (String s : options.split(",")) {
+            s = s.trim();
+            if (s.length() == 0) continue;
+            int i = s.indexOf('=');
+            String name = i < 0 ? s : s.substring(0, i).trim();
+            if (!defaults && !m.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown simulated agent option: " + name);
+            }
+            try {
+                int n = Integer.parseInt(s.substring(i + 1).trim());
+                if (i < 0 || n < 0) throw new NumberFormatException();
+                m.put(name, n);
+            }
+            catch (NumberFormatException x) {
+                throw new IllegalArgumentException("Invalid value of simulated agent option: " + s);
+            }
+        }
+    }
+
+    private static Map<String,String> createPeerAttributes(String id) {
+        Map<String,String> attrs = new HashMap<String,String>();
+        attrs.put(IPeer.ATTR_ID, id);
+        attrs.put(IPeer.ATTR_NAME, "Simulated Agent");
+        attrs.put(IPeer.ATTR_OS_NAME, "Simulated");
+        attrs.put(IPeer.ATTR_TRANSPORT_NAME, "Loop");
+        return attrs;
+    }
+
+    /**
+     * Get the peer that represents the agent in channels created by {@link #connect(IPeer)}.
+     * @return peer object.
+     */
+    public IPeer getPeer() {
+        return peer;
+    }
+
+    /**
+     * Open an in-process channel to the agent.
+     * Must be called from the dispatch thread.
+     * @param client_peer - peer that represents the client, null means the local peer.
+     * @return the client end of the channel.
+     */
+    public IChannel connect(IPeer client_peer) {
+        assert Protocol.isDispatchThread();
+        if (disposed) throw new IllegalStateException("Simulated agent is disposed");
+        if (client_peer == null) client_peer = new TransientPeer(createPeerAttributes(peer.getID() + ":Client"));
+        return ChannelRing.connect(peer, client_peer);
+    }
+
+    /**
+     * Start a TCP server that accepts connections to the agent.
+     * @param port - TCP port, 0 means any free port.
+     * @return the server, clients should use its local port to connect.
+     * @throws IOException
+     */
+    public ServerTCP startServer(int port) throws IOException {
+        assert Protocol.isDispatchThread();
+        if (server != null) throw new IllegalStateException("Simulated agent server is already started");
+        server = new ServerTCP("TCF Simulated Agent", port);
+        return server;
+    }
+
+    /**
+     * Stop the server, if any, and remove the service provider of the agent.
+     * Open channels are not closed, they continue to use the agent services.
+     * Must be called from the dispatch thread.
+     */
+    public void dispose() {
+        assert Protocol.isDispatchThread();
+        if (disposed) return;
+        disposed = true;
+        Protocol.removeServiceProvider(provider);
+        if (server != null) {
+            try {
+                server.close();
+            }
+            catch (IOException x) {
+                Protocol.log("Cannot close simulated agent server", x);
+            }
+            server = null;
+        }
+    }
+
+    boolean isServerChannel(IChannel channel) {
+        IPeer local = channel.getLocalPeer();
+        if (local == peer) return true;
+        if (server == null) return false;
+        return Integer.toString(server.getLocalPort()).equals(local.getAttributes().get(IPeer.ATTR_IP_PORT));
+    }
+
+    void addService(SimulatedService service) {
+        services.add(service);
+    }
+
+    void removeService(SimulatedService service) {
+        services.remove(service);
+    }
+
+    /**
+     * Get services with given name of all channels that are connected to the agent.
+     */
+    List<SimulatedService> getServices(String service_name) {
+        List<SimulatedService> list = new ArrayList<SimulatedService>();
+        for (SimulatedService s : services) {
+            if (s.getName().equals(service_name)) list.add(s);
+        }
+        return list;
+    }
+
+    /**
+     * Send an event to all channels that are connected to the agent.
+     */
+    void sendEvent(String service_name, String name, Object[] args) {
+        byte[] data = null;
+        for (SimulatedService s : services) {
+            if (!s.getName().equals(service_name)) continue;
+            if (s.channel.getState() != IChannel.STATE_OPEN) continue;
+            try {
+                if (data == null) data = JSON.toJSONSequence(args);
+                ((AbstractChannel)s.channel).sendEvent(s, name, data);
+            }
+            catch (IOException x) {
+                Protocol.log("Cannot send simulated agent event", x);
+                return;
+            }
+        }
+    }
+
+    /* Context IDs: process "P<n>", thread "P<n>.T<n>", stack frame "P<n>.T<n>.F<n>",
+     * register "P<n>.T<n>.R<n>" or "P<n>.T<n>.F<n>.R<n>", symbol "P<n>.S<n>" */
+
+    /**
+     * Parse a context ID.
+     * @return array of process, thread, frame, register and symbol numbers, -1 if missing,
+     * or null if the ID is not valid.
+     */
+    int[] parseID(String id) {
+        if (id == null || !id.startsWith("P")) return null;
+        int[] res = { -1, -1, -1, -1, -1 };
+        int[] max = { processes, threads, frames, registers, symbols };
+        String kinds = "PTFRS";
+        int pos = 0;
+        int prev = -1;
+        while (pos < id.length()) {
+            int kind = kinds.indexOf(id.charAt(pos));
+            if (kind <= prev) return null;
+            if (prev < 0 && kind != 0) return null;
+            if (kind == 4 && prev != 0) return null;
+            if (kind == 2 && prev != 1) return null;
+            int end = id.indexOf('.', pos);
+            if (end < 0) end = id.length();
+            try {
+                int n = Integer.parseInt(id.substring(pos + 1, end));
+                if (n < 0 || n >= max[kind]) return null;
+                res[kind] = n;
+            }
+            catch (NumberFormatException x) {
+                return null;
+            }
+            prev = kind;
+            pos = end + 1;
+            if (end == id.length() - 1) return null;
+        }
+        if (res[1] < 0 && (res[2] >= 0 || res[3] >= 0)) return null;
+        return res;
+    }
+
+    static String getProcessID(int p) {
+        return "P" + p;
+    }
+
+    static String getThreadID(int p, int t) {
+        return "P" + p + ".T" + t;
+    }
+
+    static String getFrameID(int p, int t, int f) {
+        return "P" + p + ".T" + t + ".F" + f;
+    }
+
+    static String getSymbolID(int p, int s) {
+        return "P" + p + ".S" + s;
+    }
+
+    static long getFuncAddress(int s) {
+        return CODE_ADDR + s * FUNC_SIZE;
+    }
+
+    /**
+     * Get function symbol number that contains an address.
+     * @return symbol number, or -1 if the address is outside of the code.
+     */
+    int getFuncAt(long addr) {
+        if (addr < CODE_ADDR) return -1;
+        long n = (addr - CODE_ADDR) / FUNC_SIZE;
+        if (n >= symbols) return -1;
+        return (int)n;
+    }
+
+    boolean isRunning(int p, int t) {
+        return thread_running[p * threads + t];
+    }
+
+    void setRunning(int p, int t, boolean running) {
+        thread_running[p * threads + t] = running;
+    }
+
+    long getPC(int p, int t) {
+        return thread_pc[p * threads + t];
+    }
+
+    /**
+     * Advance program counter of a thread by one instruction, like a step command.
+     */
+    long step(int p, int t) {
+        int i = p * threads + t;
+        long pc = thread_pc[i] + 4;
+        if (getFuncAt(pc) != getFuncAt(thread_pc[i])) pc -= FUNC_SIZE;
+        return thread_pc[i] = pc;
+    }
+
+    /** Instruction address of a stack frame, frame 0 is the top frame */
+    long getFrameIP(int p, int t, int f) {
+        long pc = getPC(p, t);
+        if (f == 0) return pc;
+        int s = (getFuncAt(pc) + f) % symbols;
+        return getFuncAddress(s) + 0x20;
+    }
+
+    /** Frame address of a stack frame, frame 0 is the top frame */
+    long getFrameFP(int p, int t, int f) {
+        return STACK_ADDR - t * 0x10000L + (f - frames) * 0x80L;
+    }
+
+    /**
+     * Get register value.
+     * Registers 0, 1 and 2 are program counter, stack pointer and frame pointer,
+     * other registers have synthetic values until written by a client.
+     */
+    byte[] getRegister(String id, int[] ids) {
+        byte[] v = reg_values.get(id);
+        if (v != null) return v;
+        int f = ids[2] < 0 ? 0 : ids[2];
+        long n;
+        switch (ids[3]) {
+        case 0: n = getFrameIP(ids[0], ids[1], f); break;
+        case 1: n = getFrameFP(ids[0], ids[1], f) - 0x40; break;
+        case 2: n = getFrameFP(ids[0], ids[1], f); break;
+        default: n = (ids[0] * 0x1000003L + ids[1] * 0x10001L + f * 0x101L) * 31 + ids[3]; break;
+        }
+        v = new byte[8];
+        for (int i = 0; i < 8; i++) v[i] = (byte)(n >> (i * 8));
+        return v;
+    }
+
+    void setRegister(String id, byte[] value) {
+        reg_values.put(id, value);
+    }
+
+    /**
+     * Read memory of a process.
+     * Memory that was not written by a client has synthetic contents computed from the address.
+     */
+    void readMemory(int p, long addr, byte[] buf, int pos, int size) {
+        for (int i = 0; i < size; i++) {
+            long a = addr + i;
+            byte[] page = memory.get(p + ":" + (a >>> 12));
+            if (page != null) buf[pos + i] = page[(int)(a & 0xfff)];
+            else buf[pos + i] = (byte)(a ^ (a >>> 8) ^ p);
+        }
+    }
+
+    void writeMemory(int p, long addr, byte[] buf, int pos, int size) {
+        for (int i = 0; i < size; i++) {
+            long a = addr + i;
+            String key = p + ":" + (a >>> 12);
+            byte[] page = memory.get(key);
+            if (page == null) {
+                page = new byte[0x1000];
+                readMemory(p, a & ~0xfffL, page, 0, page.length);
+                memory.put(key, page);
+            }
+            page[(int)(a & 0xfff)] = buf[pos + i];
+        }
+    }
+}
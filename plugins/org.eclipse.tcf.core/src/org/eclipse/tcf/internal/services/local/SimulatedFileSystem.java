@@ -0,0 +1,263 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.internal.services.local;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.eclipse.tcf.services.IFileSystem;
+
+/**
+ * File system of the simulated agent, shared by all channels.
+ * The root directory contains read-only directory "/sim", which is generated from the agent options,
+ * and directory "/tmp", which is kept in memory and can be modified by clients.
+ */
+class SimulatedFileSystem {
+
+    static final String SIM_DIR = "/sim";
+    static final String TMP_DIR = "/tmp";
+
+    /** Modification time of generated files */
+    private static final long SIM_TIME = 1577836800000L;
+
+    static class File {
+        final boolean dir;
+        byte[] data;
+        int size;
+        int permissions;
+        long atime;
+        long mtime;
+
+        File(boolean dir) {
+            this.dir = dir;
+            permissions = dir ? 0755 : 0644;
+            atime = mtime = System.currentTimeMillis();
+            if (!dir) data = new byte[0x100];
+        }
+    }
+
+    private final SimulatedAgent agent;
+
+    /** Files and directories under TMP_DIR, including TMP_DIR itself, sorted by path */
+    private final TreeMap<String,File> tmp = new TreeMap<String,File>();
+
+    SimulatedFileSystem(SimulatedAgent agent) {
+        this.agent = agent;
+        tmp.put(TMP_DIR, new File(true));
+    }
+
+    /**
+     * Convert a path to absolute normalized form.
+     * Relative paths are relative to TMP_DIR, which is home directory of the user.
+     */
+    static String normalize(String path) {
+        if (!path.startsWith("/")) path = TMP_DIR + "/" + path;
+        List<String> list = new ArrayList<String>();
+        for (String s : path.split("/")) {
+            if (s.length() == 0 || s.equals(".")) continue;
+            if (s.equals("..")) {
+                if (list.size() > 0) list.remove(list.size() - 1);
+                continue;
+            }
+            list.add(s);
+        }
+        if (list.isEmpty()) return "/";
+        StringBuffer bf = new StringBuffer();
+        for (String s : list) bf.append('/').append(s);
+        return bf.toString();
+    }
+
+    static String getParent(String path) {
+        int i = path.lastIndexOf('/');
+        return i == 0 ? "/" : path.substring(0, i);
+    }
+
+    static boolean isTmp(String path) {
+        return path.equals(TMP_DIR) || path.startsWith(TMP_DIR + "/");
+    }
+
+    /**
+     * Check a path in the generated tree.
+     * @return 1 if the path is a directory, 2 if it is a file, 0 if it does not exist.
+     */
+    private int getSimKind(String path) {
+        if (path.equals(SIM_DIR)) return 1;
+        if (!path.startsWith(SIM_DIR + "/")) return 0;
+        String[] arr = path.substring(SIM_DIR.length() + 1).split("/");
+        for (int i = 0; i < arr.length; i++) {
+            String s = arr[i];
+            boolean last = i == arr.length - 1;
+            if (s.startsWith("d") && i < agent.depth && isIndex(s.substring(1), agent.dirs)) continue;
+            if (s.startsWith("f") && last && isIndex(s.substring(1), agent.files)) return 2;
+            return 0;
+        }
+        return 1;
+    }
+
+    private static boolean isIndex(String s, int max) {
+        try {
+            int n = Integer.parseInt(s);
+            return n >= 0 && n < max && s.equals(Integer.toString(n));
+        }
+        catch (NumberFormatException x) {
+            return false;
+        }
+    }
+
+    File getFile(String path) {
+        return tmp.get(path);
+    }
+
+    boolean isSimFile(String path) {
+        return getSimKind(path) == 2;
+    }
+
+    boolean isDirectory(String path) {
+        if (path.equals("/")) return true;
+        File f = tmp.get(path);
+        if (f != null) return f.dir;
+        return getSimKind(path) == 1;
+    }
+
+    /**
+     * Get file attributes.
+     * @return attributes in protocol format, or null if the file does not exist.
+     */
+    Map<String,Object> getAttrs(String path) {
+        long size = 0;
+        int permissions = 0;
+        long atime = SIM_TIME;
+        long mtime = SIM_TIME;
+        File f = tmp.get(path);
+        if (f != null) {
+            size = f.dir ? 0 : f.size;
+            permissions = (f.dir ? IFileSystem.S_IFDIR : IFileSystem.S_IFREG) | f.permissions;
+            atime = f.atime;
+            mtime = f.mtime;
+        }
+        else if (path.equals("/")) {
+            permissions = IFileSystem.S_IFDIR | 0755;
+        }
+        else {
+            switch (getSimKind(path)) {
+            case 0: return null;
+            case 1: permissions = IFileSystem.S_IFDIR | 0555; break;
+            default: permissions = IFileSystem.S_IFREG | 0444; size = agent.file_size; break;
+            }
+        }
+        Map<String,Object> m = new HashMap<String,Object>();
+        m.put("Size", size);
+        m.put("UID", 0);
+        m.put("GID", 0);
+        m.put("Permissions", permissions);
+        m.put("ATime", atime);
+        m.put("MTime", mtime);
+        return m;
+    }
+
+    /**
+     * Get names of directory entries.
+     */
+    List<String> list(String path) {
+        List<String> list = new ArrayList<String>();
+        if (path.equals("/")) {
+            list.add(SIM_DIR.substring(1));
+            list.add(TMP_DIR.substring(1));
+        }
+        else if (isTmp(path)) {
+            String prefix = path + "/";
+            for (String s : tmp.tailMap(prefix).keySet()) {
+                if (!s.startsWith(prefix)) break;
+                if (s.indexOf('/', prefix.length()) < 0) list.add(s.substring(prefix.length()));
+            }
+        }
+        else {
+            int level = path.equals(SIM_DIR) ? 0 : path.split("/").length - 2;
+            if (level < agent.depth) {
+                for (int i = 0; i < agent.dirs; i++) list.add("d" + i);
+            }
+            for (int i = 0; i < agent.files; i++) list.add("f" + i);
+        }
+        return list;
+    }
+
+    /**
+     * Read file data.
+     * @return number of bytes read.
+     */
+    int read(String path, long offs, byte[] buf, int len) {
+        File f = tmp.get(path);
+        long size = f != null ? f.size : agent.file_size;
+        if (offs >= size) return 0;
+        int n = (int)Math.min(len, size - offs);
+        if (f != null) {
+            System.arraycopy(f.data, (int)offs, buf, 0, n);
+            f.atime = System.currentTimeMillis();
+        }
+        else {
+            int seed = path.hashCode();
+            for (int i = 0; i < n; i++) buf[i] = (byte)((offs + i) * 7 + seed);
+        }
+        return n;
+    }
+
+    void write(File f, long offs, byte[] buf) {
+        setSize(f, Math.max(f.size, offs + buf.length));
+        System.arraycopy(buf, 0, f.data, (int)offs, buf.length);
+        f.mtime = System.currentTimeMillis();
+    }
+
+    void setSize(File f, long size) {
+        if (size > f.data.length) {
+            byte[] data = new byte[(int)Math.max(size, f.data.length * 2L)];
+            System.arraycopy(f.data, 0, data, 0, f.size);
+            f.data = data;
+        }
+        else if (size > f.size) {
+            for (int i = f.size; i < size; i++) f.data[i] = 0;
+        }
+        f.size = (int)size;
+    }
+
+    File create(String path, boolean dir) {
+        File f = new File(dir);
+        tmp.put(path, f);
+        File p = tmp.get(getParent(path));
+        p.mtime = f.mtime;
+        return f;
+    }
+
+    void remove(String path) {
+        tmp.remove(path);
+        File p = tmp.get(getParent(path));
+        p.mtime = System.currentTimeMillis();
+    }
+
+    /**
+     * Move a file or a directory with its contents.
+     */
+    void rename(String src, String dst) {
+        String prefix = src + "/";
+        Map<String,File> sub = new HashMap<String,File>(tmp.subMap(prefix, src + "0"));
+        for (String s : sub.keySet()) tmp.remove(s);
+        File f = tmp.get(src);
+        if (tmp.containsKey(dst)) remove(dst);
+        remove(src);
+        tmp.put(dst, f);
+        for (Map.Entry<String,File> e : sub.entrySet()) {
+            tmp.put(dst + "/" + e.getKey().substring(prefix.length()), e.getValue());
+        }
+        tmp.get(getParent(dst)).mtime = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,291 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.internal.services.local;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IErrorReport;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.JSON;
+import org.eclipse.tcf.services.IFileSystem;
+
+/**
+ * FileSystem service of the simulated agent, see {@link SimulatedFileSystem}.
+ * File handles are private to a channel, like in a real agent.
+ */
+class SimulatedFileSystemService extends SimulatedService {
+
+    /** Max number of directory entries in a readdir reply */
+    private static final int READDIR_MAX = 64;
+
+    private static class Handle {
+        String path;
+        int flags;
+        long pos;
+        List<String> entries;
+    }
+
+    private final SimulatedFileSystem fs;
+    private final Map<String,Handle> handles = new HashMap<String,Handle>();
+    private int handle_cnt;
+
+    SimulatedFileSystemService(SimulatedAgent agent, IChannel channel) {
+        super(agent, channel);
+        fs = agent.file_system;
+    }
+
+    public String getName() {
+        return IFileSystem.NAME;
+    }
+
+    private static Map<String,Object> noSuchFile() {
+        return error(IFileSystem.STATUS_NO_SUCH_FILE, "No such file or directory");
+    }
+
+    private static Map<String,Object> permissionDenied() {
+        return error(IFileSystem.STATUS_PERMISSION_DENIED, "Permission denied");
+    }
+
+    private static Map<String,Object> invalidHandle() {
+        return error(IErrorReport.TCF_ERROR_INV_CONTEXT, "Invalid file handle");
+    }
+
+    private static Map<String,Object> failure(String msg) {
+        return error(IErrorReport.TCF_ERROR_OTHER, msg);
+    }
+
+    @Override
+    Object[] command(IToken token, String name, Object[] args) throws Exception {
+        if (name.equals("open")) {
+            checkArgs(args, 3);
+            String path = SimulatedFileSystem.normalize((String)args[0]);
+            int flags = ((Number)args[1]).intValue();
+            Map<String,Object> err = open(path, flags);
+            if (err != null) return new Object[]{ err, null };
+            return new Object[]{ null, addHandle(path, flags, null) };
+        }
+        if (name.equals("opendir")) {
+            checkArgs(args, 1);
+            String path = SimulatedFileSystem.normalize((String)args[0]);
+            if (fs.getAttrs(path) == null) return new Object[]{ noSuchFile(), null };
+            if (!fs.isDirectory(path)) return new Object[]{ failure("Not a directory"), null };
+            return new Object[]{ null, addHandle(path, 0, fs.list(path)) };
+        }
+        if (name.equals("close")) {
+            checkArgs(args, 1);
+            if (handles.remove(args[0]) == null) return new Object[]{ invalidHandle() };
+            return new Object[]{ null };
+        }
+        if (name.equals("read")) {
+            checkArgs(args, 3);
+            Handle h = handles.get(args[0]);
+            long offs = ((Number)args[1]).longValue();
+            int len = ((Number)args[2]).intValue();
+            if (h == null || h.entries != null) return new Object[]{ null, invalidHandle(), false };
+            if ((h.flags & IFileSystem.TCF_O_READ) == 0) return new Object[]{ null, permissionDenied(), false };
+            if (offs < 0) offs = h.pos;
+            byte[] buf = new byte[len];
+            int n = fs.read(h.path, offs, buf, len);
+            h.pos = offs + n;
+            return new Object[]{ new JSON.Binary(buf, 0, n), null, n < len };
+        }
+        if (name.equals("write")) {
+            checkArgs(args, 3);
+            Handle h = handles.get(args[0]);
+            long offs = ((Number)args[1]).longValue();
+            byte[] data = JSON.toByteArray(args[2]);
+            if (h == null || h.entries != null) return new Object[]{ invalidHandle() };
+            if ((h.flags & (IFileSystem.TCF_O_WRITE | IFileSystem.TCF_O_APPEND)) == 0) return new Object[]{ permissionDenied() };
+            SimulatedFileSystem.File f = fs.getFile(h.path);
+            if (f == null) return new Object[]{ noSuchFile() };
+            if ((h.flags & IFileSystem.TCF_O_APPEND) != 0) offs = f.size;
+            else if (offs < 0) offs = h.pos;
+            fs.write(f, offs, data);
+            h.pos = offs + data.length;
+            return new Object[]{ null };
+        }
+        if (name.equals("readdir")) {
+            checkArgs(args, 1);
+            Handle h = handles.get(args[0]);
+            if (h == null || h.entries == null) return new Object[]{ null, invalidHandle(), false };
+            List<Object> list = new ArrayList<Object>();
+            while (h.pos < h.entries.size() && list.size() < READDIR_MAX) {
+                String file_name = h.entries.get((int)h.pos++);
+                String path = h.path.equals("/") ? "/" + file_name : h.path + "/" + file_name;
+                Map<String,Object> attrs = fs.getAttrs(path);
+                if (attrs == null) continue;
+                Map<String,Object> e = new HashMap<String,Object>();
+                e.put("FileName", file_name);
+                e.put("Attrs", attrs);
+                list.add(e);
+            }
+            return new Object[]{ list, null, h.pos >= h.entries.size() };
+        }
+        if (name.equals("stat") || name.equals("lstat")) {
+            checkArgs(args, 1);
+            Map<String,Object> attrs = fs.getAttrs(SimulatedFileSystem.normalize((String)args[0]));
+            if (attrs == null) return new Object[]{ noSuchFile(), null };
+            return new Object[]{ null, attrs };
+        }
+        if (name.equals("fstat")) {
+            checkArgs(args, 1);
+            Handle h = handles.get(args[0]);
+            if (h == null) return new Object[]{ invalidHandle(), null };
+            Map<String,Object> attrs = fs.getAttrs(h.path);
+            if (attrs == null) return new Object[]{ noSuchFile(), null };
+            return new Object[]{ null, attrs };
+        }
+        if (name.equals("setstat")) {
+            checkArgs(args, 2);
+            return new Object[]{ setStat(SimulatedFileSystem.normalize((String)args[0]), args[1]) };
+        }
+        if (name.equals("fsetstat")) {
+            checkArgs(args, 2);
+            Handle h = handles.get(args[0]);
+            if (h == null) return new Object[]{ invalidHandle() };
+            return new Object[]{ setStat(h.path, args[1]) };
+        }
+        if (name.equals("roots")) {
+            checkArgs(args, 0);
+            Map<String,Object> e = new HashMap<String,Object>();
+            e.put("FileName", "/");
+            e.put("Attrs", fs.getAttrs("/"));
+            List<Object> list = new ArrayList<Object>();
+            list.add(e);
+            return new Object[]{ list, null };
+        }
+        if (name.equals("realpath")) {
+            checkArgs(args, 1);
+            return new Object[]{ null, SimulatedFileSystem.normalize((String)args[0]) };
+        }
+        if (name.equals("remove") || name.equals("rmdir")) {
+            checkArgs(args, 1);
+            String path = SimulatedFileSystem.normalize((String)args[0]);
+            boolean dir = name.equals("rmdir");
+            SimulatedFileSystem.File f = fs.getFile(path);
+            if (f == null) return new Object[]{ fs.getAttrs(path) != null ? permissionDenied() : noSuchFile() };
+            if (path.equals(SimulatedFileSystem.TMP_DIR)) return new Object[]{ permissionDenied() };
+            if (f.dir != dir) return new Object[]{ failure(dir ? "Not a directory" : "Is a directory") };
+            if (dir && fs.list(path).size() > 0) return new Object[]{ failure("Directory not empty") };
+            fs.remove(path);
+            return new Object[]{ null };
+        }
+        if (name.equals("mkdir")) {
+            checkArgs(args, 2);
+            String path = SimulatedFileSystem.normalize((String)args[0]);
+            Map<String,Object> err = checkCreate(path);
+            if (err != null) return new Object[]{ err };
+            fs.create(path, true);
+            return new Object[]{ null };
+        }
+        if (name.equals("rename")) {
+            checkArgs(args, 2);
+            String src = SimulatedFileSystem.normalize((String)args[0]);
+            String dst = SimulatedFileSystem.normalize((String)args[1]);
+            SimulatedFileSystem.File f = fs.getFile(src);
+            if (f == null) return new Object[]{ fs.getAttrs(src) != null ? permissionDenied() : noSuchFile() };
+            if (src.equals(SimulatedFileSystem.TMP_DIR) || dst.startsWith(src + "/")) return new Object[]{ permissionDenied() };
+            if (!dst.equals(src)) {
+                SimulatedFileSystem.File d = fs.getFile(dst);
+                Map<String,Object> err = d == null ? checkCreate(dst) : null;
+                if (err != null) return new Object[]{ err };
+                if (d != null && (d.dir || f.dir)) return new Object[]{ failure("File exists") };
+                fs.rename(src, dst);
+            }
+            return new Object[]{ null };
+        }
+        if (name.equals("copy")) {
+            checkArgs(args, 4);
+            String src = SimulatedFileSystem.normalize((String)args[0]);
+            String dst = SimulatedFileSystem.normalize((String)args[1]);
+            Map<String,Object> attrs = fs.getAttrs(src);
+            if (attrs == null) return new Object[]{ noSuchFile() };
+            if (fs.isDirectory(src)) return new Object[]{ failure("Is a directory") };
+            SimulatedFileSystem.File d = fs.getFile(dst);
+            Map<String,Object> err = d == null ? checkCreate(dst) : null;
+            if (err == null && d != null && d.dir) err = failure("Is a directory");
+            if (err != null) return new Object[]{ err };
+            if (d == null) d = fs.create(dst, false);
+            byte[] buf = new byte[((Number)attrs.get("Size")).intValue()];
+            fs.read(src, 0, buf, buf.length);
+            fs.setSize(d, 0);
+            fs.write(d, 0, buf);
+            return new Object[]{ null };
+        }
+        if (name.equals("user")) {
+            checkArgs(args, 0);
+            return new Object[]{ 0, 0, 0, 0, SimulatedFileSystem.TMP_DIR };
+        }
+        channel.rejectCommand(token);
+        return null;
+    }
+
+    private String addHandle(String path, int flags, List<String> entries) {
+        Handle h = new Handle();
+        h.path = path;
+        h.flags = flags;
+        h.entries = entries;
+        String id = "FS" + handle_cnt++;
+        handles.put(id, h);
+        return id;
+    }
+
+    private Map<String,Object> checkCreate(String path) {
+        if (fs.getAttrs(path) != null) return failure("File exists");
+        String parent = SimulatedFileSystem.getParent(path);
+        if (fs.getAttrs(parent) == null) return noSuchFile();
+        if (!SimulatedFileSystem.isTmp(parent)) return permissionDenied();
+        if (!fs.isDirectory(parent)) return failure("Not a directory");
+        return null;
+    }
+
+    private Map<String,Object> open(String path, int flags) {
+        boolean write = (flags & (IFileSystem.TCF_O_WRITE | IFileSystem.TCF_O_APPEND |
+                IFileSystem.TCF_O_CREAT | IFileSystem.TCF_O_TRUNC)) != 0;
+        if (fs.isSimFile(path)) return write ? permissionDenied() : null;
+        SimulatedFileSystem.File f = fs.getFile(path);
+        if (f == null) {
+            if ((flags & IFileSystem.TCF_O_CREAT) == 0) {
+                return fs.getAttrs(path) != null ? failure("Is a directory") : noSuchFile();
+            }
+            Map<String,Object> err = checkCreate(path);
+            if (err != null) return err;
+            fs.create(path, false);
+            return null;
+        }
+        if (f.dir) return failure("Is a directory");
+        if ((flags & IFileSystem.TCF_O_CREAT) != 0 && (flags & IFileSystem.TCF_O_EXCL) != 0) return failure("File exists");
+        if ((flags & IFileSystem.TCF_O_TRUNC) != 0) fs.setSize(f, 0);
+        return null;
+    }
+
+    private Map<String,Object> setStat(String path, Object data) {
+        SimulatedFileSystem.File f = fs.getFile(path);
+        if (f == null) return fs.getAttrs(path) != null ? permissionDenied() : noSuchFile();
+        if (data == null) return null;
+        Map<?,?> attrs = (Map<?,?>)data;
+        Number size = (Number)attrs.get("Size");
+        Number permissions = (Number)attrs.get("Permissions");
+        Number atime = (Number)attrs.get("ATime");
+        Number mtime = (Number)attrs.get("MTime");
+        if (size != null && !f.dir) fs.setSize(f, size.longValue());
+        if (permissions != null) f.permissions = permissions.intValue() & 07777;
+        if (atime != null && mtime != null) {
+            f.atime = atime.longValue();
+            f.mtime = mtime.longValue();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.internal.services.local;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IErrorReport;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.JSON;
+import org.eclipse.tcf.services.IMemory;
+
+/**
+ * Memory service of the simulated agent.
+ * Processes and threads are memory contexts, threads share memory of their process.
+ * The address space is 32 bits.
+ */
+class SimulatedMemoryService extends SimulatedService {
+
+    private static final long END_BOUND = 0xffffffffL;
+
+    SimulatedMemoryService(SimulatedAgent agent, IChannel channel) {
+        super(agent, channel);
+    }
+
+    public String getName() {
+        return IMemory.NAME;
+    }
+
+    @Override
+    Object[] command(IToken token, String name, Object[] args) throws Exception {
+        if (name.equals("getContext")) {
+            checkArgs(args, 1);
+            String id = (String)args[0];
+            int[] ids = getContext(id);
+            if (ids == null) return new Object[]{ error(IErrorReport.TCF_ERROR_INV_CONTEXT, "Invalid context"), null };
+            Map<String,Object> m = new HashMap<String,Object>();
+            m.put(IMemory.PROP_ID, id);
+            m.put(IMemory.PROP_PROCESS_ID, SimulatedAgent.getProcessID(ids[0]));
+            if (ids[1] >= 0) m.put(IMemory.PROP_PARENT_ID, SimulatedAgent.getProcessID(ids[0]));
+            m.put(IMemory.PROP_NAME, ids[1] >= 0 ? "thread" + ids[1] : "process" + ids[0]);
+            m.put(IMemory.PROP_BIG_ENDIAN, false);
+            m.put(IMemory.PROP_ADDRESS_SIZE, 4);
+            m.put(IMemory.PROP_START_BOUND, 0);
+            m.put(IMemory.PROP_END_BOUND, END_BOUND);
+            return new Object[]{ null, m };
+        }
+        if (name.equals("getChildren")) {
+            checkArgs(args, 1);
+            String id = (String)args[0];
+            List<String> list = new ArrayList<String>();
+            if (id == null) {
+                for (int p = 0; p < agent.processes; p++) list.add(SimulatedAgent.getProcessID(p));
+            }
+            else {
+                int[] ids = getContext(id);
+                if (ids == null) return new Object[]{ error(IErrorReport.TCF_ERROR_INV_CONTEXT, "Invalid context"), null };
+                if (ids[1] < 0) {
+                    for (int t = 0; t < agent.threads; t++) list.add(SimulatedAgent.getThreadID(ids[0], t));
+                }
+            }
+            return new Object[]{ null, list };
+        }
+        if (name.equals("get")) {
+            checkArgs(args, 5);
+            int[] ids = getContext((String)args[0]);
+            long addr = ((Number)args[1]).longValue();
+            int size = ((Number)args[3]).intValue();
+            Map<String,Object> err = checkRange(ids, addr, size);
+            if (err != null) return new Object[]{ null, err, null };
+            byte[] buf = new byte[size];
+            agent.readMemory(ids[0], addr, buf, 0, size);
+            return new Object[]{ new JSON.Binary(buf, 0, size), null, null };
+        }
+        if (name.equals("set")) {
+            checkArgs(args, 6);
+            int[] ids = getContext((String)args[0]);
+            long addr = ((Number)args[1]).longValue();
+            int size = ((Number)args[3]).intValue();
+            Map<String,Object> err = checkRange(ids, addr, size);
+            if (err != null) return new Object[]{ err, null };
+            byte[] buf = JSON.toByteArray(args[5]);
+            if (buf.length < size) size = buf.length;
+            agent.writeMemory(ids[0], addr, buf, 0, size);
+            memoryChanged(ids[0], addr, size);
+            return new Object[]{ null, null };
+        }
+        if (name.equals("fill")) {
+            checkArgs(args, 6);
+            int[] ids = getContext((String)args[0]);
+            long addr = ((Number)args[1]).longValue();
+            int size = ((Number)args[3]).intValue();
+            Map<String,Object> err = checkRange(ids, addr, size);
+            if (err != null) return new Object[]{ err, null };
+            byte[] pattern = JSON.toByteArray(args[5]);
+            if (pattern.length > 0) {
+                byte[] buf = new byte[size];
+                for (int i = 0; i < size; i++) buf[i] = pattern[i % pattern.length];
+                agent.writeMemory(ids[0], addr, buf, 0, size);
+                memoryChanged(ids[0], addr, size);
+            }
+            return new Object[]{ null, null };
+        }
+        channel.rejectCommand(token);
+        return null;
+    }
+
+    private int[] getContext(String id) {
+        int[] ids = agent.parseID(id);
+        if (ids == null || ids[2] >= 0 || ids[3] >= 0 || ids[4] >= 0) return null;
+        return ids;
+    }
+
+    private Map<String,Object> checkRange(int[] ids, long addr, int size) {
+        if (ids == null) return error(IErrorReport.TCF_ERROR_INV_CONTEXT, "Invalid context");
+        if (addr < 0 || size < 0 || addr + size - 1 > END_BOUND) {
+            return error(IErrorReport.TCF_ERROR_INV_ADDRESS, "Invalid address");
+        }
+        return null;
+    }
+
+    private void memoryChanged(int p, long addr, int size) {
+        Map<String,Object> range = new HashMap<String,Object>();
+        range.put("addr", addr);
+        range.put("size", size);
+        List<Object> ranges = new ArrayList<Object>();
+        ranges.add(range);
+        agent.sendEvent(IMemory.NAME, "memoryChanged", new Object[]{ SimulatedAgent.getProcessID(p), ranges });
+    }
+}
@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.internal.services.local;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IErrorReport;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.JSON;
+import org.eclipse.tcf.services.IRegisters;
+
+/**
+ * Registers service of the simulated agent.
+ * Threads and stack frames have same set of 64-bit registers: "pc", "sp", "fp", and general purpose registers.
+ * Registers can be accessed only while the thread is suspended.
+ */
+class SimulatedRegistersService extends SimulatedService {
+
+    private static final int REG_SIZE = 8;
+
+    SimulatedRegistersService(SimulatedAgent agent, IChannel channel) {
+        super(agent, channel);
+    }
+
+    public String getName() {
+        return IRegisters.NAME;
+    }
+
+    @Override
+    Object[] command(IToken token, String name, Object[] args) throws Exception {
+        if (name.equals("getContext")) {
+            checkArgs(args, 1);
+            String id = (String)args[0];
+            int[] ids = getRegister(id);
+            if (ids == null) return new Object[]{ error(IErrorReport.TCF_ERROR_INV_CONTEXT, "Invalid context"), null };
+            Map<String,Object> m = new HashMap<String,Object>();
+            m.put(IRegisters.PROP_ID, id);
+            m.put(IRegisters.PROP_PARENT_ID, id.substring(0, id.lastIndexOf('.')));
+            m.put(IRegisters.PROP_PROCESS_ID, SimulatedAgent.getProcessID(ids[0]));
+            m.put(IRegisters.PROP_SIZE, REG_SIZE);
+            m.put(IRegisters.PROP_READBLE, true);
+            m.put(IRegisters.PROP_WRITEABLE, true);
+            m.put(IRegisters.PROP_BIG_ENDIAN, false);
+            switch (ids[3]) {
+            case 0:
+                m.put(IRegisters.PROP_NAME, "pc");
+                m.put(IRegisters.PROP_ROLE, IRegisters.ROLE_PC);
+                break;
+            case 1:
+                m.put(IRegisters.PROP_NAME, "sp");
+                m.put(IRegisters.PROP_ROLE, IRegisters.ROLE_SP);
+                break;
+            case 2:
+                m.put(IRegisters.PROP_NAME, "fp");
+                m.put(IRegisters.PROP_ROLE, IRegisters.ROLE_FP);
+                break;
+            default:
+                m.put(IRegisters.PROP_NAME, "r" + (ids[3] - 3));
+                break;
+            }
+            return new Object[]{ null, m };
+        }
+        if (name.equals("getChildren")) {
+            checkArgs(args, 1);
+            String id = (String)args[0];
+            int[] ids = agent.parseID(id);
+            if (ids == null || ids[4] >= 0) return new Object[]{ error(IErrorReport.TCF_ERROR_INV_CONTEXT, "Invalid context"), null };
+            List<String> list = new ArrayList<String>();
+            if (ids[1] >= 0 && ids[3] < 0) {
+                for (int r = 0; r < agent.registers; r++) list.add(id + ".R" + r);
+            }
+            return new Object[]{ null, list };
+        }
+        if (name.equals("get")) {
+            checkArgs(args, 1);
+            String id = (String)args[0];
+            Map<String,Object> err = checkAccess(id);
+            if (err != null) return new Object[]{ err, null };
+            byte[] v = agent.getRegister(id, agent.parseID(id));
+            return new Object[]{ null, new JSON.Binary(v, 0, v.length) };
+        }
+        if (name.equals("set")) {
+            checkArgs(args, 2);
+            String id = (String)args[0];
+            Map<String,Object> err = checkAccess(id);
+            if (err != null) return new Object[]{ err };
+            setRegister(id, JSON.toByteArray(args[1]));
+            return new Object[]{ null };
+        }
+        if (name.equals("getm")) {
+            checkArgs(args, 1);
+            ByteArrayOutputStream buf = new ByteArrayOutputStream();
+            for (Object o : (Collection<?>)args[0]) {
+                List<?> loc = (List<?>)o;
+                String id = (String)loc.get(0);
+                int offs = ((Number)loc.get(1)).intValue();
+                int size = ((Number)loc.get(2)).intValue();
+                Map<String,Object> err = checkAccess(id);
+                if (err == null && (offs < 0 || size < 0 || offs + size > REG_SIZE)) {
+                    err = error(IErrorReport.TCF_ERROR_INV_DATA_SIZE, "Invalid register location");
+                }
+                if (err != null) return new Object[]{ err, null };
+                buf.write(agent.getRegister(id, agent.parseID(id)), offs, size);
+            }
+            byte[] v = buf.toByteArray();
+            return new Object[]{ null, new JSON.Binary(v, 0, v.length) };
+        }
+        if (name.equals("setm")) {
+            checkArgs(args, 2);
+            byte[] data = JSON.toByteArray(args[1]);
+            int pos = 0;
+            for (Object o : (Collection<?>)args[0]) {
+                List<?> loc = (List<?>)o;
+                String id = (String)loc.get(0);
+                int offs = ((Number)loc.get(1)).intValue();
+                int size = ((Number)loc.get(2)).intValue();
+                Map<String,Object> err = checkAccess(id);
+                if (err == null && (offs < 0 || size < 0 || offs + size > REG_SIZE || pos + size > data.length)) {
+                    err = error(IErrorReport.TCF_ERROR_INV_DATA_SIZE, "Invalid register location");
+                }
+                if (err != null) return new Object[]{ err };
+                byte[] v = agent.getRegister(id, agent.parseID(id)).clone();
+                System.arraycopy(data, pos, v, offs, size);
+                setRegister(id, v);
+                pos += size;
+            }
+            return new Object[]{ null };
+        }
+        channel.rejectCommand(token);
+        return null;
+    }
+
+    private int[] getRegister(String id) {
+        int[] ids = agent.parseID(id);
+        if (ids == null || ids[3] < 0) return null;
+        return ids;
+    }
+
+    private Map<String,Object> checkAccess(String id) {
+        int[] ids = getRegister(id);
+        if (ids == null) return error(IErrorReport.TCF_ERROR_INV_CONTEXT, "Invalid context");
+        if (agent.isRunning(ids[0], ids[1])) return error(IErrorReport.TCF_ERROR_IS_RUNNING, "Context is running");
+        return null;
+    }
+
+    private void setRegister(String id, byte[] value) {
+        byte[] v = new byte[REG_SIZE];
+        System.arraycopy(value, 0, v, 0, Math.min(REG_SIZE, value.length));
+        agent.setRegister(id, v);
+        agent.sendEvent(IRegisters.NAME, "registerChanged", new Object[]{ id });
+    }
+}
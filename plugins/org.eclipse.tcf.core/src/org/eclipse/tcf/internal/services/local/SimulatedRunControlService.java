@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.internal.services.local;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IErrorReport;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.IRunControl;
+
+/**
+ * RunControl service of the simulated agent.
+ * Processes are containers, threads have state. All threads are suspended when the agent is created.
+ * Step commands complete after the agent latency, or after 1ms if the latency is 0, and advance the thread PC
+ * by one instruction. Resume command runs a thread until it is suspended by the client.
+ */
+class SimulatedRunControlService extends SimulatedService {
+
+    private static final int CAN_RESUME =
+        1 << IRunControl.RM_RESUME | 1 << IRunControl.RM_STEP_INTO | 1 << IRunControl.RM_STEP_OVER;
+
+    SimulatedRunControlService(SimulatedAgent agent, IChannel channel) {
+        super(agent, channel);
+    }
+
+    public String getName() {
+        return IRunControl.NAME;
+    }
+
+    @Override
+    Object[] command(IToken token, String name, Object[] args) throws Exception {
+        if (name.equals("getContext")) {
+            checkArgs(args, 1);
+            Map<String,Object> ctx = getContext((String)args[0]);
+            if (ctx == null) return new Object[]{ error(IErrorReport.TCF_ERROR_INV_CONTEXT, "Invalid context"), null };
+            return new Object[]{ null, ctx };
+        }
+        if (name.equals("getChildren")) {
+            checkArgs(args, 1);
+            String id = (String)args[0];
+            List<String> list = new ArrayList<String>();
+            if (id == null) {
+                for (int p = 0; p < agent.processes; p++) list.add(SimulatedAgent.getProcessID(p));
+            }
+            else {
+                int[] ids = agent.parseID(id);
+                if (ids == null) return new Object[]{ error(IErrorReport.TCF_ERROR_INV_CONTEXT, "Invalid context"), null };
+                if (ids[1] < 0 && ids[4] < 0) {
+                    for (int t = 0; t < agent.threads; t++) list.add(SimulatedAgent.getThreadID(ids[0], t));
+                }
+            }
+            return new Object[]{ null, list };
+        }
+        if (name.equals("getState")) {
+            checkArgs(args, 1);
+            int[] ids = getThread((String)args[0]);
+            if (ids == null) return new Object[]{ error(IErrorReport.TCF_ERROR_INV_CONTEXT, "Invalid context"), false, null, null, null };
+            if (agent.isRunning(ids[0], ids[1])) return new Object[]{ null, false, null, null, null };
+            return new Object[]{ null, true, agent.getPC(ids[0], ids[1]),
+                    IRunControl.REASON_USER_REQUEST, new HashMap<String,Object>() };
+        }
+        if (name.equals("suspend")) {
+            checkArgs(args, 1);
+            int[] ids = agent.parseID((String)args[0]);
+            if (ids == null || ids[2] >= 0 || ids[3] >= 0 || ids[4] >= 0) {
+                return new Object[]{ error(IErrorReport.TCF_ERROR_INV_CONTEXT, "Invalid context") };
+            }
+            if (ids[1] >= 0) {
+                if (!agent.isRunning(ids[0], ids[1])) {
+                    return new Object[]{ error(IErrorReport.TCF_ERROR_ALREADY_STOPPED, "Already stopped") };
+                }
+                suspend(ids[0], ids[1], IRunControl.REASON_USER_REQUEST);
+            }
+            else {
+                suspendContainer(ids[0]);
+            }
+            return new Object[]{ null };
+        }
+        if (name.equals("resume")) {
+            if (args.length != 3 && args.length != 4) throw new Exception("Invalid number of arguments");
+            int[] ids = agent.parseID((String)args[0]);
+            int mode = ((Number)args[1]).intValue();
+            if (ids == null || ids[2] >= 0 || ids[3] >= 0 || ids[4] >= 0) {
+                return new Object[]{ error(IErrorReport.TCF_ERROR_INV_CONTEXT, "Invalid context") };
+            }
+            if ((CAN_RESUME & (1 << mode)) == 0) {
+                return new Object[]{ error(IErrorReport.TCF_ERROR_UNSUPPORTED, "Unsupported resume mode") };
+            }
+            if (ids[1] >= 0) {
+                if (agent.isRunning(ids[0], ids[1])) {
+                    return new Object[]{ error(IErrorReport.TCF_ERROR_ALREADY_RUNNING, "Already running") };
+                }
+                resume(ids[0], ids[1], mode);
+            }
+            else {
+                resumeContainer(ids[0], mode);
+            }
+            return new Object[]{ null };
+        }
+        channel.rejectCommand(token);
+        return null;
+    }
+
+    private int[] getThread(String id) {
+        int[] ids = agent.parseID(id);
+        if (ids == null || ids[1] < 0 || ids[2] >= 0 || ids[3] >= 0) return null;
+        return ids;
+    }
+
+    private Map<String,Object> getContext(String id) {
+        int[] ids = agent.parseID(id);
+        if (ids == null || ids[2] >= 0 || ids[3] >= 0 || ids[4] >= 0) return null;
+        String prs_id = SimulatedAgent.getProcessID(ids[0]);
+        Map<String,Object> m = new HashMap<String,Object>();
+        m.put(IRunControl.PROP_ID, id);
+        m.put(IRunControl.PROP_PROCESS_ID, prs_id);
+        m.put(IRunControl.PROP_CAN_SUSPEND, true);
+        m.put(IRunControl.PROP_CAN_RESUME, CAN_RESUME);
+        m.put(IRunControl.PROP_RC_GROUP, prs_id);
+        m.put(IRunControl.PROP_BP_GROUP, prs_id);
+        m.put(IRunControl.PROP_SYMBOLS_GROUP, prs_id);
+        if (ids[1] < 0) {
+            m.put(IRunControl.PROP_NAME, "process" + ids[0]);
+            m.put(IRunControl.PROP_IS_CONTAINER, true);
+        }
+        else {
+            m.put(IRunControl.PROP_PARENT_ID, prs_id);
+            m.put(IRunControl.PROP_NAME, "thread" + ids[1]);
+            m.put(IRunControl.PROP_HAS_STATE, true);
+        }
+        return m;
+    }
+
+    private void suspend(int p, int t, String reason) {
+        agent.setRunning(p, t, false);
+        agent.sendEvent(IRunControl.NAME, "contextSuspended", new Object[]{
+                SimulatedAgent.getThreadID(p, t), agent.getPC(p, t), reason, new HashMap<String,Object>() });
+    }
+
+    private void suspendContainer(int p) {
+        List<String> list = new ArrayList<String>();
+        for (int t = 0; t < agent.threads; t++) {
+            if (!agent.isRunning(p, t)) continue;
+            agent.setRunning(p, t, false);
+            list.add(SimulatedAgent.getThreadID(p, t));
+        }
+        if (list.isEmpty()) return;
+        int[] ids = agent.parseID(list.get(0));
+        agent.sendEvent(IRunControl.NAME, "containerSuspended", new Object[]{
+                list.get(0), agent.getPC(ids[0], ids[1]), IRunControl.REASON_USER_REQUEST,
+                new HashMap<String,Object>(), list });
+    }
+
+    private void resume(final int p, final int t, int mode) {
+        agent.setRunning(p, t, true);
+        agent.sendEvent(IRunControl.NAME, "contextResumed", new Object[]{ SimulatedAgent.getThreadID(p, t) });
+        if (mode != IRunControl.RM_RESUME) step(p, t);
+    }
+
+    private void resumeContainer(int p, int mode) {
+        List<String> list = new ArrayList<String>();
+        for (int t = 0; t < agent.threads; t++) {
+            if (agent.isRunning(p, t)) continue;
+            agent.setRunning(p, t, true);
+            list.add(SimulatedAgent.getThreadID(p, t));
+            if (mode != IRunControl.RM_RESUME) step(p, t);
+        }
+        if (list.isEmpty()) return;
+        agent.sendEvent(IRunControl.NAME, "containerResumed", new Object[]{ list });
+    }
+
+    private void step(final int p, final int t) {
+        Protocol.invokeLater(Math.max(agent.latency, 1), new Runnable() {
+            public void run() {
+                if (!agent.isRunning(p, t)) return;
+                agent.step(p, t);
+                suspend(p, t, IRunControl.REASON_STEP);
+            }
+        });
+    }
+}
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.internal.services.local;
+
+import java.util.Map;
+
+import org.eclipse.tcf.core.AbstractChannel;
+import org.eclipse.tcf.core.ErrorReport;
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IService;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.JSON;
+import org.eclipse.tcf.protocol.Protocol;
+
+/**
+ * Base class of simulated agent services.
+ * A subclass implements {@link #command(IToken, String, Object[])}, and either returns result arguments,
+ * which are sent after the agent latency, or returns null after rejecting the command
+ * or when the result is sent later by {@link #sendResult(IToken, Object[])}.
+ */
+abstract class SimulatedService implements IService {
+
+    final SimulatedAgent agent;
+    final IChannel channel;
+
+    SimulatedService(SimulatedAgent agent, final IChannel channel) {
+        this.agent = agent;
+        this.channel = channel;
+        agent.addService(this);
+        channel.addCommandServer(this, new IChannel.ICommandServer() {
+            public void command(IToken token, String name, byte[] data) {
+                try {
+                    Object[] res = SimulatedService.this.command(token, name, JSON.parseSequence(data));
+                    if (res != null) sendResult(token, res);
+                }
+                catch (Throwable x) {
+                    channel.terminate(x);
+                }
+            }
+        });
+        channel.addChannelListener(new IChannel.IChannelListener() {
+            public void onChannelOpened() {
+            }
+
+            public void congestionLevel(int level) {
+            }
+
+            public void onChannelClosed(Throwable error) {
+                SimulatedService.this.agent.removeService(SimulatedService.this);
+            }
+        });
+    }
+
+    /**
+     * Execute a command.
+     * @param token - command token.
+     * @param name - command name.
+     * @param args - command arguments.
+     * @return command result arguments, or null if the command was rejected.
+     * @throws Exception if the command is malformed, the exception terminates the channel.
+     */
+    abstract Object[] command(IToken token, String name, Object[] args) throws Exception;
+
+    /**
+     * Send command result arguments after the agent latency.
+     */
+    void sendResult(final IToken token, Object[] res) throws Exception {
+        final byte[] data = JSON.toJSONSequence(res, ((AbstractChannel)channel).isZeroCopySupported());
+        if (agent.latency == 0) {
+            channel.sendResult(token, data);
+            return;
+        }
+        Protocol.invokeLater(agent.latency, new Runnable() {
+            public void run() {
+                if (channel.getState() != IChannel.STATE_OPEN) return;
+                channel.sendResult(token, data);
+            }
+        });
+    }
+
+    /**
+     * Send an event to the channel after the agent latency, so events are ordered with command results.
+     */
+    void sendEvent(final String name, Object[] args) throws Exception {
+        if (channel.getState() != IChannel.STATE_OPEN) return;
+        final byte[] data = JSON.toJSONSequence(args);
+        if (agent.latency == 0) {
+            ((AbstractChannel)channel).sendEvent(this, name, data);
+            return;
+        }
+        Protocol.invokeLater(agent.latency, new Runnable() {
+            public void run() {
+                if (channel.getState() != IChannel.STATE_OPEN) return;
+                ((AbstractChannel)channel).sendEvent(SimulatedService.this, name, data);
+            }
+        });
+    }
+
+    static void checkArgs(Object[] args, int n) throws Exception {
+        if (args.length != n) throw new Exception("Invalid number of arguments");
+    }
+
+    static Map<String,Object> error(int code, String msg) {
+        return new ErrorReport(msg, code).getAttributes();
+    }
+}
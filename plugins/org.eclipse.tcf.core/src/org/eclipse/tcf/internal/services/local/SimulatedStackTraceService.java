@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.internal.services.local;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IErrorReport;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.services.IStackTrace;
+
+/**
+ * StackTrace service of the simulated agent.
+ * Every suspended thread has a stack of same depth, each frame is in a different function.
+ */
+class SimulatedStackTraceService extends SimulatedService {
+
+    SimulatedStackTraceService(SimulatedAgent agent, IChannel channel) {
+        super(agent, channel);
+    }
+
+    public String getName() {
+        return IStackTrace.NAME;
+    }
+
+    @Override
+    Object[] command(IToken token, String name, Object[] args) throws Exception {
+        if (name.equals("getChildren")) {
+            checkArgs(args, 1);
+            int[] ids = agent.parseID((String)args[0]);
+            Map<String,Object> err = checkContext(ids, false);
+            if (err != null) return new Object[]{ err, null };
+            /* Frames are ordered from stack bottom to top */
+            List<String> list = new ArrayList<String>();
+            for (int f = agent.frames - 1; f >= 0; f--) list.add(SimulatedAgent.getFrameID(ids[0], ids[1], f));
+            return new Object[]{ null, list };
+        }
+        if (name.equals("getChildrenRange")) {
+            checkArgs(args, 3);
+            int[] ids = agent.parseID((String)args[0]);
+            Map<String,Object> err = checkContext(ids, false);
+            if (err != null) return new Object[]{ err, null };
+            /* Range is counted from stack top */
+            int start = ((Number)args[1]).intValue();
+            int end = ((Number)args[2]).intValue();
+            List<String> list = new ArrayList<String>();
+            for (int f = Math.max(start, 0); f <= end && f < agent.frames; f++) {
+                list.add(SimulatedAgent.getFrameID(ids[0], ids[1], f));
+            }
+            return new Object[]{ null, list };
+        }
+        if (name.equals("getContext")) {
+            checkArgs(args, 1);
+            List<Object> list = new ArrayList<Object>();
+            for (Object o : (Collection<?>)args[0]) {
+                String id = (String)o;
+                int[] ids = agent.parseID(id);
+                Map<String,Object> err = checkContext(ids, true);
+                if (err != null) return new Object[]{ null, err };
+                list.add(getContext(id, ids[0], ids[1], ids[2]));
+            }
+            return new Object[]{ list, null };
+        }
+        channel.rejectCommand(token);
+        return null;
+    }
+
+    private Map<String,Object> checkContext(int[] ids, boolean frame) {
+        if (ids == null || ids[1] < 0 || ids[2] >= 0 != frame || ids[3] >= 0) return error(IErrorReport.TCF_ERROR_INV_CONTEXT, "Invalid context");
+        if (agent.isRunning(ids[0], ids[1])) return error(IErrorReport.TCF_ERROR_IS_RUNNING, "Context is running");
+        return null;
+    }
+
+    private Map<String,Object> getContext(String id, int p, int t, int f) {
+        long ip = agent.getFrameIP(p, t, f);
+        Map<String,Object> m = new HashMap<String,Object>();
+        m.put(IStackTrace.PROP_ID, id);
+        m.put(IStackTrace.PROP_PARENT_ID, SimulatedAgent.getThreadID(p, t));
+        m.put(IStackTrace.PROP_PROCESS_ID, SimulatedAgent.getProcessID(p));
+        m.put(IStackTrace.PROP_INDEX, f);
+        if (f == 0) m.put(IStackTrace.PROP_TOP_FRAME, true);
+        m.put(IStackTrace.PROP_INSTRUCTION_ADDRESS, ip);
+        m.put(IStackTrace.PROP_FRAME_ADDRESS, agent.getFrameFP(p, t, f));
+        if (f < agent.frames - 1) m.put(IStackTrace.PROP_RETURN_ADDRESS, agent.getFrameIP(p, t, f + 1));
+        m.put(IStackTrace.PROP_FUNC_ID, SimulatedAgent.getSymbolID(p, agent.getFuncAt(ip)));
+        return m;
+    }
+}
@@ -0,0 +1,274 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.internal.services.local;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IErrorReport;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.JSON;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.IDiagnostics;
+import org.eclipse.tcf.services.IStreams;
+
+/**
+ * Streams service of the simulated agent.
+ * The only streams are test stream pairs created by Diagnostics 'createTestStreams' command:
+ * data written into the input stream of a pair can be read from the output stream.
+ *
+ * Like in a real agent, a channel that is subscribed to a stream type is connected to every new stream
+ * of that type, and a disposed stream is kept until all its clients are disconnected.
+ * Data that is written while nobody is connected to the output stream is dropped,
+ * other data is kept until it is read, buffer sizes are not limited.
+ */
+class SimulatedStreamsService extends SimulatedService {
+
+    static class Stream {
+        final String id;
+        final SimulatedStreamsService owner;
+        final Stream out;
+        final List<Client> clients = new ArrayList<Client>();
+        final Set<SimulatedStreamsService> notified = new HashSet<SimulatedStreamsService>();
+        boolean eos;
+        boolean disposed;
+
+        Stream(String id, SimulatedStreamsService owner, Stream out) {
+            this.id = id;
+            this.owner = owner;
+            this.out = out;
+        }
+    }
+
+    private static class Read {
+        final IToken token;
+        final int size;
+
+        Read(IToken token, int size) {
+            this.token = token;
+            this.size = size;
+        }
+    }
+
+    private class Client {
+        final Stream stream;
+        final LinkedList<Read> reads = new LinkedList<Read>();
+        byte[] buf = new byte[0x100];
+        int pos;
+        int len;
+
+        Client(Stream stream) {
+            this.stream = stream;
+        }
+
+        void write(byte[] data, int size) {
+            if (pos + len + size > buf.length) {
+                byte[] b = buf;
+                if (len + size > buf.length) b = new byte[Math.max(len + size, buf.length * 2)];
+                System.arraycopy(buf, pos, b, 0, len);
+                buf = b;
+                pos = 0;
+            }
+            System.arraycopy(data, 0, buf, pos + len, size);
+            len += size;
+        }
+
+        void flush() throws Exception {
+            if (channel.getState() != IChannel.STATE_OPEN) return;
+            while (reads.size() > 0 && (len > 0 || stream.eos || stream.disposed)) {
+                Read r = reads.removeFirst();
+                int n = Math.min(r.size, len);
+                byte[] data = new byte[n];
+                System.arraycopy(buf, pos, data, 0, n);
+                pos += n;
+                len -= n;
+                boolean eos = len == 0 && (stream.eos || stream.disposed);
+                sendResult(r.token, new Object[]{ new JSON.Binary(data, 0, n), null, 0, eos });
+            }
+        }
+    }
+
+    private final Set<String> subscriptions = new HashSet<String>();
+    private final Map<String,Client> clients = new HashMap<String,Client>();
+
+    SimulatedStreamsService(SimulatedAgent agent, IChannel channel) {
+        super(agent, channel);
+        channel.addChannelListener(new IChannel.IChannelListener() {
+            public void onChannelOpened() {
+            }
+
+            public void congestionLevel(int level) {
+            }
+
+            public void onChannelClosed(Throwable error) {
+                closeStreams();
+            }
+        });
+    }
+
+    public String getName() {
+        return IStreams.NAME;
+    }
+
+    private static Map<String,Object> invalidStream() {
+        return error(IErrorReport.TCF_ERROR_INV_CONTEXT, "Invalid stream");
+    }
+
+    @Override
+    Object[] command(IToken token, String name, Object[] args) throws Exception {
+        if (name.equals("subscribe")) {
+            checkArgs(args, 1);
+            String type = (String)args[0];
+            if (!subscriptions.add(type)) return new Object[]{ error(IErrorReport.TCF_ERROR_OTHER, "Already subscribed") };
+            return new Object[]{ null };
+        }
+        if (name.equals("unsubscribe")) {
+            checkArgs(args, 1);
+            String type = (String)args[0];
+            if (!subscriptions.remove(type)) return new Object[]{ error(IErrorReport.TCF_ERROR_OTHER, "Not subscribed") };
+            for (Stream s : agent.streams.values()) s.notified.remove(this);
+            return new Object[]{ null };
+        }
+        if (name.equals("connect")) {
+            checkArgs(args, 1);
+            String id = (String)args[0];
+            Stream s = agent.streams.get(id);
+            if (s == null || s.disposed) return new Object[]{ invalidStream() };
+            if (!clients.containsKey(id)) connect(s);
+            return new Object[]{ null };
+        }
+        if (name.equals("disconnect")) {
+            checkArgs(args, 1);
+            Client c = clients.remove((String)args[0]);
+            if (c == null) return new Object[]{ invalidStream() };
+            disconnect(c);
+            return new Object[]{ null };
+        }
+        if (name.equals("read")) {
+            checkArgs(args, 2);
+            Client c = clients.get((String)args[0]);
+            if (c == null) return new Object[]{ null, invalidStream(), 0, false };
+            c.reads.add(new Read(token, ((Number)args[1]).intValue()));
+            c.flush();
+            return null;
+        }
+        if (name.equals("write")) {
+            checkArgs(args, 3);
+            Client c = clients.get((String)args[0]);
+            if (c == null || c.stream.out == null) return new Object[]{ invalidStream() };
+            if (c.stream.eos) return new Object[]{ error(IErrorReport.TCF_ERROR_OTHER, "Write after end of stream") };
+            byte[] data = JSON.toByteArray(args[2]);
+            int size = Math.min(((Number)args[1]).intValue(), data.length);
+            for (Client o : c.stream.out.clients) {
+                o.write(data, size);
+                o.flush();
+            }
+            return new Object[]{ null };
+        }
+        if (name.equals("eos")) {
+            checkArgs(args, 1);
+            Client c = clients.get((String)args[0]);
+            if (c == null || c.stream.out == null) return new Object[]{ invalidStream() };
+            c.stream.eos = true;
+            c.stream.out.eos = true;
+            flushAll(c.stream.out);
+            return new Object[]{ null };
+        }
+        channel.rejectCommand(token);
+        return null;
+    }
+
+    /**
+     * Execute Diagnostics 'createTestStreams' command: create a test stream pair,
+     * and send IDs of the input and the output streams after the agent latency.
+     */
+    void createTestStreams(IToken token) throws Exception {
+        Stream out = new Stream("VS" + agent.stream_cnt++, this, null);
+        Stream inp = new Stream("VS" + agent.stream_cnt++, this, out);
+        for (Stream s : new Stream[]{ inp, out }) {
+            agent.streams.put(s.id, s);
+            for (SimulatedService x : agent.getServices(IStreams.NAME)) {
+                SimulatedStreamsService service = (SimulatedStreamsService)x;
+                if (!service.subscriptions.contains(IDiagnostics.NAME)) continue;
+                s.notified.add(service);
+                service.connect(s);
+                service.sendEvent("created", new Object[]{ IDiagnostics.NAME, s.id });
+            }
+        }
+        sendResult(token, new Object[]{ null, inp.id, out.id });
+    }
+
+    /**
+     * Execute Diagnostics 'disposeTestStream' command.
+     */
+    void disposeTestStream(IToken token, String id) throws Exception {
+        Stream s = agent.streams.get(id);
+        if (s == null || s.disposed) {
+            sendResult(token, new Object[]{ invalidStream() });
+            return;
+        }
+        dispose(s);
+        sendResult(token, new Object[]{ null });
+    }
+
+    private void connect(Stream s) {
+        Client c = new Client(s);
+        clients.put(s.id, c);
+        s.clients.add(c);
+    }
+
+    private void disconnect(Client c) throws Exception {
+        c.stream.clients.remove(c);
+        /* Pending reads of a disconnected client report end of stream */
+        while (c.reads.size() > 0) {
+            sendResult(c.reads.removeFirst().token, new Object[]{ null, null, 0, true });
+        }
+        if (c.stream.disposed && c.stream.clients.isEmpty()) agent.streams.remove(c.stream.id);
+    }
+
+    private void dispose(Stream s) throws Exception {
+        s.disposed = true;
+        for (SimulatedStreamsService service : s.notified) {
+            service.sendEvent("disposed", new Object[]{ IDiagnostics.NAME, s.id });
+        }
+        s.notified.clear();
+        flushAll(s);
+        if (s.clients.isEmpty()) agent.streams.remove(s.id);
+    }
+
+    private static void flushAll(Stream s) throws Exception {
+        for (Client c : s.clients) c.flush();
+    }
+
+    private void closeStreams() {
+        subscriptions.clear();
+        try {
+            for (Client c : clients.values()) {
+                c.reads.clear();
+                disconnect(c);
+            }
+            clients.clear();
+            for (Stream s : new ArrayList<Stream>(agent.streams.values())) {
+                s.notified.remove(this);
+                if (s.owner == this && !s.disposed) dispose(s);
+            }
+        }
+        catch (Exception x) {
+            Protocol.log("Cannot dispose simulated streams", x);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.internal.services.local;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IErrorReport;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.services.ISymbols;
+
+/**
+ * Symbols service of the simulated agent.
+ * Each process has a list of functions "func0", "func1", ..., which occupy the code area of the process.
+ */
+class SimulatedSymbolsService extends SimulatedService {
+
+    SimulatedSymbolsService(SimulatedAgent agent, IChannel channel) {
+        super(agent, channel);
+    }
+
+    public String getName() {
+        return ISymbols.NAME;
+    }
+
+    @Override
+    Object[] command(IToken token, String name, Object[] args) throws Exception {
+        if (name.equals("getContext")) {
+            checkArgs(args, 1);
+            String id = (String)args[0];
+            int[] ids = agent.parseID(id);
+            if (ids == null || ids[4] < 0) return new Object[]{ error(IErrorReport.TCF_ERROR_INV_CONTEXT, "Invalid symbol ID"), null };
+            Map<String,Object> m = new HashMap<String,Object>();
+            m.put(ISymbols.PROP_ID, id);
+            m.put(ISymbols.PROP_OWNER_ID, SimulatedAgent.getProcessID(ids[0]));
+            m.put(ISymbols.PROP_NAME, "func" + ids[4]);
+            m.put(ISymbols.PROP_SYMBOL_CLASS, ISymbols.SymbolClass.function.ordinal());
+            m.put(ISymbols.PROP_ADDRESS, SimulatedAgent.getFuncAddress(ids[4]));
+            m.put(ISymbols.PROP_SIZE, SimulatedAgent.FUNC_SIZE);
+            return new Object[]{ null, m };
+        }
+        if (name.equals("getChildren")) {
+            checkArgs(args, 1);
+            int[] ids = agent.parseID((String)args[0]);
+            if (ids == null || ids[4] < 0) return new Object[]{ error(IErrorReport.TCF_ERROR_INV_CONTEXT, "Invalid symbol ID"), null };
+            return new Object[]{ null, new ArrayList<String>() };
+        }
+        if (name.equals("find") || name.equals("findByName")) {
+            checkArgs(args, 3);
+            int[] ids = getContext((String)args[0]);
+            String sym = (String)args[2];
+            if (ids == null) return new Object[]{ error(IErrorReport.TCF_ERROR_INV_CONTEXT, "Invalid context"), null };
+            int s = -1;
+            if (sym.startsWith("func")) {
+                try {
+                    s = Integer.parseInt(sym.substring(4));
+                    if (s >= agent.symbols || !sym.equals("func" + s)) s = -1;
+                }
+                catch (NumberFormatException x) {
+                    s = -1;
+                }
+            }
+            if (s < 0) return new Object[]{ error(IErrorReport.TCF_ERROR_SYM_NOT_FOUND, "Symbol not found"), null };
+            String id = SimulatedAgent.getSymbolID(ids[0], s);
+            if (name.equals("find")) return new Object[]{ null, id };
+            List<String> list = new ArrayList<String>();
+            list.add(id);
+            return new Object[]{ null, list };
+        }
+        if (name.equals("findByAddr")) {
+            checkArgs(args, 2);
+            int[] ids = getContext((String)args[0]);
+            if (ids == null) return new Object[]{ error(IErrorReport.TCF_ERROR_INV_CONTEXT, "Invalid context"), null };
+            int s = agent.getFuncAt(((Number)args[1]).longValue());
+            if (s < 0) return new Object[]{ error(IErrorReport.TCF_ERROR_SYM_NOT_FOUND, "Symbol not found"), null };
+            return new Object[]{ null, SimulatedAgent.getSymbolID(ids[0], s) };
+        }
+        if (name.equals("list")) {
+            checkArgs(args, 1);
+            int[] ids = getContext((String)args[0]);
+            if (ids == null) return new Object[]{ error(IErrorReport.TCF_ERROR_INV_CONTEXT, "Invalid context"), null };
+            List<String> list = new ArrayList<String>();
+            for (int s = 0; s < agent.symbols; s++) list.add(SimulatedAgent.getSymbolID(ids[0], s));
+            return new Object[]{ null, list };
+        }
+        channel.rejectCommand(token);
+        return null;
+    }
+
+    /** Symbol search context can be a process, a thread or a stack frame */
+    private int[] getContext(String id) {
+        int[] ids = agent.parseID(id);
+        if (ids == null || ids[3] >= 0 || ids[4] >= 0) return null;
+        return ids;
+    }
+}
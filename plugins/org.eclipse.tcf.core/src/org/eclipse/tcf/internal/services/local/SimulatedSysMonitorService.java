@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.internal.services.local;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IErrorReport;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.services.ISysMonitor;
+
+/**
+ * SysMonitor service of the simulated agent.
+ * The system has a flat list of processes with IDs "S<pid>", parent of all processes is process 1.
+ */
+class SimulatedSysMonitorService extends SimulatedService {
+
+    private static final int FIRST_PID = 1;
+
+    SimulatedSysMonitorService(SimulatedAgent agent, IChannel channel) {
+        super(agent, channel);
+    }
+
+    public String getName() {
+        return ISysMonitor.NAME;
+    }
+
+    @Override
+    Object[] command(IToken token, String name, Object[] args) throws Exception {
+        if (name.equals("getChildren")) {
+            checkArgs(args, 1);
+            String id = (String)args[0];
+            if (id != null && getPID(id) < 0) return new Object[]{ error(IErrorReport.TCF_ERROR_INV_CONTEXT, "Invalid context"), null };
+            List<String> list = new ArrayList<String>();
+            if (id == null) {
+                for (int i = 0; i < agent.sysmon; i++) list.add("S" + (FIRST_PID + i));
+            }
+            return new Object[]{ null, list };
+        }
+        if (name.equals("getContext")) {
+            checkArgs(args, 1);
+            String id = (String)args[0];
+            int pid = getPID(id);
+            if (pid < 0) return new Object[]{ error(IErrorReport.TCF_ERROR_INV_CONTEXT, "Invalid context"), null };
+            Map<String,Object> m = new HashMap<String,Object>();
+            m.put(ISysMonitor.PROP_ID, id);
+            m.put(ISysMonitor.PROP_PID, pid);
+            m.put(ISysMonitor.PROP_PPID, pid == FIRST_PID ? 0 : FIRST_PID);
+            m.put(ISysMonitor.PROP_FILE, getFile(pid));
+            m.put(ISysMonitor.PROP_CWD, "/");
+            m.put(ISysMonitor.PROP_UID, 0);
+            m.put(ISysMonitor.PROP_UGID, 0);
+            m.put(ISysMonitor.PROP_USERNAME, "root");
+            m.put(ISysMonitor.PROP_GROUPNAME, "root");
+            m.put(ISysMonitor.PROP_STATE, "S");
+            m.put(ISysMonitor.PROP_VSIZE, 0x100000L + pid * 0x1000L);
+            m.put(ISysMonitor.PROP_RSS, 0x40 + pid % 0x100);
+            return new Object[]{ null, m };
+        }
+        if (name.equals("getCommandLine")) {
+            checkArgs(args, 1);
+            int pid = getPID((String)args[0]);
+            if (pid < 0) return new Object[]{ error(IErrorReport.TCF_ERROR_INV_CONTEXT, "Invalid context"), null };
+            return new Object[]{ null, new String[]{ getFile(pid), "--pid", Integer.toString(pid) } };
+        }
+        if (name.equals("getEnvironment")) {
+            checkArgs(args, 1);
+            int pid = getPID((String)args[0]);
+            if (pid < 0) return new Object[]{ error(IErrorReport.TCF_ERROR_INV_CONTEXT, "Invalid context"), null };
+            return new Object[]{ null, new String[]{ "PATH=/bin:/usr/bin", "HOME=/", "PID=" + pid } };
+        }
+        channel.rejectCommand(token);
+        return null;
+    }
+
+    private int getPID(String id) {
+        if (id == null || !id.startsWith("S")) return -1;
+        try {
+            int pid = Integer.parseInt(id.substring(1));
+            if (pid < FIRST_PID || pid >= FIRST_PID + agent.sysmon) return -1;
+            return pid;
+        }
+        catch (NumberFormatException x) {
+            return -1;
+        }
+    }
+
+    private static String getFile(int pid) {
+        return "/usr/bin/sim" + pid % 100;
+    }
+}
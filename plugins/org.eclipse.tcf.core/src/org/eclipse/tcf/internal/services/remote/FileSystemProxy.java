@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.tcf.internal.services.remote;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
@@ -301,6 +302,77 @@ public class FileSystemProxy implements IFileSystem {
         }.token;
     }
 
+    /**
+     * Call back interface for {@link FileSystemProxy#read(IFileHandle, long, byte[], int, int, DoneReadBuffer)}.
+     */
+    public interface DoneReadBuffer {
+        /**
+         * Called when read command is done.
+         * @param token - command handle.
+         * @param error - error description if operation failed, null if succeeded.
+         * @param size - number of bytes stored in the buffer.
+         * @param eof - true if end of file was reached.
+         */
+        void doneReadBuffer(IToken token, FileSystemException error, int size, boolean eof);
+    }
+
+    /**
+     * Read bytes from an open file into a buffer.
+     * Same as {@link #read(IFileHandle, long, int, DoneRead)}, but the data is copied
+     * directly into the given buffer, without allocating an intermediate byte array.
+     * @param handle - an open file handle returned by open().
+     * @param offset - offset in the file, if offset < 0 then reading starts from current position in the file.
+     * @param buf - the destination buffer.
+     * @param offs - position in the buffer where to store the data.
+     * @param len - max number of bytes to read.
+     * @param done - call back object.
+     * @return pending command handle.
+     */
+    public IToken read(IFileHandle handle, long offset, final byte[] buf, final int offs, final int len,
+            final DoneReadBuffer done) {
+        assert handle.getService() == this;
+        String id = ((FileHandle)handle).id;
+        return new FileSystemCommand("read", new Object[]{
+                id, Long.valueOf(offset), Integer.valueOf(len) }) {
+            @Override
+            protected boolean isBinarySliceSupported() {
+                return true;
+            }
+
+            public void done(Exception error, Object[] args) {
+                Status s = null;
+                int size = 0;
+                boolean eof = false;
+                if (error != null) {
+                    s = new Status(error);
+                }
+                else {
+                    assert args.length == 3;
+                    s = toFSError(args[1]);
+                    if (s == null) {
+                        Object data = args[0];
+                        if (data instanceof JSON.Binary) {
+                            size = ((JSON.Binary)data).size;
+                        }
+                        else if (data != null) {
+                            data = JSON.toByteArray(data);
+                            size = ((byte[])data).length;
+                        }
+                        if (size > len) {
+                            s = new Status(new IOException("Invalid reply: read data size exceeds requested size"));
+                            size = 0;
+                        }
+                        else {
+                            JSON.toByteArray(buf, offs, size, data);
+                            eof = ((Boolean)args[2]).booleanValue();
+                        }
+                    }
+                }
+                done.doneReadBuffer(token, s, size, eof);
+            }
+        }.token;
+    }
+
     public IToken readdir(IFileHandle handle, final DoneReadDir done) {
         assert handle.getService() == this;
         String id = ((FileHandle)handle).id;
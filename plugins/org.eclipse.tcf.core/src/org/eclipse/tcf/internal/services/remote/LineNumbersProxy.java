@@ -14,9 +14,13 @@ import java.util.Collection;
 import java.util.Map;
 
 import org.eclipse.tcf.core.Command;
+import org.eclipse.tcf.internal.core.Token;
 import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IService;
 import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.Protocol;
 import org.eclipse.tcf.services.ILineNumbers;
+import org.eclipse.tcf.services.ISymbols;
 
 
 public class LineNumbersProxy implements ILineNumbers {
@@ -31,8 +35,64 @@ public class LineNumbersProxy implements ILineNumbers {
         return NAME;
     }
 
-    public IToken mapToSource(String context_id, Number start_address,
-            Number end_address, final DoneMapToSource done) {
+    /**
+     * Token of a mapToSource command that waits for a symbol file lookup, see SymFileCache.
+     */
+    private static class LookupToken extends Token {
+
+        boolean canceled;
+        IToken command;
+
+        @Override
+        public boolean cancel() {
+            if (command != null) return command.cancel();
+            if (canceled) return false;
+            canceled = true;
+            return true;
+        }
+    }
+
+    public IToken mapToSource(final String context_id, final Number start_address,
+            final Number end_address, final DoneMapToSource done) {
+        IService s = context_id != null && start_address != null && end_address != null ?
+                channel.getRemoteService(ISymbols.NAME) : null;
+        if (!(s instanceof SymbolsProxy) || !((SymbolsProxy)s).isSymFileCacheEnabled()) {
+            return sendMapToSource(context_id, start_address, end_address, null, null, done);
+        }
+        SymbolsProxy syms = (SymbolsProxy)s;
+        SymFileCache.SymFile sym_file = syms.getSymFile(context_id, start_address, end_address);
+        if (sym_file != null) {
+            final CodeArea[] arr = sym_file.getLineInfo(start_address, end_address);
+            if (arr != null) {
+                final IToken token = new Token();
+                Protocol.invokeLater(new Runnable() {
+                    public void run() {
+                        done.doneMapToSource(token, null, arr);
+                    }
+                });
+                return token;
+            }
+            return sendMapToSource(context_id, start_address, end_address, sym_file, null, done);
+        }
+        if (!syms.canFindSymFile(context_id)) {
+            return sendMapToSource(context_id, start_address, end_address, null, null, done);
+        }
+        /* Symbol file is not known yet, find it before sending the command, the result can be in the cache */
+        final LookupToken token = new LookupToken();
+        syms.findSymFile(context_id, start_address, new SymbolsProxy.DoneFindSymFile() {
+            public void doneFindSymFile(SymFileCache.SymFile sym_file) {
+                if (token.canceled) return;
+                if (sym_file != null && !sym_file.contains(start_address, end_address)) sym_file = null;
+                CodeArea[] arr = sym_file != null ? sym_file.getLineInfo(start_address, end_address) : null;
+                if (arr != null) done.doneMapToSource(token, null, arr);
+                else token.command = sendMapToSource(context_id, start_address, end_address, sym_file, token, done);
+            }
+        });
+        return token;
+    }
+
+    private IToken sendMapToSource(String context_id, final Number start_address, final Number end_address,
+            final SymFileCache.SymFile sym_file, final IToken lookup_token, final DoneMapToSource done) {
         return new Command(channel, this, "mapToSource", new Object[]{ context_id,
                 start_address, end_address }) {
             @Override
@@ -43,7 +103,8 @@ public class LineNumbersProxy implements ILineNumbers {
                     error = toError(args[0]);
                     arr = toTextAreaArray(args[1]);
                 }
-                done.doneMapToSource(token, error, arr);
+                if (sym_file != null && error == null && arr != null) sym_file.putLineInfo(start_address, end_address, arr);
+                done.doneMapToSource(lookup_token != null ? lookup_token : token, error, arr);
             }
         }.token;
     }
@@ -0,0 +1,438 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.internal.services.remote;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.tcf.protocol.JSON;
+import org.eclipse.tcf.services.IMemory;
+
+/**
+ * MemoryCache keeps memory data that was read by Memory service "get" commands,
+ * so that views that show overlapping memory ranges after a suspend don't read same memory again.
+ *
+ * Memory is cached in pages of PAGE_SIZE bytes, per memory space. Memory contexts that have same
+ * process ID share a memory space. A page keeps the data and, if reading failed for some bytes,
+ * per-byte status and error messages. The cache never reads memory outside of a client request,
+ * since reading memory mapped device registers can have side effects: missing parts of a request
+ * are fetched as is, and only pages that are completely covered by a fetch are stored in the cache.
+ * Pages are invalidated by Memory service events,
+ * and all pages are invalidated when a RunControl context is resumed or suspended.
+ * Memory is not cached while any context is known to be running, and it is cached only for memory contexts
+ * that were reported suspended by a RunControl event, either the context itself or its process:
+ * the run state of contexts that were running before the channel was opened is not known.
+ *
+ * The cache is enabled by setting system property "org.eclipse.tcf.core.memory_cache" to "true".
+ * The object is accessed by the dispatch thread only.
+ */
+final class MemoryCache {
+
+    static final boolean ENABLED = "true".equals(System.getProperty("org.eclipse.tcf.core.memory_cache"));
+
+    static final int PAGE_SIZE = 256;
+
+    /** Max number of cached pages */
+    private static final int MAX_PAGES = 4096;
+
+    /** Max number of pages of a request that is served through the cache, larger requests are sent as is */
+    private static final int MAX_REQUEST_PAGES = 64;
+
+    private static final BigInteger MAX_ADDR = BigInteger.valueOf(Long.MAX_VALUE - MAX_REQUEST_PAGES * PAGE_SIZE);
+
+    private static final List<Fetch> NO_FETCHES = new ArrayList<Fetch>(0);
+
+    private static final class PageKey {
+        final String space;
+        final long addr;
+
+        PageKey(String space, long addr) {
+            this.space = space;
+            this.addr = addr;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof PageKey)) return false;
+            PageKey k = (PageKey)o;
+            return addr == k.addr && space.equals(k.space);
+        }
+
+        @Override
+        public int hashCode() {
+            return space.hashCode() * 31 + (int)(addr ^ (addr >>> 32));
+        }
+    }
+
+    private static final class Page {
+        final byte[] data;
+        /** Per-byte status, null if all bytes are valid */
+        final byte[] stat;
+        /** Per-byte error messages, null if all bytes are valid */
+        final String[] msgs;
+
+        Page(byte[] data, byte[] stat, String[] msgs) {
+            this.data = data;
+            this.stat = stat;
+            this.msgs = msgs;
+        }
+    }
+
+    /**
+     * Memory error of a request that is served from the cache.
+     */
+    private static final class CachedMemoryError extends IMemory.MemoryError implements IMemory.ErrorOffset {
+
+        private static final long serialVersionUID = 6317752340962585126L;
+        private final byte[] stat;
+        private final String[] msgs;
+
+        CachedMemoryError(String msg, byte[] stat, String[] msgs) {
+            super(msg);
+            this.stat = stat;
+            this.msgs = msgs;
+        }
+
+        public int getStatus(int offset) {
+            if (offset < 0 || offset >= stat.length) return BYTE_UNKNOWN;
+            return stat[offset];
+        }
+
+        public String getMessage(int offset) {
+            if (offset < 0 || offset >= msgs.length) return null;
+            return msgs[offset];
+        }
+    }
+
+    /**
+     * Pending "get" command that reads a part of a request, and stores complete pages in the cache.
+     */
+    static final class Fetch {
+        final String space;
+        final long addr;
+        final int size;
+        final int generation;
+        final List<Runnable> waiters = new ArrayList<Runnable>();
+
+        /** Fetched data and per-byte status, set when the fetch is done, data is null if it cannot be used */
+        byte[] data;
+        byte[] stat;
+        String[] msgs;
+
+        Fetch(String space, long addr, int size, int generation) {
+            this.space = space;
+            this.addr = addr;
+            this.size = size;
+            this.generation = generation;
+        }
+    }
+
+    private final LinkedHashMap<PageKey,Page> pages = new LinkedHashMap<PageKey,Page>(256, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<PageKey,Page> eldest) {
+            return size() > MAX_PAGES;
+        }
+    };
+
+    /** Pending fetches, mapped by pages that they cover completely */
+    private final Map<PageKey,Fetch> pending = new HashMap<PageKey,Fetch>();
+
+    /** Incremented when cached memory is invalidated, data of fetches that were started before is not used */
+    private int generation;
+
+    /** Memory space IDs, mapped by memory context ID */
+    private final Map<String,String> spaces = new HashMap<String,String>();
+
+    /** IDs of RunControl contexts that are known to be running */
+    private final Set<String> running = new HashSet<String>();
+
+    /** IDs of RunControl contexts that are known to be suspended */
+    private final Set<String> suspended = new HashSet<String>();
+
+    /**
+     * Get memory space ID of a memory context.
+     */
+    String getSpace(IMemory.MemoryContext ctx) {
+        String id = ctx.getID();
+        String space = ctx.getProcessID();
+        if (space == null) space = id;
+        spaces.put(id, space);
+        return space;
+    }
+
+    /**
+     * Check if a "get" request can be served through the cache.
+     */
+    boolean isCacheable(IMemory.MemoryContext ctx, Number addr, int word_size, int size, int mode) {
+        if (!running.isEmpty()) return false;
+        if (!suspended.contains(ctx.getID()) && !suspended.contains(ctx.getProcessID())) return false;
+        if (size <= 0 || size > (MAX_REQUEST_PAGES - 1) * PAGE_SIZE) return false;
+        if (word_size < 0 || word_size > PAGE_SIZE || (word_size & (word_size - 1)) != 0) return false;
+        if ((mode & ~(IMemory.MODE_CONTINUEONERROR | IMemory.MODE_VERIFY)) != 0) return false;
+        if (ctx.getID() == null || addr == null) return false;
+        BigInteger a = JSON.toBigInteger(addr);
+        if (a.signum() < 0 || a.compareTo(MAX_ADDR) > 0) return false;
+        return true;
+    }
+
+    static long pageAddr(long addr) {
+        return addr & ~(long)(PAGE_SIZE - 1);
+    }
+
+    /**
+     * @return true if the page is in the cache.
+     */
+    boolean containsPage(String space, long page_addr) {
+        return pages.containsKey(new PageKey(space, page_addr));
+    }
+
+    /**
+     * @return true if all bytes of the range are in the cache.
+     */
+    boolean contains(String space, long addr, int size) {
+        return contains(space, addr, size, NO_FETCHES);
+    }
+
+    /**
+     * @return true if all bytes of the range are in the cache or in data of the given fetches.
+     */
+    boolean contains(String space, long addr, int size, List<Fetch> fetches) {
+        int pos = 0;
+        while (pos < size) {
+            long a = addr + pos;
+            int n = Math.min(PAGE_SIZE - (int)(a - pageAddr(a)), size - pos);
+            if (findFetch(fetches, a, n) == null && !pages.containsKey(new PageKey(space, pageAddr(a)))) return false;
+            pos += n;
+        }
+        return true;
+    }
+
+    private Fetch findFetch(List<Fetch> fetches, long addr, int size) {
+        for (Fetch f : fetches) {
+            if (f.data == null || f.generation != generation) continue;
+            if (f.addr <= addr && addr + size <= f.addr + f.size) return f;
+        }
+        return null;
+    }
+
+    /**
+     * Copy cached memory data into a buffer. All bytes of the range must be in the cache.
+     * @return error that describes bytes that are not valid, or null if all bytes are valid.
+     */
+    IMemory.MemoryError read(String space, long addr, byte[] buf, int offs, int size) {
+        return read(space, addr, buf, offs, size, NO_FETCHES);
+    }
+
+    /**
+     * Copy memory data into a buffer. All bytes of the range must be in the cache or in data of the given fetches,
+     * see {@link #contains(String, long, int, List)}.
+     * @return error that describes bytes that are not valid, or null if all bytes are valid.
+     */
+    IMemory.MemoryError read(String space, long addr, byte[] buf, int offs, int size, List<Fetch> fetches) {
+        byte[] stat = null;
+        String[] msgs = null;
+        String msg = null;
+        int pos = 0;
+        while (pos < size) {
+            long a = addr + pos;
+            int n = Math.min(PAGE_SIZE - (int)(a - pageAddr(a)), size - pos);
+            byte[] src_data;
+            byte[] src_stat;
+            String[] src_msgs;
+            int i;
+            Fetch f = findFetch(fetches, a, n);
+            if (f != null) {
+                src_data = f.data;
+                src_stat = f.stat;
+                src_msgs = f.msgs;
+                i = (int)(a - f.addr);
+            }
+            else {
+                Page p = pages.get(new PageKey(space, pageAddr(a)));
+                src_data = p.data;
+                src_stat = p.stat;
+                src_msgs = p.msgs;
+                i = (int)(a - pageAddr(a));
+            }
+            System.arraycopy(src_data, i, buf, offs + pos, n);
+            if (src_stat != null) {
+                for (int j = 0; j < n; j++) {
+                    if (src_stat[i + j] == IMemory.ErrorOffset.BYTE_VALID) continue;
+                    if (stat == null) {
+                        stat = new byte[size];
+                        msgs = new String[size];
+                    }
+                    stat[pos + j] = src_stat[i + j];
+                    msgs[pos + j] = src_msgs[i + j];
+                    if (msg == null) msg = src_msgs[i + j];
+                }
+            }
+            pos += n;
+        }
+        if (stat == null) return null;
+        if (msg == null) msg = "Cannot read memory";
+        return new CachedMemoryError(msg, stat, msgs);
+    }
+
+    /**
+     * @return pending fetch of a page, or null if the page is not being read.
+     */
+    Fetch getFetch(String space, long page_addr) {
+        return pending.get(new PageKey(space, page_addr));
+    }
+
+    /**
+     * Register a fetch of a memory range.
+     */
+    Fetch startFetch(String space, long addr, int size) {
+        Fetch f = new Fetch(space, addr, size, generation);
+        for (long p = firstPage(f); p + PAGE_SIZE <= addr + size; p += PAGE_SIZE) pending.put(new PageKey(space, p), f);
+        return f;
+    }
+
+    /**
+     * @return address of the first page that is completely covered by a fetch.
+     */
+    private static long firstPage(Fetch f) {
+        return pageAddr(f.addr + PAGE_SIZE - 1);
+    }
+
+    /**
+     * Called when a fetch is done. The data is kept for the waiters, and complete pages are stored,
+     * if cached memory was not invalidated while the fetch was pending, and the data is valid
+     * or the error has per-byte status.
+     * @param data - memory data, or null if the command failed.
+     * @param error - memory error, or null.
+     * @param per_byte - true if the error has per-byte status.
+     */
+    void doneFetch(Fetch f, byte[] data, IMemory.MemoryError error, boolean per_byte) {
+        long end = f.addr + f.size;
+        for (long p = firstPage(f); p + PAGE_SIZE <= end; p += PAGE_SIZE) {
+            PageKey k = new PageKey(f.space, p);
+            if (pending.get(k) == f) pending.remove(k);
+        }
+        if (f.generation == generation && data != null && (error == null || per_byte)) {
+            f.data = data;
+            if (error != null) {
+                IMemory.ErrorOffset eo = (IMemory.ErrorOffset)error;
+                for (int i = 0; i < f.size; i++) {
+                    int s = eo.getStatus(i);
+                    if (s == IMemory.ErrorOffset.BYTE_VALID) continue;
+                    if (f.stat == null) {
+                        f.stat = new byte[f.size];
+                        f.msgs = new String[f.size];
+                    }
+                    f.stat[i] = (byte)s;
+                    f.msgs[i] = eo.getMessage(i);
+                }
+            }
+            for (long p = firstPage(f); p + PAGE_SIZE <= end; p += PAGE_SIZE) {
+                int offs = (int)(p - f.addr);
+                byte[] d = new byte[PAGE_SIZE];
+                System.arraycopy(data, offs, d, 0, PAGE_SIZE);
+                byte[] stat = null;
+                String[] msgs = null;
+                if (f.stat != null) {
+                    for (int i = 0; i < PAGE_SIZE; i++) {
+                        if (f.stat[offs + i] == IMemory.ErrorOffset.BYTE_VALID) continue;
+                        if (stat == null) {
+                            stat = new byte[PAGE_SIZE];
+                            msgs = new String[PAGE_SIZE];
+                        }
+                        stat[i] = f.stat[offs + i];
+                        msgs[i] = f.msgs[offs + i];
+                    }
+                }
+                pages.put(new PageKey(f.space, p), new Page(d, stat, msgs));
+            }
+        }
+        for (Runnable r : f.waiters) r.run();
+    }
+
+    /**
+     * Invalidate a memory range of a memory context.
+     */
+    void invalidate(String id, Number addr, long size) {
+        String space = spaces.get(id);
+        if (space == null || addr == null) {
+            /* The context can share memory with contexts that are cached */
+            clear();
+            return;
+        }
+        BigInteger a = JSON.toBigInteger(addr);
+        if (a.signum() < 0 || a.bitLength() > 63 || size > (long)MAX_PAGES * PAGE_SIZE) {
+            invalidate(space);
+            return;
+        }
+        long start = pageAddr(a.longValue());
+        long end = a.longValue() + size;
+        if (end < 0) end = Long.MAX_VALUE;
+        for (long p = start; p < end && p >= 0; p += PAGE_SIZE) {
+            pages.remove(new PageKey(space, p));
+        }
+        invalidatePending();
+    }
+
+    /**
+     * Invalidate all pages of a memory context.
+     */
+    void invalidate(String id) {
+        String space = spaces.get(id);
+        if (space == null) space = id;
+        for (Iterator<PageKey> i = pages.keySet().iterator(); i.hasNext();) {
+            if (i.next().space.equals(space)) i.remove();
+        }
+        invalidatePending();
+    }
+
+    /**
+     * Pending fetches can be reading memory that was changed, their data is not used.
+     */
+    private void invalidatePending() {
+        generation++;
+        pending.clear();
+    }
+
+    /**
+     * Invalidate all pages.
+     */
+    void clear() {
+        pages.clear();
+        invalidatePending();
+    }
+
+    void onContextRemoved(String id) {
+        invalidate(id);
+        spaces.remove(id);
+        running.remove(id);
+        suspended.remove(id);
+    }
+
+    void onContextResumed(String id) {
+        running.add(id);
+        suspended.remove(id);
+        clear();
+    }
+
+    void onContextSuspended(String id) {
+        running.remove(id);
+        suspended.add(id);
+        clear();
+    }
+}
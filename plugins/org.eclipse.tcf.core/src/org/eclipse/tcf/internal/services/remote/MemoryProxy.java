@@ -12,18 +12,25 @@ package org.eclipse.tcf.internal.services.remote;
 
 import java.io.IOException;
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
+import org.eclipse.tcf.core.AbstractChannel;
+import org.eclipse.tcf.core.ChannelMetrics;
 import org.eclipse.tcf.core.Command;
+import org.eclipse.tcf.internal.core.Token;
 import org.eclipse.tcf.protocol.IChannel;
 import org.eclipse.tcf.protocol.IErrorReport;
 import org.eclipse.tcf.protocol.IToken;
 import org.eclipse.tcf.protocol.JSON;
+import org.eclipse.tcf.protocol.Protocol;
 import org.eclipse.tcf.services.IMemory;
+import org.eclipse.tcf.services.IRunControl;
 
 
 public class MemoryProxy implements IMemory {
@@ -31,6 +38,7 @@ public class MemoryProxy implements IMemory {
     private final IChannel channel;
     private final Map<MemoryListener,IChannel.IEventListener> listeners =
         new HashMap<MemoryListener,IChannel.IEventListener>();
+    private final MemoryCache cache = MemoryCache.ENABLED ? new MemoryCache() : null;
 
     private static class Range implements Comparable<Range> {
         final int offs;
@@ -156,6 +164,20 @@ public class MemoryProxy implements IMemory {
         }
     }
 
+    private static class CacheToken extends Token {
+
+        boolean canceled;
+        IToken command;
+
+        @Override
+        public boolean cancel() {
+            if (command != null) return command.cancel();
+            if (canceled) return false;
+            canceled = true;
+            return true;
+        }
+    }
+
     private class MemContext implements MemoryContext {
 
         private final Map<String,Object> props;
@@ -223,6 +245,7 @@ public class MemoryProxy implements IMemory {
 
         public IToken fill(final Number addr, int word_size,
                 byte[] value, int size, int mode, final DoneMemory done) {
+            if (cache != null) cache.invalidate(getID(), addr, size);
             return new MemoryCommand("fill", new Object[] {
                 getID(), addr, word_size, size, mode, value
             } ) {
@@ -243,9 +266,23 @@ public class MemoryProxy implements IMemory {
         public IToken get(final Number addr, int word_size,
                 final byte[] buf, final int offs, final int size,
                 int mode, final DoneMemory done) {
+            if (cache != null && cache.isCacheable(this, addr, word_size, size, mode)) {
+                return getCached(addr, word_size, buf, offs, size, mode, done);
+            }
+            return sendGet(addr, word_size, buf, offs, size, mode, null, done);
+        }
+
+        private IToken sendGet(final Number addr, int word_size,
+                final byte[] buf, final int offs, final int size,
+                int mode, final IToken cache_token, final DoneMemory done) {
             return new MemoryCommand("get", new Object[] {
                     getID(), addr, word_size, size, mode
                 } ) {
+                    @Override
+                    protected boolean isBinarySliceSupported() {
+                        return true;
+                    }
+
                     public void done(Exception error, Object[] args) {
                         MemoryError e = null;
                         if (error != null) {
@@ -253,16 +290,115 @@ public class MemoryProxy implements IMemory {
                         }
                         else {
                             assert args.length == 3;
-                            JSON.toByteArray(buf, offs, size, args[0]);
-                            e = toMemoryError(addr, args[1], args[2]);
+                            try {
+                                JSON.toByteArray(buf, offs, size, args[0]);
+                                e = toMemoryError(addr, args[1], args[2]);
+                            }
+                            catch (IllegalArgumentException x) {
+                                e = new MemoryError("Invalid reply: " + x.getMessage());
+                            }
                         }
-                        done.doneMemory(token, e);
+                        done.doneMemory(cache_token != null ? cache_token : token, e);
                     }
                 }.token;
         }
 
+        private IToken getCached(final Number addr, final int word_size,
+                final byte[] buf, final int offs, final int size,
+                final int mode, final DoneMemory done) {
+            final String space = cache.getSpace(this);
+            final long a = addr.longValue();
+            final CacheToken token = new CacheToken();
+            ChannelMetrics metrics = channel instanceof AbstractChannel ? ((AbstractChannel)channel).getMetrics() : null;
+            if (cache.contains(space, a, size)) {
+                if (metrics != null) metrics.onCommandCached(NAME, "get");
+                final MemoryError error = cache.read(space, a, buf, offs, size);
+                Protocol.invokeLater(new Runnable() {
+                    public void run() {
+                        if (token.canceled) return;
+                        token.canceled = true;
+                        done.doneMemory(token, error);
+                    }
+                });
+                return token;
+            }
+            /*
+             * Read missing parts of the range, pages that are being read by other requests are not read again.
+             * Fetches don't go beyond the range, so only the pages they cover completely are cached.
+             */
+            final List<MemoryCache.Fetch> fetches = new ArrayList<MemoryCache.Fetch>();
+            boolean sent = false;
+            long end = a + size;
+            long missing = -1;
+            for (long p = MemoryCache.pageAddr(a); p < end; p += MemoryCache.PAGE_SIZE) {
+                MemoryCache.Fetch f = null;
+                if (!cache.containsPage(space, p)) {
+                    f = cache.getFetch(space, p);
+                    if (f == null) {
+                        if (missing < 0) missing = Math.max(p, a);
+                        continue;
+                    }
+                    if (!fetches.contains(f)) fetches.add(f);
+                }
+                if (missing >= 0) {
+                    fetches.add(sendFetch(space, missing, (int)(p - missing), word_size));
+                    sent = true;
+                    missing = -1;
+                }
+            }
+            if (missing >= 0) {
+                fetches.add(sendFetch(space, missing, (int)(end - missing), word_size));
+                sent = true;
+            }
+            if (!sent && metrics != null) metrics.onCommandCoalesced(NAME, "get");
+            Runnable r = new Runnable() {
+                int cnt = fetches.size();
+                public void run() {
+                    if (--cnt > 0) return;
+                    if (token.canceled) return;
+                    if (cache.contains(space, a, size, fetches)) {
+                        token.canceled = true;
+                        done.doneMemory(token, cache.read(space, a, buf, offs, size, fetches));
+                    }
+                    else {
+                        /* The memory was invalidated or could not be read */
+                        token.command = sendGet(addr, word_size, buf, offs, size, mode, token, done);
+                    }
+                }
+            };
+            for (MemoryCache.Fetch f : fetches) f.waiters.add(r);
+            return token;
+        }
+
+        private MemoryCache.Fetch sendFetch(String space, long addr, int size, int word_size) {
+            final MemoryCache.Fetch f = cache.startFetch(space, addr, size);
+            final byte[] data = new byte[f.size];
+            new MemoryCommand("get", new Object[] {
+                    getID(), f.addr, word_size, f.size, MODE_CONTINUEONERROR
+                } ) {
+                    @Override
+                    protected boolean isBinarySliceSupported() {
+                        return true;
+                    }
+
+                    public void done(Exception error, Object[] args) {
+                        MemoryError e = null;
+                        boolean per_byte = false;
+                        if (error == null) {
+                            assert args.length == 3;
+                            JSON.toByteArray(data, 0, f.size, args[0]);
+                            e = toMemoryError(f.addr, args[1], args[2]);
+                            per_byte = e instanceof MemoryErrorReport && ((MemoryErrorReport)e).ranges != null;
+                        }
+                        cache.doneFetch(f, error == null ? data : null, e, per_byte);
+                    }
+                };
+            return f;
+        }
+
         public IToken set(final Number addr, int word_size,
                 byte[] buf, int offs, int size, int mode, final DoneMemory done) {
+            if (cache != null) cache.invalidate(getID(), addr, size);
             return new MemoryCommand("set", new Object[] {
                     getID(), addr, word_size, size, mode, new JSON.Binary(buf, offs, size)
                 } ) {
@@ -287,6 +423,77 @@ public class MemoryProxy implements IMemory {
 
     public MemoryProxy(IChannel channel) {
         this.channel = channel;
+        if (cache != null) addCacheListeners();
+    }
+
+    /**
+     * Listeners that invalidate the memory cache. The listeners are added before any client listeners,
+     * so the cache is up to date when clients are notified about memory changes.
+     */
+    private void addCacheListeners() {
+        channel.addEventListener(this, new IChannel.IEventListener() {
+            public void event(String name, byte[] data) {
+                try {
+                    if (name.equals("memoryChanged")) {
+                        Object[] args = JSON.parseSequence(data);
+                        assert args.length == 2;
+                        String id = (String)args[0];
+                        Number[] addr = toAddrArray(args[1]);
+                        long[] size = toSizeArray(args[1]);
+                        if (addr == null) cache.invalidate(id);
+                        else for (int i = 0; i < addr.length; i++) cache.invalidate(id, addr[i], size[i]);
+                    }
+                    else if (name.equals("contextChanged")) {
+                        Object[] args = JSON.parseSequence(data);
+                        assert args.length == 1;
+                        for (MemoryContext ctx : toContextArray(args[0])) cache.invalidate(ctx.getID());
+                    }
+                    else if (name.equals("contextRemoved")) {
+                        Object[] args = JSON.parseSequence(data);
+                        assert args.length == 1;
+                        String[] ids = toStringArray(args[0]);
+                        if (ids != null) for (String id : ids) cache.onContextRemoved(id);
+                    }
+                }
+                catch (Throwable x) {
+                    channel.terminate(x);
+                }
+            }
+        });
+        channel.addEventListener(new GenericProxy(channel, IRunControl.NAME), new IChannel.IEventListener() {
+            public void event(String name, byte[] data) {
+                try {
+                    if (name.equals("contextSuspended")) {
+                        Object[] args = JSON.parseSequence(data);
+                        cache.onContextSuspended((String)args[0]);
+                    }
+                    else if (name.equals("containerSuspended")) {
+                        Object[] args = JSON.parseSequence(data);
+                        assert args.length == 5;
+                        cache.onContextSuspended((String)args[0]);
+                        String[] ids = toStringArray(args[4]);
+                        if (ids != null) for (String id : ids) cache.onContextSuspended(id);
+                    }
+                    else if (name.equals("contextResumed")) {
+                        Object[] args = JSON.parseSequence(data);
+                        cache.onContextResumed((String)args[0]);
+                    }
+                    else if (name.equals("containerResumed")) {
+                        Object[] args = JSON.parseSequence(data);
+                        String[] ids = toStringArray(args[0]);
+                        if (ids != null) for (String id : ids) cache.onContextResumed(id);
+                    }
+                    else if (name.equals("contextRemoved")) {
+                        Object[] args = JSON.parseSequence(data);
+                        String[] ids = toStringArray(args[0]);
+                        if (ids != null) for (String id : ids) cache.onContextRemoved(id);
+                    }
+                }
+                catch (Throwable x) {
+                    channel.terminate(x);
+                }
+            }
+        });
     }
 
     public void addListener(final MemoryListener listener) {
@@ -0,0 +1,415 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.internal.services.remote;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.eclipse.tcf.protocol.JSON;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.ILineNumbers.CodeArea;
+
+/**
+ * SymFileCache is a disk-backed cache of line number information of symbol files.
+ *
+ * Results of LineNumbers "mapToSource" command depend only on contents of the symbol file that
+ * contains the addresses and on the address where the file is loaded, so they can be reused
+ * by debug sessions as long as the file is not changed. A symbol file is identified by its name,
+ * load address and size, as reported by Symbols "getSymFileInfo" command, plus build ID,
+ * if reported by the agent, and/or modification time and length of the file, if the agent runs
+ * on the host. A file name reported by a remote agent can refer to an unrelated host file,
+ * so such files are cached only if they have a build ID. Files that cannot be identified
+ * this way are not cached.
+ *
+ * The cache is disabled by default. It is enabled by system property "org.eclipse.tcf.core.symbols_cache",
+ * which is path of a directory that holds cache files. In Eclipse, the property can be set to "true",
+ * then the org.eclipse.tcf plug-in state area is used. Each symbol file has its own cache file,
+ * which contains a string table and mapToSource records in a compact binary format.
+ * Cache files are read by the dispatch thread when a symbol file is first used,
+ * and new records are appended by a background thread.
+ *
+ * Symbols and other commands which results contain symbol IDs are not cached,
+ * because the IDs are valid only during a session with the agent.
+ */
+final class SymFileCache {
+
+    private static final int MAGIC = 0x5443464c;
+    private static final int VERSION = 1;
+
+    private static final byte REC_STRING = 1;
+    private static final byte REC_LINES = 2;
+
+    private static final byte NUM_NULL = 0;
+    private static final byte NUM_INT = 1;
+    private static final byte NUM_LONG = 2;
+    private static final byte NUM_BIG = 3;
+
+    /** Max number of mapToSource records per symbol file */
+    private static final int MAX_RECORDS = 0x40000;
+
+    private static boolean initialized;
+    private static SymFileCache instance;
+
+    private final File dir;
+    private final Map<String,SymFile> files = new HashMap<String,SymFile>();
+    private final LinkedBlockingQueue<Object[]> write_queue = new LinkedBlockingQueue<Object[]>();
+    private Thread writer;
+
+    /**
+     * Cached information of a symbol file.
+     * The object is accessed by the dispatch thread.
+     */
+    final class SymFile {
+
+        final String identity;
+        final BigInteger addr;
+        final BigInteger size;
+
+        private final File file;
+        private final Map<String,CodeArea[]> line_info = new HashMap<String,CodeArea[]>();
+        private final List<String> strings = new ArrayList<String>();
+        private final Map<String,Integer> string_ids = new HashMap<String,Integer>();
+        private boolean header;
+        private volatile boolean broken;
+
+        SymFile(String identity, BigInteger addr, BigInteger size, File file) {
+            this.identity = identity;
+            this.addr = addr;
+            this.size = size;
+            this.file = file;
+        }
+
+        /**
+         * @return true if the file contains given address range.
+         */
+        boolean contains(Number start, Number end) {
+            BigInteger s = JSON.toBigInteger(start);
+            BigInteger e = JSON.toBigInteger(end);
+            return s.compareTo(addr) >= 0 && e.compareTo(addr.add(size)) <= 0 && s.compareTo(e) <= 0;
+        }
+
+        /**
+         * @return cached results of mapToSource command, or null if not cached.
+         */
+        CodeArea[] getLineInfo(Number start, Number end) {
+            return line_info.get(start + ":" + end);
+        }
+
+        /**
+         * Add results of mapToSource command to the cache.
+         */
+        void putLineInfo(Number start, Number end, CodeArea[] arr) {
+            if (broken || line_info.size() >= MAX_RECORDS) return;
+            String key = start + ":" + end;
+            if (line_info.containsKey(key)) return;
+            line_info.put(key, arr);
+            try {
+                ByteArrayOutputStream buf = new ByteArrayOutputStream();
+                DataOutputStream out = new DataOutputStream(buf);
+                if (!header) {
+                    header = true;
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    out.writeUTF(identity);
+                }
+                /* New strings are defined before the record that uses them */
+                for (CodeArea a : arr) {
+                    addString(out, a.directory);
+                    addString(out, a.file);
+                }
+                out.writeByte(REC_LINES);
+                writeNumber(out, start);
+                writeNumber(out, end);
+                out.writeInt(arr.length);
+                for (CodeArea a : arr) {
+                    out.writeInt(a.directory == null ? -1 : string_ids.get(a.directory));
+                    out.writeInt(a.file == null ? -1 : string_ids.get(a.file));
+                    out.writeInt(a.start_line);
+                    out.writeInt(a.start_column);
+                    out.writeInt(a.end_line);
+                    out.writeInt(a.end_column);
+                    writeNumber(out, a.start_address);
+                    writeNumber(out, a.end_address);
+                    writeNumber(out, a.next_stmt_address);
+                    out.writeInt(a.isa);
+                    int flags = 0;
+                    if (a.is_statement) flags |= 1;
+                    if (a.basic_block) flags |= 2;
+                    if (a.prologue_end) flags |= 4;
+                    if (a.epilogue_begin) flags |= 8;
+                    out.writeByte(flags);
+                }
+                out.flush();
+                write(this, buf.toByteArray());
+            }
+            catch (IOException x) {
+                broken = true;
+            }
+        }
+
+        private void addString(DataOutputStream out, String s) throws IOException {
+            if (s == null || string_ids.containsKey(s)) return;
+            string_ids.put(s, strings.size());
+            strings.add(s);
+            out.writeByte(REC_STRING);
+            out.writeUTF(s);
+        }
+
+        private String getString(int id) throws IOException {
+            if (id < 0) return null;
+            if (id >= strings.size()) throw new IOException("Invalid string ID");
+            return strings.get(id);
+        }
+
+        private void load() {
+            if (!file.exists()) return;
+            try {
+                DataInputStream inp = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+                try {
+                    if (inp.readInt() != MAGIC || inp.readInt() != VERSION || !identity.equals(inp.readUTF())) {
+                        throw new IOException("Invalid cache file");
+                    }
+                    header = true;
+                    for (;;) {
+                        int rec = inp.read();
+                        if (rec < 0) break;
+                        if (rec == REC_STRING) {
+                            String s = inp.readUTF();
+                            string_ids.put(s, strings.size());
+                            strings.add(s);
+                        }
+                        else if (rec == REC_LINES) {
+                            Number start = readNumber(inp);
+                            Number end = readNumber(inp);
+                            CodeArea[] arr = new CodeArea[inp.readInt()];
+                            for (int i = 0; i < arr.length; i++) {
+                                String directory = getString(inp.readInt());
+                                String file = getString(inp.readInt());
+                                int start_line = inp.readInt();
+                                int start_column = inp.readInt();
+                                int end_line = inp.readInt();
+                                int end_column = inp.readInt();
+                                Number start_address = readNumber(inp);
+                                Number end_address = readNumber(inp);
+                                Number next_stmt_address = readNumber(inp);
+                                int isa = inp.readInt();
+                                int flags = inp.readByte();
+                                arr[i] = new CodeArea(directory, file, start_line, start_column, end_line, end_column,
+                                        start_address, end_address, next_stmt_address, isa,
+                                        (flags & 1) != 0, (flags & 2) != 0, (flags & 4) != 0, (flags & 8) != 0);
+                            }
+                            line_info.put(start + ":" + end, arr);
+                        }
+                        else {
+                            throw new IOException("Invalid cache file");
+                        }
+                    }
+                }
+                finally {
+                    inp.close();
+                }
+            }
+            catch (IOException x) {
+                /* Corrupted or truncated file, start over */
+                if (!(x instanceof EOFException)) Protocol.log("Invalid symbols cache file " + file, x);
+                line_info.clear();
+                strings.clear();
+                string_ids.clear();
+                header = false;
+                if (!file.delete()) broken = true;
+            }
+        }
+    }
+
+    private SymFileCache(File dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * @return the cache, or null if the cache is disabled.
+     */
+    static synchronized SymFileCache getInstance() {
+        if (!initialized) {
+            initialized = true;
+            String s = System.getProperty("org.eclipse.tcf.core.symbols_cache");
+            if (s != null && s.length() > 0) instance = new SymFileCache(new File(s));
+        }
+        return instance;
+    }
+
+    /**
+     * Get cached information of a symbol file.
+     * @param props - symbol file properties, as returned by Symbols "getSymFileInfo" command.
+     * @param local_peer - true if the agent runs on the host, see LocatorService.isLocalHostPeer().
+     * @return the symbol file cache, or null if the symbol file cannot be identified.
+     */
+    SymFile getSymFile(Map<String,Object> props, boolean local_peer) {
+        assert Protocol.isDispatchThread();
+        if (props == null) return null;
+        Object name = props.get("FileName");
+        Object addr = props.get("Address");
+        Object size = props.get("Size");
+        if (!(name instanceof String) || !(addr instanceof Number) || !(size instanceof Number)) return null;
+        StringBuffer bf = new StringBuffer();
+        bf.append(name).append('\n');
+        bf.append(addr).append('\n');
+        bf.append(size).append('\n');
+        boolean identified = false;
+        Object build_id = props.get("BuildID");
+        if (build_id instanceof String) {
+            bf.append(build_id).append('\n');
+            identified = true;
+        }
+        if (local_peer) {
+            /* The agent runs on the host, so the file name refers to the same file */
+            File local = new File((String)name);
+            if (local.isFile()) {
+                bf.append(local.lastModified()).append(' ').append(local.length()).append('\n');
+                identified = true;
+            }
+        }
+        if (!identified) return null;
+        String identity = bf.toString();
+        SymFile f = files.get(identity);
+        if (f == null) {
+            f = new SymFile(identity, JSON.toBigInteger((Number)addr), JSON.toBigInteger((Number)size),
+                    new File(dir, getFileName(identity)));
+            f.load();
+            files.put(identity, f);
+        }
+        return f;
+    }
+
+    private static String getFileName(String identity) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-1");
+            byte[] hash = md.digest(identity.getBytes("UTF-8"));
+            StringBuffer bf = new StringBuffer();
+            for (byte b : hash) {
+                bf.append(Character.forDigit((b >> 4) & 0xf, 16));
+                bf.append(Character.forDigit(b & 0xf, 16));
+            }
+            bf.append(".lines");
+            return bf.toString();
+        }
+        catch (Exception x) {
+            throw new Error(x);
+        }
+    }
+
+    private static void writeNumber(DataOutputStream out, Number n) throws IOException {
+        if (n == null) {
+            out.writeByte(NUM_NULL);
+        }
+        else if (n instanceof Integer || n instanceof Short || n instanceof Byte) {
+            out.writeByte(NUM_INT);
+            out.writeInt(n.intValue());
+        }
+        else if (n instanceof Long) {
+            out.writeByte(NUM_LONG);
+            out.writeLong(n.longValue());
+        }
+        else {
+            byte[] b = JSON.toBigInteger(n).toByteArray();
+            out.writeByte(NUM_BIG);
+            out.writeShort(b.length);
+            out.write(b);
+        }
+    }
+
+    private static Number readNumber(DataInputStream inp) throws IOException {
+        switch (inp.readByte()) {
+        case NUM_NULL:
+            return null;
+        case NUM_INT:
+            return Integer.valueOf(inp.readInt());
+        case NUM_LONG:
+            return Long.valueOf(inp.readLong());
+        case NUM_BIG:
+            byte[] b = new byte[inp.readUnsignedShort()];
+            inp.readFully(b);
+            return new BigInteger(b);
+        }
+        throw new IOException("Invalid cache file");
+    }
+
+    private synchronized void write(SymFile f, byte[] data) {
+        write_queue.add(new Object[]{ f, data });
+        if (writer != null) return;
+        writer = new Thread() {
+            @Override
+            public void run() {
+                List<Object[]> list = new ArrayList<Object[]>();
+                for (;;) {
+                    try {
+                        list.add(write_queue.take());
+                    }
+                    catch (InterruptedException x) {
+                        break;
+                    }
+                    write_queue.drainTo(list);
+                    SymFile f = null;
+                    OutputStream out = null;
+                    for (Object[] req : list) {
+                        try {
+                            if (f != req[0]) {
+                                if (out != null) out.close();
+                                out = null;
+                                f = (SymFile)req[0];
+                                if (f.broken) continue;
+                                if (!dir.exists()) dir.mkdirs();
+                                out = new BufferedOutputStream(new FileOutputStream(f.file, true));
+                            }
+                            if (out != null) out.write((byte[])req[1]);
+                        }
+                        catch (IOException x) {
+                            /* Records that follow would not match the string table */
+                            f.broken = true;
+                            f.file.delete();
+                            out = null;
+                            Protocol.log("Cannot write symbols cache file " + f.file, x);
+                        }
+                    }
+                    list.clear();
+                    if (out != null) {
+                        try {
+                            out.close();
+                        }
+                        catch (IOException x) {
+                            f.broken = true;
+                            f.file.delete();
+                            Protocol.log("Cannot write symbols cache file " + f.file, x);
+                        }
+                    }
+                }
+            }
+        };
+        writer.setName("TCF Symbols Cache Writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+}
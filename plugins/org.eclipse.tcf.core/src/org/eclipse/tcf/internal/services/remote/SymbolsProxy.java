@@ -10,20 +10,39 @@
  *******************************************************************************/
 package org.eclipse.tcf.internal.services.remote;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.eclipse.tcf.core.Command;
+import org.eclipse.tcf.internal.services.local.LocatorService;
 import org.eclipse.tcf.protocol.IChannel;
 import org.eclipse.tcf.protocol.IToken;
 import org.eclipse.tcf.protocol.JSON;
+import org.eclipse.tcf.services.IMemoryMap;
+import org.eclipse.tcf.services.IRunControl;
 import org.eclipse.tcf.services.ISymbols;
 
 public class SymbolsProxy implements ISymbols {
 
+    /** Max number of getSymFileInfo results per memory space that do not identify a symbol file */
+    private static final int MAX_SYM_FILE_MISSES = 16;
+
     private final IChannel channel;
 
+    /* Symbol files of memory spaces, learned from getSymFileInfo results, see SymFileCache */
+    private final SymFileCache sym_file_cache = SymFileCache.getInstance();
+    private final Map<String,List<SymFileCache.SymFile>> sym_files = new HashMap<String,List<SymFileCache.SymFile>>();
+    private final Map<String,Integer> sym_file_misses = new HashMap<String,Integer>();
+    private final Map<String,List<DoneFindSymFile>> sym_file_requests = new HashMap<String,List<DoneFindSymFile>>();
+    private final Map<String,String> mem_spaces = new HashMap<String,String>();
+    private final Map<String,List<Runnable>> mem_space_requests = new HashMap<String,List<Runnable>>();
+    private boolean listeners_added;
+    private Boolean local_peer;
+
     private class Context implements Symbol {
 
         private final byte[] value;
@@ -177,6 +196,165 @@ public class SymbolsProxy implements ISymbols {
         return NAME;
     }
 
+    /**
+     * @return true if results of line number lookups can be kept in the persistent cache.
+     */
+    boolean isSymFileCacheEnabled() {
+        return sym_file_cache != null;
+    }
+
+    /**
+     * Get cached symbol file that contains an address range.
+     * @return the symbol file cache, or null if not known.
+     */
+    SymFileCache.SymFile getSymFile(String context_id, Number start, Number end) {
+        String mem_space = mem_spaces.get(context_id);
+        if (mem_space == null) return null;
+        List<SymFileCache.SymFile> list = sym_files.get(mem_space);
+        if (list != null) {
+            for (SymFileCache.SymFile f : list) {
+                if (f.contains(start, end)) return f;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Call-back interface for findSymFile().
+     */
+    interface DoneFindSymFile {
+        void doneFindSymFile(SymFileCache.SymFile sym_file);
+    }
+
+    /**
+     * @return false if getSymFileInfo results of the memory space do not identify symbol files.
+     */
+    boolean canFindSymFile(String context_id) {
+        String mem_space = mem_spaces.get(context_id);
+        if (mem_space == null) return true;
+        Integer misses = sym_file_misses.get(mem_space);
+        return misses == null || misses.intValue() < MAX_SYM_FILE_MISSES;
+    }
+
+    /**
+     * Find cached symbol file that contains an address, using getSymFileInfo command.
+     * @param done - call-back that gets the symbol file cache, or null if the symbol file cannot be identified.
+     */
+    void findSymFile(final String context_id, final Number address, DoneFindSymFile done) {
+        final String key = context_id + ":" + address;
+        List<DoneFindSymFile> list = sym_file_requests.get(key);
+        if (list != null) {
+            list.add(done);
+            return;
+        }
+        sym_file_requests.put(key, list = new ArrayList<DoneFindSymFile>());
+        list.add(done);
+        if (!addListeners()) {
+            for (DoneFindSymFile d : sym_file_requests.remove(key)) d.doneFindSymFile(null);
+            return;
+        }
+        getMemorySpace(context_id, new Runnable() {
+            public void run() {
+                getSymFileInfo(context_id, address, new DoneGetSymFileInfo() {
+                    public void doneGetSymFileInfo(IToken token, Exception error, Map<String,Object> props) {
+                        SymFileCache.SymFile f = getSymFile(context_id, address, address);
+                        String mem_space = mem_spaces.get(context_id);
+                        if (f == null && mem_space != null) {
+                            Integer misses = sym_file_misses.get(mem_space);
+                            sym_file_misses.put(mem_space, misses == null ? 1 : misses.intValue() + 1);
+                        }
+                        for (DoneFindSymFile d : sym_file_requests.remove(key)) d.doneFindSymFile(f);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Symbol files are loaded into memory spaces, and can be loaded and unloaded at any time.
+     * Memory map and run control events are needed to track that.
+     * @return false if the events are not available.
+     */
+    private boolean addListeners() {
+        if (listeners_added) return true;
+        IMemoryMap mmap = channel.getRemoteService(IMemoryMap.class);
+        IRunControl rc = channel.getRemoteService(IRunControl.class);
+        if (mmap == null || rc == null) return false;
+        mmap.addListener(new IMemoryMap.MemoryMapListener() {
+            public void changed(String context_id) {
+                sym_files.remove(context_id);
+                sym_file_misses.remove(context_id);
+            }
+        });
+        rc.addListener(new IRunControl.RunControlListener() {
+            public void contextAdded(IRunControl.RunControlContext[] contexts) {
+            }
+            public void contextChanged(IRunControl.RunControlContext[] contexts) {
+                for (IRunControl.RunControlContext ctx : contexts) mem_spaces.remove(ctx.getID());
+            }
+            public void contextRemoved(String[] context_ids) {
+                for (String id : context_ids) {
+                    mem_spaces.remove(id);
+                    mem_spaces.values().removeAll(Collections.singleton(id));
+                    sym_files.remove(id);
+                    sym_file_misses.remove(id);
+                }
+            }
+            public void contextSuspended(String context, String pc, String reason, Map<String,Object> params) {
+            }
+            public void contextResumed(String context) {
+            }
+            public void containerSuspended(String context, String pc, String reason,
+                    Map<String,Object> params, String[] suspended_ids) {
+            }
+            public void containerResumed(String[] context_ids) {
+            }
+            public void contextException(String context, String msg) {
+            }
+        });
+        listeners_added = true;
+        return true;
+    }
+
+    /**
+     * Find memory space (process) ID of a context, using RunControl "getContext" command.
+     * Symbol files are shared by all threads of a process.
+     * @param done - called when the memory space ID is known.
+     */
+    private void getMemorySpace(final String context_id, Runnable done) {
+        if (mem_spaces.containsKey(context_id)) {
+            done.run();
+            return;
+        }
+        List<Runnable> list = mem_space_requests.get(context_id);
+        if (list != null) {
+            list.add(done);
+            return;
+        }
+        mem_space_requests.put(context_id, list = new ArrayList<Runnable>());
+        list.add(done);
+        IRunControl rc = channel.getRemoteService(IRunControl.class);
+        rc.getContext(context_id, new IRunControl.DoneGetContext() {
+            public void doneGetContext(IToken token, Exception error, IRunControl.RunControlContext ctx) {
+                String mem_space = ctx != null ? ctx.getProcessID() : null;
+                mem_spaces.put(context_id, mem_space != null ? mem_space : context_id);
+                for (Runnable r : mem_space_requests.remove(context_id)) r.run();
+            }
+        });
+    }
+
+    private void addSymFile(String context_id, Map<String,Object> props) {
+        /* Results of lookups that were not started by findSymFile() are kept only if the memory space is known */
+        String mem_space = mem_spaces.get(context_id);
+        if (mem_space == null) return;
+        if (local_peer == null) local_peer = LocatorService.isLocalHostPeer(channel.getRemotePeer());
+        SymFileCache.SymFile f = sym_file_cache.getSymFile(props, local_peer.booleanValue());
+        if (f == null) return;
+        List<SymFileCache.SymFile> list = sym_files.get(mem_space);
+        if (list == null) sym_files.put(mem_space, list = new ArrayList<SymFileCache.SymFile>());
+        if (!list.contains(f)) list.add(f);
+    }
+
     public IToken getContext(String id, final DoneGetContext done) {
         return new Command(channel, this, "getContext", new Object[]{ id }) {
             @SuppressWarnings("unchecked")
@@ -339,7 +517,7 @@ public class SymbolsProxy implements ISymbols {
         }.token;
     }
 
-    public IToken getSymFileInfo(String context_id, Number address, final DoneGetSymFileInfo done) {
+    public IToken getSymFileInfo(final String context_id, Number address, final DoneGetSymFileInfo done) {
         return new Command(channel, this, "getSymFileInfo", new Object[]{ context_id, address }) {
             @SuppressWarnings("unchecked")
             @Override
@@ -350,6 +528,7 @@ public class SymbolsProxy implements ISymbols {
                     error = toError(args[0]);
                     props = (Map<String,Object>)args[1];
                 }
+                if (error == null && props != null && sym_file_cache != null) addSymFile(context_id, props);
                 done.doneGetSymFileInfo(token, error, props);
             }
         }.token;
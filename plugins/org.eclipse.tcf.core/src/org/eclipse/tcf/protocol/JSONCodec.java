@@ -0,0 +1,992 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.protocol;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.tcf.core.Base64;
+
+/**
+ * JSONCodec is an instance based implementation of JSON generation and parsing.
+ *
+ * Each JSONCodec object keeps its own buffers, so different codec objects can be used
+ * concurrently by different threads, for example, by channel receiver threads or by worker
+ * thread pools. A codec object is not thread safe, it should be used by one thread at a time.
+ * Static methods of {@link JSON} use a codec object that belongs to the calling thread.
+ * Buffers grow as needed, and buffers larger than 64K are released when a message is done,
+ * so a long living codec does not keep memory of the largest message it has seen.
+ *
+ * The codec writes UTF-8 encoded bytes directly into its output buffer, and it can parse
+ * JSON from a region of a byte array, for example, from a channel input buffer.
+ * Data formats are same as in {@link JSON}.
+ *
+ * ObjectWriter implementations registered with {@link JSON#addObjectWriter(Class, JSON.ObjectWriter)}
+ * are supported: while an ObjectWriter is called, static JSON.write*() methods
+ * write into the codec that called it.
+ *
+ * @since 1.8
+ */
+public final class JSONCodec {
+
+    static final Map<Class<?>,JSON.ObjectWriter<?>> object_writers =
+        new ConcurrentHashMap<Class<?>,JSON.ObjectWriter<?>>();
+
+    /** Codec that is currently used by static JSON methods in a thread */
+    private static final ThreadLocal<JSONCodec> current = new ThreadLocal<JSONCodec>() {
+        @Override
+        protected JSONCodec initialValue() {
+            return new JSONCodec();
+        }
+    };
+
+    private static final Object[] empty_array = new Object[0];
+
+    private static final int OUT_BUF_SIZE = 0x1000;
+    private static final int STR_BUF_SIZE = 0x400;
+
+    /** Max size of a buffer that is kept after a message is done */
+    private static final int MAX_RETAINED_SIZE = 0x10000;
+
+    private byte[] out = new byte[OUT_BUF_SIZE];
+    private int out_pos;
+    private int high_surrogate;
+    private boolean zero_copy;
+    private boolean binary_slices;
+
+    private byte[] inp;
+    private int inp_pos;
+    private int inp_end;
+    private int cur_ch;
+    private char[] str_buf = new char[STR_BUF_SIZE];
+    private int str_pos;
+
+    // This buffer is used to create nice error reports
+    private final char[] err_buf = new char[100];
+    private int err_buf_pos;
+    private int err_buf_cnt;
+
+    /**
+     * Get the codec that is used by static methods of {@link JSON} in the calling thread.
+     * @return codec object.
+     */
+    static JSONCodec getCurrent() {
+        return current.get();
+    }
+
+    /**
+     * Clear output buffer.
+     */
+    public void reset() {
+        out_pos = 0;
+        high_surrogate = 0;
+        if (out.length > MAX_RETAINED_SIZE) out = new byte[OUT_BUF_SIZE];
+    }
+
+    /**
+     * Enable or disable "zero copy" JSON extension for binary data written by this codec.
+     * "zero copy" extension allows insertion of binary data arrays into JSON string.
+     * @param zero_copy - true to enable the extension.
+     */
+    public void setZeroCopy(boolean zero_copy) {
+        this.zero_copy = zero_copy;
+    }
+
+    /**
+     * Enable or disable parsing of "zero copy" binary data as slices of the input.
+     * When enabled, the parser returns {@link JSON.Binary} objects that refer to the input array,
+     * instead of copying binary data into new byte arrays. The input array must not be modified
+     * while the slices are in use.
+     * @param binary_slices - true to return binary data as slices of the input array.
+     */
+    public void setBinarySlices(boolean binary_slices) {
+        this.binary_slices = binary_slices;
+    }
+
+    /**
+     * Get number of bytes in the output buffer.
+     * @return number of bytes.
+     */
+    public int size() {
+        flushSurrogate();
+        return out_pos;
+    }
+
+    /**
+     * Get a copy of the output buffer contents.
+     * @return array of bytes.
+     */
+    public byte[] toByteArray() {
+        flushSurrogate();
+        byte[] res = new byte[out_pos];
+        System.arraycopy(out, 0, res, 0, out_pos);
+        return res;
+    }
+
+    /**
+     * Write contents of the output buffer to a stream.
+     * @param stream - output stream.
+     * @throws IOException
+     */
+    public void writeTo(OutputStream stream) throws IOException {
+        flushSurrogate();
+        stream.write(out, 0, out_pos);
+    }
+
+    private void ensure(int n) {
+        if (out_pos + n <= out.length) return;
+        int l = out.length * 2;
+        while (l < out_pos + n) l *= 2;
+        byte[] tmp = new byte[l];
+        System.arraycopy(out, 0, tmp, 0, out_pos);
+        out = tmp;
+    }
+
+    private void flushSurrogate() {
+        if (high_surrogate == 0) return;
+        int ch = high_surrogate;
+        high_surrogate = 0;
+        writeCodePoint(ch + 0x110000);
+    }
+
+    private void writeCodePoint(int ch) {
+        ensure(4);
+        if (ch < 0x80) {
+            out[out_pos++] = (byte)ch;
+        }
+        else if (ch < 0x800) {
+            out[out_pos++] = (byte)((ch >> 6) | 0xc0);
+            out[out_pos++] = (byte)(ch & 0x3f | 0x80);
+        }
+        else if (ch < 0x10000) {
+            out[out_pos++] = (byte)((ch >> 12) | 0xe0);
+            out[out_pos++] = (byte)((ch >> 6) & 0x3f | 0x80);
+            out[out_pos++] = (byte)(ch & 0x3f | 0x80);
+        }
+        else {
+            out[out_pos++] = (byte)((ch >> 18) | 0xf0);
+            out[out_pos++] = (byte)((ch >> 12) & 0x3f | 0x80);
+            out[out_pos++] = (byte)((ch >> 6) & 0x3f | 0x80);
+            out[out_pos++] = (byte)(ch & 0x3f | 0x80);
+        }
+    }
+
+    /**
+     * Write a character into JSON output buffer.
+     * The character is encoded as UTF-8, surrogate pairs are combined into a single code point,
+     * unpaired surrogates are encoded same way as by {@link JSON}.
+     * @param ch
+     */
+    public void write(char ch) {
+        if (high_surrogate != 0) {
+            if (ch >= 0xdc00 && ch <= 0xdfff) {
+                int h = high_surrogate;
+                high_surrogate = 0;
+                writeCodePoint(0x10000 + ((h - 0xd800) << 10) + (ch - 0xdc00));
+                return;
+            }
+            flushSurrogate();
+        }
+        if (ch < 0x80) {
+            if (out_pos >= out.length) ensure(1);
+            out[out_pos++] = (byte)ch;
+        }
+        else if (ch >= 0xd800 && ch <= 0xdbff) {
+            high_surrogate = ch;
+        }
+        else if (ch >= 0xdc00 && ch <= 0xdfff) {
+            writeCodePoint(ch + 0x110000);
+        }
+        else {
+            writeCodePoint(ch);
+        }
+    }
+
+    /**
+     * Write a string into JSON output buffer.
+     * The string is written "as-is". Call writeObject() to convert a String into JSON string.
+     * @param s - a string
+     */
+    public void write(String s) {
+        int l = s.length();
+        ensure(l);
+        for (int i = 0; i < l; i++) {
+            char ch = s.charAt(i);
+            if (ch < 0x80 && high_surrogate == 0 && out_pos < out.length) out[out_pos++] = (byte)ch;
+            else write(ch);
+        }
+    }
+
+    /**
+     * Write a non-negative integer number into JSON output buffer.
+     * @param n - a number
+     */
+    public void writeUInt(int n) {
+        assert n >= 0;
+        flushSurrogate();
+        ensure(10);
+        if (n < 10) {
+            out[out_pos++] = (byte)('0' + n);
+            return;
+        }
+        int l = 0;
+        for (int i = n; i > 0; i /= 10) l++;
+        int p = out_pos + l;
+        while (n > 0) {
+            out[--p] = (byte)('0' + n % 10);
+            n /= 10;
+        }
+        out_pos += l;
+    }
+
+    private void writeEscaped(String s) {
+        int l = s.length();
+        ensure(l + 2);
+        out[out_pos++] = '"';
+        for (int i = 0; i < l; i++) {
+            char ch = s.charAt(i);
+            if (ch >= 0x20 && ch < 0x80 && ch != '"' && ch != '\\' && high_surrogate == 0) {
+                if (out_pos >= out.length) ensure(1);
+                out[out_pos++] = (byte)ch;
+            }
+            else {
+                writeEscaped(ch);
+            }
+        }
+        write('"');
+    }
+
+    private void writeEscaped(char ch) {
+        switch (ch) {
+        case 0:
+            write("\\u0000");
+            break;
+        case 1:
+            write("\\u0001");
+            break;
+        case '\r':
+            write("\\r");
+            break;
+        case '\n':
+            write("\\n");
+            break;
+        case '\t':
+            write("\\t");
+            break;
+        case '\b':
+            write("\\b");
+            break;
+        case '\f':
+            write("\\f");
+            break;
+        case '"':
+        case '\\':
+            write('\\');
+        default:
+            write(ch);
+        }
+    }
+
+    /**
+     * Write an object into JSON output buffer.
+     * @param o - an object to write
+     * @throws IOException
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public void writeObject(Object o) throws IOException {
+        if (o == null) {
+            write("null");
+        }
+        else if (o instanceof Boolean) {
+            write(o.toString());
+        }
+        else if (o instanceof Number) {
+            if (o instanceof Integer && ((Integer)o).intValue() >= 0) writeUInt(((Integer)o).intValue());
+            else write(o.toString());
+        }
+        else if (o instanceof String) {
+            writeEscaped((String)o);
+        }
+        else if (o instanceof char[]) {
+            char[] s = (char[])o;
+            write('"');
+            for (char ch : s) writeEscaped(ch);
+            write('"');
+        }
+        else if (o instanceof JSON.Binary) {
+            JSON.Binary b = (JSON.Binary)o;
+            if (zero_copy) {
+                write('(');
+                writeUInt(b.size);
+                write(')');
+                ensure(b.size);
+                System.arraycopy(b.bytes, b.offs, out, out_pos, b.size);
+                out_pos += b.size;
+            }
+            else {
+                writeObject(Base64.toBase64(b.bytes, b.offs, b.size));
+            }
+        }
+        else if (o instanceof byte[]) {
+            write('[');
+            byte[] arr = (byte[])o;
+            boolean comma = false;
+            for (int i = 0; i < arr.length; i++) {
+                if (comma) write(',');
+                writeUInt(arr[i] & 0xff);
+                comma = true;
+            }
+            write(']');
+        }
+        else if (o instanceof Object[]) {
+            write('[');
+            Object[] arr = (Object[])o;
+            boolean comma = false;
+            for (int i = 0; i < arr.length; i++) {
+                if (comma) write(',');
+                writeObject(arr[i]);
+                comma = true;
+            }
+            write(']');
+        }
+        else if (o instanceof Collection) {
+            write('[');
+            boolean comma = false;
+            for (Iterator<Object> i = ((Collection<Object>)o).iterator(); i.hasNext();) {
+                if (comma) write(',');
+                writeObject(i.next());
+                comma = true;
+            }
+            write(']');
+        }
+        else if (o instanceof Map) {
+            Map<String,Object> map = (Map<String,Object>)o;
+            write('{');
+            boolean comma = false;
+            for (Iterator<Map.Entry<String,Object>> i = map.entrySet().iterator(); i.hasNext();) {
+                if (comma) write(',');
+                Map.Entry<String,Object> e = i.next();
+                writeObject(e.getKey());
+                write(':');
+                writeObject(e.getValue());
+                comma = true;
+            }
+            write('}');
+        }
+        else {
+            JSON.ObjectWriter writer = object_writers.get(o.getClass());
+            if (writer == null) {
+                for (Class<?> c : object_writers.keySet()) {
+                    if (c.isInstance(o)) {
+                        writer = object_writers.get(c);
+                        break;
+                    }
+                }
+            }
+            if (writer == null) throw new IOException("JSON: unsupported object type:" + o.getClass());
+            JSONCodec prev = current.get();
+            if (prev == this) {
+                writer.write(o);
+            }
+            else {
+                current.set(this);
+                try {
+                    writer.write(o);
+                }
+                finally {
+                    current.set(prev);
+                }
+            }
+        }
+    }
+
+    /**
+     * Convert Java object to JSON string.
+     * @param o - a Java object
+     * @return JSON string
+     * @throws IOException
+     */
+    public String toJSON(Object o) throws IOException {
+        boolean zc = zero_copy;
+        reset();
+        zero_copy = false;
+        try {
+            writeObject(o);
+            flushSurrogate();
+        }
+        finally {
+            zero_copy = zc;
+        }
+        /* Decode with the same rules as the parser, to preserve unpaired surrogates */
+        setInput(out, 0, out_pos);
+        StringBuilder bf = new StringBuilder(out_pos);
+        for (;;) {
+            int ch = readUTF8Char();
+            if (ch < 0) break;
+            appendChar(bf, ch);
+        }
+        inp = null;
+        if (out.length > MAX_RETAINED_SIZE) reset();
+        return bf.toString();
+    }
+
+    private static void appendChar(StringBuilder bf, int ch) {
+        if (ch >= 0x11d800 && ch <= 0x11dfff) {
+            bf.append((char)(ch - 0x110000));
+        }
+        else if (ch >= 0x10000) {
+            int n = ch - 0x10000;
+            bf.append((char)(0xd800 + ((n >> 10) & 0x3ff)));
+            bf.append((char)(0xdc00 + (n & 0x3ff)));
+        }
+        else {
+            bf.append((char)ch);
+        }
+    }
+
+    /**
+     * Convert Java object to array of bytes that contains UTF-8 encoded JSON string.
+     * @param o - a Java object
+     * @return array of bytes
+     * @throws IOException
+     */
+    public byte[] toJSONBytes(Object o) throws IOException {
+        boolean zc = zero_copy;
+        reset();
+        zero_copy = false;
+        try {
+            writeObject(o);
+        }
+        finally {
+            zero_copy = zc;
+        }
+        return getResult();
+    }
+
+    /**
+     * Convert multiple Java object to array of bytes that contains
+     * a sequence of zero terminate UTF-8 encoded JSON strings.
+     * @param o - array of Java objects
+     * @param zero_copy - true to enable "zero copy" JSON extension.
+     * @return array of bytes, or null if the array of objects is empty.
+     * @throws IOException
+     */
+    public byte[] toJSONSequence(Object[] o, boolean zero_copy) throws IOException {
+        if (o == null || o.length == 0) return null;
+        boolean zc = this.zero_copy;
+        reset();
+        this.zero_copy = zero_copy;
+        try {
+            for (int i = 0; i < o.length; i++) {
+                writeObject(o[i]);
+                write((char)0);
+            }
+        }
+        finally {
+            this.zero_copy = zc;
+        }
+        return getResult();
+    }
+
+    /**
+     * Get a copy of the output buffer, and release the buffer if it was grown by a large message.
+     */
+    private byte[] getResult() {
+        byte[] res = toByteArray();
+        if (out.length > MAX_RETAINED_SIZE) reset();
+        return res;
+    }
+
+    /* ---------------------------------- Parsing ---------------------------------- */
+
+    private void setInput(byte[] buf, int pos, int len) {
+        inp = buf;
+        inp_pos = pos;
+        inp_end = pos + len;
+        err_buf_pos = 0;
+        err_buf_cnt = 0;
+        /* In case previous parsing failed with a large string */
+        trimStrBuf();
+    }
+
+    private int readUTF8Char() {
+        if (inp_pos >= inp_end) return -1;
+        int ch = inp[inp_pos++];
+        if (ch < 0) {
+            int n = 0;
+            if ((ch & 0xe0) == 0xc0) {
+                ch &= 0x1f;
+                n = 1;
+            }
+            else if ((ch & 0xf0) == 0xe0) {
+                ch &= 0x0f;
+                n = 2;
+            }
+            else if ((ch & 0xf8) == 0xf0) {
+                ch &= 0x07;
+                n = 3;
+            }
+            else if ((ch & 0xfc) == 0xf8) {
+                ch &= 0x03;
+                n = 4;
+            }
+            else if ((ch & 0xfe) == 0xfc) {
+                ch &= 0x01;
+                n = 5;
+            }
+            while (n > 0) {
+                if (inp_pos >= inp_end || (inp[inp_pos] & 0xc0) != 0x80) break;
+                ch = (ch << 6) | (inp[inp_pos++] & 0x3f);
+                n--;
+            }
+            while (n > 0) {
+                ch = ch << 6;
+                n--;
+            }
+            if (ch < 0) ch = 0;
+        }
+        return ch;
+    }
+
+    private void read() {
+        cur_ch = readUTF8Char();
+        err_buf[err_buf_pos++] = (char)cur_ch;
+        if (err_buf_pos >= err_buf.length) {
+            err_buf_pos = 0;
+            err_buf_cnt++;
+        }
+    }
+
+    private void skipWS() {
+        while (cur_ch <= ' ') {
+            switch (cur_ch) {
+            case '\r':
+            case '\n':
+            case '\t':
+            case ' ':
+                read();
+                break;
+            default:
+                return;
+            }
+        }
+    }
+
+    private void error() throws IOException {
+        error("syntax error");
+    }
+
+    private void error(String msg) throws IOException {
+        StringBuffer bf = new StringBuffer();
+        bf.append("JSON " + msg + ":");
+        int cnt = 0;
+        boolean nl = true;
+        for (int i = 0;; i++) {
+            char ch = 0;
+            if (err_buf_cnt == 0 && i < err_buf_pos) {
+                ch = err_buf[i];
+            }
+            else if (err_buf_cnt > 0 && i < err_buf.length) {
+                ch = err_buf[(err_buf_pos + i) % err_buf.length];
+            }
+            else {
+                int n = readUTF8Char();
+                if (n < 0) break;
+                ch = (char)n;
+            }
+            if (nl) {
+                bf.append("\n ");
+                if (err_buf_cnt == 0) bf.append(cnt);
+                else bf.append('*');
+                bf.append(": ");
+                if (cnt == 0 && err_buf_cnt > 0) bf.append("...");
+                nl = false;
+            }
+            if (ch == 0) {
+                cnt++;
+                nl = true;
+                continue;
+            }
+            bf.append(ch);
+        }
+        inp = null;
+        throw new IOException(bf.toString());
+    }
+
+    private int readHexDigit() throws IOException {
+        int n = 0;
+        if (cur_ch >= '0' && cur_ch <= '9') n = cur_ch - '0';
+        else if (cur_ch >= 'A' && cur_ch <= 'F') n = cur_ch - 'A' + 10;
+        else if (cur_ch >= 'a' && cur_ch <= 'f') n = cur_ch - 'a' + 10;
+        else error();
+        read();
+        return n;
+    }
+
+    private void appendStr(int ch) {
+        if (str_pos + 2 > str_buf.length) {
+            char[] tmp = new char[str_buf.length * 2];
+            System.arraycopy(str_buf, 0, tmp, 0, str_pos);
+            str_buf = tmp;
+        }
+        if (ch >= 0x11d800 && ch <= 0x11dfff) {
+            str_buf[str_pos++] = (char)(ch - 0x110000);
+        }
+        else if (ch >= 0x10000) {
+            int n = ch - 0x10000;
+            str_buf[str_pos++] = (char)(0xd800 + ((n >> 10) & 0x3ff)); /* High surrogate */
+            str_buf[str_pos++] = (char)(0xdc00 + (n & 0x3ff)); /* Low surrogate  */
+        }
+        else {
+            str_buf[str_pos++] = (char)ch;
+        }
+    }
+
+    private Object readFloat(boolean sign, BigInteger val) throws IOException {
+        int scale = 0;
+        int fraction = 0;
+        if (cur_ch == '.') {
+            read();
+            while (cur_ch >= '0' && cur_ch <= '9') {
+                val = val.multiply(BigInteger.valueOf(10));
+                val = val.add(BigInteger.valueOf(cur_ch - '0'));
+                fraction++;
+                read();
+            }
+        }
+        if (cur_ch == 'E' || cur_ch == 'e') {
+            read();
+            boolean neg = cur_ch == '-';
+            if (neg || cur_ch == '+') read();
+            while (cur_ch >= '0' && cur_ch <= '9') {
+                scale = scale * 10 + cur_ch - '0';
+                read();
+            }
+            if (neg) scale = -scale;
+        }
+        if (sign) val = val.negate();
+        return new BigDecimal(val, fraction - scale);
+    }
+
+    private String readString() throws IOException {
+        read();
+        str_pos = 0;
+        for (;;) {
+            if (cur_ch < 0) error();
+            if (cur_ch == '"') break;
+            if (cur_ch == '\\') {
+                read();
+                if (cur_ch < 0) error();
+                switch (cur_ch) {
+                case '"':
+                case '\\':
+                case '/':
+                    break;
+                case 'b':
+                    cur_ch = '\b';
+                    break;
+                case 'f':
+                    cur_ch = '\f';
+                    break;
+                case 'n':
+                    cur_ch = '\n';
+                    break;
+                case 'r':
+                    cur_ch = '\r';
+                    break;
+                case 't':
+                    cur_ch = '\t';
+                    break;
+                case 'u':
+                    read();
+                    int n = 0;
+                    n |= readHexDigit() << 12;
+                    n |= readHexDigit() << 8;
+                    n |= readHexDigit() << 4;
+                    n |= readHexDigit();
+                    appendStr(n);
+                    continue;
+                default:
+                    error();
+                    break;
+                }
+            }
+            if (cur_ch < 0x10000 && str_pos < str_buf.length) str_buf[str_pos++] = (char)cur_ch;
+            else appendStr(cur_ch);
+            if (inp_pos < inp_end && inp[inp_pos] >= 0) {
+                cur_ch = inp[inp_pos++];
+                err_buf[err_buf_pos++] = (char)cur_ch;
+                if (err_buf_pos >= err_buf.length) {
+                    err_buf_pos = 0;
+                    err_buf_cnt++;
+                }
+            }
+            else {
+                read();
+            }
+        }
+        read();
+        return new String(str_buf, 0, str_pos);
+    }
+
+    private Object readNestedObject() throws IOException {
+        skipWS();
+        switch (cur_ch) {
+        case '(':
+            read();
+            int len = 0;
+            while (cur_ch >= '0' && cur_ch <= '9') {
+                len = len * 10 + (cur_ch - '0');
+                read();
+            }
+            if (cur_ch != ')') error();
+            if (len > inp_end - inp_pos) error("binary data size exceeds input size");
+            Object res = null;
+            if (binary_slices) {
+                res = new JSON.Binary(inp, inp_pos, len);
+            }
+            else {
+                byte[] arr = new byte[len];
+                System.arraycopy(inp, inp_pos, arr, 0, len);
+                res = arr;
+            }
+            inp_pos += len;
+            read();
+            return res;
+        case '"':
+            return readString();
+        case '[':
+            read();
+            skipWS();
+            List<Object> l = new ArrayList<Object>();
+            if (cur_ch <= 0) error();
+            if (cur_ch != ']') {
+                for (;;) {
+                    l.add(readNestedObject());
+                    skipWS();
+                    if (cur_ch == ']') break;
+                    if (cur_ch != ',') error();
+                    read();
+                }
+            }
+            read();
+            return Collections.unmodifiableList(l);
+        case '{':
+            read();
+            skipWS();
+            Map<String,Object> m = new HashMap<String,Object>();
+            if (cur_ch <= 0) error();
+            if (cur_ch != '}') {
+                for (;;) {
+                    if (cur_ch != '"') error();
+                    String key = readString();
+                    skipWS();
+                    if (cur_ch != ':') error();
+                    read();
+                    Object val = readNestedObject();
+                    m.put(key, val);
+                    skipWS();
+                    if (cur_ch == '}') break;
+                    if (cur_ch != ',') error();
+                    read();
+                    skipWS();
+                }
+            }
+            read();
+            return Collections.unmodifiableMap(m);
+        case 'n':
+            read();
+            if (cur_ch != 'u') error();
+            read();
+            if (cur_ch != 'l') error();
+            read();
+            if (cur_ch != 'l') error();
+            read();
+            return null;
+        case 'f':
+            read();
+            if (cur_ch != 'a') error();
+            read();
+            if (cur_ch != 'l') error();
+            read();
+            if (cur_ch != 's') error();
+            read();
+            if (cur_ch != 'e') error();
+            read();
+            return Boolean.FALSE;
+        case 't':
+            read();
+            if (cur_ch != 'r') error();
+            read();
+            if (cur_ch != 'u') error();
+            read();
+            if (cur_ch != 'e') error();
+            read();
+            return Boolean.TRUE;
+        case 'N':
+            read();
+            if (cur_ch != 'a') error();
+            read();
+            if (cur_ch != 'N') error();
+            read();
+            return Float.NaN;
+        default:
+            boolean neg = cur_ch == '-';
+            if (neg) read();
+            if (cur_ch >= '0' && cur_ch <= '9') {
+                int v = 0;
+                while (v <= 0x7fffffff / 10 - 1) {
+                    v = v * 10 + (cur_ch - '0');
+                    read();
+                    if (cur_ch < '0' || cur_ch > '9') {
+                        if (cur_ch == '.' || cur_ch == 'E' || cur_ch == 'e') {
+                            return readFloat(neg, BigInteger.valueOf(v));
+                        }
+                        if (neg) v = -v;
+                        return Integer.valueOf(v);
+                    }
+                }
+                long vl = v;
+                while (vl < 0x7fffffffffffffffl / 10 - 1) {
+                    vl = vl * 10 + (cur_ch - '0');
+                    read();
+                    if (cur_ch < '0' || cur_ch > '9') {
+                        if (cur_ch == '.' || cur_ch == 'E' || cur_ch == 'e') {
+                            return readFloat(neg, BigInteger.valueOf(vl));
+                        }
+                        if (neg) vl = -vl;
+                        return Long.valueOf(vl);
+                    }
+                }
+                StringBuffer sb = new StringBuffer();
+                sb.append(vl);
+                while (true) {
+                    sb.append((char)cur_ch);
+                    read();
+                    if (cur_ch < '0' || cur_ch > '9') {
+                        BigInteger n = new BigInteger(sb.toString());
+                        if (cur_ch == '.' || cur_ch == 'E' || cur_ch == 'e') {
+                            return readFloat(neg, n);
+                        }
+                        if (neg) n = n.negate();
+                        return n;
+                    }
+                }
+            }
+            error();
+            return null;
+        }
+    }
+
+    /**
+     * Convert byte array that contains UTF-8 encoded JSON string to Java object.
+     * @param b - array of bytes with UTF-8 encoded JSON string
+     * @return Java object that represents data in the JSON string
+     * @throws IOException
+     */
+    public Object parseOne(byte[] b) throws IOException {
+        if (b.length == 0) return null;
+        return parseOne(b, 0, b.length);
+    }
+
+    /**
+     * Convert a region of byte array that contains UTF-8 encoded JSON string to Java object.
+     * The array is not copied, so the data can be parsed directly from a channel buffer.
+     * @param b - array of bytes with UTF-8 encoded JSON string
+     * @param pos - position of the JSON string in the array
+     * @param len - length of the JSON string in bytes
+     * @return Java object that represents data in the JSON string
+     * @throws IOException
+     */
+    public Object parseOne(byte[] b, int pos, int len) throws IOException {
+        if (len == 0) return null;
+        setInput(b, pos, len);
+        read();
+        Object o = readNestedObject();
+        skipWS();
+        if (cur_ch >= 0) error();
+        inp = null;
+        trimStrBuf();
+        return o;
+    }
+
+    /**
+     * Convert byte array that contains sequence of zero terminated UTF-8 encoded JSON string
+     * to array of Java objects.
+     * @param b - array of bytes with sequence of zero terminated UTF-8 encoded JSON string
+     * @return array of Java objects that represents data in the sequence of JSON strings
+     * @throws IOException
+     */
+    public Object[] parseSequence(byte[] b) throws IOException {
+        if (b == null) return empty_array;
+        return parseSequence(b, 0, b.length);
+    }
+
+    /**
+     * Convert byte array that contains sequence of zero terminated UTF-8 encoded JSON string
+     * to array of Java objects.
+     * @param b - array of bytes with sequence of zero terminated UTF-8 encoded JSON string
+     * @param binary_slices - true to return "zero copy" binary data as {@link JSON.Binary} slices of the array,
+     * see {@link #setBinarySlices(boolean)}.
+     * @return array of Java objects that represents data in the sequence of JSON strings
+     * @throws IOException
+     */
+    public Object[] parseSequence(byte[] b, boolean binary_slices) throws IOException {
+        if (b == null) return empty_array;
+        boolean bs = this.binary_slices;
+        this.binary_slices = binary_slices;
+        try {
+            return parseSequence(b, 0, b.length);
+        }
+        finally {
+            this.binary_slices = bs;
+        }
+    }
+
+    /**
+     * Convert a region of byte array that contains sequence of zero terminated UTF-8 encoded
+     * JSON string to array of Java objects.
+     * The array is not copied, so the data can be parsed directly from a channel buffer.
+     * @param b - array of bytes with sequence of zero terminated UTF-8 encoded JSON string
+     * @param pos - position of the sequence in the array
+     * @param len - length of the sequence in bytes
+     * @return array of Java objects that represents data in the sequence of JSON strings
+     * @throws IOException
+     */
+    public Object[] parseSequence(byte[] b, int pos, int len) throws IOException {
+        setInput(b, pos, len);
+        read();
+        List<Object> l = new ArrayList<Object>();
+        while (cur_ch >= 0) {
+            if (cur_ch == 0) l.add(null);
+            else l.add(readNestedObject());
+            if (cur_ch != 0) error("missing \\0 terminator");
+            read();
+        }
+        inp = null;
+        trimStrBuf();
+        return l.toArray();
+    }
+
+    private void trimStrBuf() {
+        if (str_buf.length > MAX_RETAINED_SIZE) str_buf = new char[STR_BUF_SIZE];
+    }
+}
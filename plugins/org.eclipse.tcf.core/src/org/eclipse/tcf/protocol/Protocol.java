@@ -11,10 +11,12 @@
 package org.eclipse.tcf.protocol;
 
 import java.util.ArrayList;
-import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.eclipse.tcf.internal.core.ServiceManager;
+import org.eclipse.tcf.internal.core.TimerWheel;
 import org.eclipse.tcf.internal.core.TransportManager;
 import org.eclipse.tcf.internal.services.local.LocatorService;
 import org.eclipse.tcf.services.ILocator;
@@ -44,90 +46,15 @@ public final class Protocol {
      * Main Logger instance used by the TCF Framework
      */
     private static ILogger logger;
-    /**
-     * Set that holds the Timer objects for dispatch by the timer_dispatcher thread
-     */
-    private static final TreeSet<Timer> timer_queue = new TreeSet<Timer>();
     /**
      * Agent ID constant generated pseudorandomly by UUID
      */
     private static final String agent_id = UUID.randomUUID().toString();
     /**
-     * Static variable that is incremented for every new Timer object added to the timer_queue, and whose value is used as ID of the Timer object,
-     * for resolving a time in the timestamps of different Timer objects
+     * Timing wheel that dispatches Runnables which must wait for a certain delay to be dispatched in the dispatch thread.
+     * @see #schedule(long delay, Runnable runnable)
      */
-    private static int timer_cnt;
-
-    /**
-     * Class used for by the timer_dispatcher thread, that binds a Timestamp and a Runnable, and that enables the ordering of objects, according the Time
-     */
-    private static class Timer implements Comparable<Timer> {
-        final int id;
-        final long time;
-        final Runnable run;
-
-        Timer(long time, Runnable run) {
-            this.id = timer_cnt++;
-            this.time = time;
-            this.run = run;
-        }
-
-        @Override
-        public int compareTo(Timer x) {
-            if (x == this) return 0;
-            if (time < x.time) return -1;
-            if (time > x.time) return +1;
-            if (id < x.id) return -1;
-            if (id > x.id) return +1;
-            assert false;
-            return 0;
-        }
-
-        @Override
-        public boolean equals(Object y) {
-            return (y instanceof Timer) && compareTo((Timer)y) == 0;
-        }
-
-        @Override
-        public int hashCode() {
-            return id;
-        }
-    }
-
-    /**
-     * Thread used for dispatching Runnables which must wait for a certain delay to be dispatched in the dispatch thread.
-     * @see #invokeLater(long delay, Runnable runnable)
-     */
-    private static final Thread timer_dispatcher = new Thread() {
-        public void run() {
-            try {
-                synchronized (timer_queue) {
-                    while (true) {
-                        if (timer_queue.isEmpty()) {
-                            timer_queue.wait();
-                        }
-                        else {
-                            long time = System.currentTimeMillis();
-                            Timer t = timer_queue.first();
-                            if (t.time > time) {
-                                timer_queue.wait(t.time - time);
-                            }
-                            else {
-                                timer_queue.remove(t);
-                                invokeLater(t.run);
-                            }
-                        }
-                    }
-                }
-            }
-            catch (IllegalStateException x) {
-                // Dispatch is shut down, exit this thread
-            }
-            catch (Throwable x) {
-                log("Exception in TCF dispatch loop", x);
-            }
-        }
-    };
+    private static final TimerWheel timer_wheel = new TimerWheel();
 
     private static final ArrayList<CongestionMonitor> congestion_monitors = new ArrayList<CongestionMonitor>();
 
@@ -154,9 +81,7 @@ public final class Protocol {
                 LocatorService.createLocalInstance();
             }
         });
-        timer_dispatcher.setName("TCF Timer Dispatcher");
-        timer_dispatcher.setDaemon(true);
-        timer_dispatcher.start();
+        timer_wheel.start();
     }
 
     /**
@@ -212,13 +137,43 @@ public final class Protocol {
             event_queue.invokeLater(runnable);
         }
         else {
-            synchronized (timer_queue) {
-                timer_queue.add(new Timer(System.currentTimeMillis() + delay, runnable));
-                timer_queue.notify();
-            }
+            timer_wheel.add(delay, runnable);
         }
     }
 
+    /**
+     * Handle of a delayed event, see {@link Protocol#schedule(long, Runnable)}.
+     * @since 1.8
+     */
+    public interface Timer {
+
+        /**
+         * Cancel the event. The method can be invoked from any thread.
+         * @return true if the event was cancelled before it was dispatched,
+         * false if the event is already dispatched or cancelled.
+         */
+        boolean cancel();
+    }
+
+    /**
+     * Same as {@link #invokeLater(long, Runnable)}, but returns a handle that
+     * allows to cancel the event. Cancelling a timer is cheap, so, for example,
+     * a timeout can be cancelled when the operation is done, instead of keeping
+     * the timer until it expires.
+     *
+     * This method can be invoked from any thread.
+     *
+     * @param delay     milliseconds to delay event dispatch.
+     *                  If delay <= 0 the event is dispatched as soon as possible.
+     * @param runnable  the <code>Runnable</code> whose <code>run</code>
+     *                  method should be executed asynchronously.
+     * @return timer handle.
+     * @since 1.8
+     */
+    public static Timer schedule(long delay, Runnable runnable) {
+        return timer_wheel.add(delay, runnable);
+    }
+
     /**
      * Causes <code>runnable</code> to have its <code>run</code>
      * method called in the dispatch thread of the framework.
@@ -236,26 +191,36 @@ public final class Protocol {
             runnable.run();
         }
         else {
-            Runnable r = new Runnable() {
+            /* Lock and condition instead of the monitor, to avoid pinning a waiting virtual thread */
+            final ReentrantLock lock = new ReentrantLock();
+            final Condition cond = lock.newCondition();
+            final boolean[] done = new boolean[1];
+            event_queue.invokeLater(new Runnable() {
                 public void run() {
                     try {
                         runnable.run();
                     }
                     finally {
-                        synchronized (this) {
-                            notify();
+                        lock.lock();
+                        try {
+                            done[0] = true;
+                            cond.signal();
+                        }
+                        finally {
+                            lock.unlock();
                         }
                     }
                 }
-            };
-            synchronized (r) {
-                event_queue.invokeLater(r);
-                try {
-                    r.wait();
-                }
-                catch (InterruptedException x) {
-                    throw new Error(x);
-                }
+            });
+            lock.lock();
+            try {
+                while (!done[0]) cond.await();
+            }
+            catch (InterruptedException x) {
+                throw new Error(x);
+            }
+            finally {
+                lock.unlock();
             }
         }
     }
@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.tcf.protocol.IService;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.Protocol;
+
+/**
+ * <tt>TCFBlockingProxy</tt> creates a blocking facade of a TCF service proxy:
+ * every command method of the facade sends the command in TCF dispatch thread, waits until the command callback
+ * has been called, and then returns the command token. Other service methods, like addListener(), are executed
+ * in TCF dispatch thread and return their result.
+ *
+ * The facade is intended for clients that run in their own threads, for example
+ * <pre>
+ * IFileSystem fs = TCFBlockingProxy.create(IFileSystem.class, channel.getRemoteService(IFileSystem.class), 60000);
+ * </pre>
+ * Waiting is done with a lock and a condition, so the facade can be used by virtual threads without pinning
+ * carrier threads. Command callbacks are still called by TCF dispatch thread.
+ * The facade must not be called by TCF dispatch thread.
+ */
+public class TCFBlockingProxy implements InvocationHandler {
+
+    private final IService service;
+    private final long timeout;
+
+    private TCFBlockingProxy(IService service, long timeout) {
+        this.service = service;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Create a blocking facade of a service proxy.
+     * @param type - service interface, for example IFileSystem.class.
+     * @param service - the service proxy.
+     * @param timeout - max time in milliseconds to wait for a command callback, or 0 to wait forever.
+     * If the time expires, the facade method cancels the command and throws RuntimeException.
+     * Note that a command that is already sent to the peer cannot be stopped by canceling its token:
+     * the peer can still execute the command, for example, write a file. The callback of such a command
+     * is not called when the result arrives after the timeout.
+     * @return the blocking facade.
+     */
+    public static <S extends IService> S create(Class<S> type, S service, long timeout) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(),
+                new Class<?>[]{ type }, new TCFBlockingProxy(service, timeout)));
+    }
+
+    public Object invoke(Object proxy, final Method method, final Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            if (method.getName().equals("equals")) return proxy == args[0];
+            if (method.getName().equals("hashCode")) return System.identityHashCode(proxy);
+            return "Blocking " + service.getName();
+        }
+        if (Protocol.isDispatchThread()) throw new IllegalStateException("Blocking call in TCF dispatch thread");
+        final Class<?> done_class = getCallbackType(method);
+        if (done_class == null) return call(method, args);
+
+        TCFFuture<IToken> future = new TCFFuture<IToken>() {
+            IToken token;
+            boolean sent;
+            boolean called;
+
+            @Override
+            protected IToken start() throws Exception {
+                final TCFFuture<IToken> command = this;
+                final Object done = args[args.length - 1];
+                Object[] call_args = args.clone();
+                call_args[args.length - 1] = Proxy.newProxyInstance(done_class.getClassLoader(),
+                        new Class<?>[]{ done_class }, new InvocationHandler() {
+                    public Object invoke(Object callback, Method m, Object[] a) throws Throwable {
+                        if (m.getDeclaringClass() == Object.class) {
+                            if (m.getName().equals("equals")) return callback == a[0];
+                            if (m.getName().equals("hashCode")) return System.identityHashCode(callback);
+                            return done_class.getName();
+                        }
+                        /* The caller has given up waiting, and expects no callback */
+                        if (command.isCancelled()) return null;
+                        try {
+                            if (done != null) m.invoke(done, a);
+                        }
+                        catch (InvocationTargetException x) {
+                            Protocol.log("Unhandled exception in " + done_class.getName(), x.getCause());
+                        }
+                        finally {
+                            /* The callback can be called before the command method returns the token */
+                            called = true;
+                            if (sent && !command.isDone()) command.done(token);
+                        }
+                        return null;
+                    }
+                });
+                token = (IToken)invokeMethod(method, call_args);
+                sent = true;
+                if (called) done(token);
+                return token;
+            }
+        };
+        try {
+            if (timeout > 0) return future.get(timeout, TimeUnit.MILLISECONDS);
+            return future.get();
+        }
+        catch (TimeoutException x) {
+            future.cancel(true);
+            throw new RuntimeException("Timeout waiting for " + service.getName() + "." + method.getName(), x);
+        }
+        catch (ExecutionException x) {
+            throw x.getCause();
+        }
+    }
+
+    private Object call(final Method method, final Object[] args) throws Throwable {
+        final Object[] res = new Object[1];
+        final Throwable[] err = new Throwable[1];
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                try {
+                    res[0] = invokeMethod(method, args);
+                }
+                catch (Throwable x) {
+                    err[0] = x;
+                }
+            }
+        });
+        if (err[0] != null) throw err[0];
+        return res[0];
+    }
+
+    private Object invokeMethod(Method method, Object[] args) throws Exception {
+        try {
+            return method.invoke(service, args);
+        }
+        catch (InvocationTargetException x) {
+            Throwable e = x.getCause();
+            if (e instanceof Exception) throw (Exception)e;
+            if (e instanceof Error) throw (Error)e;
+            throw x;
+        }
+    }
+
+    /**
+     * A command method returns a token, and its last argument is a single method callback interface.
+     */
+    private static Class<?> getCallbackType(Method method) {
+        if (method.getReturnType() != IToken.class) return null;
+        Class<?>[] types = method.getParameterTypes();
+        if (types.length == 0) return null;
+        Class<?> c = types[types.length - 1];
+        if (!c.isInterface() || c.getMethods().length != 1) return null;
+        return c;
+    }
+}
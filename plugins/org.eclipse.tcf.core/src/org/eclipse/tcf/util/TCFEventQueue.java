@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import org.eclipse.tcf.protocol.IEventQueue;
+import org.eclipse.tcf.protocol.Protocol;
+
+/**
+ * TCFEventQueue is an implementation of TCF event queue that does not need Eclipse,
+ * it can be used by headless TCF clients and agents:
+ * <pre>
+ *  TCFEventQueue queue = new TCFEventQueue();
+ *  Protocol.setEventQueue(queue);
+ *  queue.start();
+ * </pre>
+ *
+ * The queue is a lock-free multi-producer single-consumer linked list: invokeLater() does not
+ * take any locks, so channel threads posting events don't contend with each other or
+ * with the dispatch thread. The dispatch thread takes events from the list in batches,
+ * and it parks when the queue is empty. Producers unpark it only when it is actually waiting.
+ *
+ * @since 1.8
+ */
+public class TCFEventQueue implements IEventQueue, Runnable {
+
+    /** Max number of events taken from the queue at once */
+    private static final int BATCH_SIZE = 64;
+
+    /** Number of times the dispatch thread polls the empty queue before it parks */
+    private static final int SPIN_CNT = 64;
+
+    private static final class Node {
+        Runnable runnable;
+        volatile Node next;
+
+        Node(Runnable runnable) {
+            this.runnable = runnable;
+        }
+    }
+
+    /** Last node of the list, producers append nodes here */
+    private final AtomicReference<Node> tail;
+
+    /** Approximate number of events in the queue, used to compute congestion */
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final Thread thread;
+    private final Runnable[] batch = new Runnable[BATCH_SIZE];
+
+    /** Node that was consumed last, owned by the dispatch thread */
+    private Node head;
+
+    private volatile boolean waiting;
+    private volatile boolean shutdown;
+
+    public TCFEventQueue() {
+        head = new Node(null);
+        tail = new AtomicReference<Node>(head);
+        thread = new Thread(this);
+        thread.setDaemon(true);
+        thread.setName("TCF Event Dispatcher"); //$NON-NLS-1$
+    }
+
+    /**
+     * Start the dispatch thread.
+     */
+    public void start() {
+        thread.start();
+    }
+
+    /**
+     * Stop the dispatch thread after all queued events are handled,
+     * and wait until the thread exits. Calling invokeLater() after shutdown() causes IllegalStateException.
+     */
+    public void shutdown() {
+        try {
+            shutdown = true;
+            LockSupport.unpark(thread);
+            thread.join();
+        }
+        catch (InterruptedException e) {
+        }
+        catch (Throwable e) {
+            Protocol.log("Failed to shutdown TCF event dispatch thread", e); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Take up to BATCH_SIZE events from the queue.
+     * @return number of events, 0 if the queue is empty.
+     */
+    private int poll() {
+        int n = 0;
+        while (n < BATCH_SIZE) {
+            Node next = head.next;
+            if (next == null) {
+                /* A producer has swapped the tail, but has not linked the node yet */
+                if (n == 0 && tail.get() != head) {
+                    Thread.yield();
+                    continue;
+                }
+                break;
+            }
+            batch[n++] = next.runnable;
+            next.runnable = null;
+            head = next;
+        }
+        if (n > 0) size.addAndGet(-n);
+        return n;
+    }
+
+    public void run() {
+        int spin = 0;
+        for (;;) {
+            int n = poll();
+            if (n == 0) {
+                if (shutdown) return;
+                if (spin++ < SPIN_CNT) continue;
+                spin = 0;
+                waiting = true;
+                if (tail.get() == head && !shutdown) LockSupport.park(this);
+                waiting = false;
+                continue;
+            }
+            spin = 0;
+            for (int i = 0; i < n; i++) {
+                Runnable r = batch[i];
+                batch[i] = null;
+                try {
+                    r.run();
+                }
+                catch (Throwable x) {
+                    Protocol.log("Unhandled exception in TCF event dispatch", x); //$NON-NLS-1$
+                }
+            }
+        }
+    }
+
+    public void invokeLater(final Runnable r) {
+        assert r != null;
+        if (shutdown) throw new IllegalStateException("TCF event dispatcher has shut down"); //$NON-NLS-1$
+        Node node = new Node(r);
+        size.incrementAndGet();
+        tail.getAndSet(node).next = node;
+        if (waiting) LockSupport.unpark(thread);
+    }
+
+    public boolean isDispatchThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * @return approximate number of events waiting in the queue.
+     */
+    public int getQueueSize() {
+        return size.get();
+    }
+
+    public int getCongestion() {
+        int n = getQueueSize() / 10 - 100;
+        if (n > 100) n = 100;
+        return n;
+    }
+}
@@ -12,9 +12,12 @@ package org.eclipse.tcf.util;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Iterator;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
 import java.util.LinkedList;
 
+import org.eclipse.tcf.internal.services.remote.FileSystemProxy;
+import org.eclipse.tcf.internal.services.remote.FileSystemProxy.DoneReadBuffer;
 import org.eclipse.tcf.protocol.IToken;
 import org.eclipse.tcf.protocol.Protocol;
 import org.eclipse.tcf.services.IFileSystem;
@@ -24,41 +27,68 @@ import org.eclipse.tcf.services.IFileSystem.IFileHandle;
 /**
  * TCFFileInputStream is high performance InputStream implementation over TCF FileSystem service.
  * The class uses read-ahead buffers to achieve maximum throughput.
+ *
+ * Read-ahead starts with several requests of the given buffer size. When a reader has to wait for data,
+ * the amount of data requested ahead grows, see TransferWindow, so that large transfers over links
+ * with long round-trip time use few large requests.
+ * Large reads that are not covered by read-ahead buffers are done directly into the caller's array,
+ * by a set of parallel requests. If the reading thread is interrupted, the read does not return
+ * until requests that were already sent are done, since they write into the caller's array.
+ *
+ * In addition to the InputStream methods, the class provides positional read methods,
+ * similar to java.nio.channels.FileChannel.
  */
 public final class TCFFileInputStream extends InputStream {
 
-    private static final int MAX_READ_AHEAD = 8;
-
     private static class Buffer {
 
         final long offset;
+        final int size;
+        final byte[] buf;
 
+        long time;
         IToken token;
-        byte[] buf;
+        boolean done;
+        int len;
         boolean eof;
+        FileSystemException error;
 
-        Buffer(long offset) {
+        Buffer(long offset, int size, byte[] buf) {
             this.offset = offset;
+            this.size = size;
+            this.buf = buf;
         }
 
         @Override
         public String toString() {
-            return "[" + offset + ":" + (buf == null ? "null" : Integer.toString(buf.length)) + "]";
+            return "[" + offset + ":" + size + (done ? ":" + len : "") + "]";
         }
     }
 
     private final IFileHandle handle;
     private final IFileSystem fs;
-    private final int buf_size;
     private long mark = 0;
     private long offset = 0;
     private Buffer buf;
-    private boolean closed = false;
+    /* File size, if end of file was reached by a read into the caller's array, otherwise -1 */
+    private long eof_offset = -1;
+    private volatile boolean closed = false;
 
+    /* Following fields are accessed only by the dispatch thread */
     private boolean suspend_read_ahead;
+    private boolean closing;
     private Runnable waiting_client;
+    private Runnable waiting_close;
+    private int pending_cnt;
     private final LinkedList<Buffer> read_ahead_buffers = new LinkedList<Buffer>();
 
+    /* Adaptive read-ahead state */
+    private final TransferWindow window;
+
+    private interface DoneReadDirect {
+        void doneReadDirect(FileSystemException error, int size, boolean eof);
+    }
+
     public TCFFileInputStream(IFileHandle handle) {
         this(handle, 0x1000);
     }
@@ -66,113 +96,287 @@ public final class TCFFileInputStream extends InputStream {
     public TCFFileInputStream(IFileHandle handle, int buf_size) {
         this.handle = handle;
         this.fs = handle.getService();
-        this.buf_size = buf_size;
-    }
-
-    private void startReadAhead(Buffer prv) {
-        if (suspend_read_ahead) return;
-        if (read_ahead_buffers.size() > 0) {
-            prv = read_ahead_buffers.getLast();
-        }
-        if (prv.eof) return;
-        long pos = prv.offset + (prv.buf == null ? buf_size : prv.buf.length);
-        while (read_ahead_buffers.size() < MAX_READ_AHEAD) {
-            final Buffer buf = new Buffer(pos);
-            buf.token = fs.read(handle, pos, buf_size, new IFileSystem.DoneRead() {
-                public void doneRead(IToken token, FileSystemException error,
-                        byte[] data, boolean eof) {
-                    assert buf.token == token;
-                    assert read_ahead_buffers.contains(buf);
-                    buf.token = null;
-                    if (error != null) {
-                        suspend_read_ahead = true;
-                        read_ahead_buffers.remove(buf);
-                    }
-                    else if (data.length != buf_size) {
-                        buf.buf = data;
-                        buf.eof = eof;
-                        if (!eof) suspend_read_ahead = true;
-                    }
-                    else {
-                        buf.buf = data;
-                        buf.eof = eof;
-                        startReadAhead(buf);
+        window = new TransferWindow(buf_size);
+    }
+
+    /**
+     * Read file data into the given array.
+     * FileSystemProxy copies the data directly into the array,
+     * other implementations of IFileSystem use the read command that returns a new array.
+     */
+    private IToken read(long pos, final byte[] arr, final int off, final int len, final DoneReadBuffer done) {
+        if (fs instanceof FileSystemProxy) return ((FileSystemProxy)fs).read(handle, pos, arr, off, len, done);
+        return fs.read(handle, pos, len, new IFileSystem.DoneRead() {
+            public void doneRead(IToken token, FileSystemException error, byte[] data, boolean eof) {
+                int size = 0;
+                if (error == null && data != null) {
+                    size = Math.min(data.length, len);
+                    System.arraycopy(data, 0, arr, off, size);
+                }
+                done.doneReadBuffer(token, error, size, eof);
+            }
+        });
+    }
+
+    private Buffer startRead(long pos, int size) {
+        final Buffer b = new Buffer(pos, size, new byte[size]);
+        pending_cnt++;
+        b.time = window.onRequestStart();
+        b.token = read(pos, b.buf, 0, size, new DoneReadBuffer() {
+            public void doneReadBuffer(IToken token, FileSystemException error, int size, boolean eof) {
+                assert b.token == token;
+                pending_cnt--;
+                b.token = null;
+                b.done = true;
+                b.error = error;
+                b.len = size;
+                b.eof = eof;
+                window.onRequestDone(b.time, error == null ? size : -1);
+                onBufferDone(b);
+            }
+        });
+        return b;
+    }
+
+    private void cancelRead(Buffer b) {
+        if (b.token != null && b.token.cancel()) {
+            b.token = null;
+            pending_cnt--;
+            window.onRequestCancel();
+        }
+    }
+
+    private void onBufferDone(Buffer b) {
+        int i = read_ahead_buffers.indexOf(b);
+        if (i >= 0) {
+            if (b.error != null) {
+                /* The error is reported when the client reaches the buffer */
+                suspend_read_ahead = true;
+            }
+            else if (b.eof) {
+                while (read_ahead_buffers.size() > i + 1) cancelRead(read_ahead_buffers.removeLast());
+            }
+            else if (b.len < b.size) {
+                /* Short read, fill the gap before next buffer */
+                read_ahead_buffers.add(i + 1, startRead(b.offset + b.len, b.size - b.len));
+            }
+            startReadAhead();
+        }
+        if (waiting_client != null) {
+            Protocol.invokeLater(waiting_client);
+            waiting_client = null;
+        }
+        if (waiting_close != null && pending_cnt == 0) {
+            Protocol.invokeLater(waiting_close);
+            waiting_close = null;
+        }
+    }
+
+    private void startReadAhead() {
+        if (suspend_read_ahead || closing || read_ahead_buffers.isEmpty()) return;
+        Buffer prv = read_ahead_buffers.getLast();
+        if (prv.eof || prv.error != null) return;
+        long pos = prv.offset + prv.size;
+        int cnt = read_ahead_buffers.size();
+        long bytes = 0;
+        for (Buffer b : read_ahead_buffers) bytes += b.size;
+        int chunk_size = window.getChunkSize();
+        while (cnt < window.getRequests() && bytes + chunk_size <= window.getBytes()) {
+            read_ahead_buffers.add(startRead(pos, chunk_size));
+            pos += chunk_size;
+            bytes += chunk_size;
+            cnt++;
+        }
+    }
+
+    private void stopReadAhead() {
+        while (read_ahead_buffers.size() > 0) cancelRead(read_ahead_buffers.removeFirst());
+    }
+
+    /**
+     * A range of the file that is read into the caller's array by a set of parallel requests.
+     * The call back reports number of contiguous bytes read from the start of the range.
+     */
+    private final class DirectRead {
+
+        final int cnt;
+        final int[] req;
+        final int[] res;
+        final boolean[] eof;
+        final FileSystemException[] err;
+        final IToken[] tokens;
+        final DoneReadDirect done;
+        int done_cnt;
+
+        DirectRead(long pos, byte[] arr, int off, int len, DoneReadDirect done) {
+            int size = Math.max(window.getChunkSize(), (len + TransferWindow.MAX_REQUESTS - 1) / TransferWindow.MAX_REQUESTS);
+            this.done = done;
+            cnt = (len + size - 1) / size;
+            req = new int[cnt];
+            res = new int[cnt];
+            eof = new boolean[cnt];
+            err = new FileSystemException[cnt];
+            tokens = new IToken[cnt];
+            for (int i = 0; i < cnt; i++) {
+                final int n = i;
+                req[i] = Math.min(size, len - i * size);
+                pending_cnt++;
+                final long time = window.onRequestStart();
+                tokens[i] = read(pos + (long)i * size, arr, off + i * size, req[i], new DoneReadBuffer() {
+                    public void doneReadBuffer(IToken token, FileSystemException error, int size, boolean end) {
+                        window.onRequestDone(time, error == null ? size : -1);
+                        onRequestDone(n, error, size, end);
                     }
-                    if (waiting_client != null) {
-                        Protocol.invokeLater(waiting_client);
-                        waiting_client = null;
+                });
+            }
+        }
+
+        /**
+         * Cancel requests that are not sent yet.
+         * Requests that are already sent cannot be canceled, they still write into the caller's array.
+         */
+        void cancel() {
+            for (int i = 0; i < cnt; i++) {
+                if (tokens[i] != null && tokens[i].cancel()) {
+                    window.onRequestCancel();
+                    onRequestDone(i, null, 0, false);
+                }
+            }
+        }
+
+        private void onRequestDone(int n, FileSystemException error, int size, boolean end) {
+            pending_cnt--;
+            tokens[n] = null;
+            res[n] = size;
+            eof[n] = end;
+            err[n] = error;
+            if (waiting_close != null && pending_cnt == 0) {
+                Protocol.invokeLater(waiting_close);
+                waiting_close = null;
+            }
+            if (++done_cnt < cnt) return;
+            int total = 0;
+            for (int i = 0; i < cnt; i++) {
+                if (err[i] != null) {
+                    if (total == 0) {
+                        done.doneReadDirect(err[i], 0, false);
+                        return;
                     }
+                    break;
                 }
-            });
-            read_ahead_buffers.add(buf);
-            pos += buf_size;
+                total += res[i];
+                if (eof[i] || res[i] < req[i]) {
+                    done.doneReadDirect(null, total, eof[i]);
+                    return;
+                }
+            }
+            done.doneReadDirect(null, total, false);
         }
     }
 
-    private boolean stopReadAhead(Runnable done) {
-        suspend_read_ahead = true;
-        for (Iterator<Buffer> i = read_ahead_buffers.iterator(); i.hasNext();) {
-            Buffer buf = i.next();
-            if (buf.token == null || buf.token.cancel()) i.remove();
+    /**
+     * Wait for a task that can read into the caller's array.
+     * If the waiting thread is interrupted, requests that are not sent yet are canceled,
+     * and the method waits until the other requests are done, so the array is not modified
+     * after the method returns.
+     */
+    private static <V> V getIO(final TCFTask<V> task, final DirectRead[] direct) throws IOException {
+        try {
+            return task.getIO();
         }
-        if (read_ahead_buffers.size() > 0) {
-            assert waiting_client == null;
-            waiting_client = done;
-            return false;
+        catch (InterruptedIOException x) {
+            Protocol.invokeLater(new Runnable() {
+                public void run() {
+                    if (direct[0] != null) direct[0].cancel();
+                }
+            });
+            for (;;) {
+                try {
+                    task.get();
+                    break;
+                }
+                catch (InterruptedException e) {
+                    continue;
+                }
+                catch (Exception e) {
+                    break;
+                }
+            }
+            Thread.currentThread().interrupt();
+            throw x;
         }
-        return true;
     }
 
-    @Override
-    public synchronized int read() throws IOException {
-        if (closed) throw new IOException("Stream is closed");
-        while (buf == null || buf.offset > offset || buf.offset + buf.buf.length <= offset) {
-            if (buf != null && buf.eof) return -1;
-            buf = new TCFTask<Buffer>() {
-                public void run() {
-                    assert waiting_client == null;
-                    while (read_ahead_buffers.size() > 0) {
-                        Buffer buf = read_ahead_buffers.getFirst();
-                        if (buf.offset == offset) {
-                            if (buf.token != null) {
-                                waiting_client = this;
-                            }
-                            else {
-                                startReadAhead(buf);
-                                read_ahead_buffers.remove(buf);
-                                done(buf);
-                            }
-                            return;
-                        }
-                        suspend_read_ahead = true;
-                        if (buf.token != null && buf.token.cancel()) buf.token = null;
-                        if (buf.token != null) {
+    /**
+     * Get a buffer that contains given position, or, if reading into the caller's array directly,
+     * a buffer object without data that describes the result.
+     */
+    private Buffer getBuffer(final long pos, final byte[] arr, final int off, final int len) throws IOException {
+        final DirectRead[] direct = new DirectRead[1];
+        return getIO(new TCFTask<Buffer>() {
+            public void run() {
+                assert waiting_client == null;
+                if (closing) {
+                    error(new IOException("Stream is closed"));
+                    return;
+                }
+                while (read_ahead_buffers.size() > 0) {
+                    Buffer b = read_ahead_buffers.getFirst();
+                    if (b.offset <= pos && b.offset + b.size > pos) {
+                        if (!b.done) {
+                            window.onStall();
+                            startReadAhead();
                             waiting_client = this;
                             return;
                         }
-                        read_ahead_buffers.remove(buf);
+                        if (b.error == null && !b.eof && b.offset + b.len <= pos) {
+                            /* The position is in the gap after a short read */
+                            read_ahead_buffers.removeFirst();
+                            continue;
+                        }
+                        read_ahead_buffers.removeFirst();
+                        startReadAhead();
+                        if (b.error != null) error(b.error);
+                        else done(b);
+                        return;
                     }
-                    fs.read(handle, offset, buf_size, new IFileSystem.DoneRead() {
-                        public void doneRead(IToken token, FileSystemException error,
-                                byte[] data, boolean eof) {
+                    /* Random access, read-ahead buffers are not used */
+                    cancelRead(read_ahead_buffers.removeFirst());
+                }
+                suspend_read_ahead = false;
+                if (arr != null && len >= window.getChunkSize() * 2) {
+                    direct[0] = new DirectRead(pos, arr, off, len, new DoneReadDirect() {
+                        public void doneReadDirect(FileSystemException error, int size, boolean eof) {
                             if (error != null) {
                                 error(error);
                                 return;
                             }
-                            assert data != null && data.length <= buf_size;
-                            Buffer buf = new Buffer(offset);
-                            buf.buf = data;
-                            buf.eof = eof;
-                            if (!eof) {
-                                suspend_read_ahead = false;
-                                startReadAhead(buf);
+                            if (!eof && size > 0 && !closing) {
+                                read_ahead_buffers.add(startRead(pos + size, window.getChunkSize()));
+                                startReadAhead();
                             }
-                            done(buf);
+                            Buffer b = new Buffer(pos, size, null);
+                            b.done = true;
+                            b.len = size;
+                            b.eof = eof;
+                            done(b);
                         }
                     });
+                    return;
                 }
-            }.getIO();
-            assert buf.token == null;
+                read_ahead_buffers.add(startRead(pos, window.getChunkSize()));
+                waiting_client = this;
+            }
+        }, direct);
+    }
+
+    @Override
+    public synchronized int read() throws IOException {
+        if (closed) throw new IOException("Stream is closed");
+        while (buf == null || buf.offset > offset || buf.offset + buf.len <= offset) {
+            if (buf != null && buf.eof && buf.offset <= offset) return -1;
+            if (eof_offset >= 0 && eof_offset <= offset) return -1;
+            buf = getBuffer(offset, null, 0, 0);
         }
         int ofs = (int)(offset++ - buf.offset);
         return buf.buf[ofs] & 0xff;
@@ -185,26 +389,135 @@ public final class TCFFileInputStream extends InputStream {
         if (off < 0 || len < 0 || len > arr.length - off) throw new IndexOutOfBoundsException();
         int pos = 0;
         while (pos < len) {
-            if (buf != null && buf.offset <= offset && buf.offset + buf.buf.length > offset) {
+            if (buf != null && buf.offset <= offset && buf.offset + buf.len > offset) {
                 int buf_pos = (int)(offset - buf.offset);
-                int buf_len = buf.buf.length - buf_pos;
+                int buf_len = buf.len - buf_pos;
                 int n = len - pos < buf_len ? len - pos : buf_len;
                 System.arraycopy(buf.buf, buf_pos, arr, off + pos, n);
                 pos += n;
                 offset += n;
             }
+            else if (buf != null && buf.eof && buf.offset <= offset) {
+                break;
+            }
+            else if (eof_offset >= 0 && eof_offset <= offset) {
+                break;
+            }
             else {
-                int c = read();
-                if (c == -1) {
-                    if (pos == 0) return -1;
-                    break;
+                Buffer b = getBuffer(offset, arr, off + pos, len - pos);
+                if (b.buf == null) {
+                    /* The data was read directly into the array */
+                    pos += b.len;
+                    offset += b.len;
+                    if (b.eof) eof_offset = offset;
+                    if (b.len == 0 || b.eof) break;
+                }
+                else {
+                    buf = b;
                 }
-                arr[off + pos++] = (byte)c;
             }
         }
+        if (pos == 0 && len > 0) return -1;
         return pos;
     }
 
+    /**
+     * Reads a sequence of bytes from the file into the given array, starting at the given file position.
+     * The method does not modify the stream position. It can be called concurrently with other methods.
+     * The data is read directly into the array, large ranges are read by a set of parallel requests.
+     * @param position - the file position at which the transfer is to begin.
+     * @param arr - the destination array.
+     * @param off - the start offset in the array.
+     * @param len - the maximum number of bytes to read.
+     * @return the number of bytes read, possibly zero, or -1 if the position is at or beyond end of file.
+     * @throws IOException
+     * @since 1.8
+     */
+    public int read(final long position, final byte arr[], final int off, final int len) throws IOException {
+        if (closed) throw new IOException("Stream is closed");
+        if (arr == null) throw new NullPointerException();
+        if (off < 0 || len < 0 || len > arr.length - off) throw new IndexOutOfBoundsException();
+        if (position < 0) throw new IllegalArgumentException("Negative position");
+        if (len == 0) return 0;
+        final DirectRead[] direct = new DirectRead[1];
+        return getIO(new TCFTask<Integer>() {
+            public void run() {
+                if (closing) {
+                    error(new IOException("Stream is closed"));
+                    return;
+                }
+                direct[0] = new DirectRead(position, arr, off, len, new DoneReadDirect() {
+                    public void doneReadDirect(FileSystemException error, int size, boolean eof) {
+                        if (error != null) error(error);
+                        else done(size == 0 && eof ? -1 : size);
+                    }
+                });
+            }
+        }, direct);
+    }
+
+    /**
+     * Reads a sequence of bytes from the file into the given buffer, starting at the given file position.
+     * Same as FileChannel.read(ByteBuffer, long): the method does not modify the stream position,
+     * and it can be called concurrently with other methods.
+     * @param dst - the buffer into which bytes are to be transferred.
+     * @param position - the file position at which the transfer is to begin.
+     * @return the number of bytes read, possibly zero, or -1 if the position is at or beyond end of file.
+     * @throws IOException
+     * @since 1.8
+     */
+    public int read(ByteBuffer dst, long position) throws IOException {
+        int n = 0;
+        if (dst.hasArray()) {
+            n = read(position, dst.array(), dst.arrayOffset() + dst.position(), dst.remaining());
+            if (n > 0) dst.position(dst.position() + n);
+        }
+        else {
+            byte[] arr = new byte[dst.remaining()];
+            n = read(position, arr, 0, arr.length);
+            if (n > 0) dst.put(arr, 0, n);
+        }
+        return n;
+    }
+
+    /**
+     * @return the stream position - offset in the file of the next byte to be read.
+     * @since 1.8
+     */
+    public synchronized long position() {
+        return offset;
+    }
+
+    /**
+     * Set the stream position. Setting the position to a value that is greater than the file size is legal,
+     * but it does not change the size of the file, and a later read will return end of file.
+     * @param position - new position, offset in the file.
+     * @return this stream.
+     * @since 1.8
+     */
+    public synchronized TCFFileInputStream position(long position) {
+        if (position < 0) throw new IllegalArgumentException("Negative position");
+        offset = position;
+        return this;
+    }
+
+    @Override
+    public synchronized long skip(long n) throws IOException {
+        if (closed) throw new IOException("Stream is closed");
+        if (n <= 0) return 0;
+        offset += n;
+        return n;
+    }
+
+    @Override
+    public synchronized int available() throws IOException {
+        if (closed) throw new IOException("Stream is closed");
+        if (buf != null && buf.buf != null && buf.offset <= offset && buf.offset + buf.len > offset) {
+            return (int)(buf.offset + buf.len - offset);
+        }
+        return 0;
+    }
+
     @Override
     public boolean markSupported() {
         return true;
@@ -214,14 +527,6 @@ public final class TCFFileInputStream extends InputStream {
     public synchronized void reset() throws IOException {
         if (closed) throw new IOException("Stream is closed");
         offset = mark;
-        if (buf != null && buf.offset <= offset && buf.offset + buf.buf.length > offset) return;
-        new TCFTask<Object>() {
-            public void run() {
-                if (!stopReadAhead(this)) return;
-                done(this);
-            }
-        }.getIO();
-        buf = null;
     }
 
     @Override
@@ -234,8 +539,12 @@ public final class TCFFileInputStream extends InputStream {
         if (closed) return;
         new TCFTask<Object>() {
             public void run() {
-                if (!stopReadAhead(this)) return;
-                assert read_ahead_buffers.isEmpty();
+                closing = true;
+                stopReadAhead();
+                if (pending_cnt > 0) {
+                    waiting_close = this;
+                    return;
+                }
                 fs.close(handle, new IFileSystem.DoneClose() {
                     public void doneClose(IToken token, FileSystemException error) {
                         if (error != null) error(error);
@@ -13,9 +13,12 @@ package org.eclipse.tcf.util;
 import java.io.IOException;
 import java.io.InterruptedIOException;
 import java.io.OutputStream;
-import java.util.HashSet;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
 import java.util.Iterator;
-import java.util.Set;
+import java.util.Map;
 
 import org.eclipse.tcf.protocol.IToken;
 import org.eclipse.tcf.services.IFileSystem;
@@ -25,20 +28,39 @@ import org.eclipse.tcf.services.IFileSystem.IFileHandle;
 /**
  * TCFFileOutputStream is high performance OutputStream implementation over TCF FileSystem service.
  * The class uses write-back buffers to achieve maximum throughput.
+ *
+ * Write-back starts with several requests of the given buffer size. When a writer has to wait for
+ * pending requests, the amount of data in flight grows, see TransferWindow, so that large uploads over links
+ * with long round-trip time use few large requests. Large writes are sent directly from the caller's array,
+ * without copying into the stream buffer. Data is encoded into a message when a request is sent,
+ * so the caller can reuse the array as soon as a write method returns.
+ *
+ * Errors of write-back requests are reported by a later write, flush or close.
+ *
+ * In addition to the OutputStream methods, the class provides ByteBuffer and positional write methods,
+ * similar to java.nio.channels.FileChannel, and a method to upload a region of a local file.
  */
 public final class TCFFileOutputStream extends OutputStream {
 
-    private static final int MAX_WRITE_BACK = 8;
+    /** Max size of a memory-mapped region of a local file */
+    private static final long MAX_MAP_SIZE = 0x4000000;
 
     private final IFileHandle handle;
     private final IFileSystem fs;
-    private final int buf_size;
-    private final Set<IToken> write_commands = new HashSet<IToken>();
-    private final int[] dirty = new int[1];
-    private final byte[] buf;
+
+    /* Pending write commands and their sizes, accessed only by the dispatch thread */
+    private final Map<IToken,Integer> write_commands = new HashMap<IToken,Integer>();
+
+    /* Following fields are guarded by 'lock' */
+    private final Object lock = new Object();
+    private final TransferWindow window;
+    private int dirty_cnt;
+    private long dirty_bytes;
+    private IOException flush_error;
+
+    private byte[] buf;
     private int buf_pos = 0;
     private long offset = 0;
-    private IOException flush_error;
     private boolean closed;
 
     public TCFFileOutputStream(IFileHandle handle) {
@@ -48,31 +70,114 @@ public final class TCFFileOutputStream extends OutputStream {
     public TCFFileOutputStream(IFileHandle handle, int buf_size) {
         this.handle = handle;
         this.fs = handle.getService();
-        this.buf_size = buf_size;
+        window = new TransferWindow(buf_size);
         buf = new byte[buf_size];
     }
 
+    private int getChunkSize() {
+        synchronized (lock) {
+            return window.getChunkSize();
+        }
+    }
+
+    /**
+     * Send a write command. The method waits until the command fits into the write-back window.
+     */
+    private void sendWrite(final long pos, final byte[] arr, final int off, final int len) throws IOException {
+        synchronized (lock) {
+            boolean stall = false;
+            for (;;) {
+                if (flush_error != null) throw flush_error;
+                if (dirty_cnt == 0) break;
+                if (dirty_cnt < window.getRequests() && dirty_bytes + len <= window.getBytes()) break;
+                if (!stall) {
+                    window.onStall();
+                    stall = true;
+                    continue;
+                }
+                try {
+                    lock.wait();
+                }
+                catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+            }
+            dirty_cnt++;
+            dirty_bytes += len;
+        }
+        new TCFTask<Object>() {
+            public void run() {
+                final long time;
+                synchronized (lock) {
+                    time = window.onRequestStart();
+                }
+                write_commands.put(fs.write(handle, pos, arr, off, len, new IFileSystem.DoneWrite() {
+                    public void doneWrite(IToken token, FileSystemException error) {
+                        assert write_commands.containsKey(token);
+                        write_commands.remove(token);
+                        synchronized (lock) {
+                            window.onRequestDone(time, error == null ? len : -1);
+                            dirty_cnt--;
+                            dirty_bytes -= len;
+                            if (error != null) {
+                                if (flush_error == null) flush_error = error;
+                                for (Iterator<Map.Entry<IToken,Integer>> i = write_commands.entrySet().iterator(); i.hasNext();) {
+                                    Map.Entry<IToken,Integer> e = i.next();
+                                    if (!e.getKey().cancel()) continue;
+                                    window.onRequestCancel();
+                                    dirty_cnt--;
+                                    dirty_bytes -= e.getValue();
+                                    i.remove();
+                                }
+                            }
+                            lock.notifyAll();
+                        }
+                    }
+                }), len);
+                done(this);
+            }
+        }.getIO();
+    }
+
+    private void waitWriteBack() throws IOException {
+        synchronized (lock) {
+            while (dirty_cnt > 0) {
+                try {
+                    lock.wait();
+                }
+                catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+            }
+        }
+    }
+
     @Override
     public synchronized void write(int b) throws IOException {
         if (closed) throw new IOException("Stream is closed");
-        if (buf_pos == buf_size) flush();
+        if (buf_pos == buf.length) flush();
         buf[buf_pos++] = (byte)b;
     }
 
     @Override
-    public void write(byte b[], int off, int len) throws IOException {
-        if (len == 0) return;
+    public synchronized void write(byte b[], int off, int len) throws IOException {
+        if (closed) throw new IOException("Stream is closed");
         if (b == null) throw new NullPointerException();
         if (off < 0 || off > b.length || len < 0 ||
                    off + len > b.length || off + len < 0)
             throw new IndexOutOfBoundsException();
         while (len > 0) {
-            if (buf_pos == buf_size) flush();
-            if (buf_pos == 0 && len > buf_size) {
-                flush(b, off, len);
-                return;
+            int chunk_size = getChunkSize();
+            if (buf_pos == 0 && len >= chunk_size) {
+                /* Large writes are sent directly from the caller's array */
+                sendWrite(offset, b, off, chunk_size);
+                offset += chunk_size;
+                off += chunk_size;
+                len -= chunk_size;
+                continue;
             }
-            int n = buf_size - buf_pos;
+            if (buf_pos == buf.length) flush();
+            int n = buf.length - buf_pos;
             if (len < n) n = len;
             System.arraycopy(b, off, buf, buf_pos, n);
             off += n;
@@ -81,66 +186,152 @@ public final class TCFFileOutputStream extends OutputStream {
         }
     }
 
-    @Override
-    public synchronized void flush() throws IOException {
-        if (buf_pos == 0) return;
-        flush(buf, 0, buf_pos);
-        buf_pos = 0;
+    /**
+     * Writes a sequence of bytes to the file from the given buffer, at the stream position.
+     * @param src - the buffer from which bytes are to be retrieved.
+     * @return the number of bytes written.
+     * @throws IOException
+     * @since 1.8
+     */
+    public synchronized int write(ByteBuffer src) throws IOException {
+        if (closed) throw new IOException("Stream is closed");
+        int cnt = src.remaining();
+        if (src.hasArray()) {
+            write(src.array(), src.arrayOffset() + src.position(), cnt);
+            src.position(src.limit());
+        }
+        else {
+            while (src.hasRemaining()) {
+                if (buf_pos == buf.length) flush();
+                int n = Math.min(buf.length - buf_pos, src.remaining());
+                src.get(buf, buf_pos, n);
+                buf_pos += n;
+            }
+        }
+        return cnt;
     }
 
-    private void flush(final byte[] buf, final int off, final int len) throws IOException {
-        synchronized (dirty) {
-            if (flush_error != null) throw flush_error;
-            while (dirty[0] >= MAX_WRITE_BACK) {
-                try {
-                    dirty.wait();
-                }
-                catch (InterruptedException e) {
-                    throw new InterruptedIOException();
-                }
-            }
+    /**
+     * Writes a sequence of bytes to the file from a subsequence of the given buffers, at the stream position.
+     * Same as GatheringByteChannel.write(ByteBuffer[], int, int).
+     * @param srcs - the buffers from which bytes are to be retrieved.
+     * @param off - the offset within the buffer array of the first buffer.
+     * @param len - the number of buffers to be accessed.
+     * @return the number of bytes written.
+     * @throws IOException
+     * @since 1.8
+     */
+    public synchronized long write(ByteBuffer[] srcs, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || off > srcs.length - len) throw new IndexOutOfBoundsException();
+        long cnt = 0;
+        for (int i = off; i < off + len; i++) cnt += write(srcs[i]);
+        return cnt;
+    }
+
+    /**
+     * Writes a sequence of bytes to the file from the given array, starting at the given file position.
+     * The method does not modify the stream position. Buffered data of the stream is sent first.
+     * @param position - the file position at which the transfer is to begin.
+     * @param b - the source array.
+     * @param off - the start offset in the array.
+     * @param len - the number of bytes to write.
+     * @throws IOException
+     * @since 1.8
+     */
+    public synchronized void write(long position, byte b[], int off, int len) throws IOException {
+        if (closed) throw new IOException("Stream is closed");
+        if (b == null) throw new NullPointerException();
+        if (off < 0 || len < 0 || len > b.length - off) throw new IndexOutOfBoundsException();
+        if (position < 0) throw new IllegalArgumentException("Negative position");
+        flush();
+        while (len > 0) {
+            int n = Math.min(len, getChunkSize());
+            sendWrite(position, b, off, n);
+            position += n;
+            off += n;
+            len -= n;
         }
-        new TCFTask<Object>() {
-            public void run() {
-                write_commands.add(fs.write(handle, offset, buf, off, len, new IFileSystem.DoneWrite() {
-                    public void doneWrite(IToken token, FileSystemException error) {
-                        assert write_commands.contains(token);
-                        write_commands.remove(token);
-                        if (error != null) {
-                            for (Iterator<IToken> i = write_commands.iterator(); i.hasNext();) {
-                                if (i.next().cancel()) i.remove();
-                            }
-                        }
-                        synchronized (dirty) {
-                            if (error != null && flush_error == null) flush_error = error;
-                            dirty[0] = write_commands.size();
-                            dirty.notifyAll();
-                        }
-                    }
-                }));
-                synchronized (dirty) {
-                    dirty[0] = write_commands.size();
-                }
-                done(this);
+    }
+
+    /**
+     * Writes a sequence of bytes to the file from the given buffer, starting at the given file position.
+     * Same as FileChannel.write(ByteBuffer, long): the method does not modify the stream position.
+     * Buffered data of the stream is sent first.
+     * @param src - the buffer from which bytes are to be retrieved.
+     * @param position - the file position at which the transfer is to begin.
+     * @return the number of bytes written.
+     * @throws IOException
+     * @since 1.8
+     */
+    public synchronized int write(ByteBuffer src, long position) throws IOException {
+        int cnt = src.remaining();
+        if (src.hasArray()) {
+            write(position, src.array(), src.arrayOffset() + src.position(), cnt);
+            src.position(src.limit());
+        }
+        else {
+            byte[] arr = new byte[Math.min(cnt, getChunkSize())];
+            while (src.hasRemaining()) {
+                int n = Math.min(arr.length, src.remaining());
+                src.get(arr, 0, n);
+                write(position, arr, 0, n);
+                position += n;
             }
-        }.getIO();
-        offset += len;
+        }
+        return cnt;
+    }
+
+    /**
+     * Writes a region of a local file at the stream position.
+     * The region is memory-mapped, and the data is sent from the mapping in chunks,
+     * so uploading a large file does not need a copy of the file in the Java heap.
+     * @param src - the local file.
+     * @param position - the position in the local file at which the transfer is to begin.
+     * @param count - the maximum number of bytes to be transferred.
+     * @return the number of bytes written, less than count if the local file is shorter.
+     * @throws IOException
+     * @since 1.8
+     */
+    public synchronized long write(FileChannel src, long position, long count) throws IOException {
+        if (closed) throw new IOException("Stream is closed");
+        if (position < 0 || count < 0) throw new IllegalArgumentException();
+        long size = src.size();
+        if (position >= size) return 0;
+        if (count > size - position) count = size - position;
+        long cnt = 0;
+        while (cnt < count) {
+            long n = Math.min(count - cnt, MAX_MAP_SIZE);
+            MappedByteBuffer map = src.map(FileChannel.MapMode.READ_ONLY, position + cnt, n);
+            write(map);
+            cnt += n;
+        }
+        return cnt;
+    }
+
+    /**
+     * @return the stream position - offset in the file of the next byte to be written.
+     * @since 1.8
+     */
+    public synchronized long position() {
+        return offset + buf_pos;
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        if (buf_pos == 0) return;
+        sendWrite(offset, buf, 0, buf_pos);
+        offset += buf_pos;
+        buf_pos = 0;
+        /* The stream buffer grows together with the write-back chunk size */
+        int chunk_size = getChunkSize();
+        if (buf.length < chunk_size) buf = new byte[chunk_size];
     }
 
     @Override
     public synchronized void close() throws IOException {
         if (closed) return;
         flush();
-        synchronized (dirty) {
-            while (dirty[0] > 0) {
-                try {
-                    dirty.wait();
-                }
-                catch (InterruptedException e) {
-                    throw new InterruptedIOException();
-                }
-            }
-        }
+        waitWriteBack();
         new TCFTask<Object>() {
             public void run() {
                 fs.close(handle, new IFileSystem.DoneClose() {
@@ -152,5 +343,8 @@ public final class TCFFileOutputStream extends OutputStream {
             }
         }.getIO();
         closed = true;
+        synchronized (lock) {
+            if (flush_error != null) throw flush_error;
+        }
     }
 }
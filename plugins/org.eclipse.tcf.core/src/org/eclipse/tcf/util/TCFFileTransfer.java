@@ -0,0 +1,681 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.IFileSystem;
+import org.eclipse.tcf.services.IFileSystem.DirEntry;
+import org.eclipse.tcf.services.IFileSystem.FileAttrs;
+import org.eclipse.tcf.services.IFileSystem.FileSystemException;
+import org.eclipse.tcf.services.IFileSystem.IFileHandle;
+
+/**
+ * TCFFileTransfer copies files and directory trees between the local file system
+ * and a remote file system over TCF FileSystem service:
+ * <pre>
+ *  TCFFileTransfer t = new TCFFileTransfer(fs);
+ *  t.addUpload(new File("rootfs"), "/opt/rootfs");
+ *  t.start(new TCFFileTransfer.DoneTransfer() {
+ *      public void doneTransfer(TCFFileTransfer transfer, Exception error) {
+ *          ...
+ *      }
+ *  });
+ * </pre>
+ *
+ * Many files are transferred concurrently over one channel: opens, data requests and closes
+ * of up to getMaxFiles() files are pipelined, and directories of a tree are created, or listed,
+ * as soon as they are found, without waiting for other directories. Amount of file data in flight
+ * is bounded by getMaxBytes(), and it is adjusted to round-trip time and throughput of the link,
+ * see TransferWindow. Remote directories that already exist are reused, remote files are overwritten.
+ *
+ * Remote files are read until end of file: sizes reported by directory listings are used only
+ * as an estimate of total transfer size, since a file can change while it is being copied.
+ *
+ * The object must be accessed by the dispatch thread only, call backs are invoked by the dispatch thread.
+ * Data of uploaded files is read by a background thread of the transfer, so slow local storage
+ * does not block the dispatch thread. Downloaded data is written, and local directories are listed,
+ * by the dispatch thread.
+ *
+ * @since 1.8
+ */
+public final class TCFFileTransfer {
+
+    /**
+     * Call back interface for the transfer completion.
+     */
+    public interface DoneTransfer {
+        /**
+         * Called when all files are transferred, or the transfer is aborted.
+         * @param transfer - the transfer object.
+         * @param error - the first error that aborted the transfer, or null if all files are transferred.
+         */
+        void doneTransfer(TCFFileTransfer transfer, Exception error);
+    }
+
+    /**
+     * Listener interface for the transfer progress.
+     */
+    public interface ProgressListener {
+        /**
+         * Called when a chunk of data or a file is transferred.
+         * @param transfer - the transfer object, its getters report aggregate progress.
+         */
+        void progress(TCFFileTransfer transfer);
+    }
+
+    /** Default max number of files that are transferred concurrently */
+    private static final int DEF_MAX_FILES = 32;
+
+    /** Default max number of file data bytes in flight */
+    private static final int DEF_MAX_BYTES = 0x800000;
+
+    /** Initial size of data requests */
+    private static final int MIN_CHUNK_SIZE = 0x10000;
+
+    private static final class Item {
+        final File local;
+        final String remote;
+        final boolean upload;
+
+        /** Attributes of a download item are not known yet */
+        boolean stat;
+        boolean dir;
+        long size;
+
+        IFileHandle handle;
+        RandomAccessFile file;
+        /** Offset of next data request */
+        long offset;
+        int pending;
+        boolean eof;
+
+        Item(File local, String remote, boolean upload) {
+            this.local = local;
+            this.remote = remote;
+            this.upload = upload;
+        }
+    }
+
+    private final IFileSystem fs;
+    private final LinkedList<Item> queue = new LinkedList<Item>();
+    private final LinkedList<Item> data_items = new LinkedList<Item>();
+    private final TransferWindow window = new TransferWindow(MIN_CHUNK_SIZE);
+
+    private int max_files = DEF_MAX_FILES;
+    private int max_bytes = DEF_MAX_BYTES;
+    private ProgressListener progress;
+    private DoneTransfer done;
+    private boolean finished;
+    private boolean pumping;
+    private boolean pump_again;
+    private Exception error;
+    private int active_cnt;
+    private long inflight_bytes;
+    private ExecutorService reader;
+
+    private long bytes_done;
+    private long bytes_total;
+    private int files_done;
+    private int files_total;
+
+    public TCFFileTransfer(IFileSystem fs) {
+        this.fs = fs;
+    }
+
+    /**
+     * Add a local file or directory tree to be copied to the remote file system.
+     * Same as entries of uploaded directories, a local file that is neither a regular file
+     * nor a directory is skipped.
+     * @param local - local file or directory.
+     * @param remote - remote path of the file or directory, the parent directory must exist.
+     */
+    public void addUpload(File local, String remote) {
+        assert Protocol.isDispatchThread();
+        assert !finished;
+        Item item = new Item(local, remote, true);
+        item.dir = local.isDirectory();
+        if (!item.dir) {
+            if (!local.isFile()) return;
+            addFile(item, local.length());
+        }
+        queue.add(item);
+    }
+
+    /**
+     * Add a remote file or directory tree to be copied to the local file system.
+     * @param remote - remote path of the file or directory.
+     * @param local - local file or directory, the parent directory must exist.
+     */
+    public void addDownload(String remote, File local) {
+        assert Protocol.isDispatchThread();
+        assert !finished;
+        Item item = new Item(local, remote, false);
+        item.stat = true;
+        queue.add(item);
+    }
+
+    /**
+     * Set max number of files that are transferred concurrently.
+     * @param max_files - number of files.
+     */
+    public void setMaxFiles(int max_files) {
+        assert max_files > 0;
+        this.max_files = max_files;
+    }
+
+    /**
+     * @return max number of files that are transferred concurrently.
+     */
+    public int getMaxFiles() {
+        return max_files;
+    }
+
+    /**
+     * Set max number of file data bytes in flight.
+     * @param max_bytes - number of bytes.
+     */
+    public void setMaxBytes(int max_bytes) {
+        assert max_bytes > 0;
+        this.max_bytes = max_bytes;
+    }
+
+    /**
+     * @return max number of file data bytes in flight.
+     */
+    public int getMaxBytes() {
+        return max_bytes;
+    }
+
+    /**
+     * Set transfer progress listener.
+     * @param progress - the listener, or null.
+     */
+    public void setProgressListener(ProgressListener progress) {
+        this.progress = progress;
+    }
+
+    /**
+     * @return number of file data bytes transferred.
+     */
+    public long getBytesDone() {
+        return bytes_done;
+    }
+
+    /**
+     * @return total size of files found so far. The value grows while directories are being walked.
+     */
+    public long getBytesTotal() {
+        return bytes_total;
+    }
+
+    /**
+     * @return number of files transferred.
+     */
+    public int getFilesDone() {
+        return files_done;
+    }
+
+    /**
+     * @return number of files found so far. The value grows while directories are being walked.
+     */
+    public int getFilesTotal() {
+        return files_total;
+    }
+
+    /**
+     * @return true if the transfer is done or aborted.
+     */
+    public boolean isDone() {
+        return finished;
+    }
+
+    /**
+     * Start the transfer.
+     * @param done - call back interface called when the transfer is done.
+     */
+    public void start(DoneTransfer done) {
+        assert Protocol.isDispatchThread();
+        assert this.done == null;
+        this.done = done;
+        pump();
+    }
+
+    /**
+     * Abort the transfer. The completion call back is called, with CancellationException,
+     * when pending requests are done and open files are closed.
+     */
+    public void cancel() {
+        assert Protocol.isDispatchThread();
+        if (finished) return;
+        onError(new CancellationException("File transfer canceled"));
+        if (done != null) pump();
+    }
+
+    private void addFile(Item item, long size) {
+        item.size = size;
+        files_total++;
+        bytes_total += size;
+    }
+
+    /**
+     * @return file size from remote attributes, or 0 if not reported. The size is only an estimate.
+     */
+    private static long getSize(FileAttrs attrs) {
+        if ((attrs.flags & IFileSystem.ATTR_SIZE) == 0) return 0;
+        return attrs.size;
+    }
+
+    private void onError(Exception x) {
+        if (error == null) error = x;
+        queue.clear();
+    }
+
+    private void onProgress() {
+        if (progress != null) progress.progress(this);
+    }
+
+    private static String toRemotePath(String dir, String name) {
+        if (dir.endsWith("/")) return dir + name; //$NON-NLS-1$
+        return dir + "/" + name; //$NON-NLS-1$
+    }
+
+    private void pump() {
+        /* Call backs of requests that fail synchronously can call pump() recursively */
+        if (pumping) {
+            pump_again = true;
+            return;
+        }
+        pumping = true;
+        try {
+            do {
+                pump_again = false;
+                pumpOnce();
+            }
+            while (pump_again);
+        }
+        finally {
+            pumping = false;
+        }
+    }
+
+    private void pumpOnce() {
+        if (finished) return;
+        while (error == null && active_cnt < max_files && !queue.isEmpty()) {
+            active_cnt++;
+            startItem(queue.removeFirst());
+        }
+        boolean stall = false;
+        for (Item item : data_items) {
+            while (error == null && !item.eof) {
+                int n = window.getChunkSize();
+                if (item.offset < item.size) {
+                    n = (int)Math.min(n, item.size - item.offset);
+                }
+                else if (item.upload || item.pending > 0) {
+                    /* Past the estimated size, a download is read one request at a time until end of file */
+                    break;
+                }
+                if (inflight_bytes > 0 && inflight_bytes + n > Math.min(window.getBytes(), max_bytes)) {
+                    stall = true;
+                    break;
+                }
+                if (item.upload) sendWrite(item, item.offset, n);
+                else sendRead(item, item.offset, n);
+                item.offset += n;
+            }
+            if (stall) break;
+        }
+        if (stall) window.onStall();
+        for (Item item : new ArrayList<Item>(data_items)) {
+            if (item.pending > 0) continue;
+            if (error != null || item.eof || item.upload && item.offset >= item.size) closeItem(item);
+        }
+        if (active_cnt == 0 && queue.isEmpty() && done != null) {
+            finished = true;
+            if (reader != null) reader.shutdown();
+            done.doneTransfer(this, error);
+        }
+    }
+
+    private void doneItem(Item item) {
+        active_cnt--;
+        pump();
+    }
+
+    private void startItem(final Item item) {
+        if (item.stat) {
+            fs.stat(item.remote, new IFileSystem.DoneStat() {
+                public void doneStat(IToken token, FileSystemException error, FileAttrs attrs) {
+                    if (error != null) {
+                        onError(error);
+                        doneItem(item);
+                        return;
+                    }
+                    item.stat = false;
+                    item.dir = attrs.isDirectory();
+                    if (!item.dir) addFile(item, getSize(attrs));
+                    startItem(item);
+                }
+            });
+        }
+        else if (item.upload && item.dir) {
+            startMkDir(item);
+        }
+        else if (item.upload) {
+            startUpload(item);
+        }
+        else if (item.dir) {
+            startReadDir(item);
+        }
+        else {
+            startDownload(item);
+        }
+    }
+
+    private void startMkDir(final Item item) {
+        fs.mkdir(item.remote, null, new IFileSystem.DoneMkDir() {
+            public void doneMkDir(IToken token, final FileSystemException mkdir_error) {
+                if (mkdir_error == null) {
+                    onDirReady(item);
+                    return;
+                }
+                /* The directory can exist already */
+                fs.stat(item.remote, new IFileSystem.DoneStat() {
+                    public void doneStat(IToken token, FileSystemException error, FileAttrs attrs) {
+                        if (error == null && attrs.isDirectory()) {
+                            onDirReady(item);
+                            return;
+                        }
+                        onError(mkdir_error);
+                        doneItem(item);
+                    }
+                });
+            }
+        });
+    }
+
+    private void onDirReady(Item item) {
+        if (error == null) {
+            File[] list = item.local.listFiles();
+            if (list == null) {
+                onError(new IOException("Cannot read directory " + item.local)); //$NON-NLS-1$
+            }
+            else {
+                Arrays.sort(list);
+                for (File f : list) {
+                    Item i = new Item(f, toRemotePath(item.remote, f.getName()), true);
+                    i.dir = f.isDirectory();
+                    if (!i.dir) {
+                        if (!f.isFile()) continue;
+                        addFile(i, f.length());
+                    }
+                    queue.add(i);
+                }
+                onProgress();
+            }
+        }
+        doneItem(item);
+    }
+
+    private void startReadDir(final Item item) {
+        if (!item.local.isDirectory() && !item.local.mkdir()) {
+            onError(new IOException("Cannot create directory " + item.local)); //$NON-NLS-1$
+            doneItem(item);
+            return;
+        }
+        fs.opendir(item.remote, new IFileSystem.DoneOpen() {
+            public void doneOpen(IToken token, FileSystemException error, final IFileHandle handle) {
+                if (error != null) {
+                    onError(error);
+                    doneItem(item);
+                    return;
+                }
+                fs.readdir(handle, new IFileSystem.DoneReadDir() {
+                    public void doneReadDir(IToken token, FileSystemException error, DirEntry[] entries, boolean eof) {
+                        if (error != null) {
+                            onError(error);
+                        }
+                        else if (entries != null && TCFFileTransfer.this.error == null) {
+                            for (DirEntry e : entries) {
+                                if (e.filename.equals(".") || e.filename.equals("..")) continue; //$NON-NLS-1$ //$NON-NLS-2$
+                                Item i = new Item(new File(item.local, e.filename), toRemotePath(item.remote, e.filename), false);
+                                if (e.attrs == null || (e.attrs.flags & IFileSystem.ATTR_PERMISSIONS) == 0) {
+                                    i.stat = true;
+                                }
+                                else if (e.attrs.isDirectory()) {
+                                    i.dir = true;
+                                }
+                                else if (e.attrs.isFile()) {
+                                    addFile(i, getSize(e.attrs));
+                                }
+                                else {
+                                    continue;
+                                }
+                                queue.add(i);
+                            }
+                            onProgress();
+                        }
+                        if (error == null && !eof && TCFFileTransfer.this.error == null) {
+                            fs.readdir(handle, this);
+                            return;
+                        }
+                        fs.close(handle, new IFileSystem.DoneClose() {
+                            public void doneClose(IToken token, FileSystemException error) {
+                                if (error != null) onError(error);
+                                doneItem(item);
+                            }
+                        });
+                    }
+                });
+            }
+        });
+    }
+
+    private void startUpload(final Item item) {
+        try {
+            item.file = new RandomAccessFile(item.local, "r"); //$NON-NLS-1$
+        }
+        catch (IOException x) {
+            onError(x);
+            doneItem(item);
+            return;
+        }
+        int flags = IFileSystem.TCF_O_WRITE | IFileSystem.TCF_O_CREAT | IFileSystem.TCF_O_TRUNC;
+        fs.open(item.remote, flags, null, new IFileSystem.DoneOpen() {
+            public void doneOpen(IToken token, FileSystemException error, IFileHandle handle) {
+                item.handle = handle;
+                if (error != null) onError(error);
+                data_items.add(item);
+                pump();
+            }
+        });
+    }
+
+    private void startDownload(final Item item) {
+        try {
+            item.file = new RandomAccessFile(item.local, "rw"); //$NON-NLS-1$
+            item.file.setLength(0);
+        }
+        catch (IOException x) {
+            onError(x);
+            closeLocal(item);
+            doneItem(item);
+            return;
+        }
+        fs.open(item.remote, IFileSystem.TCF_O_READ, null, new IFileSystem.DoneOpen() {
+            public void doneOpen(IToken token, FileSystemException error, IFileHandle handle) {
+                item.handle = handle;
+                if (error != null) onError(error);
+                data_items.add(item);
+                pump();
+            }
+        });
+    }
+
+    private void sendWrite(final Item item, final long pos, final int n) {
+        item.pending++;
+        inflight_bytes += n;
+        /* The local file is not closed while the item has pending requests */
+        final RandomAccessFile file = item.file;
+        getReader().execute(new Runnable() {
+            public void run() {
+                final byte[] data = new byte[n];
+                IOException read_error = null;
+                try {
+                    ByteBuffer bb = ByteBuffer.wrap(data);
+                    while (bb.hasRemaining()) {
+                        if (file.getChannel().read(bb, pos + bb.position()) < 0) {
+                            throw new IOException("Unexpected end of file " + item.local); //$NON-NLS-1$
+                        }
+                    }
+                }
+                catch (IOException x) {
+                    read_error = x;
+                }
+                final IOException x = read_error;
+                Protocol.invokeLater(new Runnable() {
+                    public void run() {
+                        if (x != null || error != null) {
+                            item.pending--;
+                            inflight_bytes -= n;
+                            if (x != null) onError(x);
+                            pump();
+                            return;
+                        }
+                        final long time = window.onRequestStart();
+                        fs.write(item.handle, pos, data, 0, n, new IFileSystem.DoneWrite() {
+                            public void doneWrite(IToken token, FileSystemException error) {
+                                item.pending--;
+                                inflight_bytes -= n;
+                                window.onRequestDone(time, error == null ? n : -1);
+                                if (error != null) {
+                                    onError(error);
+                                }
+                                else {
+                                    bytes_done += n;
+                                    onProgress();
+                                }
+                                pump();
+                            }
+                        });
+                    }
+                });
+            }
+        });
+    }
+
+    private ExecutorService getReader() {
+        if (reader == null) {
+            reader = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r);
+                    thread.setName("TCF File Transfer Reader"); //$NON-NLS-1$
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return reader;
+    }
+
+    private void sendRead(final Item item, final long pos, final int n) {
+        final long time = window.onRequestStart();
+        item.pending++;
+        inflight_bytes += n;
+        fs.read(item.handle, pos, n, new IFileSystem.DoneRead() {
+            public void doneRead(IToken token, FileSystemException error, byte[] data, boolean eof) {
+                item.pending--;
+                inflight_bytes -= n;
+                int len = data == null ? 0 : Math.min(data.length, n);
+                window.onRequestDone(time, error == null ? len : -1);
+                if (error != null) {
+                    onError(error);
+                }
+                else {
+                    try {
+                        ByteBuffer bb = ByteBuffer.wrap(data, 0, len);
+                        while (bb.hasRemaining()) item.file.getChannel().write(bb, pos + bb.position());
+                        bytes_done += len;
+                        if (pos + len > item.size) {
+                            /* The file is longer than reported by the directory listing */
+                            bytes_total += pos + len - item.size;
+                            item.size = pos + len;
+                        }
+                        if (eof || len == 0) {
+                            /* The file can be shorter than reported by the directory listing */
+                            if (pos + len < item.size) {
+                                bytes_total -= item.size - pos - len;
+                                item.size = pos + len;
+                            }
+                            item.eof = true;
+                        }
+                        else if (len < n) {
+                            /* Short read, request the rest of the chunk */
+                            sendRead(item, pos + len, n - len);
+                        }
+                        onProgress();
+                    }
+                    catch (IOException x) {
+                        onError(x);
+                    }
+                }
+                pump();
+            }
+        });
+    }
+
+    private void closeLocal(Item item) {
+        if (item.file == null) return;
+        try {
+            item.file.close();
+        }
+        catch (IOException x) {
+            onError(x);
+        }
+        item.file = null;
+    }
+
+    private void closeItem(final Item item) {
+        data_items.remove(item);
+        closeLocal(item);
+        if (item.handle == null) {
+            if (error == null) files_done++;
+            onProgress();
+            doneItem(item);
+            return;
+        }
+        fs.close(item.handle, new IFileSystem.DoneClose() {
+            public void doneClose(IToken token, FileSystemException error) {
+                if (error != null) {
+                    onError(error);
+                }
+                else if (TCFFileTransfer.this.error == null) {
+                    files_done++;
+                    onProgress();
+                }
+                doneItem(item);
+            }
+        });
+    }
+}
@@ -0,0 +1,557 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.tcf.protocol.IService;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.Protocol;
+
+/**
+ * A <tt>TCFFuture</tt> represents the result of a single asynchronous TCF command, or of a composition of commands.
+ *
+ * Unlike TCFTask, a future does not require the client to block a thread while the command is in progress:
+ * clients can attach listeners, which are called by TCF dispatch thread when the future completes,
+ * and combine many futures into one with {@link #all(Collection)} and {@link #map(Collection, int, IFactory)}.
+ * Clients that are not running in TCF dispatch thread can still wait for the result with get().
+ *
+ * If a client is extending TCFFuture it should implement start() method to send the command.
+ * The start() method will be executed by TCF dispatch thread, and the command callback should then call
+ * either done() or error() to indicate that the future is complete.
+ * Canceling a future cancels the command token returned by start().
+ *
+ * Any service command can also be converted to a future with {@link #invoke(IService, String, Object...)}.
+ */
+public abstract class TCFFuture<V> implements Future<V> {
+
+    /**
+     * Future completion listener.
+     */
+    public interface IListener<V> {
+        /**
+         * Called by TCF dispatch thread when the future is done, failed or canceled.
+         * @param future - the completed future.
+         */
+        void done(TCFFuture<V> future);
+    }
+
+    /**
+     * Factory of futures used by {@link TCFFuture#map(Collection, int, IFactory)}.
+     */
+    public interface IFactory<K,V> {
+        /**
+         * Create a future for given key.
+         * The method is called by TCF dispatch thread.
+         * @param key - one of the keys passed to map().
+         * @return a future that computes the value for the key.
+         */
+        TCFFuture<V> create(K key);
+    }
+
+    private static final int
+        STATE_PENDING = 0,
+        STATE_DONE = 1,
+        STATE_FAILED = 2,
+        STATE_CANCELED = 3;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition completed = lock.newCondition();
+    private volatile int state;
+    private V result;
+    private Throwable error;
+    private IToken token;
+    private List<IListener<V>> listeners;
+
+    /**
+     * Construct a future and schedule execution of start().
+     */
+    public TCFFuture() {
+        Protocol.invokeLater(new Runnable() {
+            public void run() {
+                if (state != STATE_PENDING) return;
+                try {
+                    IToken t = start();
+                    if (state == STATE_PENDING) token = t;
+                    else if (state == STATE_CANCELED && t != null) t.cancel();
+                }
+                catch (Throwable x) {
+                    error(x);
+                }
+            }
+        });
+    }
+
+    /**
+     * Start the computation.
+     * The method is executed by TCF dispatch thread.
+     * @return pending command token, or null if the computation cannot be canceled by a token.
+     * @throws Exception - if the computation cannot be started, the exception becomes the future error.
+     */
+    protected abstract IToken start() throws Exception;
+
+    /**
+     * Called by TCF dispatch thread after the future was canceled by a client.
+     * Default implementation cancels the command token returned by start().
+     * Subclasses that combine other futures override the method to cancel them.
+     */
+    protected void canceled() {
+        if (token != null) token.cancel();
+    }
+
+    /**
+     * Set the result of this future, notify waiting threads and call the listeners.
+     * The call is ignored if the future is already canceled.
+     * @param result - the computed result.
+     */
+    public void done(V result) {
+        complete(STATE_DONE, result, null);
+    }
+
+    /**
+     * Set the error of this future, notify waiting threads and call the listeners.
+     * The call is ignored if the future is already canceled.
+     * @param error - computation error.
+     */
+    public void error(Throwable error) {
+        assert error != null;
+        complete(STATE_FAILED, null, error);
+    }
+
+    /**
+     * Complete the future with either error or result,
+     * convenient for command callbacks that receive both.
+     * @param error - computation error, or null.
+     * @param result - the computed result, ignored if error is not null.
+     */
+    public void done(Throwable error, V result) {
+        if (error != null) error(error);
+        else done(result);
+    }
+
+    private void complete(int new_state, V new_result, Throwable new_error) {
+        assert Protocol.isDispatchThread();
+        lock.lock();
+        try {
+            if (state == STATE_CANCELED) return;
+            assert state == STATE_PENDING;
+            result = new_result;
+            error = new_error;
+            token = null;
+            state = new_state;
+            completed.signalAll();
+        }
+        finally {
+            lock.unlock();
+        }
+        notifyListeners();
+    }
+
+    private void notifyListeners() {
+        assert Protocol.isDispatchThread();
+        List<IListener<V>> list;
+        lock.lock();
+        try {
+            list = listeners;
+            listeners = null;
+        }
+        finally {
+            lock.unlock();
+        }
+        if (list == null) return;
+        for (IListener<V> l : list) {
+            try {
+                l.done(this);
+            }
+            catch (Throwable x) {
+                Protocol.log("Unhandled exception in TCFFuture listener", x);
+            }
+        }
+    }
+
+    /**
+     * Add a completion listener.
+     * The listener is called by TCF dispatch thread. If the future is already complete,
+     * the listener is called immediately when the method is called by the dispatch thread,
+     * otherwise it is called later.
+     * The method can be called by any thread.
+     * @param listener - the listener.
+     * @return this future.
+     */
+    public TCFFuture<V> addListener(final IListener<V> listener) {
+        lock.lock();
+        try {
+            if (state == STATE_PENDING) {
+                if (listeners == null) listeners = new ArrayList<IListener<V>>();
+                listeners.add(listener);
+                return this;
+            }
+        }
+        finally {
+            lock.unlock();
+        }
+        if (Protocol.isDispatchThread()) {
+            listener.done(this);
+        }
+        else {
+            Protocol.invokeLater(new Runnable() {
+                public void run() {
+                    listener.done(TCFFuture.this);
+                }
+            });
+        }
+        return this;
+    }
+
+    /**
+     * Attempts to cancel the computation.
+     * If the command is in progress, its token is canceled by TCF dispatch thread.
+     * The method can be called by any thread.
+     * @param mayInterruptIfRunning - not used, pending command is always canceled.
+     * @return <tt>false</tt> if the future has already completed, <tt>true</tt> otherwise.
+     */
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        lock.lock();
+        try {
+            if (state != STATE_PENDING) return false;
+            error = new CancellationException();
+            state = STATE_CANCELED;
+            completed.signalAll();
+        }
+        finally {
+            lock.unlock();
+        }
+        Runnable r = new Runnable() {
+            public void run() {
+                canceled();
+                token = null;
+                notifyListeners();
+            }
+        };
+        if (Protocol.isDispatchThread()) r.run();
+        else Protocol.invokeLater(r);
+        return true;
+    }
+
+    public boolean isCancelled() {
+        return state == STATE_CANCELED;
+    }
+
+    public boolean isDone() {
+        return state != STATE_PENDING;
+    }
+
+    /**
+     * Return the future result, the future must be complete.
+     * Intended for listeners and combinators that run in TCF dispatch thread.
+     * @return the result, or null if the future failed or was canceled.
+     */
+    public V getResult() {
+        assert isDone();
+        return result;
+    }
+
+    /**
+     * Return the future error, the future must be complete.
+     * Intended for listeners and combinators that run in TCF dispatch thread.
+     * @return the error, CancellationException if the future was canceled, or null if the future is done.
+     */
+    public Throwable getError() {
+        assert isDone();
+        return error;
+    }
+
+    /**
+     * Waits if necessary for the computation to complete, and then retrieves its result.
+     * Must not be called by TCF dispatch thread.
+     * @return the computed result
+     * @throws CancellationException if the computation was canceled
+     * @throws ExecutionException if the computation threw an exception
+     * @throws InterruptedException if the current thread was interrupted while waiting
+     */
+    public V get() throws InterruptedException, ExecutionException {
+        assert !Protocol.isDispatchThread();
+        lock.lock();
+        try {
+            while (state == STATE_PENDING) completed.await();
+        }
+        finally {
+            lock.unlock();
+        }
+        return report();
+    }
+
+    /**
+     * Waits if necessary for at most the given time for the computation to complete,
+     * and then retrieves its result, if available.
+     * Must not be called by TCF dispatch thread.
+     * @param timeout the maximum time to wait
+     * @param unit the time unit of the timeout argument
+     * @return the computed result
+     * @throws CancellationException if the computation was canceled
+     * @throws ExecutionException if the computation threw an exception
+     * @throws InterruptedException if the current thread was interrupted while waiting
+     * @throws TimeoutException if the wait timed out
+     */
+    public V get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        assert !Protocol.isDispatchThread();
+        long nanos = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (state == STATE_PENDING) {
+                if (nanos <= 0) throw new TimeoutException();
+                nanos = completed.awaitNanos(nanos);
+            }
+        }
+        finally {
+            lock.unlock();
+        }
+        return report();
+    }
+
+    private V report() throws ExecutionException {
+        if (state == STATE_CANCELED) throw new CancellationException();
+        if (error != null) {
+            if (error instanceof ExecutionException) throw (ExecutionException)error;
+            throw new ExecutionException("TCF command failed", error);
+        }
+        return result;
+    }
+
+    /**
+     * Combine futures into a single future that is done when all of them are done.
+     * If any of the futures fails or is canceled, the combined future fails with same error,
+     * and the remaining futures are canceled. Canceling the combined future cancels all of them.
+     * The method can be called by any thread.
+     * @param futures - futures to combine.
+     * @return future of the list of results, in same order as the futures.
+     */
+    public static <V> TCFFuture<List<V>> all(Collection<? extends TCFFuture<V>> futures) {
+        final List<TCFFuture<V>> list = new ArrayList<TCFFuture<V>>(futures);
+        return new TCFFuture<List<V>>() {
+            int cnt;
+
+            @Override
+            protected IToken start() {
+                final TCFFuture<List<V>> future = this;
+                IListener<V> l = new IListener<V>() {
+                    public void done(TCFFuture<V> f) {
+                        if (future.isDone()) return;
+                        if (f.getError() != null) {
+                            future.error(f.getError());
+                            cancelAll(list);
+                            return;
+                        }
+                        if (++cnt < list.size()) return;
+                        List<V> res = new ArrayList<V>(list.size());
+                        for (TCFFuture<V> x : list) res.add(x.getResult());
+                        future.done(res);
+                    }
+                };
+                if (list.size() == 0) done(new ArrayList<V>());
+                else for (TCFFuture<V> f : list) f.addListener(l);
+                return null;
+            }
+
+            @Override
+            protected void canceled() {
+                cancelAll(list);
+            }
+        };
+    }
+
+    /**
+     * Create a future for every key, and combine them into a single future.
+     * At most <tt>window</tt> futures are in progress at any time, which allows a client to issue
+     * hundreds of commands concurrently without flooding the channel with thousands of them.
+     * If any of the futures fails, the combined future fails with same error,
+     * and the futures in progress are canceled. Canceling the combined future cancels them too.
+     * The method can be called by any thread, the factory is called by TCF dispatch thread.
+     * @param keys - keys, for example context IDs.
+     * @param window - max number of futures in progress, or 0 for no limit.
+     * @param factory - creates a future for a key.
+     * @return future of the map of keys to results, in iteration order of the keys.
+     */
+    public static <K,V> TCFFuture<Map<K,V>> map(Collection<K> keys, final int window, final IFactory<K,V> factory) {
+        final List<K> list = new ArrayList<K>(keys);
+        return new TCFFuture<Map<K,V>>() {
+            Map<K,V> res;
+            List<TCFFuture<V>> pending;
+            Iterator<K> next;
+
+            @Override
+            protected IToken start() {
+                res = new LinkedHashMap<K,V>();
+                pending = new ArrayList<TCFFuture<V>>();
+                next = list.iterator();
+                /* Pre-populate the map to keep results in the keys order */
+                for (K k : list) res.put(k, null);
+                startNext();
+                return null;
+            }
+
+            private void startNext() {
+                while (!isDone() && next.hasNext() && (window <= 0 || pending.size() < window)) {
+                    final K key = next.next();
+                    final TCFFuture<V> f = factory.create(key);
+                    pending.add(f);
+                    f.addListener(new IListener<V>() {
+                        public void done(TCFFuture<V> x) {
+                            pending.remove(f);
+                            if (isDone()) return;
+                            if (x.getError() != null) {
+                                error(x.getError());
+                                cancelAll(pending);
+                                return;
+                            }
+                            res.put(key, x.getResult());
+                            startNext();
+                        }
+                    });
+                }
+                if (!isDone() && pending.isEmpty() && !next.hasNext()) done(res);
+            }
+
+            @Override
+            protected void canceled() {
+                if (pending != null) cancelAll(pending);
+            }
+        };
+    }
+
+    private static <V> void cancelAll(Collection<TCFFuture<V>> futures) {
+        for (TCFFuture<V> f : new ArrayList<TCFFuture<V>>(futures)) f.cancel(true);
+    }
+
+    /**
+     * Invoke a service command and return its result as a future.
+     * The command is found by name: it is the service method that accepts the given arguments followed
+     * by a single method callback interface, for example
+     * <pre>
+     * TCFFuture&lt;Object&gt; f = TCFFuture.invoke(run_control, "getContext", id);
+     * </pre>
+     * When the callback is called, a <tt>Throwable</tt> argument, if not null, becomes the future error.
+     * The remaining callback arguments, except the token, become the future result:
+     * null if there are none, the argument itself if there is one, or an <tt>Object[]</tt> otherwise.
+     * The method can be called by any thread, the command is sent by TCF dispatch thread.
+     * @param service - the service proxy.
+     * @param name - command method name.
+     * @param args - command arguments, without the callback.
+     * @return the future of the command result.
+     * @throws IllegalArgumentException if the service has no such command.
+     */
+    public static TCFFuture<Object> invoke(final IService service, String name, final Object... args) {
+        final Method method = findCommand(service.getClass(), name, args);
+        if (method == null) throw new IllegalArgumentException("No such command: " + service.getName() + "." + name);
+        final Class<?> done_class = method.getParameterTypes()[args.length];
+        return new TCFFuture<Object>() {
+            @Override
+            protected IToken start() throws Exception {
+                final TCFFuture<Object> future = this;
+                Object done = Proxy.newProxyInstance(done_class.getClassLoader(),
+                        new Class<?>[]{ done_class }, new InvocationHandler() {
+                    public Object invoke(Object proxy, Method m, Object[] a) {
+                        if (m.getDeclaringClass() == Object.class) {
+                            if (m.getName().equals("equals")) return proxy == a[0];
+                            if (m.getName().equals("hashCode")) return System.identityHashCode(proxy);
+                            return done_class.getName();
+                        }
+                        if (future.isDone()) return null;
+                        Throwable err = null;
+                        List<Object> res = new ArrayList<Object>();
+                        Class<?>[] types = m.getParameterTypes();
+                        for (int i = 0; i < types.length; i++) {
+                            if (types[i] == IToken.class) continue;
+                            if (Throwable.class.isAssignableFrom(types[i])) {
+                                if (err == null) err = (Throwable)a[i];
+                                continue;
+                            }
+                            res.add(a[i]);
+                        }
+                        if (err != null) future.error(err);
+                        else if (res.size() == 0) future.done(null);
+                        else if (res.size() == 1) future.done(res.get(0));
+                        else future.done(res.toArray());
+                        return null;
+                    }
+                });
+                Object[] call_args = new Object[args.length + 1];
+                System.arraycopy(args, 0, call_args, 0, args.length);
+                call_args[args.length] = done;
+                try {
+                    return (IToken)method.invoke(service, call_args);
+                }
+                catch (InvocationTargetException x) {
+                    Throwable e = x.getCause();
+                    if (e instanceof Exception) throw (Exception)e;
+                    throw x;
+                }
+            }
+        };
+    }
+
+    private static Method findCommand(Class<?> c, String name, Object[] args) {
+        /* Search service interfaces, service proxy classes are not necessarily public */
+        for (; c != null; c = c.getSuperclass()) {
+            for (Class<?> i : c.getInterfaces()) {
+                if (!IService.class.isAssignableFrom(i)) continue;
+                Method m = findCommand(i.getMethods(), name, args);
+                if (m != null) return m;
+            }
+        }
+        return null;
+    }
+
+    private static Method findCommand(Method[] methods, String name, Object[] args) {
+        for (Method m : methods) {
+            if (!m.getName().equals(name)) continue;
+            Class<?>[] types = m.getParameterTypes();
+            if (types.length != args.length + 1) continue;
+            Class<?> done = types[args.length];
+            if (!done.isInterface() || done.getMethods().length != 1) continue;
+            boolean ok = true;
+            for (int i = 0; ok && i < args.length; i++) {
+                if (args[i] == null) ok = !types[i].isPrimitive();
+                else ok = box(types[i]).isInstance(args[i]);
+            }
+            if (ok) return m;
+        }
+        return null;
+    }
+
+    private static Class<?> box(Class<?> c) {
+        if (!c.isPrimitive()) return c;
+        if (c == boolean.class) return Boolean.class;
+        if (c == int.class) return Integer.class;
+        if (c == long.class) return Long.class;
+        if (c == byte.class) return Byte.class;
+        if (c == short.class) return Short.class;
+        if (c == char.class) return Character.class;
+        if (c == float.class) return Float.class;
+        return Double.class;
+    }
+}
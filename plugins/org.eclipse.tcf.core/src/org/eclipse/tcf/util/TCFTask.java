@@ -17,6 +17,8 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.eclipse.tcf.protocol.IChannel;
 import org.eclipse.tcf.protocol.Protocol;
@@ -35,6 +37,10 @@ import org.eclipse.tcf.protocol.Protocol;
  * If a client is extending TCFTask it should implement run() method to perform actual communications.
  * The run() method will be execute by TCF dispatch thread, and client code should then call either done() or
  * error() to indicate that task computations are complete.
+ *
+ * Threads waiting for the task use a lock and a condition rather than the task monitor,
+ * so waiting does not pin a virtual thread to its carrier thread.
+ * The monitor is still notified on completion for subclasses that wait on it.
  */
 public abstract class TCFTask<V> implements Runnable, Future<V> {
 
@@ -44,6 +50,9 @@ public abstract class TCFTask<V> implements Runnable, Future<V> {
     private boolean canceled;
     private IChannel channel;
     private IChannel.IChannelListener channel_listener;
+    private volatile boolean finished;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition completed = lock.newCondition();
 
     /**
      * Construct a TCF task object and schedule it for execution.
@@ -135,6 +144,7 @@ public abstract class TCFTask<V> implements Runnable, Future<V> {
         done = true;
         if (channel != null) channel.removeChannelListener(channel_listener);
         notifyAll();
+        signalCompleted();
     }
 
     /**
@@ -153,6 +163,7 @@ public abstract class TCFTask<V> implements Runnable, Future<V> {
         this.error = error;
         if (channel != null) channel.removeChannelListener(channel_listener);
         notifyAll();
+        signalCompleted();
     }
 
     /**
@@ -179,9 +190,31 @@ public abstract class TCFTask<V> implements Runnable, Future<V> {
         error = new CancellationException();
         if (channel != null) channel.removeChannelListener(channel_listener);
         notifyAll();
+        signalCompleted();
         return true;
     }
 
+    private void signalCompleted() {
+        lock.lock();
+        try {
+            finished = true;
+            completed.signalAll();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    private void await() throws InterruptedException {
+        lock.lock();
+        try {
+            while (!finished) completed.await();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
     /**
      * Waits if necessary for the computation to complete, and then
      * retrieves its result.
@@ -193,15 +226,16 @@ public abstract class TCFTask<V> implements Runnable, Future<V> {
      * @throws InterruptedException if the current thread was interrupted
      * while waiting
      */
-    public synchronized V get() throws InterruptedException, ExecutionException {
+    public V get() throws InterruptedException, ExecutionException {
         assert !Protocol.isDispatchThread();
-        while (!isDone()) wait();
+        await();
+        Throwable error = getError();
         if (error != null) {
             if (error instanceof ExecutionException) throw (ExecutionException)error;
             if (error instanceof InterruptedException) throw (InterruptedException)error;
             throw new ExecutionException("TCF task aborted", error);
         }
-        return result;
+        return getResult();
     }
 
     /**
@@ -211,21 +245,20 @@ public abstract class TCFTask<V> implements Runnable, Future<V> {
      * @return the computed result
      * @throws Error if the computation was canceled or threw an exception
      */
-    public synchronized V getE() {
+    public V getE() {
         assert !Protocol.isDispatchThread();
-        while (!isDone()) {
-            try {
-                wait();
-            }
-            catch (InterruptedException x) {
-                throw new Error(x);
-            }
+        try {
+            await();
+        }
+        catch (InterruptedException x) {
+            throw new Error(x);
         }
+        Throwable error = getError();
         if (error != null) {
             if (error instanceof Error) throw (Error)error;
             throw new Error("TCF task aborted", error);
         }
-        return result;
+        return getResult();
     }
 
     /**
@@ -235,23 +268,22 @@ public abstract class TCFTask<V> implements Runnable, Future<V> {
      * @return the computed result
      * @throws IOException if the computation was canceled or threw an exception
      */
-    public synchronized V getIO() throws IOException {
+    public V getIO() throws IOException {
         assert !Protocol.isDispatchThread();
-        while (!isDone()) {
-            try {
-                wait();
-            }
-            catch (InterruptedException x) {
-                throw new InterruptedIOException();
-            }
+        try {
+            await();
         }
+        catch (InterruptedException x) {
+            throw new InterruptedIOException();
+        }
+        Throwable error = getError();
         if (error != null) {
             if (error instanceof IOException) throw (IOException)error;
             IOException y = new IOException("TCF task aborted");
             y.initCause(error);
             throw y;
         }
-        return result;
+        return getResult();
     }
 
     /**
@@ -267,20 +299,28 @@ public abstract class TCFTask<V> implements Runnable, Future<V> {
      * while waiting
      * @throws TimeoutException if the wait timed out
      */
-    public synchronized V get(long timeout, TimeUnit unit)
+    public V get(long timeout, TimeUnit unit)
             throws InterruptedException, ExecutionException, TimeoutException {
         assert !Protocol.isDispatchThread();
-        if (!isDone()) {
-            wait(unit.toMillis(timeout));
-            if (!isDone()) throw new TimeoutException();
+        long nanos = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (!finished) {
+                if (nanos <= 0) throw new TimeoutException();
+                nanos = completed.awaitNanos(nanos);
+            }
         }
+        finally {
+            lock.unlock();
+        }
+        Throwable error = getError();
         if (error != null) {
             if (error instanceof InterruptedException) throw (InterruptedException)error;
             if (error instanceof ExecutionException) throw (ExecutionException)error;
             if (error instanceof TimeoutException) throw (TimeoutException)error;
             throw new ExecutionException("TCF task aborted", error);
         }
-        return result;
+        return getResult();
     }
 
     /**
@@ -310,7 +350,7 @@ public abstract class TCFTask<V> implements Runnable, Future<V> {
      * Return task execution error if any.
      * @return Throwable object or null
      */
-    protected Throwable getError() {
+    protected synchronized Throwable getError() {
         return error;
     }
 
@@ -318,7 +358,7 @@ public abstract class TCFTask<V> implements Runnable, Future<V> {
      * Return task execution result if any.
      * @return result object
      */
-    protected V getResult() {
+    protected synchronized V getResult() {
         return result;
     }
 }
@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.util;
+
+/**
+ * TransferWindow controls size and number of pending requests of a file transfer.
+ *
+ * A transfer starts with MIN_REQUESTS requests of the initial chunk size. When a client has to wait
+ * for the transfer, the amount of data in flight is doubled, at most once per two round trips,
+ * until observed throughput stops growing. Chunk size grows together with the amount of data in flight,
+ * up to MAX_CHUNK_SIZE, so that large transfers over links with long round-trip time use few large requests.
+ * Round-trip time and throughput are measured from completion of the requests.
+ *
+ * The object is not thread safe, clients should synchronize access.
+ */
+final class TransferWindow {
+
+    /** Number of pending requests at the start */
+    static final int MIN_REQUESTS = 8;
+
+    /** Max number of pending requests */
+    static final int MAX_REQUESTS = 32;
+
+    /** Max size of a request */
+    static final int MAX_CHUNK_SIZE = 0x40000;
+
+    /** Max number of bytes in flight */
+    private static final int MAX_BYTES = MAX_REQUESTS * MAX_CHUNK_SIZE;
+
+    /** The window stops growing after this number of increases that did not improve throughput */
+    private static final int MAX_NO_GAIN = 3;
+
+    private final int min_chunk_size;
+    private int chunk_size;
+    private int requests;
+    private int bytes;
+    private int pending;
+
+    private long rtt_min = Long.MAX_VALUE;
+    private long sample_time;
+    private long sample_bytes;
+    private double best_bandwidth;
+    private long grow_time;
+    private boolean grown;
+    private int no_gain_cnt;
+
+    TransferWindow(int min_chunk_size) {
+        this.min_chunk_size = min_chunk_size;
+        chunk_size = min_chunk_size;
+        requests = MIN_REQUESTS;
+        bytes = min_chunk_size * MIN_REQUESTS;
+    }
+
+    /**
+     * @return current request size.
+     */
+    int getChunkSize() {
+        return chunk_size;
+    }
+
+    /**
+     * @return max number of pending requests.
+     */
+    int getRequests() {
+        return requests;
+    }
+
+    /**
+     * @return max number of bytes in flight.
+     */
+    int getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return min observed round-trip time in nanoseconds, or Long.MAX_VALUE if not known yet.
+     */
+    long getRoundTripTime() {
+        return rtt_min;
+    }
+
+    /**
+     * @return best observed throughput in bytes per second.
+     */
+    long getBandwidth() {
+        return (long)(best_bandwidth * 1000000000);
+    }
+
+    /**
+     * Called when a request is sent.
+     * @return the request start time, it should be passed to onRequestDone().
+     */
+    long onRequestStart() {
+        /* Throughput is sampled only while requests are pending */
+        if (pending++ == 0) sample_time = 0;
+        return System.nanoTime();
+    }
+
+    /**
+     * Called when a request is cancelled.
+     */
+    void onRequestCancel() {
+        pending--;
+    }
+
+    /**
+     * Called when a request is done.
+     * @param time - the request start time.
+     * @param size - number of bytes transferred, or -1 if the request failed.
+     */
+    void onRequestDone(long time, int size) {
+        pending--;
+        if (size < 0) return;
+        long now = System.nanoTime();
+        if (now - time < rtt_min) rtt_min = now - time;
+        if (sample_time == 0) {
+            sample_time = time;
+            sample_bytes = 0;
+        }
+        sample_bytes += size;
+        long elapsed = now - sample_time;
+        if (elapsed < rtt_min * 2 || elapsed < 1000000) return;
+        double bandwidth = (double)sample_bytes / elapsed;
+        sample_time = now;
+        sample_bytes = 0;
+        if (bandwidth > best_bandwidth * 1.1) {
+            best_bandwidth = bandwidth;
+            no_gain_cnt = 0;
+        }
+        else if (grown) {
+            no_gain_cnt++;
+        }
+        grown = false;
+    }
+
+    /**
+     * Called when a client has to wait for the transfer.
+     */
+    void onStall() {
+        long now = System.nanoTime();
+        if (bytes >= MAX_BYTES || no_gain_cnt >= MAX_NO_GAIN) return;
+        /* Round-trip time is not known until first request is done */
+        if (rtt_min == Long.MAX_VALUE) return;
+        if (grow_time != 0 && now - grow_time < rtt_min * 2) return;
+        grow_time = now;
+        grown = true;
+        bytes = Math.min(bytes * 2, MAX_BYTES);
+        chunk_size = Integer.highestOneBit(bytes / MIN_REQUESTS);
+        if (chunk_size < min_chunk_size) chunk_size = min_chunk_size;
+        if (chunk_size > MAX_CHUNK_SIZE) chunk_size = MAX_CHUNK_SIZE;
+        requests = bytes / chunk_size;
+        if (requests < MIN_REQUESTS) requests = MIN_REQUESTS;
+        if (requests > MAX_REQUESTS) requests = MAX_REQUESTS;
+    }
+}
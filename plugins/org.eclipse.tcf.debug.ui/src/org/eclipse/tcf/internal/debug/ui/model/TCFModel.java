@@ -90,6 +90,7 @@ import org.eclipse.swt.graphics.Device;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.MessageBox;
 import org.eclipse.swt.widgets.Shell;
+import org.eclipse.tcf.core.AbstractChannel;
 import org.eclipse.tcf.core.Command;
 import org.eclipse.tcf.debug.ui.ITCFModel;
 import org.eclipse.tcf.debug.ui.ITCFPresentationProvider;
@@ -237,6 +238,8 @@ public class TCFModel implements ITCFModel, IElementContentProvider, IElementLab
     private long min_view_updates_interval;
     private boolean view_updates_throttle_enabled;
     private boolean channel_throttle_enabled;
+    private boolean batch_commands_enabled;
+    private boolean coalesce_commands_enabled;
     private boolean wait_for_pc_update_after_step;
     private boolean wait_for_views_update_after_step;
     private boolean delay_stack_update_until_last_step;
@@ -764,6 +767,8 @@ public class TCFModel implements ITCFModel, IElementContentProvider, IElementLab
             min_view_updates_interval = prefs_store.getLong(TCFPreferences.PREF_MIN_UPDATE_INTERVAL);
             view_updates_throttle_enabled = prefs_store.getBoolean(TCFPreferences.PREF_VIEW_UPDATES_THROTTLE);
             channel_throttle_enabled = prefs_store.getBoolean(TCFPreferences.PREF_TARGET_TRAFFIC_THROTTLE);
+            batch_commands_enabled = prefs_store.getBoolean(TCFPreferences.PREF_BATCH_COMMANDS);
+            coalesce_commands_enabled = prefs_store.getBoolean(TCFPreferences.PREF_COALESCE_COMMANDS);
             wait_for_pc_update_after_step = prefs_store.getBoolean(TCFPreferences.PREF_WAIT_FOR_PC_UPDATE_AFTER_STEP);
             wait_for_views_update_after_step = prefs_store.getBoolean(TCFPreferences.PREF_WAIT_FOR_VIEWS_UPDATE_AFTER_STEP);
             delay_stack_update_until_last_step = prefs_store.getBoolean(TCFPreferences.PREF_DELAY_STACK_UPDATE_UNTIL_LAST_STEP);
@@ -778,11 +783,21 @@ public class TCFModel implements ITCFModel, IElementContentProvider, IElementLab
             qualified_type_names_enabled = prefs_store.getBoolean(TCFPreferences.PREF_SHOW_QUALIFIED_TYPE_NAMES);
             filter_variants_by_discriminant = prefs_store.getBoolean(TCFPreferences.PREF_FILTER_VARIANTS_BY_DISCRIMINANT);
             suspend_after_reset = prefs_store.getBoolean(TCFPreferences.PREF_SUSPEND_AFTER_RESET);
+            final boolean batch_commands_changed = event != null &&
+                    TCFPreferences.PREF_BATCH_COMMANDS.equals(event.getProperty());
+            final boolean coalesce_commands_changed = event != null &&
+                    TCFPreferences.PREF_COALESCE_COMMANDS.equals(event.getProperty());
             final boolean affectsExpressionsOnly = event != null && (
                     TCFPreferences.PREF_SHOW_QUALIFIED_TYPE_NAMES.equals(event.getProperty()) ||
                     TCFPreferences.PREF_FILTER_VARIANTS_BY_DISCRIMINANT.equals(event.getProperty()));
             Protocol.invokeLater(new Runnable() {
                 public void run() {
+                    if (batch_commands_changed && channel instanceof AbstractChannel && channel.getState() == IChannel.STATE_OPEN) {
+                        ((AbstractChannel)channel).setAutoBatching(batch_commands_enabled);
+                    }
+                    if (coalesce_commands_changed && channel instanceof AbstractChannel && channel.getState() == IChannel.STATE_OPEN) {
+                        setCommandCoalescing((AbstractChannel)channel, coalesce_commands_enabled);
+                    }
                     for (TCFNode n : id2node.values()) {
                         if (n instanceof TCFNodeExecContext && !affectsExpressionsOnly) {
                             ((TCFNodeExecContext)n).onPreferencesChanged();
@@ -937,10 +952,27 @@ public class TCFModel implements ITCFModel, IElementContentProvider, IElementLab
         }
     }
 
+    /**
+     * Views and the disassembly backend often ask for the same contexts at the same time.
+     * Only commands which results are invalidated by events of their own service are coalesced:
+     * Symbols contexts change when the target runs, but Symbols service has no events.
+     */
+    private void setCommandCoalescing(AbstractChannel c, boolean enable) {
+        long ttl = enable ? 0 : -1;
+        c.setCommandCoalescing(IRunControl.NAME, "getContext", ttl);
+        c.setCommandCoalescing(IMemory.NAME, "getContext", ttl);
+    }
+
     void onConnected() {
         assert Protocol.isDispatchThread();
         assert launch_node == null;
         channel = launch.getChannel();
+        if (channel instanceof AbstractChannel) {
+            AbstractChannel c = (AbstractChannel)channel;
+            // Viewer updates issue many small commands, optionally send the commands of one dispatch cycle as a batch
+            if (batch_commands_enabled) c.setAutoBatching(true);
+            if (coalesce_commands_enabled) setCommandCoalescing(c, true);
+        }
         launch_node = new TCFNodeLaunch(this);
         IMemory mem = launch.getService(IMemory.class);
         if (mem != null) mem.addListener(mem_listener);
@@ -125,6 +125,22 @@ public class TCFDebugPreferencePage extends FieldEditorPreferencePage implements
         trafficThrottleEditor.fillIntoGrid(group, 3);
         addField(trafficThrottleEditor);
 
+        BooleanFieldEditor batchCommandsEditor = new BooleanFieldEditor(
+                TCFPreferences.PREF_BATCH_COMMANDS,
+                "Send data requests of one update cycle to the target as a batch",
+                group);
+
+        batchCommandsEditor.fillIntoGrid(group, 3);
+        addField(batchCommandsEditor);
+
+        BooleanFieldEditor coalesceCommandsEditor = new BooleanFieldEditor(
+                TCFPreferences.PREF_COALESCE_COMMANDS,
+                "Share results of identical pending context data requests between views",
+                group);
+
+        coalesceCommandsEditor.fillIntoGrid(group, 3);
+        addField(coalesceCommandsEditor);
+
         group.setLayout(layout);
     }
 
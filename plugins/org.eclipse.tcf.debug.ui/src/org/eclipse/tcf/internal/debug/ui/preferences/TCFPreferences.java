@@ -27,6 +27,8 @@ public class TCFPreferences {
         PREF_MIN_UPDATE_INTERVAL = "MinUpdateInterval",
         PREF_VIEW_UPDATES_THROTTLE = "ViewUpdatesThrottle",
         PREF_TARGET_TRAFFIC_THROTTLE = "TargetTrafficThrottle",
+        PREF_BATCH_COMMANDS = "BatchCommands",
+        PREF_COALESCE_COMMANDS = "CoalesceCommands",
         PREF_AUTO_CHILDREN_LIST_UPDATES = "AutoChildrenListUpdates",
         PREF_DELAY_CHILDREN_LIST_UPDATES = "DelayChildrenListUpdates",
         PREF_FULL_ERROR_REPORTS = "FullErrorReports",
@@ -30,6 +30,8 @@ public class TCFPreferencesInitializer extends AbstractPreferenceInitializer {
         prefs.setDefault(TCFPreferences.PREF_MIN_UPDATE_INTERVAL, 50);
         prefs.setDefault(TCFPreferences.PREF_VIEW_UPDATES_THROTTLE, true);
         prefs.setDefault(TCFPreferences.PREF_TARGET_TRAFFIC_THROTTLE, true);
+        prefs.setDefault(TCFPreferences.PREF_BATCH_COMMANDS, false);
+        prefs.setDefault(TCFPreferences.PREF_COALESCE_COMMANDS, false);
         prefs.setDefault(TCFPreferences.PREF_AUTO_CHILDREN_LIST_UPDATES, true);
         prefs.setDefault(TCFPreferences.PREF_DELAY_CHILDREN_LIST_UPDATES, false);
         prefs.setDefault(TCFPreferences.PREF_FULL_ERROR_REPORTS, false);
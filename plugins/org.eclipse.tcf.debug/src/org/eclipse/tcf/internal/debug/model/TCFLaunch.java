@@ -12,7 +12,6 @@ package org.eclipse.tcf.internal.debug.model;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -56,8 +55,6 @@ import org.eclipse.tcf.protocol.Protocol;
 import org.eclipse.tcf.services.IContextQuery;
 import org.eclipse.tcf.services.IDPrintf;
 import org.eclipse.tcf.services.IFileSystem;
-import org.eclipse.tcf.services.IFileSystem.FileSystemException;
-import org.eclipse.tcf.services.IFileSystem.IFileHandle;
 import org.eclipse.tcf.services.IMemory;
 import org.eclipse.tcf.services.IMemoryMap;
 import org.eclipse.tcf.services.IPathMap;
@@ -68,6 +65,7 @@ import org.eclipse.tcf.services.IRunControl;
 import org.eclipse.tcf.services.IRunControl.RunControlContext;
 import org.eclipse.tcf.services.IStreams;
 import org.eclipse.tcf.util.TCFDataCache;
+import org.eclipse.tcf.util.TCFFileTransfer;
 import org.eclipse.tcf.util.TCFTask;
 
 /**
@@ -725,80 +723,28 @@ public class TCFLaunch extends Launch {
                     "Cannot download program file: target does not provide File System service"));
             return;
         }
-        try {
-            final File local_fd = new File(local_file);
-            final InputStream inp = new FileInputStream(local_fd);
-            final String task_name = "Downloading: " + local_fd.getName();
-            int flags = IFileSystem.TCF_O_WRITE | IFileSystem.TCF_O_CREAT | IFileSystem.TCF_O_TRUNC;
-            if (launch_monitor != null) launch_monitor.subTask(task_name);
-            fs.open(remote_file, flags, null, new IFileSystem.DoneOpen() {
-
-                IFileHandle handle;
-                long offset = 0;
-                final Set<IToken> cmds = new HashSet<IToken>();
-                final byte[] buf = new byte[0x1000];
-
-                public void doneOpen(IToken token, FileSystemException error, IFileHandle handle) {
-                    this.handle = handle;
-                    if (error != null) {
-                        TCFLaunch.this.error = new Exception("Cannot download program file", error);
-                        fireChanged();
-                        done.run();
-                    }
-                    else {
-                        write_next();
-                    }
-                }
-
-                private void write_next() {
-                    try {
-                        while (cmds.size() < 8) {
-                            int rd = inp.read(buf);
-                            if (rd < 0) {
-                                close();
-                                break;
-                            }
-                            final long kb_done = (offset + rd) / 1024;
-                            cmds.add(fs.write(handle, offset, buf, 0, rd, new IFileSystem.DoneWrite() {
-
-                                public void doneWrite(IToken token, FileSystemException error) {
-                                    cmds.remove(token);
-                                    if (launch_monitor != null) {
-                                        launch_monitor.subTask(task_name + ", " + kb_done + " KB done");
-                                    }
-                                    if (error != null) channel.terminate(error);
-                                    else write_next();
-                                }
-                            }));
-                            offset += rd;
-                        }
-                    }
-                    catch (Throwable x) {
-                        channel.terminate(x);
-                    }
-                }
-
-                private void close() {
-                    if (cmds.size() > 0) return;
-                    try {
-                        inp.close();
-                        fs.close(handle, new IFileSystem.DoneClose() {
-
-                            public void doneClose(IToken token, FileSystemException error) {
-                                if (error != null) channel.terminate(error);
-                                else done.run();
-                            }
-                        });
-                    }
-                    catch (Throwable x) {
-                        channel.terminate(x);
-                    }
+        final File local_fd = new File(local_file);
+        final String task_name = "Downloading: " + local_fd.getName();
+        if (launch_monitor != null) launch_monitor.subTask(task_name);
+        TCFFileTransfer transfer = new TCFFileTransfer(fs);
+        transfer.addUpload(local_fd, remote_file);
+        transfer.setProgressListener(new TCFFileTransfer.ProgressListener() {
+            long kb_done;
+            public void progress(TCFFileTransfer transfer) {
+                if (launch_monitor == null || transfer.getBytesDone() / 1024 == kb_done) return;
+                kb_done = transfer.getBytesDone() / 1024;
+                launch_monitor.subTask(task_name + ", " + kb_done + " KB done");
+            }
+        });
+        transfer.start(new TCFFileTransfer.DoneTransfer() {
+            public void doneTransfer(TCFFileTransfer transfer, Exception error) {
+                if (error != null) {
+                    TCFLaunch.this.error = new Exception("Cannot download program file", error);
+                    fireChanged();
                 }
-            });
-        }
-        catch (Throwable x) {
-            channel.terminate(x);
-        }
+                done.run();
+            }
+        });
     }
 
     private void startRemoteProcess(final ILaunchConfiguration cfg) throws Exception {
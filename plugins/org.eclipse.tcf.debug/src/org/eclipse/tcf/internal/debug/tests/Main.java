@@ -10,16 +10,23 @@
  *******************************************************************************/
 package org.eclipse.tcf.internal.debug.tests;
 
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.Map;
 
+import org.eclipse.tcf.core.ChannelMetrics;
+import org.eclipse.tcf.core.ServerTCP;
 import org.eclipse.tcf.core.TransientPeer;
+import org.eclipse.tcf.internal.services.local.SimulatedAgent;
 import org.eclipse.tcf.protocol.IChannel;
 import org.eclipse.tcf.protocol.IEventQueue;
 import org.eclipse.tcf.protocol.IPeer;
+import org.eclipse.tcf.protocol.JSON;
 import org.eclipse.tcf.protocol.Protocol;
 
 /**
@@ -139,24 +146,166 @@ public class Main {
         }
     }
 
+    private static IPeer getLocalPeer(String sim) throws IOException {
+        ServerTCP server;
+        if (sim != null) server = new SimulatedAgent(sim).startServer(0);
+        else server = new ServerTCP("TCF Soak Test Server", 0);
+        Map<String,String> attrs = new HashMap<String,String>();
+        attrs.put(IPeer.ATTR_ID, "Soak:Local");
+        attrs.put(IPeer.ATTR_TRANSPORT_NAME, "TCP");
+        attrs.put(IPeer.ATTR_IP_HOST, "127.0.0.1");
+        attrs.put(IPeer.ATTR_IP_PORT, Integer.toString(server.getLocalPort()));
+        return new TransientPeer(attrs);
+    }
+
+    private static void writeReport(Map<String,Object> report, String file) throws IOException {
+        byte[] data = JSON.toJASONBytes(report);
+        if (file == null) {
+            System.out.write(data);
+            System.out.println();
+            System.out.flush();
+            return;
+        }
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(data);
+        }
+        finally {
+            out.close();
+        }
+    }
+
+    private static void runSoakTest(final SoakOptions opts) {
+        final TCFSoakTest[] soak = new TCFSoakTest[1];
+        TCFTestSuite.TestListener listener = new TCFTestSuite.TestListener() {
+
+            public void done(final Collection<Throwable> errors) {
+                soak[0].getReport(new TCFSoakTest.DoneReport() {
+                    public void doneReport(Map<String,Object> report) {
+                        try {
+                            writeReport(report, opts.report);
+                        }
+                        catch (IOException x) {
+                            System.err.println("Cannot write report:");
+                            x.printStackTrace();
+                            System.exit(2);
+                        }
+                        if (errors != null && !errors.isEmpty()) {
+                            for (Throwable x : errors) {
+                                x.printStackTrace(System.err);
+                            }
+                            System.exit(3);
+                        }
+                        if (report.get("Error") != null) System.exit(3);
+                        if (soak[0].hasLeaks()) {
+                            System.err.println("Error: resource leaks detected");
+                            System.exit(6);
+                        }
+                        System.exit(0);
+                    }
+                });
+            }
+
+            public void progress(String label, int done, int total) {
+                if (label != null) System.err.println(label);
+            }
+        };
+        try {
+            /* Command statistics and leak checks of the soak test use channel metrics */
+            ChannelMetrics.setEnabled(true);
+            IPeer peer = opts.peer != null ? getPeer(opts.peer) : getLocalPeer(opts.sim);
+            soak[0] = new TCFSoakTest(peer, listener, opts.channels, opts.duration * 1000, opts.mix);
+        }
+        catch (IllegalArgumentException x) {
+            System.err.println(x.getMessage());
+            System.exit(4);
+        }
+        catch (Throwable x) {
+            System.err.println("Cannot start soak test:");
+            x.printStackTrace();
+            System.exit(2);
+        }
+    }
+
+    private static class SoakOptions {
+        int channels = TCFTestSuite.NUM_CHANNELS;
+        long duration = 60;
+        Map<String,Integer> mix;
+        String report;
+        String sim;
+        String[] peer;
+    }
+
+    private static SoakOptions getSoakOptions(String[] args) {
+        SoakOptions opts = new SoakOptions();
+        String mix = TCFSoakTest.DEFAULT_MIX;
+        boolean local = false;
+        int i = 1;
+        try {
+            while (i < args.length && args[i].startsWith("-")) {
+                String opt = args[i++];
+                if (opt.equals("-local")) {
+                    local = true;
+                    continue;
+                }
+                if (i >= args.length) throw new IllegalArgumentException("Missing value of " + opt);
+                String val = args[i++];
+                if (opt.equals("-channels")) opts.channels = Integer.parseInt(val);
+                else if (opt.equals("-duration")) opts.duration = Long.parseLong(val);
+                else if (opt.equals("-mix")) mix = val;
+                else if (opt.equals("-report")) opts.report = val;
+                else if (opt.equals("-sim")) opts.sim = val;
+                else throw new IllegalArgumentException("Unknown option " + opt);
+            }
+            if (opts.channels <= 0) throw new IllegalArgumentException("Invalid number of channels");
+            opts.mix = TCFSoakTest.parseMix(mix);
+        }
+        catch (IllegalArgumentException x) {
+            System.err.println(x.getMessage());
+            System.exit(4);
+        }
+        if (i < args.length) {
+            opts.peer = new String[args.length - i];
+            System.arraycopy(args, i, opts.peer, 0, opts.peer.length);
+        }
+        else if (!local && opts.sim == null) {
+            System.err.println("Missing command line argument - peer identification string");
+            System.exit(4);
+        }
+        return opts;
+    }
+
     /**
      * Command line should contain peer description string, for example:
      * "ID=Test:TransportName=TCP:Host=127.0.0.1:Port=1534"
+     *
+     * With "-soak" as first argument, the program runs a soak test instead of the test suite:
+     * -soak [-channels N] [-duration SECONDS] [-mix NAME=WEIGHT,...] [-report FILE] [-local] [-sim OPTIONS] [PEER]
+     * The soak test runs a mix of tests over N channels for given time, and writes a JSON report
+     * with test and command latency percentiles, and with leak counts. Option "-local" runs the test
+     * against a TCP server in the same process, which provides local services, instead of a remote peer.
+     * Option "-sim" runs the test against a simulated agent in the same process, see SimulatedAgent for the options,
+     * for example "-sim threads=1000,latency=1".
+     * See TCFSoakTest.TEST_NAMES and TCFSoakTest.DEFAULT_MIX for test names and default test mix.
      */
     public static void main(final String[] args) {
         if (args.length < 1) {
             System.err.println("Missing command line argument - peer identification string");
             System.exit(4);
         }
+        final SoakOptions soak = args[0].equals("-soak") ? getSoakOptions(args) : null;
         Protocol.setEventQueue(new EventQueue());
         Protocol.invokeLater(new Runnable() {
             public void run() {
-                runTestSuite(getPeer(args));
+                if (soak != null) runSoakTest(soak);
+                else runTestSuite(getPeer(args));
             }
         });
         String to_env = System.getenv().get("TCF_TEST_TIMEOUT");
         if (to_env == null) to_env = "10";
-        final long to_min = Long.parseLong(to_env);
+        long to = Long.parseLong(to_env);
+        if (soak != null) to += (soak.duration + 59) / 60;
+        final long to_min = to;
         Protocol.invokeLater(to_min * 60 * 1000, new Runnable() {
             public void run() {
                 System.err.println("Error: timeout - test has not finished in " + to_min + " min");
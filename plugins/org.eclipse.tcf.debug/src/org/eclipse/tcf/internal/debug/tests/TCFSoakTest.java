@@ -0,0 +1,408 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.internal.debug.tests;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.eclipse.tcf.core.AbstractChannel;
+import org.eclipse.tcf.core.ChannelMetrics;
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IPeer;
+import org.eclipse.tcf.protocol.Protocol;
+
+/**
+ * TCFSoakTest runs a mix of TCF Test Suite tests over several channels for a given time,
+ * and collects throughput and latency statistics of the tests and of the commands they send.
+ *
+ * Each channel runs one test at a time. When a test is done, next test for the channel
+ * is selected at random, according to weights of the test mix. Tests that finish immediately,
+ * because the peer does not provide services they need, are removed from the mix.
+ * The run stops at the first error.
+ *
+ * When all tests are done, the run checks for leaks: commands that are still pending,
+ * event and channel listeners that were added by the tests and not removed,
+ * and channels that were opened during the run and stay open after it.
+ * Command statistics and pending commands are read from channel metrics, so metrics collection
+ * should be enabled, see {@link ChannelMetrics#setEnabled(boolean)}, before the test is created.
+ */
+public class TCFSoakTest extends TCFTestSuite {
+
+    /** Names of the tests that can be used in a test mix */
+    public static final String[] TEST_NAMES = {
+        "echo", "echo_fp", "echo_int", "echo_err", "path_map", "attach_terminate", "expressions",
+        "streams", "sys_monitor", "terminals", "run_control", "file_system",
+    };
+
+    /** Tests that don't need debug contexts on the target */
+    public static final String DEFAULT_MIX =
+        "echo=4,echo_fp=1,echo_int=1,echo_err=1,streams=1,sys_monitor=1,file_system=1";
+
+    /** Max time to wait for pending commands and channels at the end of the run, in milliseconds */
+    private static final long DRAIN_TIMEOUT = 5000;
+
+    private static final long STATUS_INTERVAL = 10000;
+
+    public interface DoneReport {
+        void doneReport(Map<String,Object> report);
+    }
+
+    private static class TestStats {
+        final ChannelMetrics.Histogram latency = new ChannelMetrics.Histogram();
+        long errors;
+        boolean skipped;
+    }
+
+    private static class TestRun {
+        final String name;
+        final long time = System.nanoTime();
+
+        TestRun(String name) {
+            this.name = name;
+        }
+    }
+
+    private final TestListener listener;
+    private final String peer_id;
+    private final long duration;
+    private final Map<String,Integer> mix = new LinkedHashMap<String,Integer>();
+    private final Map<String,TestStats> stats = new LinkedHashMap<String,TestStats>();
+    private final Map<ITCFTest,TestRun> runs = new HashMap<ITCFTest,TestRun>();
+    private final Map<String,ChannelMetrics.Histogram> commands = new TreeMap<String,ChannelMetrics.Histogram>();
+    private final Set<IChannel> opened_channels = new HashSet<IChannel>();
+    private final Random rnd = new Random();
+
+    private final Protocol.ChannelOpenListener open_listener = new Protocol.ChannelOpenListener() {
+        public void onChannelOpen(IChannel channel) {
+            opened_channels.add(channel);
+        }
+    };
+
+    private long start_time;
+    private long end_time;
+    private long stop_time;
+    private boolean posted;
+    private boolean finishing;
+    private ITCFTest starting;
+    private String failed_test;
+    private Throwable failure;
+
+    private int event_listeners;
+    private int channel_listeners;
+    private long leaked_commands;
+    private int leaked_event_listeners;
+    private int leaked_channel_listeners;
+    private int leaked_channels;
+
+    /**
+     * Parse a test mix.
+     * @param mix - comma separated list of test names with weights, for example "echo=4,file_system=1".
+     * @return map of test names to weights.
+     * @throws IllegalArgumentException if the mix is invalid.
+     */
+    public static Map<String,Integer> parseMix(String mix) {
+        Map<String,Integer> map = new LinkedHashMap<String,Integer>();
+        for (String s : mix.split(",")) {
+            s = s.trim();
+            if (s.length() == 0) continue;
+            int weight = 1;
+            int i = s.indexOf('=');
+            if (i > 0) {
+                weight = Integer.parseInt(s.substring(i + 1).trim());
+                s = s.substring(0, i).trim();
+            }
+            if (!Arrays.asList(TEST_NAMES).contains(s)) throw new IllegalArgumentException("Unknown test: " + s);
+            if (weight > 0) map.put(s, weight);
+        }
+        if (map.isEmpty()) throw new IllegalArgumentException("Empty test mix");
+        return map;
+    }
+
+    /**
+     * Create and start a soak test.
+     * @param peer - the peer to test.
+     * @param listener - test listener, it is notified when all channels are closed.
+     * @param num_channels - number of channels.
+     * @param duration - duration of the run in milliseconds.
+     * @param mix - test names and weights, see parseMix().
+     */
+    public TCFSoakTest(IPeer peer, TestListener listener, int num_channels, long duration, Map<String,Integer> mix) {
+        super(peer, listener, num_channels);
+        assert Protocol.isDispatchThread();
+        this.listener = listener;
+        this.peer_id = peer.getID();
+        this.duration = duration;
+        this.mix.putAll(mix);
+        for (String name : mix.keySet()) stats.put(name, new TestStats());
+        Protocol.addChannelOpenListener(open_listener);
+    }
+
+    private ITCFTest createTest(String name, IChannel channel, int channel_id) {
+        if (name.equals("echo")) return new TestEcho(this, channel);
+        if (name.equals("echo_fp")) return new TestEchoFP(this, channel);
+        if (name.equals("echo_int")) return new TestEchoINT(this, channel);
+        if (name.equals("echo_err")) return new TestEchoERR(this, channel);
+        if (name.equals("path_map")) return new TestPathMap(this, channel, null);
+        if (name.equals("attach_terminate")) return new TestAttachTerminate(this, getRunControl(channel), channel);
+        if (name.equals("expressions")) return new TestExpressions(this, getRunControl(channel), channel, null);
+        if (name.equals("streams")) return new TestStreams(this, channel);
+        if (name.equals("sys_monitor")) return new TestSysMonitor(this, channel);
+        if (name.equals("terminals")) return new TestTerminals(this, channel);
+        if (name.equals("run_control")) return new TestRCBP1(this, getRunControl(channel), channel, channel_id, null, null);
+        if (name.equals("file_system")) return new TestFileSystem(this, channel, channel_id);
+        throw new IllegalArgumentException("Unknown test: " + name);
+    }
+
+    private String selectTest() {
+        int total = 0;
+        for (int w : mix.values()) total += w;
+        int n = rnd.nextInt(total);
+        for (Map.Entry<String,Integer> e : mix.entrySet()) {
+            n -= e.getValue();
+            if (n < 0) return e.getKey();
+        }
+        throw new IllegalStateException();
+    }
+
+    private void post() {
+        if (posted) return;
+        posted = true;
+        Protocol.invokeLater(new Runnable() {
+            public void run() {
+                posted = false;
+                runNextTest();
+            }
+        });
+    }
+
+    private void reportStatus() {
+        if (finishing) return;
+        long cnt = 0;
+        for (TestStats s : stats.values()) cnt += s.latency.getCount();
+        listener.progress("Soak test: " + (System.currentTimeMillis() - start_time) / 1000 +
+                " s, " + cnt + " tests done", 0, 0);
+        Protocol.invokeLater(STATUS_INTERVAL, new Runnable() {
+            public void run() {
+                reportStatus();
+            }
+        });
+    }
+
+    @Override
+    void runNextTest() {
+        if (finishing) return;
+        if (starting != null) {
+            /* A test finished while being started */
+            post();
+            return;
+        }
+        if (start_time == 0) {
+            start_time = System.currentTimeMillis();
+            end_time = start_time + duration;
+            for (IChannel channel : getChannels()) {
+                ChannelMetrics m = getMetrics(channel);
+                if (m == null) continue;
+                event_listeners += m.getEventListenerCount();
+                channel_listeners += m.getChannelListenerCount();
+            }
+            Protocol.invokeLater(STATUS_INTERVAL, new Runnable() {
+                public void run() {
+                    reportStatus();
+                }
+            });
+        }
+        if (cancel || hasErrors() || mix.isEmpty() || System.currentTimeMillis() >= end_time) {
+            if (getActiveTests().isEmpty()) finish();
+            return;
+        }
+        IChannel[] channels = getChannels();
+        for (int i = 0; i < channels.length; i++) {
+            IChannel channel = channels[i];
+            if (channel == null || channel.getState() != IChannel.STATE_OPEN) continue;
+            if (getActiveTest(channel) != null) continue;
+            if (mix.isEmpty()) break;
+            String name = selectTest();
+            ITCFTest test = createTest(name, channel, i);
+            runs.put(test, new TestRun(name));
+            starting = test;
+            startTest(test, channel);
+            starting = null;
+        }
+    }
+
+    @Override
+    void done(ITCFTest test, Throwable error) {
+        TestRun run = runs.remove(test);
+        if (run != null) {
+            TestStats s = stats.get(run.name);
+            if (test == starting && error == null) {
+                /* The test did not run, the peer does not support it */
+                s.skipped = true;
+                mix.remove(run.name);
+                if (mix.isEmpty() && failure == null) failure = new Exception("The peer does not support any test of the mix");
+            }
+            else {
+                s.latency.record((System.nanoTime() - run.time) / 1000);
+                if (error != null) {
+                    s.errors++;
+                    if (failure == null) {
+                        failed_test = run.name;
+                        failure = error;
+                    }
+                }
+            }
+        }
+        super.done(test, error);
+        post();
+    }
+
+    private static ChannelMetrics getMetrics(IChannel channel) {
+        if (!(channel instanceof AbstractChannel)) return null;
+        if (channel.getState() != IChannel.STATE_OPEN) return null;
+        return ((AbstractChannel)channel).getMetrics();
+    }
+
+    private void finish() {
+        finishing = true;
+        stop_time = System.currentTimeMillis();
+        drain(stop_time + DRAIN_TIMEOUT);
+    }
+
+    /**
+     * Wait until commands sent by the tests are done, then collect channel metrics and close the channels.
+     */
+    private void drain(final long timeout) {
+        long pending = 0;
+        for (IChannel channel : getChannels()) {
+            ChannelMetrics m = getMetrics(channel);
+            if (m != null) pending += m.getPendingCommands();
+        }
+        if (pending > 0 && System.currentTimeMillis() < timeout) {
+            Protocol.invokeLater(100, new Runnable() {
+                public void run() {
+                    drain(timeout);
+                }
+            });
+            return;
+        }
+        leaked_commands = pending;
+        int event_cnt = 0;
+        int channel_cnt = 0;
+        for (IChannel channel : getChannels()) {
+            ChannelMetrics m = getMetrics(channel);
+            if (m == null) continue;
+            event_cnt += m.getEventListenerCount();
+            channel_cnt += m.getChannelListenerCount();
+            for (ChannelMetrics.CommandMetrics c : m.getCommandMetrics()) {
+                String name = c.getService() + "." + c.getName();
+                ChannelMetrics.Histogram h = commands.get(name);
+                if (h == null) commands.put(name, h = new ChannelMetrics.Histogram());
+                h.add(c.getLatency());
+            }
+        }
+        leaked_event_listeners = Math.max(0, event_cnt - event_listeners);
+        leaked_channel_listeners = Math.max(0, channel_cnt - channel_listeners);
+        closeChannels();
+    }
+
+    /**
+     * @return true if the run has found leaks, valid after getReport() is done.
+     */
+    public boolean hasLeaks() {
+        return leaked_commands > 0 || leaked_event_listeners > 0 ||
+                leaked_channel_listeners > 0 || leaked_channels > 0;
+    }
+
+    /**
+     * Wait until channels that were opened during the run are closed, and create a report of the run.
+     * The report is a map that can be converted to JSON.
+     * Should be called after the test listener is notified that the run is done.
+     * @param done - call back interface.
+     */
+    public void getReport(final DoneReport done) {
+        getReport(System.currentTimeMillis() + DRAIN_TIMEOUT, done);
+    }
+
+    private void getReport(final long timeout, final DoneReport done) {
+        assert Protocol.isDispatchThread();
+        int open_cnt = 0;
+        for (IChannel channel : opened_channels) {
+            if (channel.getState() != IChannel.STATE_CLOSED) open_cnt++;
+        }
+        if (open_cnt > 0 && System.currentTimeMillis() < timeout) {
+            Protocol.invokeLater(100, new Runnable() {
+                public void run() {
+                    getReport(timeout, done);
+                }
+            });
+            return;
+        }
+        Protocol.removeChannelOpenListener(open_listener);
+        leaked_channels = open_cnt;
+        if (stop_time == 0) stop_time = System.currentTimeMillis();
+        long time = start_time == 0 ? 0 : stop_time - start_time;
+
+        Map<String,Object> report = new LinkedHashMap<String,Object>();
+        report.put("Peer", peer_id);
+        report.put("Channels", getChannels().length);
+        report.put("Duration", time);
+        Map<String,Object> tests = new LinkedHashMap<String,Object>();
+        for (Map.Entry<String,TestStats> e : stats.entrySet()) {
+            TestStats s = e.getValue();
+            Map<String,Object> m = new LinkedHashMap<String,Object>();
+            m.put("Count", s.latency.getCount());
+            m.put("Errors", s.errors);
+            m.put("Skipped", s.skipped);
+            m.put("PerSecond", time == 0 ? 0.0 : s.latency.getCount() * 1000.0 / time);
+            m.put("LatencyUs", toMap(s.latency));
+            tests.put(e.getKey(), m);
+        }
+        report.put("Tests", tests);
+        Map<String,Object> cmds = new LinkedHashMap<String,Object>();
+        for (Map.Entry<String,ChannelMetrics.Histogram> e : commands.entrySet()) {
+            Map<String,Object> m = new LinkedHashMap<String,Object>();
+            m.put("Count", e.getValue().getCount());
+            m.put("PerSecond", time == 0 ? 0.0 : e.getValue().getCount() * 1000.0 / time);
+            m.put("LatencyUs", toMap(e.getValue()));
+            cmds.put(e.getKey(), m);
+        }
+        report.put("Commands", cmds);
+        Map<String,Object> leaks = new LinkedHashMap<String,Object>();
+        leaks.put("PendingCommands", leaked_commands);
+        leaks.put("EventListeners", leaked_event_listeners);
+        leaks.put("ChannelListeners", leaked_channel_listeners);
+        leaks.put("Channels", leaked_channels);
+        report.put("Leaks", leaks);
+        if (failure != null) {
+            Map<String,Object> m = new LinkedHashMap<String,Object>();
+            m.put("Test", failed_test);
+            m.put("Message", failure.toString());
+            report.put("Error", m);
+        }
+        done.doneReport(report);
+    }
+
+    private static Map<String,Object> toMap(ChannelMetrics.Histogram h) {
+        Map<String,Object> m = new LinkedHashMap<String,Object>();
+        m.put("Mean", (long)h.getMean());
+        m.put("P50", h.getValueAtPercentile(50));
+        m.put("P90", h.getValueAtPercentile(90));
+        m.put("P99", h.getValueAtPercentile(99));
+        m.put("Max", h.getMax());
+        return m;
+    }
+}
@@ -183,6 +183,20 @@ public class TCFTestSuite {
         });
         count_total = pending_tests.size() * (NUM_CHANNELS + 1);
         channels = new IChannel[NUM_CHANNELS];
+        start(peer);
+    }
+
+    /**
+     * Create a test suite that opens 'num_channels' channels and does not run any tests.
+     * Sub-classes start tests by overriding runNextTest().
+     */
+    TCFTestSuite(IPeer peer, TestListener listener, int num_channels) {
+        this.listener = listener;
+        channels = new IChannel[num_channels];
+        start(peer);
+    }
+
+    private void start(final IPeer peer) {
         Protocol.invokeLater(new Runnable() {
             public void run() {
                 try {
@@ -279,6 +293,23 @@ public class TCFTestSuite {
         return active_tests.keySet();
     }
 
+    IChannel[] getChannels() {
+        return channels;
+    }
+
+    RunControl getRunControl(IChannel channel) {
+        return run_controls.get(channel);
+    }
+
+    boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+
+    void startTest(ITCFTest test, IChannel channel) {
+        active_tests.put(test, channel);
+        test.start();
+    }
+
     ITCFTest getActiveTest(IChannel channel) {
         for (Map.Entry<ITCFTest,IChannel> e : active_tests.entrySet()) {
             if (e.getValue() == channel) return e.getKey();
@@ -308,15 +339,10 @@ public class TCFTestSuite {
         if (active_tests.isEmpty()) runNextTest();
     }
 
-    private void runNextTest() {
+    void runNextTest() {
         while (active_tests.isEmpty()) {
             if (cancel || errors.size() > 0 || pending_tests.size() == 0) {
-                for (IChannel channel : channels) {
-                    if (channel != null && channel.getState() != IChannel.STATE_CLOSED) {
-                        if (errors.size() > 0) channel.terminate(new Exception("Test failed"));
-                        else channel.close();
-                    }
-                }
+                closeChannels();
                 return;
             }
             pending_tests.removeFirst().run();
@@ -324,4 +350,13 @@ public class TCFTestSuite {
             for (ITCFTest test : lst) test.start();
         }
     }
+
+    void closeChannels() {
+        for (IChannel channel : channels) {
+            if (channel != null && channel.getState() != IChannel.STATE_CLOSED) {
+                if (errors.size() > 0) channel.terminate(new Exception("Test failed"));
+                else channel.close();
+            }
+        }
+    }
 }
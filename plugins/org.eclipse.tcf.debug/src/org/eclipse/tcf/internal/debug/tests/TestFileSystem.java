@@ -10,7 +10,6 @@
  *******************************************************************************/
 package org.eclipse.tcf.internal.debug.tests;
 
-import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -318,7 +317,7 @@ class TestFileSystem implements ITCFTest, IFileSystem.DoneStat,
                             int mark_pos = rnd.nextInt(len - 1);
                             int reset_pos = mark_pos + rnd.nextInt(len - mark_pos);
                             assert reset_pos >= mark_pos;
-                            InputStream inp = new TCFFileInputStream(handle, 133);
+                            TCFFileInputStream inp = new TCFFileInputStream(handle, 133);
                             for (;;) {
                                 if (mark && pos == mark_pos) {
                                     inp.mark(len);
@@ -353,6 +352,7 @@ class TestFileSystem implements ITCFTest, IFileSystem.DoneStat,
                                 error(new Exception("Invalid TCFFileInputStream.read responce: wrong file length: " +
                                         "expected " + data.length + ", actual " + pos));
                             }
+                            testResetAfterEOF(inp, len);
                             inp.close();
                             Protocol.invokeLater(new Runnable() {
                                 public void run() {
@@ -365,6 +365,34 @@ class TestFileSystem implements ITCFTest, IFileSystem.DoneStat,
                             error(x);
                         }
                     }
+                    /* Read to end of file by a large read, then reset back and read the same range again */
+                    private void testResetAfterEOF(TCFFileInputStream inp, int len) throws Exception {
+                        int pos = rnd.nextInt(len);
+                        byte[] buf = new byte[len];
+                        inp.position(pos);
+                        inp.mark(len);
+                        while (inp.read(buf, 0, buf.length) >= 0) {}
+                        inp.reset();
+                        int ch = inp.read();
+                        if (ch != (data[pos % data.length] & 0xff)) {
+                            throw new Exception("Invalid TCFFileInputStream.read responce after reset: wrong data at offset " + pos);
+                        }
+                        int cnt = 0;
+                        for (;;) {
+                            int n = inp.read(buf, cnt, buf.length - cnt);
+                            if (n < 0) break;
+                            cnt += n;
+                        }
+                        if (cnt != len - pos - 1) {
+                            throw new Exception("Invalid TCFFileInputStream.read responce after reset: wrong file length: " +
+                                    "expected " + (len - pos - 1) + ", actual " + cnt);
+                        }
+                        for (int i = 0; i < cnt; i++) {
+                            if (buf[i] != data[(pos + 1 + i) % data.length]) {
+                                throw new Exception("Invalid TCFFileInputStream.read responce after reset: wrong data at offset " + (pos + 1 + i));
+                            }
+                        }
+                    }
                     private void error(final Throwable x) {
                         Protocol.invokeLater(new Runnable() {
                             public void run() {
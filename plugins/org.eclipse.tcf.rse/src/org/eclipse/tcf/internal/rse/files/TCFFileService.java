@@ -31,6 +31,10 @@ import java.io.Reader;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
@@ -59,6 +63,7 @@ import org.eclipse.tcf.services.IFileSystem.FileSystemException;
 import org.eclipse.tcf.services.IFileSystem.IFileHandle;
 import org.eclipse.tcf.util.TCFFileInputStream;
 import org.eclipse.tcf.util.TCFFileOutputStream;
+import org.eclipse.tcf.util.TCFFileTransfer;
 
 
 public class TCFFileService extends AbstractFileService {
@@ -422,6 +427,24 @@ public class TCFFileService extends AbstractFileService {
         }
     }
 
+    @Override
+    public void downloadMultiple(String[] remoteParents, String[] remoteFiles,
+            File[] localFiles, boolean[] isBinaries, String[] hostEncodings,
+            IProgressMonitor monitor) throws SystemMessageException {
+        List<File> local = new ArrayList<File>();
+        List<String> remote = new ArrayList<String>();
+        for (int i = 0; i < remoteFiles.length; i++) {
+            if (!isRawCopy(isBinaries[i], "UTF8", hostEncodings[i])) { //$NON-NLS-1$
+                download(remoteParents[i], remoteFiles[i], localFiles[i], isBinaries[i], hostEncodings[i], monitor);
+                continue;
+            }
+            localFiles[i].getParentFile().mkdirs();
+            local.add(localFiles[i]);
+            remote.add(toRemotePath(remoteParents[i], remoteFiles[i]));
+        }
+        transfer(local, remote, false, monitor);
+    }
+
     @Override
     public String getEncoding(IProgressMonitor monitor) throws SystemMessageException {
         return "UTF8"; //$NON-NLS-1$
@@ -721,6 +744,98 @@ public class TCFFileService extends AbstractFileService {
         }
     }
 
+    @Override
+    public void uploadMultiple(File[] localFiles, String[] remoteParents,
+            String[] names, boolean[] isBinaries, String[] srcEncodings,
+            String[] hostEncodings, IProgressMonitor monitor) throws SystemMessageException {
+        List<File> local = new ArrayList<File>();
+        List<String> remote = new ArrayList<String>();
+        for (int i = 0; i < localFiles.length; i++) {
+            if (!isRawCopy(isBinaries[i], hostEncodings[i], "UTF8")) { //$NON-NLS-1$
+                upload(localFiles[i], remoteParents[i], names[i], isBinaries[i], srcEncodings[i], hostEncodings[i], monitor);
+                continue;
+            }
+            local.add(localFiles[i]);
+            remote.add(toRemotePath(remoteParents[i], names[i]));
+        }
+        transfer(local, remote, true, monitor);
+    }
+
+    /**
+     * Copy files that don't need encoding conversion, concurrently, using TCFFileTransfer.
+     * The progress monitor is updated, and checked for cancellation, by the calling thread.
+     */
+    private void transfer(final List<File> local, final List<String> remote,
+            final boolean upload, IProgressMonitor monitor) throws SystemMessageException {
+        if (local.isEmpty()) return;
+        final AtomicLong bytes_done = new AtomicLong();
+        final TCFFileTransfer[] transfer = new TCFFileTransfer[1];
+        TCFRSETask<Object> task = new TCFRSETask<Object>() {
+            public void run() {
+                IFileSystem fs = connector.getFileSystemService();
+                transfer[0] = new TCFFileTransfer(fs);
+                for (int i = 0; i < local.size(); i++) {
+                    if (upload) transfer[0].addUpload(local.get(i), remote.get(i));
+                    else transfer[0].addDownload(remote.get(i), local.get(i));
+                }
+                transfer[0].setProgressListener(new TCFFileTransfer.ProgressListener() {
+                    public void progress(TCFFileTransfer transfer) {
+                        bytes_done.set(transfer.getBytesDone());
+                    }
+                });
+                transfer[0].start(new TCFFileTransfer.DoneTransfer() {
+                    public void doneTransfer(TCFFileTransfer transfer, Exception error) {
+                        if (error != null) error(error);
+                        else done(transfer);
+                    }
+                });
+            }
+        };
+        long total = 0;
+        if (upload) {
+            for (File f : local) total += f.length();
+        }
+        String task_name = (upload ? "Uploading " : "Downloading ") + local.size() + " files ..."; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        monitor.beginTask(task_name, total > 0 ? (int)(total / 1024) : IProgressMonitor.UNKNOWN);
+        try {
+            int worked = 0;
+            for (;;) {
+                try {
+                    task.get(100, TimeUnit.MILLISECONDS);
+                    break;
+                }
+                catch (TimeoutException x) {
+                    int kb = (int)(bytes_done.get() / 1024);
+                    if (kb > worked) {
+                        monitor.worked(kb - worked);
+                        worked = kb;
+                    }
+                    if (monitor.isCanceled()) {
+                        Protocol.invokeLater(new Runnable() {
+                            public void run() {
+                                if (transfer[0] != null) transfer[0].cancel();
+                            }
+                        });
+                    }
+                }
+            }
+        }
+        catch (Throwable x) {
+            if (x instanceof ExecutionException && x.getCause() != null) x = x.getCause();
+            throw new SystemMessageException(getMessage(x));
+        }
+        finally {
+            monitor.done();
+        }
+    }
+
+    private static boolean isRawCopy(boolean is_binary, String inp_encoding, String out_encoding) {
+        if (is_binary) return true;
+        if (inp_encoding == null || inp_encoding.equals("UTF-8")) inp_encoding = "UTF8"; //$NON-NLS-1$ //$NON-NLS-2$
+        if (out_encoding == null || out_encoding.equals("UTF-8")) out_encoding = "UTF8"; //$NON-NLS-1$ //$NON-NLS-2$
+        return inp_encoding.equals(out_encoding);
+    }
+
     private void copyStream(InputStream inp, OutputStream out,
             boolean is_binary, String inp_encoding, String out_encoding, IProgressMonitor monitor) throws IOException {
         try {
@@ -91,6 +91,10 @@ public class Activator extends Plugin {
         if (TRACE && "true".equals(Platform.getDebugOption("org.eclipse.tcf/debug/channel"))) {
             System.setProperty("org.eclipse.tcf.core.tracing.channel", "true");
         }
+        if ("true".equals(System.getProperty("org.eclipse.tcf.core.symbols_cache"))) {
+            // The line number cache is enabled, keep its files in the plug-in state area between sessions
+            System.setProperty("org.eclipse.tcf.core.symbols_cache", getStateLocation().append("symbols").toOSString());
+        }
 
         ChannelTCP.setSSLContext(TCFSecurityManager.createSSLContext());
         Protocol.setLogger(new ILogger() {
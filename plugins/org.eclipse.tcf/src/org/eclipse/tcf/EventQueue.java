@@ -10,31 +10,25 @@
  *******************************************************************************/
 package org.eclipse.tcf;
 
-import java.util.LinkedList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.runtime.jobs.IJobChangeEvent;
 import org.eclipse.core.runtime.jobs.IJobChangeListener;
 import org.eclipse.core.runtime.jobs.Job;
-import org.eclipse.tcf.protocol.IEventQueue;
-import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.util.TCFEventQueue;
 
 
 /**
  * Implementation of Target Communication Framework event queue.
  * This implementation is intended for Eclipse environment.
+ * Event dispatching is done by lock-free {@link TCFEventQueue},
+ * and congestion level also takes into account the number of scheduled Eclipse jobs.
  */
-class EventQueue implements IEventQueue, Runnable {
+class EventQueue extends TCFEventQueue {
 
-    private final LinkedList<Runnable> queue = new LinkedList<Runnable>();
-    private final Thread thread;
-    private boolean waiting;
-    private boolean shutdown;
-    private int job_cnt;
+    private final AtomicInteger job_cnt = new AtomicInteger();
 
     EventQueue() {
-        thread = new Thread(this);
-        thread.setDaemon(true);
-        thread.setName("TCF Event Dispatcher"); //$NON-NLS-1$
         // Need to monitor jobs to detect congestion
         Job.getJobManager().addJobChangeListener(new IJobChangeListener() {
 
@@ -45,14 +39,14 @@ class EventQueue implements IEventQueue, Runnable {
             }
 
             public void done(IJobChangeEvent event) {
-                job_cnt--;
+                job_cnt.decrementAndGet();
             }
 
             public void running(IJobChangeEvent event) {
             }
 
             public void scheduled(IJobChangeEvent event) {
-                job_cnt++;
+                job_cnt.incrementAndGet();
             }
 
             public void sleeping(IJobChangeEvent event) {
@@ -60,66 +54,11 @@ class EventQueue implements IEventQueue, Runnable {
         });
     }
 
-    void start() {
-        thread.start();
-    }
-
-    void shutdown() {
-        try {
-            synchronized (this) {
-                shutdown = true;
-                if (waiting) {
-                    waiting = false;
-                    notifyAll();
-                }
-            }
-            thread.join();
-        }
-        catch (InterruptedException e) {
-        }
-        catch (Throwable e) {
-            Protocol.log("Failed to shutdown TCF event dispatch thread", e); //$NON-NLS-1$
-        }
-    }
-
-    public void run() {
-        for (;;) {
-            try {
-                Runnable r = null;
-                synchronized (this) {
-                    while (queue.size() == 0) {
-                        if (shutdown) return;
-                        waiting = true;
-                        wait();
-                    }
-                    r = queue.removeFirst();
-                }
-                r.run();
-            }
-            catch (Throwable x) {
-                Protocol.log("Unhandled exception in TCF event dispatch", x); //$NON-NLS-1$
-            }
-        }
-    }
-
-    public synchronized void invokeLater(final Runnable r) {
-        assert r != null;
-        if (shutdown) throw new IllegalStateException("TCF event dispatcher has shut down"); //$NON-NLS-1$
-        queue.add(r);
-        if (waiting) {
-            waiting = false;
-            notifyAll();
-        }
-    }
-
-    public boolean isDispatchThread() {
-        return Thread.currentThread() == thread;
-    }
-
-    public synchronized int getCongestion() {
-        if (Job.getJobManager().isIdle()) job_cnt = 0;
-        int l0 = job_cnt / 10 - 100;
-        int l1 = queue.size() / 10 - 100;
+    @Override
+    public int getCongestion() {
+        if (Job.getJobManager().isIdle()) job_cnt.set(0);
+        int l0 = job_cnt.get() / 10 - 100;
+        int l1 = getQueueSize() / 10 - 100;
         if (l1 > l0) l0 = l1;
         if (l0 > 100) l0 = 100;
         return l0;
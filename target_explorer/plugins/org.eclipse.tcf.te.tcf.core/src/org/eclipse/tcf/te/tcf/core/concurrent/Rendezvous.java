@@ -9,7 +9,10 @@
  *******************************************************************************/
 package org.eclipse.tcf.te.tcf.core.concurrent;
 
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * A helper class used to synchronize producer and consumer threads. It is used
@@ -60,15 +63,24 @@ import java.util.concurrent.TimeoutException;
  *
  */
 public class Rendezvous {
+	// Lock and condition instead of the object monitor, so that
+	// a waiting virtual thread does not pin its carrier thread.
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition arrival = lock.newCondition();
 	// Flag indicating if the other thread has arrived.
 	private boolean arrived;
 
 	/**
 	 * Called to unblock the thread that is waiting on this rendezvous.
 	 */
-	public synchronized void arrive() {
-		arrived = true;
-		notifyAll();
+	public void arrive() {
+		lock.lock();
+		try {
+			arrived = true;
+			arrival.signalAll();
+		} finally {
+			lock.unlock();
+		}
 	}
 
 	/**
@@ -78,30 +90,46 @@ public class Rendezvous {
 	 * @param timeout The timeout time.
 	 * @throws TimeoutException The waiting has timed out.
 	 */
-	public synchronized void waiting(long timeout) throws TimeoutException {
-		long now = System.currentTimeMillis();
-		while (!arrived && (timeout <= 0 || System.currentTimeMillis() - now < timeout)) {
-			try {
-				wait(timeout);
-			} catch (InterruptedException e) {
+	public void waiting(long timeout) throws TimeoutException {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+		lock.lock();
+		try {
+			while (!arrived) {
+				try {
+					if (timeout <= 0) {
+						arrival.await();
+					} else {
+						long nanos = deadline - System.nanoTime();
+						if (nanos <= 0) break;
+						arrival.awaitNanos(nanos);
+					}
+				} catch (InterruptedException e) {
+				}
 			}
+			if (!arrived)
+				throw new TimeoutException();
+		} finally {
+			lock.unlock();
 		}
-		if (!arrived)
-			throw new TimeoutException();
 	}
 
 	/**
 	 * Called to block the current thread until it is woken up by another
 	 * thread.
 	 */
-	public synchronized void waiting() throws TimeoutException {
+	public void waiting() throws TimeoutException {
 		waiting(0);
 	}
 
 	/**
 	 * Reset the rendezvous so that it is reusable.
 	 */
-	public synchronized void reset() {
-		arrived = false;
+	public void reset() {
+		lock.lock();
+		try {
+			arrived = false;
+		} finally {
+			lock.unlock();
+		}
 	}
 }
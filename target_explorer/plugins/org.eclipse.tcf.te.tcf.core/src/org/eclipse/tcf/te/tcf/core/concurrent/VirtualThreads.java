@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others. All rights reserved.
+ * This program and the accompanying materials are made available under the terms
+ * of the Eclipse Public License 2.0 which accompanies this distribution, and is
+ * available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ * Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.te.tcf.core.concurrent;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates threads for long running blocking work, like reading remote process streams.
+ * <p>
+ * If the JDK supports virtual threads, the threads are virtual threads, which allows a
+ * session to keep hundreds of streams open without a platform thread for each of them.
+ * Otherwise, the threads are platform threads. The virtual thread API is accessed by
+ * reflection, as the bundle is compiled for older Java versions.
+ * <p>
+ * Virtual threads can be disabled by setting the system property
+ * <code>org.eclipse.tcf.te.tcf.core.virtualThreads</code> to <code>false</code>.
+ */
+public final class VirtualThreads {
+	// The virtual thread factory, or null if virtual threads are not supported
+	private static final ThreadFactory factory = createFactory();
+
+	private VirtualThreads() {
+	}
+
+	private static ThreadFactory createFactory() {
+		if (!Boolean.parseBoolean(System.getProperty("org.eclipse.tcf.te.tcf.core.virtualThreads", "true"))) return null; //$NON-NLS-1$ //$NON-NLS-2$
+		try {
+			// Thread.ofVirtual().factory()
+			Method ofVirtual = Thread.class.getMethod("ofVirtual"); //$NON-NLS-1$
+			Object builder = ofVirtual.invoke(null);
+			Method method = Class.forName("java.lang.Thread$Builder").getMethod("factory"); //$NON-NLS-1$ //$NON-NLS-2$
+			return (ThreadFactory)method.invoke(builder);
+		} catch (Throwable e) {
+			// Not supported by the JDK, or a preview feature not enabled
+			return null;
+		}
+	}
+
+	/**
+	 * Returns if the created threads are virtual threads.
+	 *
+	 * @return <code>True</code> if virtual threads are supported, <code>false</code> otherwise.
+	 */
+	public static boolean isSupported() {
+		return factory != null;
+	}
+
+	/**
+	 * Creates a new, not yet started thread.
+	 *
+	 * @param runnable The runnable to execute. Must not be <code>null</code>.
+	 * @param name The thread name. Must not be <code>null</code>.
+	 *
+	 * @return The virtual thread if supported, a platform thread otherwise.
+	 */
+	public static Thread newThread(Runnable runnable, String name) {
+		if (factory == null) return new Thread(runnable, name);
+		Thread thread = factory.newThread(runnable);
+		thread.setName(name);
+		return thread;
+	}
+}
@@ -22,6 +22,7 @@ import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.LinkedList;
+import java.util.concurrent.CancellationException;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -44,6 +45,7 @@ import org.eclipse.tcf.te.tcf.filesystem.core.internal.utils.PersistenceManager;
 import org.eclipse.tcf.te.tcf.filesystem.core.internal.utils.StatusHelper;
 import org.eclipse.tcf.te.tcf.filesystem.core.nls.Messages;
 import org.eclipse.tcf.util.TCFFileOutputStream;
+import org.eclipse.tcf.util.TCFFileTransfer;
 
 /**
  * Upload multiple files from local system to a remote system.
@@ -120,6 +122,8 @@ public class OpUpload extends AbstractOperation {
 					if (!status.isOK())
 						return status;
 					existing = destination.findChild(name);
+					// The folder is new, there is nothing to confirm, copy its contents at once.
+					return uploadTree(source, existing, monitor);
 				}
 
 				for (File child : source.listFiles()) {
@@ -181,6 +185,65 @@ public class OpUpload extends AbstractOperation {
 		return updateNode(path, name, destination, existing, monitor);
 	}
 
+	private IStatus uploadTree(final File source, final FSTreeNode folder, final IProgressMonitor monitor) {
+		final File[] children = source.listFiles();
+		if (children == null) {
+			return StatusHelper.createStatus(format(Messages.OpUpload_error_upload, source), null);
+		}
+		final TCFOperationMonitor<?> result = new TCFOperationMonitor<Object>();
+		monitor.subTask(NLS.bind(Messages.OpUpload_UploadSingleFile, source));
+		Protocol.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				IFileSystem fs = folder.getRuntimeModel().getFileSystem();
+				if (fs == null) {
+					result.setCancelled();
+				} else if (!result.checkCancelled()) {
+					TCFFileTransfer transfer = new TCFFileTransfer(fs);
+					for (File child : children) {
+						transfer.addUpload(child, getPath(folder, child.getName()));
+					}
+					transfer.setProgressListener(new TCFFileTransfer.ProgressListener() {
+						// The current percentage of transferred bytes.
+						int percentDone = 0;
+
+						@Override
+						public void progress(TCFFileTransfer transfer) {
+							if (result.checkCancelled()) {
+								transfer.cancel();
+								return;
+							}
+							long total = transfer.getBytesTotal();
+							long done = transfer.getBytesDone();
+							int percent = total > 0 ? (int) (done * 100 / total) : 0;
+							if (percent != percentDone) { // Update the progress.
+								monitor.worked(percent - percentDone);
+								percentDone = percent;
+								monitor.subTask(NLS.bind(Messages.OpUpload_UploadingProgress, new Object[]{source.getName(), formatSize(done), formatSize(total)}));
+							}
+						}
+					});
+					transfer.start(new TCFFileTransfer.DoneTransfer() {
+						@Override
+						public void doneTransfer(TCFFileTransfer transfer, Exception error) {
+							if (error instanceof CancellationException) {
+								result.setCancelled();
+							} else if (error != null) {
+								result.setError(format(Messages.OpUpload_error_upload, source), error);
+							} else {
+								result.setDone(null);
+							}
+						}
+					});
+				}
+			}
+		});
+		IStatus status = result.waitDone(monitor);
+		if (!status.isOK())
+			return status;
+		return folder.operationRefresh(false).run(new SubProgressMonitor(monitor, 0));
+	}
+
 	private IStatus updateNode(final String path, final String name,
 			final FSTreeNode destination, final FSTreeNode existing, IProgressMonitor monitor) {
 		final TCFOperationMonitor<?> r2 = new TCFOperationMonitor<Object>();
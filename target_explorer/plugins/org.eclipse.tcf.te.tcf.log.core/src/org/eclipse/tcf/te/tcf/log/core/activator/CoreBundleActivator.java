@@ -10,8 +10,10 @@
 package org.eclipse.tcf.te.tcf.log.core.activator;
 
 import org.eclipse.core.runtime.Plugin;
+import org.eclipse.tcf.core.ChannelMetrics;
 import org.eclipse.tcf.te.runtime.preferences.ScopedEclipsePreferences;
 import org.eclipse.tcf.te.runtime.tracing.TraceHandler;
+import org.eclipse.tcf.te.tcf.log.core.interfaces.IPreferenceKeys;
 import org.eclipse.tcf.te.tcf.log.core.manager.LogManager;
 import org.osgi.framework.BundleContext;
 
@@ -74,6 +76,10 @@ public class CoreBundleActivator extends Plugin {
 	public void start(BundleContext context) throws Exception {
 		super.start(context);
 		plugin = this;
+		// Channel metrics are collected only if requested by the user
+		if (getScopedPreferences().getBoolean(IPreferenceKeys.PREF_SHOW_METRICS)) {
+			ChannelMetrics.setEnabled(true);
+		}
 	}
 
 	/* (non-Javadoc)
@@ -45,6 +45,13 @@ public interface IPreferenceKeys {
 	 */
 	public final String PREF_SHOW_FRAMEWORK_EVENTS = PREFIX + "show.frameworkEvents"; //$NON-NLS-1$
 
+	/**
+	 * If set to <code>true</code>, channel metrics (command counts and latencies)
+	 * are collected, and logged when the channel is closed. Applies to channels
+	 * opened after the preference is set.
+	 */
+	public final String PREF_SHOW_METRICS = PREFIX + "show.metrics"; //$NON-NLS-1$
+
 	/**
 	 * The maximum number of bytes the log files are allowed to grow to, in bytes.
 	 * Defaults to 5MB.
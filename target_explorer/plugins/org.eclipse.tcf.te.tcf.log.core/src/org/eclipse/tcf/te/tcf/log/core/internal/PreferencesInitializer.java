@@ -45,6 +45,8 @@ public class PreferencesInitializer extends AbstractPreferenceInitializer {
 			prefs.putDefaultBoolean(IPreferenceKeys.PREF_SHOW_HEARTBEATS, false);
 			// Framework events: default off
 			prefs.putDefaultBoolean(IPreferenceKeys.PREF_SHOW_FRAMEWORK_EVENTS, false);
+			// Channel metrics: default off
+			prefs.putDefaultBoolean(IPreferenceKeys.PREF_SHOW_METRICS, false);
 			// Maximum log file size in bytes: default 5M
 			prefs.putDefaultString(IPreferenceKeys.PREF_MAX_FILE_SIZE, "5M"); //$NON-NLS-1$
 			// Maximum number of log files in cycle: default 5
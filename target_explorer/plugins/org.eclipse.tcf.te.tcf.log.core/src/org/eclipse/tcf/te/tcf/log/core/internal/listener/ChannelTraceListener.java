@@ -17,7 +17,9 @@ import java.util.Date;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.osgi.util.NLS;
+import org.eclipse.tcf.core.AbstractChannel;
 import org.eclipse.tcf.core.AbstractChannel.TraceListener;
+import org.eclipse.tcf.core.ChannelMetrics;
 import org.eclipse.tcf.protocol.IChannel;
 import org.eclipse.tcf.protocol.IPeer;
 import org.eclipse.tcf.protocol.Protocol;
@@ -95,6 +97,13 @@ public final class ChannelTraceListener implements TraceListener {
 		// Determine the date and time of the message before spawning to the log thread.
 		final String date = DATE_FORMAT.format(new Date(System.currentTimeMillis()));
 
+		// The channel metrics can be accessed only in the TCF event dispatch thread
+		ChannelMetrics metrics = null;
+		if (channel instanceof AbstractChannel && CoreBundleActivator.getScopedPreferences().getBoolean(IPreferenceKeys.PREF_SHOW_METRICS)) {
+			metrics = ((AbstractChannel)channel).getMetrics();
+		}
+		final String report = metrics != null ? metrics.getReport().trim() : null;
+
 		// This method is called in the TCF event dispatch thread. There
 		// is no need that the logging itself keeps the TCF event dispatch
 		// thread busy. Execute the logging itself in a separate thread but
@@ -109,10 +118,21 @@ public final class ChannelTraceListener implements TraceListener {
 													error
 												});
 
+				final String metricsMessage = report != null ? NLS.bind(Messages.ChannelTraceListener_channelMetrics_message,
+												new Object[] {
+													date,
+													Integer.toHexString(channel.hashCode()),
+													report
+												}) : null;
+
 				// Get the file writer
 				FileWriter writer = LogManager.getInstance().getWriter(logname, peer);
 				if (writer != null) {
 					try {
+						if (metricsMessage != null) {
+							writer.write(metricsMessage);
+							writer.write("\n"); //$NON-NLS-1$
+						}
 						writer.write(message);
 						writer.write("\n"); //$NON-NLS-1$
 						writer.flush();
@@ -121,6 +141,9 @@ public final class ChannelTraceListener implements TraceListener {
 					}
 				}
 
+				if (metricsMessage != null) {
+					LogManager.getInstance().monitor(peer, MonitorEvent.Type.ACTIVITY, new MonitorEvent.Message('F', metricsMessage));
+				}
 				LogManager.getInstance().monitor(peer, MonitorEvent.Type.CLOSE, new MonitorEvent.Message('F', message));
 			}
 		});
@@ -33,6 +33,7 @@ import org.eclipse.tcf.te.runtime.interfaces.IDisposable;
 import org.eclipse.tcf.te.runtime.interfaces.callback.ICallback;
 import org.eclipse.tcf.te.tcf.core.Tcf;
 import org.eclipse.tcf.te.tcf.core.async.CallbackInvocationDelegate;
+import org.eclipse.tcf.te.tcf.core.concurrent.VirtualThreads;
 import org.eclipse.tcf.te.tcf.core.interfaces.IChannelManager;
 import org.eclipse.tcf.te.tcf.core.interfaces.IChannelManager.IStreamsListenerProxy;
 import org.eclipse.tcf.te.tcf.core.streams.StreamsDataProvider;
@@ -848,8 +849,8 @@ public class ProcessStreamsListener implements IChannelManager.IStreamsListener,
 				if (!runnable.isEmpty()) {
 					// Add to the list of created runnable's
 					synchronized (runnables) { runnables.add(runnable); }
-					// And create and start the thread
-					Thread thread = new Thread(runnable, "Thread-" + IProcesses.PROP_STDOUT_ID + "-" + streamId); //$NON-NLS-1$ //$NON-NLS-2$
+					// And create and start the thread, a virtual thread if supported
+					Thread thread = VirtualThreads.newThread(runnable, "Thread-" + IProcesses.PROP_STDOUT_ID + "-" + streamId); //$NON-NLS-1$ //$NON-NLS-2$
 					thread.start();
 				}
 			}
@@ -860,8 +861,8 @@ public class ProcessStreamsListener implements IChannelManager.IStreamsListener,
 				if (!runnable.isEmpty()) {
 					// Add to the list of created runnable's
 					synchronized (runnables) { runnables.add(runnable); }
-					// And create and start the thread
-					Thread thread = new Thread(runnable, "Thread-" + IProcesses.PROP_STDERR_ID + "-" + streamId); //$NON-NLS-1$ //$NON-NLS-2$
+					// And create and start the thread, a virtual thread if supported
+					Thread thread = VirtualThreads.newThread(runnable, "Thread-" + IProcesses.PROP_STDERR_ID + "-" + streamId); //$NON-NLS-1$ //$NON-NLS-2$
 					thread.start();
 				}
 			}
@@ -17,6 +17,7 @@ import java.util.Map;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.tcf.core.AbstractChannel;
 import org.eclipse.tcf.protocol.IChannel;
 import org.eclipse.tcf.protocol.IToken;
 import org.eclipse.tcf.protocol.Protocol;
@@ -940,63 +941,14 @@ public class RuntimeModelRefreshService extends AbstractModelService<IRuntimeMod
 						// Callback collector to fire the passed in callback once all child contexts got fully refreshed
 						final AsyncCallbackCollector collector = new AsyncCallbackCollector(callback, new CallbackInvocationDelegate());
 
-						// Loop the returned context id's and query the context data
-						for (String id : context_ids) {
-							final String contextId = id;
-
-							// Create the context node for the current context id
-							final IProcessContextNode node = createContextNodeFrom(contextId);
-							Assert.isNotNull(node);
-							// Add the node to the container
-							container.add(node);
-
-							// Callback collector to fire once the system monitor and process context queries completed
-							final ICallback innerCallback = new AsyncCallbackCollector.SimpleCollectorCallback(collector);
-							final AsyncCallbackCollector innerCollector = new AsyncCallbackCollector(new Callback() {
-								@Override
-                                protected void internalDone(Object caller, IStatus status) {
-									// Determine if a delegate is registered
-									IRuntimeModelRefreshService.IDelegate delegate = ServiceUtils.getDelegateServiceDelegate(channel.getRemotePeer(), channel.getRemotePeer(), IRuntimeModelRefreshService.IDelegate.class);
-									// Determine the node type
-									if (delegate != null) delegate.setNodeType(parentContextId, node);
-									// Fallback to the default delegate if node type is not set by delegate
-									if (node.getType() == TYPE.Unknown) defaultDelegate.setNodeType(parentContextId, node);
-
-									// Run the post refresh context delegate
-									if (delegate == null) delegate = defaultDelegate;
-									Assert.isNotNull(delegate);
-									delegate.postRefreshContext(channel, node, innerCallback);
-								}
-							}, new CallbackInvocationDelegate());
-
-							// Query the system monitor context object
-							final ICallback cb1 = new AsyncCallbackCollector.SimpleCollectorCallback(innerCollector);
-							sysMonService.getContext(contextId, new ISysMonitor.DoneGetContext() {
-								@Override
-								public void doneGetContext(IToken token, Exception error, SysMonitorContext context) {
-									// Ignore errors. Some of the context might be OS context we do not have
-									// permissions to read the properties from.
-									node.setSysMonitorContext(context);
-									// Invoke the callback
-									cb1.done(RuntimeModelRefreshService.this, Status.OK_STATUS);
-								}
-							});
-
-							// Query the process context object
-							final ICallback cb2 = new AsyncCallbackCollector.SimpleCollectorCallback(innerCollector);
-							service.getContext(contextId, new IProcesses.DoneGetContext() {
-								@Override
-								public void doneGetContext(IToken token, Exception error, IProcesses.ProcessContext context) {
-									// Errors are ignored
-									node.setProcessContext(context);
-									// Set the context name from the process context if available
-									if (context != null) node.setProperty(IProcessContextNodeProperties.PROPERTY_NAME, context.getName());
-									// Invoke the callback
-									cb2.done(RuntimeModelRefreshService.this, Status.OK_STATUS);
-								}
-							});
+						// Send the context queries of all children as one batch
+						final AbstractChannel batch = channel instanceof AbstractChannel ? (AbstractChannel)channel : null;
+						if (batch != null) batch.startBatch();
 
-							innerCollector.initDone();
+						try {
+							queryChildContexts(channel, service, sysMonService, parentContextId, container, context_ids, collector);
+						} finally {
+							if (batch != null) batch.endBatch();
 						}
 
 						collector.initDone();
@@ -1017,6 +969,79 @@ public class RuntimeModelRefreshService extends AbstractModelService<IRuntimeMod
 		});
 	}
 
+	/**
+	 * Create the context nodes for the given child context id's, add them to the passed in
+	 * container and query the system monitor and process context data of each child.
+	 *
+	 * @param channel An open channel. Must not be <code>null</code>.
+	 * @param service The processes service. Must not be <code>null</code>.
+	 * @param sysMonService The system monitor service. Must not be <code>null</code>.
+	 * @param parentContextId The parent context id or <code>null</code> for the root context.
+	 * @param container The container. Must not be <code>null</code>.
+	 * @param context_ids The child context id's. Must not be <code>null</code>.
+	 * @param collector The callback collector to add the child context callbacks to. Must not be <code>null</code>.
+	 */
+	protected void queryChildContexts(final IChannel channel, final IProcesses service, final ISysMonitor sysMonService, final String parentContextId, final IContainerModelNode container, String[] context_ids, final AsyncCallbackCollector collector) {
+		// Loop the returned context id's and query the context data
+		for (String id : context_ids) {
+			final String contextId = id;
+
+			// Create the context node for the current context id
+			final IProcessContextNode node = createContextNodeFrom(contextId);
+			Assert.isNotNull(node);
+			// Add the node to the container
+			container.add(node);
+
+			// Callback collector to fire once the system monitor and process context queries completed
+			final ICallback innerCallback = new AsyncCallbackCollector.SimpleCollectorCallback(collector);
+			final AsyncCallbackCollector innerCollector = new AsyncCallbackCollector(new Callback() {
+				@Override
+				protected void internalDone(Object caller, IStatus status) {
+					// Determine if a delegate is registered
+					IRuntimeModelRefreshService.IDelegate delegate = ServiceUtils.getDelegateServiceDelegate(channel.getRemotePeer(), channel.getRemotePeer(), IRuntimeModelRefreshService.IDelegate.class);
+					// Determine the node type
+					if (delegate != null) delegate.setNodeType(parentContextId, node);
+					// Fallback to the default delegate if node type is not set by delegate
+					if (node.getType() == TYPE.Unknown) defaultDelegate.setNodeType(parentContextId, node);
+
+					// Run the post refresh context delegate
+					if (delegate == null) delegate = defaultDelegate;
+					Assert.isNotNull(delegate);
+					delegate.postRefreshContext(channel, node, innerCallback);
+				}
+			}, new CallbackInvocationDelegate());
+
+			// Query the system monitor context object
+			final ICallback cb1 = new AsyncCallbackCollector.SimpleCollectorCallback(innerCollector);
+			sysMonService.getContext(contextId, new ISysMonitor.DoneGetContext() {
+				@Override
+				public void doneGetContext(IToken token, Exception error, SysMonitorContext context) {
+					// Ignore errors. Some of the context might be OS context we do not have
+					// permissions to read the properties from.
+					node.setSysMonitorContext(context);
+					// Invoke the callback
+					cb1.done(RuntimeModelRefreshService.this, Status.OK_STATUS);
+				}
+			});
+
+			// Query the process context object
+			final ICallback cb2 = new AsyncCallbackCollector.SimpleCollectorCallback(innerCollector);
+			service.getContext(contextId, new IProcesses.DoneGetContext() {
+				@Override
+				public void doneGetContext(IToken token, Exception error, IProcesses.ProcessContext context) {
+					// Errors are ignored
+					node.setProcessContext(context);
+					// Set the context name from the process context if available
+					if (context != null) node.setProperty(IProcessContextNodeProperties.PROPERTY_NAME, context.getName());
+					// Invoke the callback
+					cb2.done(RuntimeModelRefreshService.this, Status.OK_STATUS);
+				}
+			});
+
+			innerCollector.initDone();
+		}
+	}
+
 	/**
 	 * Create a process context node instance for the given context id.
 	 *
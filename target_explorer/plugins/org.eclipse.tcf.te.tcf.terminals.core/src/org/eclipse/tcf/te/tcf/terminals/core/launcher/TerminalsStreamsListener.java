@@ -31,6 +31,7 @@ import org.eclipse.tcf.te.runtime.callback.Callback;
 import org.eclipse.tcf.te.runtime.interfaces.callback.ICallback;
 import org.eclipse.tcf.te.tcf.core.Tcf;
 import org.eclipse.tcf.te.tcf.core.async.CallbackInvocationDelegate;
+import org.eclipse.tcf.te.tcf.core.concurrent.VirtualThreads;
 import org.eclipse.tcf.te.tcf.core.interfaces.IChannelManager;
 import org.eclipse.tcf.te.tcf.core.interfaces.IChannelManager.IStreamsListenerProxy;
 import org.eclipse.tcf.te.tcf.core.streams.StreamsDataProvider;
@@ -825,8 +826,8 @@ public class TerminalsStreamsListener implements IChannelManager.IStreamsListene
 				if (!runnable.isEmpty()) {
 					// Add to the list of created runnable's
 					synchronized (runnables) { runnables.add(runnable); }
-					// And create and start the thread
-					Thread thread = new Thread(runnable, "Thread-" + ITerminals.PROP_STDOUT_ID + "-" + streamId); //$NON-NLS-1$ //$NON-NLS-2$
+					// And create and start the thread, a virtual thread if supported
+					Thread thread = VirtualThreads.newThread(runnable, "Thread-" + ITerminals.PROP_STDOUT_ID + "-" + streamId); //$NON-NLS-1$ //$NON-NLS-2$
 					thread.start();
 				}
 			}
@@ -837,8 +838,8 @@ public class TerminalsStreamsListener implements IChannelManager.IStreamsListene
 				if (!runnable.isEmpty()) {
 					// Add to the list of created runnable's
 					synchronized (runnables) { runnables.add(runnable); }
-					// And create and start the thread
-					Thread thread = new Thread(runnable, "Thread-" + ITerminals.PROP_STDERR_ID + "-" + streamId); //$NON-NLS-1$ //$NON-NLS-2$
+					// And create and start the thread, a virtual thread if supported
+					Thread thread = VirtualThreads.newThread(runnable, "Thread-" + ITerminals.PROP_STDERR_ID + "-" + streamId); //$NON-NLS-1$ //$NON-NLS-2$
 					thread.start();
 				}
 			}
@@ -239,6 +239,7 @@ public class Messages extends NLS {
 	public static String LoggingPreferencePage_showLocatorEvents_label;
 	public static String LoggingPreferencePage_showHeartbeats_label;
 	public static String LoggingPreferencePage_showFrameworkEvents_label;
+	public static String LoggingPreferencePage_showMetrics_label;
 	public static String LoggingPreferencePage_logfileGroup_label;
 	public static String LoggingPreferencePage_maxFileSize_label;
 	public static String LoggingPreferencePage_maxFileSize_error;
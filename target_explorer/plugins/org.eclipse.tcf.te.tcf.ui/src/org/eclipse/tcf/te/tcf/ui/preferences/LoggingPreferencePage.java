@@ -24,6 +24,7 @@ import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Group;
 import org.eclipse.swt.widgets.Label;
+import org.eclipse.tcf.core.ChannelMetrics;
 import org.eclipse.tcf.te.runtime.preferences.ScopedEclipsePreferences;
 import org.eclipse.tcf.te.tcf.log.core.activator.CoreBundleActivator;
 import org.eclipse.tcf.te.tcf.log.core.interfaces.IPreferenceKeys;
@@ -43,6 +44,7 @@ public class LoggingPreferencePage extends FieldEditorPreferencePage implements
 	private BooleanFieldEditor showLocatorEvents;
 	private BooleanFieldEditor showHeartbeats;
 	private BooleanFieldEditor showFrameworkEvents;
+	private BooleanFieldEditor showMetrics;
 	private StringFieldEditor logfileSize;
 	private IntegerFieldEditor filesInCycle;
 
@@ -159,6 +161,10 @@ public class LoggingPreferencePage extends FieldEditorPreferencePage implements
 													 Messages.LoggingPreferencePage_showFrameworkEvents_label, filterPanel);
 		addField(showFrameworkEvents);
 
+		showMetrics = new BooleanFieldEditor(IPreferenceKeys.PREF_SHOW_METRICS,
+											 Messages.LoggingPreferencePage_showMetrics_label, filterPanel);
+		addField(showMetrics);
+
 		createSpacer(panel, 2);
 
 		Group logfileGroup = new Group(panel, SWT.NONE);
@@ -224,6 +230,9 @@ public class LoggingPreferencePage extends FieldEditorPreferencePage implements
 		store.setDefault(IPreferenceKeys.PREF_SHOW_FRAMEWORK_EVENTS, prefs.getDefaultBoolean(IPreferenceKeys.PREF_SHOW_FRAMEWORK_EVENTS));
 		store.setValue(IPreferenceKeys.PREF_SHOW_FRAMEWORK_EVENTS, prefs.getBoolean(IPreferenceKeys.PREF_SHOW_FRAMEWORK_EVENTS));
 
+		store.setDefault(IPreferenceKeys.PREF_SHOW_METRICS, prefs.getDefaultBoolean(IPreferenceKeys.PREF_SHOW_METRICS));
+		store.setValue(IPreferenceKeys.PREF_SHOW_METRICS, prefs.getBoolean(IPreferenceKeys.PREF_SHOW_METRICS));
+
 		store.setDefault(IPreferenceKeys.PREF_MAX_FILE_SIZE, prefs.getDefaultString(IPreferenceKeys.PREF_MAX_FILE_SIZE));
 		store.setValue(IPreferenceKeys.PREF_MAX_FILE_SIZE, prefs.getString(IPreferenceKeys.PREF_MAX_FILE_SIZE));
 
@@ -250,6 +259,9 @@ public class LoggingPreferencePage extends FieldEditorPreferencePage implements
 	        prefs.putBoolean(IPreferenceKeys.PREF_SHOW_LOCATOR_EVENTS, store.getBoolean(IPreferenceKeys.PREF_SHOW_LOCATOR_EVENTS));
 	        prefs.putBoolean(IPreferenceKeys.PREF_SHOW_HEARTBEATS, store.getBoolean(IPreferenceKeys.PREF_SHOW_HEARTBEATS));
 	        prefs.putBoolean(IPreferenceKeys.PREF_SHOW_FRAMEWORK_EVENTS, store.getBoolean(IPreferenceKeys.PREF_SHOW_FRAMEWORK_EVENTS));
+	        prefs.putBoolean(IPreferenceKeys.PREF_SHOW_METRICS, store.getBoolean(IPreferenceKeys.PREF_SHOW_METRICS));
+	        // Start collecting metrics of new channels. Collection is not stopped, as other clients may use it.
+	        if (store.getBoolean(IPreferenceKeys.PREF_SHOW_METRICS)) ChannelMetrics.setEnabled(true);
 
 	        prefs.putString(IPreferenceKeys.PREF_MAX_FILE_SIZE, store.getString(IPreferenceKeys.PREF_MAX_FILE_SIZE));
 	        prefs.putInt(IPreferenceKeys.PREF_MAX_FILES_IN_CYCLE, store.getInt(IPreferenceKeys.PREF_MAX_FILES_IN_CYCLE));
@@ -0,0 +1,281 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.tcf.core.ServerTCP;
+import org.eclipse.tcf.core.ServerUNIX;
+import org.eclipse.tcf.core.TransientPeer;
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IEventQueue;
+import org.eclipse.tcf.protocol.IPeer;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.IDiagnostics;
+import org.eclipse.tcf.util.TCFEventQueue;
+import org.eclipse.tcf.util.TCFTask;
+
+/**
+ * Utility methods shared by benchmarks: headless TCF event queue,
+ * local TCP server and opening/closing of channels.
+ */
+public class BenchmarkSupport {
+
+    /**
+     * Event queue based on synchronized LinkedList, same as original TCF event queue implementations.
+     */
+    static class EventQueue extends Thread implements IEventQueue {
+
+        private final LinkedList<Runnable> queue = new LinkedList<Runnable>();
+        private volatile long busy_time;
+
+        EventQueue() {
+            setName("TCF Event Dispatcher");
+            setDaemon(true);
+            start();
+        }
+
+        public void run() {
+            try {
+                while (true) {
+                    Runnable r = null;
+                    synchronized (this) {
+                        while (queue.size() == 0) wait();
+                        r = queue.removeFirst();
+                    }
+                    long time = System.nanoTime();
+                    try {
+                        r.run();
+                    }
+                    catch (Throwable x) {
+                        x.printStackTrace();
+                    }
+                    busy_time += System.nanoTime() - time;
+                }
+            }
+            catch (InterruptedException x) {
+                x.printStackTrace();
+            }
+        }
+
+        public synchronized int getCongestion() {
+            int n = queue.size() - 100;
+            if (n > 100) n = 100;
+            return n;
+        }
+
+        public synchronized void invokeLater(Runnable runnable) {
+            queue.add(runnable);
+            notify();
+        }
+
+        public boolean isDispatchThread() {
+            return Thread.currentThread() == this;
+        }
+    }
+
+    private static boolean initialized;
+    private static IEventQueue event_queue;
+    private static ServerTCP server;
+    private static ServerUNIX unix_server;
+
+    /**
+     * Install headless event queue, unless TCF is already initialized.
+     */
+    public static synchronized void init() {
+        init(false);
+    }
+
+    /**
+     * Install headless event queue, unless TCF is already initialized.
+     * @param lock_free - true to use lock-free TCFEventQueue, false to use synchronized queue.
+     */
+    public static synchronized void init(boolean lock_free) {
+        if (initialized) return;
+        if (Protocol.getEventQueue() == null) {
+            if (lock_free) {
+                TCFEventQueue queue = new TCFEventQueue();
+                queue.start();
+                event_queue = queue;
+            }
+            else {
+                event_queue = new EventQueue();
+            }
+            Protocol.setEventQueue(event_queue);
+        }
+        initialized = true;
+    }
+
+    /**
+     * Get total time spent by the dispatch thread running events.
+     * @return busy time in nanoseconds, or -1 if the synchronized event queue is not installed by {@link #init()}.
+     */
+    public static long getDispatchBusyTime() {
+        init();
+        if (!(event_queue instanceof EventQueue)) return -1;
+        return ((EventQueue)event_queue).busy_time;
+    }
+
+    /**
+     * Get a TCP server that runs in this process.
+     * The server provides local services, including Diagnostics "echo".
+     * @return port number of the server.
+     */
+    public static synchronized int getServerPort() throws Exception {
+        init();
+        if (server == null) {
+            server = new TCFTask<ServerTCP>() {
+                public void run() {
+                    try {
+                        done(new ServerTCP("TCF Benchmark Server", 0));
+                    }
+                    catch (Exception x) {
+                        error(x);
+                    }
+                }
+            }.get();
+        }
+        return server.getLocalPort();
+    }
+
+    /**
+     * Get a UNIX domain socket server that runs in this process.
+     * The server provides same local services as the TCP server.
+     * @return file system path of the server socket.
+     */
+    public static synchronized String getServerSocketPath() throws Exception {
+        init();
+        if (unix_server == null) {
+            final File file = new File(System.getProperty("java.io.tmpdir"), "tcf-benchmark-" + System.nanoTime());
+            file.deleteOnExit();
+            unix_server = new TCFTask<ServerUNIX>() {
+                public void run() {
+                    try {
+                        done(new ServerUNIX("TCF Benchmark Server", file.getAbsolutePath()));
+                    }
+                    catch (Exception x) {
+                        error(x);
+                    }
+                }
+            }.get();
+        }
+        return unix_server.getPath();
+    }
+
+    /**
+     * Get a peer object that represents the local TCP server.
+     * @param transport - transport name.
+     * @return the peer.
+     */
+    public static IPeer getServerPeer(String transport) throws Exception {
+        Map<String,String> attrs = new HashMap<String,String>();
+        attrs.put(IPeer.ATTR_ID, "Benchmark:" + transport);
+        attrs.put(IPeer.ATTR_TRANSPORT_NAME, transport);
+        attrs.put(IPeer.ATTR_IP_HOST, "127.0.0.1");
+        attrs.put(IPeer.ATTR_IP_PORT, Integer.toString(getServerPort()));
+        return new TransientPeer(attrs);
+    }
+
+    public interface ChannelFactory {
+        IChannel openChannel() throws Exception;
+    }
+
+    /**
+     * Open channels and wait until all of them are open.
+     * @param cnt - number of channels.
+     * @param factory - creates channels, called by TCF dispatch thread.
+     * @return list of open channels.
+     */
+    public static List<IChannel> openChannels(final int cnt, final ChannelFactory factory) throws Exception {
+        return new TCFTask<List<IChannel>>() {
+            List<IChannel> list;
+            int open_cnt;
+            public void run() {
+                /* The task is started by TCFTask constructor, so fields are initialized here */
+                list = new ArrayList<IChannel>();
+                try {
+                    for (int i = 0; i < cnt; i++) {
+                        IChannel c = factory.openChannel();
+                        list.add(c);
+                        c.addChannelListener(new IChannel.IChannelListener() {
+                            public void onChannelOpened() {
+                                if (++open_cnt == cnt) done(list);
+                            }
+                            public void onChannelClosed(Throwable error) {
+                                if (!isDone()) error(error != null ? error : new Exception("Channel closed"));
+                            }
+                            public void congestionLevel(int level) {
+                            }
+                        });
+                    }
+                }
+                catch (Exception x) {
+                    error(x);
+                }
+            }
+        }.get();
+    }
+
+    /**
+     * Close channels.
+     * @param list - channels to close.
+     */
+    public static void closeChannels(final List<IChannel> list) throws Exception {
+        if (list == null) return;
+        new TCFTask<Object>() {
+            public void run() {
+                for (IChannel c : list) {
+                    if (c.getState() != IChannel.STATE_CLOSED) c.close();
+                }
+                done(null);
+            }
+        }.get();
+    }
+
+    /**
+     * Send Diagnostics "echo" command and wait for the reply.
+     * @param channel - open channel.
+     * @param s - string to send.
+     * @return the reply.
+     */
+    public static String echo(final IChannel channel, final String s) throws Exception {
+        return new TCFTask<String>(channel) {
+            public void run() {
+                IDiagnostics diag = channel.getRemoteService(IDiagnostics.class);
+                diag.echo(s, new IDiagnostics.DoneEcho() {
+                    public void doneEcho(IToken token, Throwable error, String str) {
+                        if (error != null) error(error);
+                        else done(str);
+                    }
+                });
+            }
+        }.get();
+    }
+
+    /**
+     * Print number of live threads and used heap memory.
+     * @param label - report label.
+     */
+    public static void printResources(String label) {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        long mem = rt.totalMemory() - rt.freeMemory();
+        System.out.println();
+        System.out.println(label + ": threads " + Thread.activeCount() +
+                ", heap used " + (mem >> 10) + " KB");
+    }
+}
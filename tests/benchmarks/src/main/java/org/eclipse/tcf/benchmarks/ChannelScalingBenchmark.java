@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tcf.core.ChannelNIO;
+import org.eclipse.tcf.core.ChannelTCP;
+import org.eclipse.tcf.protocol.IChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Opens hundreds of loopback channels to a ServerTCP in the same process
+ * and measures Diagnostics "echo" round trip latency over them.
+ * Number of threads and heap usage with the channels open are printed at setup.
+ *
+ * Note: server side channels are always ChannelTCP, so the thread count includes
+ * two server threads per channel in both configurations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChannelScalingBenchmark {
+
+    @Param({ "100", "300" })
+    public int channels;
+
+    @Param({ "TCP", "NIO" })
+    public String transport;
+
+    private List<IChannel> list;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        final int port = BenchmarkSupport.getServerPort();
+        BenchmarkSupport.printResources("Before open");
+        list = BenchmarkSupport.openChannels(channels, new BenchmarkSupport.ChannelFactory() {
+            public IChannel openChannel() throws Exception {
+                if (transport.equals("NIO")) {
+                    return new ChannelNIO(BenchmarkSupport.getServerPeer("TCP"), "127.0.0.1", port);
+                }
+                return new ChannelTCP(BenchmarkSupport.getServerPeer("TCP"), "127.0.0.1", port);
+            }
+        });
+        BenchmarkSupport.printResources(channels + " " + transport + " channels open");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkSupport.closeChannels(list);
+        list = null;
+    }
+
+    @Benchmark
+    public String echo() throws Exception {
+        IChannel c = list.get(next++ % list.size());
+        return BenchmarkSupport.echo(c, "Round trip");
+    }
+}
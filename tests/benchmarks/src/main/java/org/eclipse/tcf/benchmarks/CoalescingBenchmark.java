@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.benchmarks;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tcf.core.AbstractChannel;
+import org.eclipse.tcf.core.ChannelMetrics;
+import org.eclipse.tcf.core.ChannelTCP;
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.services.IRunControl;
+import org.eclipse.tcf.util.TCFTask;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures RunControl "getContext" traffic of several views that show same contexts.
+ *
+ * Each operation emulates a suspend: VIEW_CNT views request contexts of THREAD_CNT threads
+ * at the same time, and, when all replies are received, the views refresh and request the contexts again.
+ * Parameter "coalescing" selects "off" - every command is sent, "pending" - identical pending commands
+ * are merged, "cache" - in addition, results are cached for 1 second. The cache is cleared at the start
+ * of each operation, same as it is cleared by a RunControl event when a target is suspended.
+ *
+ * The server is the RunControl service of {@link CommandBatchingBenchmark}.
+ * Hit rate of the command is printed at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CoalescingBenchmark {
+
+    private static final int THREAD_CNT = 500;
+    private static final int VIEW_CNT = 3;
+
+    @Param({ "off", "pending", "cache" })
+    public String coalescing;
+
+    private IChannel channel;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        /* tearDown() reports coalesced commands and cache hits, collected by channel metrics */
+        ChannelMetrics.setEnabled(true);
+        BenchmarkSupport.init();
+        CommandBatchingBenchmark.addServiceProvider();
+        final int port = BenchmarkSupport.getServerPort();
+        List<IChannel> list = BenchmarkSupport.openChannels(1, new BenchmarkSupport.ChannelFactory() {
+            public IChannel openChannel() throws Exception {
+                return new ChannelTCP(BenchmarkSupport.getServerPeer("TCP"), "127.0.0.1", port);
+            }
+        });
+        channel = list.get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (channel != null) {
+            String report = new TCFTask<String>(channel) {
+                public void run() {
+                    ChannelMetrics metrics = ((AbstractChannel)channel).getMetrics();
+                    ChannelMetrics.CommandMetrics m = metrics == null ? null :
+                        metrics.getCommandMetrics(IRunControl.NAME, "getContext");
+                    if (m == null) done(null);
+                    else done("Commands sent: " + m.getCount() + ", coalesced " + m.getCoalesced() +
+                            ", cache hits " + m.getCacheHits() + ", hit rate " + Math.round(m.getHitRate() * 100) + "%");
+                }
+            }.get();
+            if (report != null) {
+                System.out.println();
+                System.out.println(report);
+            }
+            BenchmarkSupport.closeChannels(Collections.singletonList(channel));
+        }
+        channel = null;
+    }
+
+    @Benchmark
+    public int refreshViews() throws Exception {
+        return new TCFTask<Integer>(channel) {
+            int cnt;
+            public void run() {
+                AbstractChannel c = (AbstractChannel)channel;
+                c.setCommandCoalescing(IRunControl.NAME, "getContext", -1);
+                if (coalescing.equals("pending")) c.setCommandCoalescing(IRunControl.NAME, "getContext", 0);
+                if (coalescing.equals("cache")) c.setCommandCoalescing(IRunControl.NAME, "getContext", 1000);
+                requestContexts();
+            }
+
+            private void requestContexts() {
+                IRunControl rc = channel.getRemoteService(IRunControl.class);
+                IRunControl.DoneGetContext done_context = new IRunControl.DoneGetContext() {
+                    public void doneGetContext(IToken token, Exception error, IRunControl.RunControlContext context) {
+                        if (isDone()) return;
+                        if (error != null) {
+                            error(error);
+                            return;
+                        }
+                        cnt++;
+                        if (cnt == THREAD_CNT * VIEW_CNT) requestContexts();
+                        else if (cnt == THREAD_CNT * VIEW_CNT * 2) done(cnt);
+                    }
+                };
+                for (int i = 0; i < THREAD_CNT; i++) {
+                    for (int v = 0; v < VIEW_CNT; v++) rc.getContext(CommandBatchingBenchmark.PROCESS_ID + "." + i, done_context);
+                }
+            }
+        }.get();
+    }
+}
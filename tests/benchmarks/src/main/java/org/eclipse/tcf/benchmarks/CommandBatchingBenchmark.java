@@ -0,0 +1,246 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tcf.core.AbstractChannel;
+import org.eclipse.tcf.core.ChannelMetrics;
+import org.eclipse.tcf.core.ChannelTCP;
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IService;
+import org.eclipse.tcf.protocol.IServiceProvider;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.JSON;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.IRunControl;
+import org.eclipse.tcf.util.TCFTask;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures time to populate a RunControl tree of 2000 threads, the way a debugger view does it:
+ * "getChildren" of the process, then "getContext" of every thread, and "getState" of every thread
+ * when its context is received.
+ *
+ * Parameter "batching" selects how the commands are passed to the transmitter:
+ * "none" - one by one, "scope" - "getContext" commands are sent inside AbstractChannel.startBatch()
+ * and endBatch(), "auto" - automatic batching is enabled, and "getContext" of each thread is sent
+ * by a separate dispatch event, similar to viewer update requests.
+ *
+ * If channel metrics are enabled, batch sizes are printed at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommandBatchingBenchmark {
+
+    private static final int THREAD_CNT = 2000;
+    static final String PROCESS_ID = "BenchmarkProcess";
+
+    @Param({ "none", "scope", "auto" })
+    public String batching;
+
+    private IChannel channel;
+
+    /**
+     * RunControl service of the benchmark server: one process with THREAD_CNT suspended threads.
+     */
+    private static class RunControlService implements IService {
+
+        RunControlService(final IChannel channel) {
+            channel.addCommandServer(this, new IChannel.ICommandServer() {
+                public void command(IToken token, String cmd, byte[] data) {
+                    try {
+                        Object[] args = JSON.parseSequence(data);
+                        String id = (String)args[0];
+                        Object[] res = null;
+                        if (cmd.equals("getChildren")) {
+                            List<String> ids = new ArrayList<String>();
+                            if (id == null) {
+                                ids.add(PROCESS_ID);
+                            }
+                            else if (id.equals(PROCESS_ID)) {
+                                for (int i = 0; i < THREAD_CNT; i++) ids.add(PROCESS_ID + "." + i);
+                            }
+                            res = new Object[]{ null, ids };
+                        }
+                        else if (cmd.equals("getContext")) {
+                            boolean thread = !id.equals(PROCESS_ID);
+                            Map<String,Object> props = new HashMap<String,Object>();
+                            props.put(IRunControl.PROP_ID, id);
+                            props.put(IRunControl.PROP_NAME, thread ? "Thread " + id : "Process");
+                            if (thread) props.put(IRunControl.PROP_PARENT_ID, PROCESS_ID);
+                            props.put(IRunControl.PROP_PROCESS_ID, PROCESS_ID);
+                            props.put(IRunControl.PROP_IS_CONTAINER, !thread);
+                            props.put(IRunControl.PROP_HAS_STATE, thread);
+                            props.put(IRunControl.PROP_CAN_SUSPEND, true);
+                            props.put(IRunControl.PROP_CAN_RESUME, 0x3f);
+                            res = new Object[]{ null, props };
+                        }
+                        else if (cmd.equals("getState")) {
+                            res = new Object[]{ null, true, 0x400000 + id.length(), IRunControl.REASON_BREAKPOINT, null };
+                        }
+                        else {
+                            channel.rejectCommand(token);
+                            return;
+                        }
+                        channel.sendResult(token, JSON.toJSONSequence(res));
+                    }
+                    catch (Exception x) {
+                        channel.terminate(x);
+                    }
+                }
+            });
+        }
+
+        public String getName() {
+            return IRunControl.NAME;
+        }
+    }
+
+    private static boolean provider_added;
+
+    static synchronized void addServiceProvider() {
+        if (provider_added) return;
+        provider_added = true;
+        Protocol.addServiceProvider(new IServiceProvider() {
+            public IService[] getLocalService(IChannel channel) {
+                /* Client side channels are connected to peers created by BenchmarkSupport.getServerPeer() */
+                if (channel.getRemotePeer().getID().startsWith("Benchmark:")) return null;
+                return new IService[]{ new RunControlService(channel) };
+            }
+
+            public IService getServiceProxy(IChannel channel, String service_name) {
+                return null;
+            }
+        });
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        /* Batch sizes printed by tearDown() are collected by channel metrics */
+        ChannelMetrics.setEnabled(true);
+        BenchmarkSupport.init();
+        addServiceProvider();
+        final int port = BenchmarkSupport.getServerPort();
+        List<IChannel> list = BenchmarkSupport.openChannels(1, new BenchmarkSupport.ChannelFactory() {
+            public IChannel openChannel() throws Exception {
+                return new ChannelTCP(BenchmarkSupport.getServerPeer("TCP"), "127.0.0.1", port);
+            }
+        });
+        channel = list.get(0);
+        new TCFTask<Object>(channel) {
+            public void run() {
+                ((AbstractChannel)channel).setAutoBatching(batching.equals("auto"));
+                done(null);
+            }
+        }.get();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (channel != null) {
+            String report = new TCFTask<String>(channel) {
+                public void run() {
+                    ChannelMetrics metrics = ((AbstractChannel)channel).getMetrics();
+                    if (metrics == null || metrics.getBatchSizes().getCount() == 0) done(null);
+                    else done("Batches: " + metrics.getBatchSizes().getCount() +
+                            ", mean size " + (long)metrics.getBatchSizes().getMean() +
+                            ", max size " + metrics.getBatchSizes().getMax());
+                }
+            }.get();
+            if (report != null) {
+                System.out.println();
+                System.out.println(report);
+            }
+            BenchmarkSupport.closeChannels(Collections.singletonList(channel));
+        }
+        channel = null;
+    }
+
+    @Benchmark
+    public int populateTree() throws Exception {
+        return new TCFTask<Integer>(channel) {
+            int cnt;
+            public void run() {
+                final IRunControl rc = channel.getRemoteService(IRunControl.class);
+                rc.getChildren(PROCESS_ID, new IRunControl.DoneGetChildren() {
+                    public void doneGetChildren(IToken token, Exception error, String[] ids) {
+                        if (error != null) {
+                            error(error);
+                            return;
+                        }
+                        populate(rc, ids);
+                    }
+                });
+            }
+
+            private void populate(final IRunControl rc, String[] ids) {
+                final IRunControl.DoneGetState done_state = new IRunControl.DoneGetState() {
+                    public void doneGetState(IToken token, Exception error,
+                            boolean suspended, String pc, String reason, Map<String,Object> params) {
+                        if (isDone()) return;
+                        if (error != null) error(error);
+                        else if (++cnt == THREAD_CNT) done(cnt);
+                    }
+                };
+                final IRunControl.DoneGetContext done_context = new IRunControl.DoneGetContext() {
+                    public void doneGetContext(IToken token, Exception error, IRunControl.RunControlContext context) {
+                        if (isDone()) return;
+                        if (error != null) error(error);
+                        else context.getState(done_state);
+                    }
+                };
+                Collection<Runnable> requests = new ArrayList<Runnable>();
+                for (final String id : ids) {
+                    requests.add(new Runnable() {
+                        public void run() {
+                            rc.getContext(id, done_context);
+                        }
+                    });
+                }
+                if (batching.equals("auto")) {
+                    for (Runnable r : requests) Protocol.invokeLater(r);
+                    return;
+                }
+                AbstractChannel c = (AbstractChannel)channel;
+                if (batching.equals("scope")) c.startBatch();
+                try {
+                    for (Runnable r : requests) r.run();
+                }
+                finally {
+                    if (batching.equals("scope")) c.endBatch();
+                }
+            }
+        }.get();
+    }
+}
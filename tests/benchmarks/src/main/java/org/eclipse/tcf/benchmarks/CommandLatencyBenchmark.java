@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.benchmarks;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tcf.core.TransientPeer;
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IPeer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures end-to-end latency of a Diagnostics "echo" command on a loopback ("Loop") channel,
+ * which does not involve any sockets, so the result is dominated by event dispatching
+ * and channel thread hand-offs.
+ *
+ * Parameter "queue" selects TCF event queue: lock-free TCFEventQueue ("lockfree") or
+ * the original synchronized LinkedList queue ("synchronized").
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommandLatencyBenchmark {
+
+    @Param({ "lockfree", "synchronized" })
+    public String queue;
+
+    private List<IChannel> channels;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        BenchmarkSupport.init(queue.equals("lockfree"));
+        channels = BenchmarkSupport.openChannels(1, new BenchmarkSupport.ChannelFactory() {
+            public IChannel openChannel() throws Exception {
+                Map<String,String> attrs = new HashMap<String,String>();
+                attrs.put(IPeer.ATTR_ID, "Benchmark:Loop");
+                attrs.put(IPeer.ATTR_TRANSPORT_NAME, "Loop");
+                return new TransientPeer(attrs).openChannel();
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkSupport.closeChannels(channels);
+        channels = null;
+    }
+
+    @Benchmark
+    public String echo() throws Exception {
+        return BenchmarkSupport.echo(channels.get(0), "latency");
+    }
+}
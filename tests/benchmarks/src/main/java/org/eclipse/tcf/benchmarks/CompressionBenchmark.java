@@ -0,0 +1,298 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tcf.core.AbstractChannel;
+import org.eclipse.tcf.core.ChannelTCP;
+import org.eclipse.tcf.internal.services.remote.FileSystemProxy;
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IService;
+import org.eclipse.tcf.protocol.IServiceProvider;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.JSON;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.IFileSystem;
+import org.eclipse.tcf.services.IMemory;
+import org.eclipse.tcf.util.TCFTask;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures end-to-end time and bytes on wire of large downloads over a slow link,
+ * with and without message compression.
+ *
+ * The channel is connected to the local server through a relay that simulates a link
+ * with given bandwidth ("link", Mbit/s) and 10ms round-trip time. The server provides
+ * FileSystem and Memory services that return a 1MB image: "download" reads a file with
+ * FileSystem "read" commands, "memoryDump" reads memory with Memory "get" commands,
+ * 64KB per command, all commands are sent at once. The file is made of Java class files,
+ * similar to downloading an executable, the memory image also contains zero filled pages.
+ *
+ * Parameter "compression" selects whether both ends of the channel compress large messages.
+ * Bytes transferred per operation are printed at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CompressionBenchmark {
+
+    private static final int IMAGE_SIZE = 0x100000;
+    private static final int CHUNK_SIZE = 0x10000;
+    private static final String FILE_HANDLE = "BenchmarkFile";
+    private static final String CONTEXT_ID = "BenchmarkMemory";
+
+    private static final String[] IMAGE_CLASSES = {
+        "java/lang/Object", "java/lang/String", "java/lang/Thread", "java/lang/Class",
+        "java/lang/Integer", "java/lang/Long", "java/lang/Math", "java/lang/StringBuilder",
+        "java/util/HashMap", "java/util/ArrayList", "java/util/LinkedList", "java/util/TreeMap",
+        "java/util/Collections", "java/util/Arrays", "java/util/Formatter", "java/util/Scanner",
+        "java/io/File", "java/io/ObjectInputStream", "java/io/ObjectOutputStream", "java/io/PrintStream",
+        "java/net/URI", "java/net/URL", "java/net/Socket", "java/net/InetAddress",
+        "java/util/concurrent/ConcurrentHashMap", "java/util/concurrent/ThreadPoolExecutor",
+        "java/util/regex/Pattern", "java/util/zip/ZipFile", "java/math/BigInteger", "java/math/BigDecimal",
+    };
+
+    @Param({ "on", "off" })
+    public String compression;
+
+    @Param({ "10", "100", "1000" })
+    public int link;
+
+    private static byte[] file_image;
+    private static byte[] memory_image;
+
+    private SimulatedLink sim_link;
+    private IChannel channel;
+    private long ops;
+    private long bytes_down;
+
+    private static synchronized void createImages() throws Exception {
+        if (file_image != null) return;
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        ByteArrayOutputStream memory = new ByteArrayOutputStream();
+        byte[] page = new byte[0x1000];
+        for (int i = 0; file.size() < IMAGE_SIZE || memory.size() < IMAGE_SIZE; i++) {
+            InputStream inp = Object.class.getResourceAsStream("/" + IMAGE_CLASSES[i % IMAGE_CLASSES.length] + ".class");
+            if (inp == null) throw new Exception("Cannot read Java class files");
+            for (;;) {
+                int n = inp.read(page);
+                if (n < 0) break;
+                file.write(page, 0, n);
+                memory.write(page, 0, n);
+            }
+            inp.close();
+            /* Every other class is followed by a zero filled page */
+            if (i % 2 == 0) memory.write(new byte[page.length], 0, page.length);
+        }
+        file_image = new byte[IMAGE_SIZE];
+        memory_image = new byte[IMAGE_SIZE];
+        System.arraycopy(file.toByteArray(), 0, file_image, 0, IMAGE_SIZE);
+        System.arraycopy(memory.toByteArray(), 0, memory_image, 0, IMAGE_SIZE);
+    }
+
+    /**
+     * FileSystem and Memory services of the benchmark server.
+     */
+    private static class ImageService implements IService {
+
+        private final String name;
+
+        ImageService(final IChannel channel, final String name) {
+            this.name = name;
+            channel.addCommandServer(this, new IChannel.ICommandServer() {
+                public void command(IToken token, String cmd, byte[] data) {
+                    try {
+                        Object[] args = JSON.parseSequence(data);
+                        Object[] res = null;
+                        if (name.equals(IFileSystem.NAME) && cmd.equals("open")) {
+                            res = new Object[]{ null, FILE_HANDLE };
+                        }
+                        else if (name.equals(IFileSystem.NAME) && cmd.equals("read")) {
+                            int offs = ((Number)args[1]).intValue();
+                            int len = Math.min(((Number)args[2]).intValue(), IMAGE_SIZE - offs);
+                            res = new Object[]{ new JSON.Binary(file_image, offs, len), null, offs + len >= IMAGE_SIZE };
+                        }
+                        else if (name.equals(IFileSystem.NAME) && cmd.equals("close")) {
+                            res = new Object[]{ null };
+                        }
+                        else if (name.equals(IMemory.NAME) && cmd.equals("getContext")) {
+                            Map<String,Object> props = new HashMap<String,Object>();
+                            props.put(IMemory.PROP_ID, args[0]);
+                            res = new Object[]{ null, props };
+                        }
+                        else if (name.equals(IMemory.NAME) && cmd.equals("get")) {
+                            int addr = ((Number)args[1]).intValue();
+                            int len = ((Number)args[3]).intValue();
+                            res = new Object[]{ new JSON.Binary(memory_image, addr, len), null, null };
+                        }
+                        else {
+                            channel.rejectCommand(token);
+                            return;
+                        }
+                        boolean zero_copy = ((AbstractChannel)channel).isZeroCopySupported();
+                        channel.sendResult(token, JSON.toJSONSequence(res, zero_copy));
+                    }
+                    catch (Exception x) {
+                        channel.terminate(x);
+                    }
+                }
+            });
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    private static boolean provider_added;
+
+    private static synchronized void addServiceProvider() {
+        if (provider_added) return;
+        provider_added = true;
+        Protocol.addServiceProvider(new IServiceProvider() {
+            public IService[] getLocalService(IChannel channel) {
+                /* Client side channels are connected to peers created by BenchmarkSupport.getServerPeer() */
+                if (channel.getRemotePeer().getID().startsWith("Benchmark:")) return null;
+                return new IService[]{
+                    new ImageService(channel, IFileSystem.NAME),
+                    new ImageService(channel, IMemory.NAME),
+                };
+            }
+
+            public IService getServiceProxy(IChannel channel, String service_name) {
+                return null;
+            }
+        });
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        createImages();
+        BenchmarkSupport.init();
+        addServiceProvider();
+        /* The property is read when a channel is created, so it applies to both ends of the channel */
+        System.setProperty("org.eclipse.tcf.core.compression", Boolean.toString(compression.equals("on")));
+        sim_link = new SimulatedLink(BenchmarkSupport.getServerPort(), 5000000L, link * 1000000L / 8);
+        final int port = sim_link.getPort();
+        List<IChannel> list = BenchmarkSupport.openChannels(1, new BenchmarkSupport.ChannelFactory() {
+            public IChannel openChannel() throws Exception {
+                return new ChannelTCP(BenchmarkSupport.getServerPeer("TCP"), "127.0.0.1", port);
+            }
+        });
+        channel = list.get(0);
+        ops = 0;
+        bytes_down = sim_link.bytes_down.get();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (channel != null) {
+            if (ops > 0) {
+                System.out.println();
+                System.out.println("Bytes on wire per operation: " + (sim_link.bytes_down.get() - bytes_down) / ops);
+            }
+            BenchmarkSupport.closeChannels(Collections.singletonList(channel));
+        }
+        if (sim_link != null) sim_link.close();
+        System.clearProperty("org.eclipse.tcf.core.compression");
+        channel = null;
+        sim_link = null;
+    }
+
+    @Benchmark
+    public byte[] download() throws Exception {
+        ops++;
+        return new TCFTask<byte[]>(channel) {
+            final byte[] buf = new byte[IMAGE_SIZE];
+            int cnt;
+            public void run() {
+                final FileSystemProxy fs = (FileSystemProxy)channel.getRemoteService(IFileSystem.class);
+                fs.open("/benchmark/image", IFileSystem.TCF_O_READ, null, new IFileSystem.DoneOpen() {
+                    public void doneOpen(IToken token, IFileSystem.FileSystemException error, final IFileSystem.IFileHandle handle) {
+                        if (error != null) {
+                            error(error);
+                            return;
+                        }
+                        for (int offs = 0; offs < IMAGE_SIZE; offs += CHUNK_SIZE) {
+                            fs.read(handle, offs, buf, offs, CHUNK_SIZE, new FileSystemProxy.DoneReadBuffer() {
+                                public void doneReadBuffer(IToken token, IFileSystem.FileSystemException error, int size, boolean eof) {
+                                    if (isDone()) return;
+                                    if (error != null) {
+                                        error(error);
+                                        return;
+                                    }
+                                    if (++cnt < IMAGE_SIZE / CHUNK_SIZE) return;
+                                    fs.close(handle, new IFileSystem.DoneClose() {
+                                        public void doneClose(IToken token, IFileSystem.FileSystemException error) {
+                                            if (error != null) error(error);
+                                            else done(buf);
+                                        }
+                                    });
+                                }
+                            });
+                        }
+                    }
+                });
+            }
+        }.get();
+    }
+
+    @Benchmark
+    public byte[] memoryDump() throws Exception {
+        ops++;
+        return new TCFTask<byte[]>(channel) {
+            final byte[] buf = new byte[IMAGE_SIZE];
+            int cnt;
+            public void run() {
+                IMemory memory = channel.getRemoteService(IMemory.class);
+                memory.getContext(CONTEXT_ID, new IMemory.DoneGetContext() {
+                    public void doneGetContext(IToken token, Exception error, IMemory.MemoryContext context) {
+                        if (error != null) {
+                            error(error);
+                            return;
+                        }
+                        for (int addr = 0; addr < IMAGE_SIZE; addr += CHUNK_SIZE) {
+                            context.get(addr, 1, buf, addr, CHUNK_SIZE, 0, new IMemory.DoneMemory() {
+                                public void doneMemory(IToken token, IMemory.MemoryError error) {
+                                    if (isDone()) return;
+                                    if (error != null) error(error);
+                                    else if (++cnt == IMAGE_SIZE / CHUNK_SIZE) done(buf);
+                                }
+                            });
+                        }
+                    }
+                });
+            }
+        }.get();
+    }
+}
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.benchmarks;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tcf.core.AbstractChannel;
+import org.eclipse.tcf.core.ChannelTCP;
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.services.IDiagnostics;
+import org.eclipse.tcf.util.TCFTask;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures command throughput of a TCP channel over a link with simulated latency.
+ * The channel is connected to the local server through a relay that delays data by
+ * half of "latency" milliseconds in each direction.
+ *
+ * The client behaves like a well-mannered TCF client: it keeps sending Diagnostics "echo" commands
+ * while the channel reports negative congestion level. Parameter "window" selects adaptive congestion
+ * window ("adaptive"), or the original fixed limit of 32 pending commands ("fixed"), which caps
+ * throughput at 32 commands per round-trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CongestionWindowBenchmark {
+
+    private static final int BURST_SIZE = 2000;
+
+    @Param({ "1", "20", "100" })
+    public int latency;
+
+    @Param({ "adaptive", "fixed" })
+    public String window;
+
+    private SimulatedLink link;
+    private IChannel channel;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        System.setProperty("org.eclipse.tcf.core.congestion_window", Boolean.toString(window.equals("adaptive")));
+        link = new SimulatedLink(BenchmarkSupport.getServerPort(), latency * 1000000L / 2, 0);
+        final int port = link.getPort();
+        List<IChannel> list = BenchmarkSupport.openChannels(1, new BenchmarkSupport.ChannelFactory() {
+            public IChannel openChannel() throws Exception {
+                return new ChannelTCP(BenchmarkSupport.getServerPeer("TCP"), "127.0.0.1", port);
+            }
+        });
+        channel = list.get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (channel != null) {
+            System.out.println();
+            System.out.println("Congestion statistics: " + new TCFTask<Object>(channel) {
+                public void run() {
+                    done(((AbstractChannel)channel).getCongestionStatistics());
+                }
+            }.get());
+            BenchmarkSupport.closeChannels(Collections.singletonList(channel));
+        }
+        if (link != null) link.close();
+        channel = null;
+        link = null;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST_SIZE)
+    public int echo() throws Exception {
+        return new TCFTask<Integer>(channel) {
+            int sent_cnt;
+            int done_cnt;
+            IDiagnostics diag;
+            IDiagnostics.DoneEcho done;
+            void send() {
+                while (sent_cnt < BURST_SIZE && channel.getCongestion() < 0) {
+                    diag.echo("Congestion window", done);
+                    sent_cnt++;
+                }
+            }
+            public void run() {
+                diag = channel.getRemoteService(IDiagnostics.class);
+                done = new IDiagnostics.DoneEcho() {
+                    public void doneEcho(IToken token, Throwable error, String str) {
+                        if (isDone()) return;
+                        if (error != null) error(error);
+                        else if (++done_cnt == BURST_SIZE) done(done_cnt);
+                        else send();
+                    }
+                };
+                send();
+            }
+        }.get();
+    }
+}
@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.benchmarks;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tcf.internal.services.local.SimulatedAgent;
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.services.IRunControl;
+import org.eclipse.tcf.services.IStackTrace;
+import org.eclipse.tcf.util.TCFTask;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures time to populate a debug view of a large process, using the simulated agent:
+ * the client retrieves the list of threads, context properties and state of every thread,
+ * and stack trace of every thread, with all commands of each step sent at once.
+ *
+ * Parameter "threads" selects number of threads in the process.
+ * Parameter "latency" selects reply latency of the agent in milliseconds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ContextTreeBenchmark {
+
+    @Param({ "100", "10000" })
+    public int threads;
+
+    @Param({ "0", "1" })
+    public int latency;
+
+    private SimulatedAgent agent;
+    private IChannel channel;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        BenchmarkSupport.init();
+        channel = BenchmarkSupport.openChannels(1, new BenchmarkSupport.ChannelFactory() {
+            public IChannel openChannel() throws Exception {
+                agent = new SimulatedAgent("threads=" + threads + ",latency=" + latency);
+                return agent.connect(null);
+            }
+        }).get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkSupport.closeChannels(Collections.singletonList(channel));
+        new TCFTask<Object>() {
+            public void run() {
+                agent.dispose();
+                done(this);
+            }
+        }.get();
+        channel = null;
+        agent = null;
+    }
+
+    @Benchmark
+    public int populate() throws Exception {
+        return new TCFTask<Integer>(channel) {
+            IRunControl rc;
+            IStackTrace st;
+            Set<IToken> cmds;
+            int frame_cnt;
+
+            public void run() {
+                /* The task is started by TCFTask constructor, so fields are initialized here */
+                rc = channel.getRemoteService(IRunControl.class);
+                st = channel.getRemoteService(IStackTrace.class);
+                cmds = new HashSet<IToken>();
+                rc.getChildren("P0", new IRunControl.DoneGetChildren() {
+                    public void doneGetChildren(IToken token, Exception error, String[] ids) {
+                        if (error != null) {
+                            error(error);
+                            return;
+                        }
+                        if (ids.length != threads) {
+                            error(new Exception("Invalid number of threads"));
+                            return;
+                        }
+                        for (String id : ids) getContext(id);
+                    }
+                });
+            }
+
+            private void getContext(String id) {
+                cmds.add(rc.getContext(id, new IRunControl.DoneGetContext() {
+                    public void doneGetContext(IToken token, Exception error, IRunControl.RunControlContext ctx) {
+                        cmds.remove(token);
+                        if (error != null) {
+                            error(error);
+                            return;
+                        }
+                        getState(ctx);
+                    }
+                }));
+            }
+
+            private void getState(final IRunControl.RunControlContext ctx) {
+                cmds.add(ctx.getState(new IRunControl.DoneGetState() {
+                    public void doneGetState(IToken token, Exception error,
+                            boolean suspended, String pc, String reason, Map<String,Object> params) {
+                        cmds.remove(token);
+                        if (error != null) {
+                            error(error);
+                            return;
+                        }
+                        getStackTrace(ctx.getID());
+                    }
+                }));
+            }
+
+            private void getStackTrace(String id) {
+                cmds.add(st.getChildren(id, new IStackTrace.DoneGetChildren() {
+                    public void doneGetChildren(IToken token, Exception error, String[] ids) {
+                        cmds.remove(token);
+                        if (error != null) {
+                            error(error);
+                            return;
+                        }
+                        cmds.add(st.getContext(ids, new IStackTrace.DoneGetContext() {
+                            public void doneGetContext(IToken token, Exception error, IStackTrace.StackTraceContext[] frames) {
+                                cmds.remove(token);
+                                if (error != null) {
+                                    error(error);
+                                    return;
+                                }
+                                frame_cnt += frames.length;
+                                if (cmds.isEmpty()) done(frame_cnt);
+                            }
+                        }));
+                    }
+                }));
+            }
+        }.get();
+    }
+}
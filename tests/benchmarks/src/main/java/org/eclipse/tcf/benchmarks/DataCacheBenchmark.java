@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.benchmarks;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tcf.core.TransientPeer;
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IPeer;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.util.TCFDataCache;
+import org.eclipse.tcf.util.TCFTask;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures overhead of TCFDataCache validation, the way debugger views use the caches.
+ * Data retrieval does not send commands: the reply is posted as a separate dispatch event,
+ * so the results include only the cache state machine and event dispatching.
+ *
+ * Benchmark "validate" validates caches that are already valid, like a view that is refreshed
+ * while the target is suspended. Benchmark "revalidateFlat" resets CACHE_CNT independent caches,
+ * and a client validates all of them, starting all retrievals at once and waiting for the last one.
+ * Benchmark "revalidateChain" resets a chain of CHAIN_DEPTH caches, each of them validates its parent
+ * before starting own retrieval, like a stack frame, its symbol and the symbol type, and the client is
+ * restarted every time a cache in the chain becomes valid.
+ * The score is time per cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataCacheBenchmark {
+
+    private static final int CACHE_CNT = 100;
+    private static final int CHAIN_DEPTH = 10;
+    private static final int ROUNDS = 100;
+
+    private List<IChannel> channels;
+    private IChannel channel;
+    private Cache[] flat;
+    private Cache[] chain;
+
+    private static class Cache extends TCFDataCache<Object> {
+
+        final Cache parent;
+        final Object value;
+
+        Cache(IChannel channel, Cache parent, Object value) {
+            super(channel);
+            this.parent = parent;
+            this.value = value;
+        }
+
+        @Override
+        protected boolean startDataRetrieval() {
+            if (parent != null && !parent.validate(this)) return false;
+            final IToken token = new IToken() {
+                public boolean cancel() {
+                    return false;
+                }
+            };
+            start(token);
+            Protocol.invokeLater(new Runnable() {
+                public void run() {
+                    set(token, null, value);
+                }
+            });
+            return false;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        BenchmarkSupport.init();
+        channels = BenchmarkSupport.openChannels(1, new BenchmarkSupport.ChannelFactory() {
+            public IChannel openChannel() throws Exception {
+                Map<String,String> attrs = new HashMap<String,String>();
+                attrs.put(IPeer.ATTR_ID, "Benchmark:Loop");
+                attrs.put(IPeer.ATTR_TRANSPORT_NAME, "Loop");
+                return new TransientPeer(attrs).openChannel();
+            }
+        });
+        channel = channels.get(0);
+        new TCFTask<Object>(channel) {
+            public void run() {
+                flat = new Cache[CACHE_CNT];
+                for (int i = 0; i < CACHE_CNT; i++) {
+                    flat[i] = new Cache(channel, null, Integer.valueOf(i));
+                    flat[i].reset(flat[i].value);
+                }
+                chain = new Cache[CHAIN_DEPTH];
+                for (int i = 0; i < CHAIN_DEPTH; i++) {
+                    chain[i] = new Cache(channel, i > 0 ? chain[i - 1] : null, Integer.valueOf(i));
+                    chain[i].reset(chain[i].value);
+                }
+                done(this);
+            }
+        }.get();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkSupport.closeChannels(channels);
+        channels = null;
+        channel = null;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CACHE_CNT * ROUNDS)
+    public int validate() throws Exception {
+        return new TCFTask<Integer>(channel) {
+            public void run() {
+                int cnt = 0;
+                for (int i = 0; i < ROUNDS; i++) {
+                    for (Cache c : flat) {
+                        if (c.validate()) cnt++;
+                    }
+                }
+                done(cnt);
+            }
+        }.get();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CACHE_CNT)
+    public Object revalidateFlat() throws Exception {
+        return new TCFTask<Object>(channel) {
+            boolean started;
+            public void run() {
+                if (!started) {
+                    started = true;
+                    for (Cache c : flat) c.reset();
+                }
+                TCFDataCache<?> pending = null;
+                for (Cache c : flat) {
+                    if (!c.validate()) pending = c;
+                }
+                if (pending != null) {
+                    pending.wait(this);
+                    return;
+                }
+                done(flat[CACHE_CNT - 1].getData());
+            }
+        }.get();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHAIN_DEPTH)
+    public Object revalidateChain() throws Exception {
+        return new TCFTask<Object>(channel) {
+            boolean started;
+            public void run() {
+                if (!started) {
+                    started = true;
+                    for (Cache c : chain) c.reset();
+                }
+                Cache last = chain[CHAIN_DEPTH - 1];
+                if (!last.validate(this)) return;
+                done(last.getData());
+            }
+        }.get();
+    }
+}
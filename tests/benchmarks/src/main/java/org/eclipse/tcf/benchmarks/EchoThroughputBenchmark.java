@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.benchmarks;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tcf.core.ChannelTCP;
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.services.IDiagnostics;
+import org.eclipse.tcf.util.TCFTask;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures command throughput of a single TCP channel: a burst of Diagnostics "echo" commands
+ * is sent without waiting for replies, similar to planting many breakpoints or filling memory.
+ *
+ * Parameter "output" selects batch transmission ("batch"), where the transmitter thread
+ * takes all queued messages at once and flushes the socket once per batch, or the original
+ * one message at a time transmitter ("legacy"). Both ends of the channel use the same mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EchoThroughputBenchmark {
+
+    private static final int BURST_SIZE = 1000;
+
+    @Param({ "batch", "legacy" })
+    public String output;
+
+    @Param({ "16", "1024" })
+    public int size;
+
+    private IChannel channel;
+    private String text;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        System.setProperty("org.eclipse.tcf.core.batch_output", Boolean.toString(output.equals("batch")));
+        final int port = BenchmarkSupport.getServerPort();
+        List<IChannel> list = BenchmarkSupport.openChannels(1, new BenchmarkSupport.ChannelFactory() {
+            public IChannel openChannel() throws Exception {
+                return new ChannelTCP(BenchmarkSupport.getServerPeer("TCP"), "127.0.0.1", port);
+            }
+        });
+        channel = list.get(0);
+        StringBuilder bf = new StringBuilder();
+        while (bf.length() < size) bf.append("Echo throughput ");
+        bf.setLength(size);
+        text = bf.toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (channel != null) BenchmarkSupport.closeChannels(Collections.singletonList(channel));
+        channel = null;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST_SIZE)
+    public int echo() throws Exception {
+        return new TCFTask<Integer>(channel) {
+            int cnt;
+            public void run() {
+                IDiagnostics diag = channel.getRemoteService(IDiagnostics.class);
+                IDiagnostics.DoneEcho done = new IDiagnostics.DoneEcho() {
+                    public void doneEcho(IToken token, Throwable error, String str) {
+                        if (isDone()) return;
+                        if (error != null) error(error);
+                        else if (++cnt == BURST_SIZE) done(cnt);
+                    }
+                };
+                for (int i = 0; i < BURST_SIZE; i++) diag.echo(text, done);
+            }
+        }.get();
+    }
+}
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.benchmarks;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tcf.protocol.IEventQueue;
+import org.eclipse.tcf.util.TCFEventQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures invokeLater() throughput of TCF event queues when events are posted
+ * by several producer threads at once, like channel receiver threads do.
+ *
+ * Parameter "queue" selects lock-free TCFEventQueue ("lockfree") or
+ * the original synchronized LinkedList queue ("synchronized").
+ * The score is events per second, including execution of the events by the dispatch thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventQueueBenchmark {
+
+    private static final int EVENT_CNT = 48000;
+
+    @Param({ "lockfree", "synchronized" })
+    public String queue;
+
+    @Param({ "1", "4", "16" })
+    public int producers;
+
+    private IEventQueue event_queue;
+    private ExecutorService executor;
+    private int dispatch_cnt;
+
+    private final Runnable event = new Runnable() {
+        public void run() {
+            dispatch_cnt++;
+        }
+    };
+
+    @Setup(Level.Trial)
+    public void setup() {
+        if (queue.equals("lockfree")) {
+            TCFEventQueue q = new TCFEventQueue();
+            q.start();
+            event_queue = q;
+        }
+        else {
+            event_queue = new BenchmarkSupport.EventQueue();
+        }
+        executor = Executors.newFixedThreadPool(producers);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+        if (event_queue instanceof TCFEventQueue) ((TCFEventQueue)event_queue).shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENT_CNT)
+    public int invokeLater() throws Exception {
+        final int cnt = EVENT_CNT / producers;
+        final CountDownLatch done = new CountDownLatch(producers);
+        final Runnable last = new Runnable() {
+            public void run() {
+                done.countDown();
+            }
+        };
+        for (int i = 0; i < producers; i++) {
+            executor.execute(new Runnable() {
+                public void run() {
+                    for (int j = 1; j < cnt; j++) event_queue.invokeLater(event);
+                    event_queue.invokeLater(last);
+                }
+            });
+        }
+        done.await();
+        return dispatch_cnt;
+    }
+}
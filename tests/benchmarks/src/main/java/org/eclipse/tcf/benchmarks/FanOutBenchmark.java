@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.benchmarks;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tcf.internal.services.local.SimulatedAgent;
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.services.IRunControl;
+import org.eclipse.tcf.util.TCFFuture;
+import org.eclipse.tcf.util.TCFTask;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures time for a client thread to retrieve properties of every thread of a process
+ * using TCFFuture.map(), with the simulated agent replying after 1 millisecond.
+ *
+ * Parameter "window" selects max number of commands in progress: 1 is equivalent to
+ * sequential blocking calls, 0 sends all commands at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class FanOutBenchmark {
+
+    @Param({ "1000" })
+    public int threads;
+
+    @Param({ "1", "16", "256", "0" })
+    public int window;
+
+    private SimulatedAgent agent;
+    private IChannel channel;
+    private IRunControl rc;
+    private List<String> ids;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        BenchmarkSupport.init();
+        channel = BenchmarkSupport.openChannels(1, new BenchmarkSupport.ChannelFactory() {
+            public IChannel openChannel() throws Exception {
+                agent = new SimulatedAgent("threads=" + threads + ",latency=1");
+                return agent.connect(null);
+            }
+        }).get(0);
+        rc = new TCFTask<IRunControl>(channel) {
+            public void run() {
+                done(channel.getRemoteService(IRunControl.class));
+            }
+        }.get();
+        ids = Arrays.asList((String[])TCFFuture.invoke(rc, "getChildren", "P0").get());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkSupport.closeChannels(Collections.singletonList(channel));
+        new TCFTask<Object>() {
+            public void run() {
+                agent.dispose();
+                done(this);
+            }
+        }.get();
+        channel = null;
+        agent = null;
+    }
+
+    @Benchmark
+    public int getContexts() throws Exception {
+        Map<String,Object> map = TCFFuture.map(ids, window, new TCFFuture.IFactory<String,Object>() {
+            public TCFFuture<Object> create(String id) {
+                return TCFFuture.invoke(rc, "getContext", id);
+            }
+        }).get();
+        return map.size();
+    }
+}
@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tcf.core.AbstractChannel;
+import org.eclipse.tcf.core.ChannelTCP;
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IService;
+import org.eclipse.tcf.protocol.IServiceProvider;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.JSON;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.IFileSystem;
+import org.eclipse.tcf.util.TCFFileInputStream;
+import org.eclipse.tcf.util.TCFTask;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures throughput of TCFFileInputStream in megabytes per second.
+ * Each operation opens a file of FILE_SIZE bytes on the benchmark server and reads it to the end.
+ *
+ * Parameter "link" selects a direct connection to the server ("local"),
+ * or a connection through a link with 10ms round-trip time ("wan").
+ * Parameter "api" selects sequential reads of 64KB with InputStream.read() ("stream"),
+ * or positional reads of 4MB with TCFFileInputStream.read(ByteBuffer, long) ("positional").
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileReadBenchmark {
+
+    private static final int FILE_SIZE = 0x4000000;
+    private static final String FILE_NAME = "/benchmark/core.dump";
+
+    @Param({ "local", "wan" })
+    public String link;
+
+    @Param({ "stream", "positional" })
+    public String api;
+
+    private SimulatedLink sim_link;
+    private IChannel channel;
+    private byte[] buf;
+    private ByteBuffer byte_buf;
+
+    /**
+     * FileSystem service of the benchmark server, it provides a read-only file of FILE_SIZE bytes.
+     */
+    private static class FileSystemService implements IService {
+
+        private static final byte[] data = new byte[0x100000];
+
+        static {
+            for (int i = 0; i < data.length; i++) data[i] = (byte)(i * 7);
+        }
+
+        FileSystemService(final IChannel channel) {
+            channel.addCommandServer(this, new IChannel.ICommandServer() {
+                public void command(IToken token, String name, byte[] args_data) {
+                    try {
+                        Object[] args = JSON.parseSequence(args_data);
+                        Object[] res = null;
+                        if (name.equals("open")) {
+                            res = new Object[]{ null, args[0] };
+                        }
+                        else if (name.equals("read")) {
+                            long offs = ((Number)args[1]).longValue();
+                            int len = ((Number)args[2]).intValue();
+                            int n = (int)Math.max(0, Math.min(len, FILE_SIZE - offs));
+                            int pos = (int)(offs % data.length);
+                            JSON.Binary b = null;
+                            if (pos + n <= data.length) {
+                                b = new JSON.Binary(data, pos, n);
+                            }
+                            else {
+                                byte[] tmp = new byte[n];
+                                for (int i = 0; i < n; i++) tmp[i] = data[(pos + i) % data.length];
+                                b = new JSON.Binary(tmp, 0, n);
+                            }
+                            res = new Object[]{ b, null, offs + n >= FILE_SIZE };
+                        }
+                        else if (name.equals("close")) {
+                            res = new Object[]{ null };
+                        }
+                        else {
+                            channel.rejectCommand(token);
+                            return;
+                        }
+                        boolean zero_copy = ((AbstractChannel)channel).isZeroCopySupported();
+                        channel.sendResult(token, JSON.toJSONSequence(res, zero_copy));
+                    }
+                    catch (Exception x) {
+                        channel.terminate(x);
+                    }
+                }
+            });
+        }
+
+        public String getName() {
+            return IFileSystem.NAME;
+        }
+    }
+
+    private static boolean provider_added;
+
+    private static synchronized void addServiceProvider() {
+        if (provider_added) return;
+        provider_added = true;
+        Protocol.addServiceProvider(new IServiceProvider() {
+            public IService[] getLocalService(IChannel channel) {
+                /* Client side channels are connected to peers created by BenchmarkSupport.getServerPeer() */
+                if (channel.getRemotePeer().getID().startsWith("Benchmark:")) return null;
+                return new IService[]{ new FileSystemService(channel) };
+            }
+
+            public IService getServiceProxy(IChannel channel, String service_name) {
+                return null;
+            }
+        });
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        BenchmarkSupport.init();
+        addServiceProvider();
+        int server_port = BenchmarkSupport.getServerPort();
+        if (link.equals("wan")) sim_link = new SimulatedLink(server_port, 5000000L, 0);
+        final int port = sim_link != null ? sim_link.getPort() : server_port;
+        List<IChannel> list = BenchmarkSupport.openChannels(1, new BenchmarkSupport.ChannelFactory() {
+            public IChannel openChannel() throws Exception {
+                return new ChannelTCP(BenchmarkSupport.getServerPeer("TCP"), "127.0.0.1", port);
+            }
+        });
+        channel = list.get(0);
+        buf = new byte[0x10000];
+        byte_buf = ByteBuffer.allocate(0x400000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (channel != null) BenchmarkSupport.closeChannels(Collections.singletonList(channel));
+        channel = null;
+        if (sim_link != null) sim_link.close();
+        sim_link = null;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILE_SIZE / 0x100000)
+    public long readFile() throws Exception {
+        IFileSystem.IFileHandle handle = new TCFTask<IFileSystem.IFileHandle>(channel) {
+            public void run() {
+                IFileSystem fs = channel.getRemoteService(IFileSystem.class);
+                fs.open(FILE_NAME, IFileSystem.TCF_O_READ, null, new IFileSystem.DoneOpen() {
+                    public void doneOpen(IToken token, IFileSystem.FileSystemException error, IFileSystem.IFileHandle handle) {
+                        if (error != null) error(error);
+                        else done(handle);
+                    }
+                });
+            }
+        }.get();
+        TCFFileInputStream inp = new TCFFileInputStream(handle);
+        long total = 0;
+        try {
+            if (api.equals("stream")) {
+                for (;;) {
+                    int n = inp.read(buf, 0, buf.length);
+                    if (n < 0) break;
+                    total += n;
+                }
+            }
+            else {
+                for (;;) {
+                    byte_buf.clear();
+                    int n = inp.read(byte_buf, total);
+                    if (n < 0) break;
+                    total += n;
+                }
+            }
+        }
+        finally {
+            inp.close();
+        }
+        if (total != FILE_SIZE) throw new Exception("Invalid file size: " + total);
+        return total;
+    }
+}
@@ -0,0 +1,279 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.benchmarks;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tcf.core.ChannelTCP;
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IErrorReport;
+import org.eclipse.tcf.protocol.IService;
+import org.eclipse.tcf.protocol.IServiceProvider;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.JSON;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.IFileSystem;
+import org.eclipse.tcf.util.TCFFileOutputStream;
+import org.eclipse.tcf.util.TCFFileTransfer;
+import org.eclipse.tcf.util.TCFTask;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures time to upload a directory tree of FILE_CNT small files, in DIR_CNT directories, to the benchmark server.
+ *
+ * Parameter "link" selects a direct connection to the server ("local"),
+ * or a connection through a link with 1ms round-trip time ("lan").
+ * Parameter "copy" selects copying the tree file by file with mkdir, open, write and close,
+ * each file through TCFFileOutputStream ("sequential"), or copying it with TCFFileTransfer ("engine").
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class FileTransferBenchmark {
+
+    private static final int DIR_CNT = 100;
+    private static final int FILE_CNT = 10000;
+    private static final String REMOTE_DIR = "/benchmark/upload";
+
+    @Param({ "local", "lan" })
+    public String link;
+
+    @Param({ "sequential", "engine" })
+    public String copy;
+
+    private SimulatedLink sim_link;
+    private IChannel channel;
+    private File local_dir;
+
+    /** Number of bytes written by the server, used to check the result */
+    private static long server_bytes;
+
+    /**
+     * FileSystem service of the benchmark server, it creates directories and discards written data.
+     */
+    private static class FileSystemService implements IService {
+
+        private final Map<String,String> files = new HashMap<String,String>();
+        private int handle_cnt;
+
+        FileSystemService(final IChannel channel) {
+            channel.addCommandServer(this, new IChannel.ICommandServer() {
+                public void command(IToken token, String name, byte[] args_data) {
+                    try {
+                        Object[] args = JSON.parseSequence(args_data);
+                        Object[] res = null;
+                        if (name.equals("mkdir")) {
+                            res = new Object[]{ null };
+                        }
+                        else if (name.equals("open")) {
+                            String id = "FH" + handle_cnt++;
+                            files.put(id, (String)args[0]);
+                            res = new Object[]{ null, id };
+                        }
+                        else if (name.equals("write")) {
+                            if (!files.containsKey(args[0])) {
+                                Map<String,Object> err = new HashMap<String,Object>();
+                                err.put(IErrorReport.ERROR_CODE, IErrorReport.TCF_ERROR_INV_CONTEXT);
+                                err.put(IErrorReport.ERROR_FORMAT, "Invalid file handle");
+                                res = new Object[]{ err };
+                            }
+                            else {
+                                server_bytes += JSON.toByteArray(args[2]).length;
+                                res = new Object[]{ null };
+                            }
+                        }
+                        else if (name.equals("close")) {
+                            files.remove(args[0]);
+                            res = new Object[]{ null };
+                        }
+                        else {
+                            channel.rejectCommand(token);
+                            return;
+                        }
+                        channel.sendResult(token, JSON.toJSONSequence(res));
+                    }
+                    catch (Exception x) {
+                        channel.terminate(x);
+                    }
+                }
+            });
+        }
+
+        public String getName() {
+            return IFileSystem.NAME;
+        }
+    }
+
+    private static boolean provider_added;
+
+    private static synchronized void addServiceProvider() {
+        if (provider_added) return;
+        provider_added = true;
+        Protocol.addServiceProvider(new IServiceProvider() {
+            public IService[] getLocalService(IChannel channel) {
+                /* Client side channels are connected to peers created by BenchmarkSupport.getServerPeer() */
+                if (channel.getRemotePeer().getID().startsWith("Benchmark:")) return null;
+                return new IService[]{ new FileSystemService(channel) };
+            }
+
+            public IService getServiceProxy(IChannel channel, String service_name) {
+                return null;
+            }
+        });
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        BenchmarkSupport.init();
+        addServiceProvider();
+        int server_port = BenchmarkSupport.getServerPort();
+        if (link.equals("lan")) sim_link = new SimulatedLink(server_port, 500000L, 0);
+        final int port = sim_link != null ? sim_link.getPort() : server_port;
+        List<IChannel> list = BenchmarkSupport.openChannels(1, new BenchmarkSupport.ChannelFactory() {
+            public IChannel openChannel() throws Exception {
+                return new ChannelTCP(BenchmarkSupport.getServerPeer("TCP"), "127.0.0.1", port);
+            }
+        });
+        channel = list.get(0);
+        local_dir = File.createTempFile("tcf-benchmark", "");
+        local_dir.delete();
+        local_dir.mkdir();
+        byte[] data = new byte[0x1000];
+        for (int i = 0; i < data.length; i++) data[i] = (byte)(i * 7);
+        for (int d = 0; d < DIR_CNT; d++) {
+            File dir = new File(local_dir, "dir" + d);
+            dir.mkdir();
+            for (int f = 0; f < FILE_CNT / DIR_CNT; f++) {
+                OutputStream out = new FileOutputStream(new File(dir, "file" + f));
+                out.write(data, 0, 256 + (d * 31 + f * 17) % 3840);
+                out.close();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (channel != null) BenchmarkSupport.closeChannels(Collections.singletonList(channel));
+        channel = null;
+        if (sim_link != null) sim_link.close();
+        sim_link = null;
+        if (local_dir != null) {
+            for (File dir : local_dir.listFiles()) {
+                for (File f : dir.listFiles()) f.delete();
+                dir.delete();
+            }
+            local_dir.delete();
+            local_dir = null;
+        }
+    }
+
+    private void mkdir(final String path) throws Exception {
+        new TCFTask<Object>(channel) {
+            public void run() {
+                IFileSystem fs = channel.getRemoteService(IFileSystem.class);
+                fs.mkdir(path, null, new IFileSystem.DoneMkDir() {
+                    public void doneMkDir(IToken token, IFileSystem.FileSystemException error) {
+                        if (error != null) error(error);
+                        else done(this);
+                    }
+                });
+            }
+        }.get();
+    }
+
+    private void uploadFile(File file, final String path, byte[] buf) throws Exception {
+        IFileSystem.IFileHandle handle = new TCFTask<IFileSystem.IFileHandle>(channel) {
+            public void run() {
+                IFileSystem fs = channel.getRemoteService(IFileSystem.class);
+                int flags = IFileSystem.TCF_O_WRITE | IFileSystem.TCF_O_CREAT | IFileSystem.TCF_O_TRUNC;
+                fs.open(path, flags, null, new IFileSystem.DoneOpen() {
+                    public void doneOpen(IToken token, IFileSystem.FileSystemException error, IFileSystem.IFileHandle handle) {
+                        if (error != null) error(error);
+                        else done(handle);
+                    }
+                });
+            }
+        }.get();
+        InputStream inp = new FileInputStream(file);
+        OutputStream out = new TCFFileOutputStream(handle);
+        try {
+            for (;;) {
+                int n = inp.read(buf);
+                if (n < 0) break;
+                out.write(buf, 0, n);
+            }
+        }
+        finally {
+            inp.close();
+            out.close();
+        }
+    }
+
+    @Benchmark
+    public long uploadTree() throws Exception {
+        server_bytes = 0;
+        long total = 0;
+        if (copy.equals("sequential")) {
+            byte[] buf = new byte[0x1000];
+            mkdir(REMOTE_DIR);
+            for (File dir : local_dir.listFiles()) {
+                String dir_path = REMOTE_DIR + "/" + dir.getName();
+                mkdir(dir_path);
+                for (File f : dir.listFiles()) {
+                    uploadFile(f, dir_path + "/" + f.getName(), buf);
+                    total += f.length();
+                }
+            }
+        }
+        else {
+            total = new TCFTask<Long>(channel) {
+                public void run() {
+                    TCFFileTransfer t = new TCFFileTransfer(channel.getRemoteService(IFileSystem.class));
+                    t.addUpload(local_dir, REMOTE_DIR);
+                    t.start(new TCFFileTransfer.DoneTransfer() {
+                        public void doneTransfer(TCFFileTransfer transfer, Exception error) {
+                            if (error != null) error(error);
+                            else if (transfer.getFilesDone() != FILE_CNT) error(new Exception("Invalid file count"));
+                            else done(transfer.getBytesDone());
+                        }
+                    });
+                }
+            }.get();
+        }
+        /* Last results are received after the server has counted the data */
+        if (server_bytes != total) throw new Exception("Invalid number of bytes: " + server_bytes);
+        return total;
+    }
+}
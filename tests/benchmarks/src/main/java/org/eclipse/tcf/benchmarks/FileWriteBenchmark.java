@@ -0,0 +1,222 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.benchmarks;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tcf.core.ChannelTCP;
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IErrorReport;
+import org.eclipse.tcf.protocol.IService;
+import org.eclipse.tcf.protocol.IServiceProvider;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.JSON;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.IFileSystem;
+import org.eclipse.tcf.util.TCFFileOutputStream;
+import org.eclipse.tcf.util.TCFTask;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures throughput of TCFFileOutputStream in megabytes per second.
+ * Each operation creates a file on the benchmark server and writes FILE_SIZE bytes into it.
+ *
+ * Parameter "link" selects a direct connection to the server ("local"),
+ * or a connection through a link with 10ms round-trip time ("wan").
+ * Parameter "api" selects sequential writes of 64KB with OutputStream.write() ("stream"),
+ * or upload of a memory-mapped local file with TCFFileOutputStream.write(FileChannel, long, long) ("mapped").
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileWriteBenchmark {
+
+    private static final int FILE_SIZE = 0x4000000;
+    private static final String FILE_NAME = "/benchmark/rootfs.img";
+
+    @Param({ "local", "wan" })
+    public String link;
+
+    @Param({ "stream", "mapped" })
+    public String api;
+
+    private SimulatedLink sim_link;
+    private IChannel channel;
+    private byte[] buf;
+    private File local_file;
+    private RandomAccessFile local_raf;
+
+    /**
+     * FileSystem service of the benchmark server, it discards written data and reports file size on close.
+     */
+    private static class FileSystemService implements IService {
+
+        private final Map<String,long[]> files = new HashMap<String,long[]>();
+        private int handle_cnt;
+
+        FileSystemService(final IChannel channel) {
+            channel.addCommandServer(this, new IChannel.ICommandServer() {
+                public void command(IToken token, String name, byte[] args_data) {
+                    try {
+                        Object[] args = JSON.parseSequence(args_data);
+                        Object[] res = null;
+                        if (name.equals("open")) {
+                            String id = "FH" + handle_cnt++;
+                            files.put(id, new long[1]);
+                            res = new Object[]{ null, id };
+                        }
+                        else if (name.equals("write")) {
+                            long[] size = files.get(args[0]);
+                            long offs = ((Number)args[1]).longValue();
+                            byte[] data = JSON.toByteArray(args[2]);
+                            if (offs + data.length > size[0]) size[0] = offs + data.length;
+                            res = new Object[]{ null };
+                        }
+                        else if (name.equals("close")) {
+                            long[] size = files.remove(args[0]);
+                            Map<String,Object> err = null;
+                            if (size[0] != FILE_SIZE) {
+                                err = new HashMap<String,Object>();
+                                err.put(IErrorReport.ERROR_CODE, IErrorReport.TCF_ERROR_OTHER);
+                                err.put(IErrorReport.ERROR_FORMAT, "Invalid file size: " + size[0]);
+                            }
+                            res = new Object[]{ err };
+                        }
+                        else {
+                            channel.rejectCommand(token);
+                            return;
+                        }
+                        channel.sendResult(token, JSON.toJSONSequence(res));
+                    }
+                    catch (Exception x) {
+                        channel.terminate(x);
+                    }
+                }
+            });
+        }
+
+        public String getName() {
+            return IFileSystem.NAME;
+        }
+    }
+
+    private static boolean provider_added;
+
+    private static synchronized void addServiceProvider() {
+        if (provider_added) return;
+        provider_added = true;
+        Protocol.addServiceProvider(new IServiceProvider() {
+            public IService[] getLocalService(IChannel channel) {
+                /* Client side channels are connected to peers created by BenchmarkSupport.getServerPeer() */
+                if (channel.getRemotePeer().getID().startsWith("Benchmark:")) return null;
+                return new IService[]{ new FileSystemService(channel) };
+            }
+
+            public IService getServiceProxy(IChannel channel, String service_name) {
+                return null;
+            }
+        });
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        BenchmarkSupport.init();
+        addServiceProvider();
+        int server_port = BenchmarkSupport.getServerPort();
+        if (link.equals("wan")) sim_link = new SimulatedLink(server_port, 5000000L, 0);
+        final int port = sim_link != null ? sim_link.getPort() : server_port;
+        List<IChannel> list = BenchmarkSupport.openChannels(1, new BenchmarkSupport.ChannelFactory() {
+            public IChannel openChannel() throws Exception {
+                return new ChannelTCP(BenchmarkSupport.getServerPeer("TCP"), "127.0.0.1", port);
+            }
+        });
+        channel = list.get(0);
+        buf = new byte[0x10000];
+        for (int i = 0; i < buf.length; i++) buf[i] = (byte)(i * 7);
+        if (api.equals("mapped")) {
+            local_file = File.createTempFile("tcf-benchmark", ".img");
+            local_file.deleteOnExit();
+            local_raf = new RandomAccessFile(local_file, "rw");
+            for (int i = 0; i < FILE_SIZE; i += buf.length) local_raf.write(buf);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (channel != null) BenchmarkSupport.closeChannels(Collections.singletonList(channel));
+        channel = null;
+        if (sim_link != null) sim_link.close();
+        sim_link = null;
+        if (local_raf != null) local_raf.close();
+        local_raf = null;
+        if (local_file != null) local_file.delete();
+        local_file = null;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILE_SIZE / 0x100000)
+    public long writeFile() throws Exception {
+        IFileSystem.IFileHandle handle = new TCFTask<IFileSystem.IFileHandle>(channel) {
+            public void run() {
+                IFileSystem fs = channel.getRemoteService(IFileSystem.class);
+                int flags = IFileSystem.TCF_O_WRITE | IFileSystem.TCF_O_CREAT | IFileSystem.TCF_O_TRUNC;
+                fs.open(FILE_NAME, flags, null, new IFileSystem.DoneOpen() {
+                    public void doneOpen(IToken token, IFileSystem.FileSystemException error, IFileSystem.IFileHandle handle) {
+                        if (error != null) error(error);
+                        else done(handle);
+                    }
+                });
+            }
+        }.get();
+        TCFFileOutputStream out = new TCFFileOutputStream(handle);
+        long total = 0;
+        try {
+            if (api.equals("stream")) {
+                while (total < FILE_SIZE) {
+                    out.write(buf, 0, buf.length);
+                    total += buf.length;
+                }
+            }
+            else {
+                FileChannel ch = local_raf.getChannel();
+                total = out.write(ch, 0, FILE_SIZE);
+            }
+        }
+        finally {
+            /* The server reports an error if the file size is not FILE_SIZE */
+            out.close();
+        }
+        return total;
+    }
+}
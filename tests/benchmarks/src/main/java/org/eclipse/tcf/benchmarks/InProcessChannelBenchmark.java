@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.benchmarks;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tcf.core.ChannelRing;
+import org.eclipse.tcf.core.StreamChannel;
+import org.eclipse.tcf.core.TransientPeer;
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IPeer;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.services.IDiagnostics;
+import org.eclipse.tcf.util.TCFTask;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures Diagnostics "echo" throughput of in-process channels.
+ *
+ * Parameter "channel" selects loopback channel ("Loop" transport, based on ChannelRing),
+ * a pair of channels connected by ChannelRing.connect() ("pair"), or a copy of the original
+ * ChannelLoop, which moves data one byte at a time through a synchronized buffer ("legacy").
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InProcessChannelBenchmark {
+
+    private static final int BURST_SIZE = 1000;
+
+    @Param({ "loop", "pair", "legacy" })
+    public String channel;
+
+    @Param({ "16", "4096" })
+    public int size;
+
+    private IChannel ch;
+    private String text;
+
+    /**
+     * Original ChannelLoop implementation.
+     */
+    private static class LegacyChannelLoop extends StreamChannel {
+
+        private final byte[] buf = new byte[0x1000];
+        private int buf_inp;
+        private int buf_out;
+        private boolean waiting;
+        private boolean closed;
+
+        LegacyChannelLoop(IPeer peer) {
+            super(peer);
+            start();
+        }
+
+        @Override
+        protected synchronized int get() throws IOException {
+            try {
+                while (buf_inp == buf_out) {
+                    if (closed) return -1;
+                    waiting = true;
+                    wait();
+                }
+                int b = buf[buf_out] & 0xff;
+                buf_out = (buf_out + 1) % buf.length;
+                if (waiting) {
+                    waiting = false;
+                    notifyAll();
+                }
+                return b;
+            }
+            catch (InterruptedException e) {
+                throw new InterruptedIOException();
+            }
+        }
+
+        @Override
+        protected synchronized void put(int b) throws IOException {
+            try {
+                for (;;) {
+                    int nxt_inp = (buf_inp + 1) % buf.length;
+                    if (nxt_inp != buf_out) {
+                        buf[buf_inp] = (byte)b;
+                        buf_inp = nxt_inp;
+                        break;
+                    }
+                    if (closed) return;
+                    waiting = true;
+                    wait();
+                }
+                if (waiting) {
+                    waiting = false;
+                    notifyAll();
+                }
+            }
+            catch (InterruptedException e) {
+                throw new InterruptedIOException();
+            }
+        }
+
+        @Override
+        protected void flush() throws IOException {
+        }
+
+        @Override
+        protected synchronized void stop() throws IOException {
+            closed = true;
+            if (waiting) {
+                waiting = false;
+                notifyAll();
+            }
+        }
+    }
+
+    private static IPeer getPeer(String id, String transport) {
+        Map<String,String> attrs = new HashMap<String,String>();
+        attrs.put(IPeer.ATTR_ID, id);
+        attrs.put(IPeer.ATTR_TRANSPORT_NAME, transport);
+        return new TransientPeer(attrs);
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        BenchmarkSupport.init();
+        List<IChannel> list = BenchmarkSupport.openChannels(1, new BenchmarkSupport.ChannelFactory() {
+            public IChannel openChannel() throws Exception {
+                if (channel.equals("pair")) {
+                    return ChannelRing.connect(getPeer("Benchmark:Ring", "Ring"), getPeer("Benchmark:Client", "Ring"));
+                }
+                if (channel.equals("legacy")) return new LegacyChannelLoop(getPeer("Benchmark:Legacy", "Loop"));
+                return getPeer("Benchmark:Loop", "Loop").openChannel();
+            }
+        });
+        ch = list.get(0);
+        StringBuilder bf = new StringBuilder();
+        while (bf.length() < size) bf.append("In-process channel ");
+        bf.setLength(size);
+        text = bf.toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (ch != null) BenchmarkSupport.closeChannels(Collections.singletonList(ch));
+        ch = null;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST_SIZE)
+    public int echo() throws Exception {
+        return new TCFTask<Integer>(ch) {
+            int cnt;
+            public void run() {
+                IDiagnostics diag = ch.getRemoteService(IDiagnostics.class);
+                IDiagnostics.DoneEcho done = new IDiagnostics.DoneEcho() {
+                    public void doneEcho(IToken token, Throwable error, String str) {
+                        if (isDone()) return;
+                        if (error != null) error(error);
+                        else if (++cnt == BURST_SIZE) done(cnt);
+                    }
+                };
+                for (int i = 0; i < BURST_SIZE; i++) diag.echo(text, done);
+            }
+        }.get();
+    }
+}
@@ -0,0 +1,186 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tcf.core.StreamChannel;
+import org.eclipse.tcf.core.TransientPeer;
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IPeer;
+import org.eclipse.tcf.protocol.IService;
+import org.eclipse.tcf.util.TCFTask;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the channel receive path: decoding of incoming messages by the receiver thread
+ * and their delivery to event listeners on the dispatch thread.
+ *
+ * The channel reads a pre-recorded stream of events from memory, so the results do not
+ * include transport overhead. Parameter "decoder" selects block frame decoding ("frame")
+ * or the original per-byte StreamChannel.read() path ("legacy").
+ * Run with "-prof gc" to compare allocation rate of the two paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InputDecoderBenchmark {
+
+    private static final int MESSAGE_CNT = 20000;
+    private static final String SERVICE = "BenchmarkService";
+
+    @Param({ "frame", "legacy" })
+    public String decoder;
+
+    @Param({ "64", "4096" })
+    public int payload;
+
+    private byte[] stream;
+
+    /**
+     * Channel that receives a recorded byte stream and discards its own output.
+     */
+    private static class ReplayChannel extends StreamChannel {
+
+        private final byte[] inp;
+        private int pos;
+
+        ReplayChannel(IPeer peer, byte[] inp) {
+            super(peer);
+            this.inp = inp;
+            start();
+        }
+
+        @Override
+        protected int get() throws IOException {
+            if (pos >= inp.length) return -1;
+            return inp[pos++] & 0xff;
+        }
+
+        @Override
+        protected int get(byte[] buf) throws IOException {
+            if (pos >= inp.length) return -1;
+            int n = inp.length - pos;
+            if (n > buf.length) n = buf.length;
+            System.arraycopy(inp, pos, buf, 0, n);
+            pos += n;
+            return n;
+        }
+
+        @Override
+        protected void put(int n) throws IOException {
+        }
+
+        @Override
+        protected void put(byte[] buf) throws IOException {
+        }
+
+        @Override
+        protected void put(byte[] buf, int pos, int len) throws IOException {
+        }
+
+        @Override
+        protected void flush() throws IOException {
+        }
+
+        @Override
+        protected void stop() throws IOException {
+        }
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String s) throws IOException {
+        out.write(s.getBytes("UTF-8"));
+        out.write(0);
+    }
+
+    private static void writeEvent(ByteArrayOutputStream out, String service, String name, byte[] data) {
+        out.write('E');
+        out.write(0);
+        try {
+            writeString(out, service);
+            writeString(out, name);
+        }
+        catch (IOException x) {
+            throw new RuntimeException(x);
+        }
+        for (byte b : data) {
+            out.write(b);
+            if (b == StreamChannel.ESC) out.write(0);
+        }
+        out.write(StreamChannel.ESC);
+        out.write(1);
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        BenchmarkSupport.init();
+        System.setProperty("org.eclipse.tcf.core.frame_decoder", Boolean.toString(decoder.equals("frame")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeEvent(out, "Locator", "Hello", ("[\"" + SERVICE + "\"]\0").getBytes("UTF-8"));
+        StringBuilder bf = new StringBuilder();
+        while (bf.length() < payload) bf.append("0123456789abcdef");
+        bf.setLength(payload);
+        for (int i = 0; i < MESSAGE_CNT; i++) {
+            String s = "{\"ID\":\"P" + i + ".T1\",\"Value\":\"" + bf + "\"}\0";
+            writeEvent(out, SERVICE, "contextChanged", s.getBytes("UTF-8"));
+        }
+        stream = out.toByteArray();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGE_CNT)
+    public int receive() throws Exception {
+        return new TCFTask<Integer>() {
+            int cnt;
+            public void run() {
+                Map<String,String> attrs = new HashMap<String,String>();
+                attrs.put(IPeer.ATTR_ID, "Replay");
+                final IChannel channel = new ReplayChannel(new TransientPeer(attrs), stream);
+                channel.addChannelListener(new IChannel.IChannelListener() {
+                    public void onChannelOpened() {
+                        IService service = channel.getRemoteService(SERVICE);
+                        channel.addEventListener(service, new IChannel.IEventListener() {
+                            public void event(String name, byte[] data) {
+                                cnt++;
+                            }
+                        });
+                    }
+                    public void onChannelClosed(Throwable error) {
+                        if (error != null) error(error);
+                        else if (cnt != MESSAGE_CNT) error(new Exception("Invalid message count: " + cnt));
+                        else done(cnt);
+                    }
+                    public void congestionLevel(int level) {
+                    }
+                });
+            }
+        }.get();
+    }
+}
@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tcf.protocol.JSON;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures JSON encoding and decoding of typical TCF message arguments,
+ * with JSON.toJSONSequence() ("encode") and JSON.parseSequence() ("decode").
+ *
+ * Parameter "message" selects the message: reply of RunControl "getContext" with
+ * a context property map ("context"), reply of "getChildren" with 200 context IDs ("children"),
+ * or reply of Memory "get" with 4KB of data, which is encoded as a base64 string ("memory").
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JSONBenchmark {
+
+    @Param({ "context", "children", "memory" })
+    public String message;
+
+    private Object[] args;
+    private byte[] data;
+
+    private static Object[] createContext() {
+        Map<String,Object> props = new HashMap<String,Object>();
+        props.put("ID", "P1234.T1240");
+        props.put("ParentID", "P1234");
+        props.put("ProcessID", "P1234");
+        props.put("Name", "worker-thread-6");
+        props.put("HasState", Boolean.TRUE);
+        props.put("IsContainer", Boolean.FALSE);
+        props.put("CanSuspend", Boolean.TRUE);
+        props.put("CanResume", 0x1ff);
+        props.put("CanCount", 0x1f);
+        props.put("CanTerminate", Boolean.TRUE);
+        props.put("RCGroup", "P1234");
+        props.put("SymbolsGroup", "P1234");
+        props.put("BPGroup", "P1234");
+        props.put("StopOnLoad", Boolean.FALSE);
+        List<String> types = new ArrayList<String>();
+        types.add("rd-running");
+        types.add("wr-running");
+        types.add("rd-mem");
+        props.put("RegAccessTypes", types);
+        return new Object[]{ null, props };
+    }
+
+    private static Object[] createChildren() {
+        List<String> ids = new ArrayList<String>();
+        for (int i = 0; i < 200; i++) ids.add("P1234.T" + (1234 + i));
+        return new Object[]{ null, ids };
+    }
+
+    private static Object[] createMemory() {
+        byte[] buf = new byte[0x1000];
+        for (int i = 0; i < buf.length; i++) buf[i] = (byte)(i * 7);
+        return new Object[]{ buf, null, null };
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        if (message.equals("context")) args = createContext();
+        else if (message.equals("children")) args = createChildren();
+        else args = createMemory();
+        data = JSON.toJSONSequence(args);
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return JSON.toJSONSequence(args);
+    }
+
+    @Benchmark
+    public Object[] decode() throws Exception {
+        return JSON.parseSequence(data);
+    }
+}
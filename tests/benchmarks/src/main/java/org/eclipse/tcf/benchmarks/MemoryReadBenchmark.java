@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.benchmarks;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tcf.core.AbstractChannel;
+import org.eclipse.tcf.core.ChannelTCP;
+import org.eclipse.tcf.core.Command;
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IService;
+import org.eclipse.tcf.protocol.IServiceProvider;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.JSON;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.IMemory;
+import org.eclipse.tcf.util.TCFTask;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures large memory reads: Memory "get" command that returns a "zero copy" binary block.
+ * The benchmark server provides a Memory service that replies with a block of requested size.
+ *
+ * Parameter "path" selects MemoryProxy.get() ("slice"), which copies the data from the received message
+ * straight into the destination buffer, or a Command that parses the result into a byte array first,
+ * same as MemoryProxy before binary slices were supported ("copy").
+ * Run with "-prof gc" to compare allocation rate of the two paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemoryReadBenchmark {
+
+    private static final String CONTEXT_ID = "BenchmarkMemory";
+
+    @Param({ "slice", "copy" })
+    public String path;
+
+    @Param({ "4096", "65536", "1048576" })
+    public int size;
+
+    private IChannel channel;
+    private IMemory.MemoryContext context;
+    private byte[] buf;
+
+    /**
+     * Memory service of the benchmark server, all reads return the same block of bytes.
+     */
+    private static class MemoryService implements IService {
+
+        private final byte[] mem = new byte[0x100000];
+
+        MemoryService(final IChannel channel) {
+            for (int i = 0; i < mem.length; i++) mem[i] = (byte)i;
+            channel.addCommandServer(this, new IChannel.ICommandServer() {
+                public void command(IToken token, String name, byte[] data) {
+                    try {
+                        Object[] args = JSON.parseSequence(data);
+                        Object[] res = null;
+                        if (name.equals("getContext")) {
+                            Map<String,Object> props = new HashMap<String,Object>();
+                            props.put(IMemory.PROP_ID, args[0]);
+                            res = new Object[]{ null, props };
+                        }
+                        else if (name.equals("get")) {
+                            int n = ((Number)args[3]).intValue();
+                            res = new Object[]{ new JSON.Binary(mem, 0, n), null, null };
+                        }
+                        else {
+                            channel.rejectCommand(token);
+                            return;
+                        }
+                        boolean zero_copy = ((AbstractChannel)channel).isZeroCopySupported();
+                        channel.sendResult(token, JSON.toJSONSequence(res, zero_copy));
+                    }
+                    catch (Exception x) {
+                        channel.terminate(x);
+                    }
+                }
+            });
+        }
+
+        public String getName() {
+            return IMemory.NAME;
+        }
+    }
+
+    private static boolean provider_added;
+
+    private static synchronized void addServiceProvider() {
+        if (provider_added) return;
+        provider_added = true;
+        Protocol.addServiceProvider(new IServiceProvider() {
+            public IService[] getLocalService(IChannel channel) {
+                /* Client side channels are connected to peers created by BenchmarkSupport.getServerPeer() */
+                if (channel.getRemotePeer().getID().startsWith("Benchmark:")) return null;
+                return new IService[]{ new MemoryService(channel) };
+            }
+
+            public IService getServiceProxy(IChannel channel, String service_name) {
+                return null;
+            }
+        });
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        BenchmarkSupport.init();
+        addServiceProvider();
+        final int port = BenchmarkSupport.getServerPort();
+        List<IChannel> list = BenchmarkSupport.openChannels(1, new BenchmarkSupport.ChannelFactory() {
+            public IChannel openChannel() throws Exception {
+                return new ChannelTCP(BenchmarkSupport.getServerPeer("TCP"), "127.0.0.1", port);
+            }
+        });
+        channel = list.get(0);
+        context = new TCFTask<IMemory.MemoryContext>(channel) {
+            public void run() {
+                IMemory memory = channel.getRemoteService(IMemory.class);
+                memory.getContext(CONTEXT_ID, new IMemory.DoneGetContext() {
+                    public void doneGetContext(IToken token, Exception error, IMemory.MemoryContext context) {
+                        if (error != null) error(error);
+                        else done(context);
+                    }
+                });
+            }
+        }.get();
+        buf = new byte[size];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (channel != null) BenchmarkSupport.closeChannels(Collections.singletonList(channel));
+        channel = null;
+    }
+
+    @Benchmark
+    public byte[] get() throws Exception {
+        return new TCFTask<byte[]>(channel) {
+            public void run() {
+                if (path.equals("slice")) {
+                    context.get(0, 1, buf, 0, size, 0, new IMemory.DoneMemory() {
+                        public void doneMemory(IToken token, IMemory.MemoryError error) {
+                            if (error != null) error(error);
+                            else done(buf);
+                        }
+                    });
+                }
+                else {
+                    IService service = channel.getRemoteService(IMemory.NAME);
+                    new Command(channel, service, "get", new Object[]{ CONTEXT_ID, 0, 1, size, 0 }) {
+                        @Override
+                        public void done(Exception error, Object[] args) {
+                            if (error != null) {
+                                error(error);
+                            }
+                            else {
+                                JSON.toByteArray(buf, 0, size, args[0]);
+                                onDone(buf);
+                            }
+                        }
+                    };
+                }
+            }
+
+            void onDone(byte[] res) {
+                done(res);
+            }
+        }.get();
+    }
+}
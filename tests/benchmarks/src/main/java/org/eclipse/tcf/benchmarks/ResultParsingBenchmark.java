@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tcf.core.ChannelTCP;
+import org.eclipse.tcf.core.Command;
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IService;
+import org.eclipse.tcf.protocol.IServiceProvider;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.JSON;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.util.TCFTask;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures dispatch thread load caused by commands with large replies, like ISymbols.list
+ * or IFileSystem.readdir on a big directory. A local service returns a list of context-like
+ * property maps, and the client sends a burst of commands using {@link Command}.
+ *
+ * Parameter "parser" selects where result data is parsed: by the channel receiver thread ("io"),
+ * see AbstractChannel.setResultParsing(), or by the dispatch thread ("dispatch").
+ * The score is time per command, and after each iteration the benchmark prints dispatch thread
+ * busy time per command, which also includes server side handling of the command.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResultParsingBenchmark {
+
+    private static final int BURST_SIZE = 100;
+    private static final String SERVICE = "BenchmarkList";
+
+    @Param({ "io", "dispatch" })
+    public String parser;
+
+    @Param({ "10", "1000" })
+    public int items;
+
+    private IChannel channel;
+    private IServiceProvider provider;
+    private long busy_time;
+    private long cmd_cnt;
+
+    /**
+     * Local service with a single command "list" that returns a pre-encoded reply.
+     */
+    private static class ListService implements IService {
+
+        ListService(final IChannel channel, final byte[] reply) {
+            channel.addCommandServer(this, new IChannel.ICommandServer() {
+                public void command(IToken token, String name, byte[] data) {
+                    if (name.equals("list")) channel.sendResult(token, reply);
+                    else channel.rejectCommand(token);
+                }
+            });
+        }
+
+        public String getName() {
+            return SERVICE;
+        }
+    }
+
+    private static byte[] createReply(int cnt) throws Exception {
+        List<Object> list = new ArrayList<Object>();
+        for (int i = 0; i < cnt; i++) {
+            Map<String,Object> m = new HashMap<String,Object>();
+            m.put("ID", "P" + i);
+            m.put("ParentID", "P0");
+            m.put("Name", "process_" + i);
+            m.put("PID", i);
+            m.put("VSize", 0x100000000L + i * 0x1000L);
+            m.put("CanSuspend", Boolean.TRUE);
+            m.put("Args", new String[] { "/usr/bin/process_" + i, "-v" });
+            list.add(m);
+        }
+        return JSON.toJSONSequence(new Object[] { null, list });
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        final int port = BenchmarkSupport.getServerPort();
+        final byte[] reply = createReply(items);
+        provider = new IServiceProvider() {
+            public IService[] getLocalService(IChannel channel) {
+                return new IService[] { new ListService(channel, reply) };
+            }
+            public IService getServiceProxy(IChannel channel, String service_name) {
+                return null;
+            }
+        };
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                Protocol.addServiceProvider(provider);
+            }
+        });
+        List<IChannel> list = BenchmarkSupport.openChannels(1, new BenchmarkSupport.ChannelFactory() {
+            public IChannel openChannel() throws Exception {
+                ChannelTCP c = new ChannelTCP(BenchmarkSupport.getServerPeer("TCP"), "127.0.0.1", port);
+                c.setResultParsing(parser.equals("io"));
+                return c;
+            }
+        });
+        channel = list.get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (channel != null) BenchmarkSupport.closeChannels(Collections.singletonList(channel));
+        channel = null;
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                Protocol.removeServiceProvider(provider);
+            }
+        });
+    }
+
+    @Setup(Level.Iteration)
+    public void startIteration() {
+        busy_time = BenchmarkSupport.getDispatchBusyTime();
+        cmd_cnt = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void endIteration() {
+        if (busy_time < 0 || cmd_cnt == 0) return;
+        long time = BenchmarkSupport.getDispatchBusyTime() - busy_time;
+        System.out.println();
+        System.out.println("Dispatch thread busy " + (time / cmd_cnt / 1000) + " us per command");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST_SIZE)
+    public int list() throws Exception {
+        int n = new TCFTask<Integer>(channel) {
+            int cnt;
+            int size;
+            void onDone(Exception error, Object[] args) {
+                if (isDone()) return;
+                if (error != null) {
+                    error(error);
+                    return;
+                }
+                size += ((Collection<?>)args[1]).size();
+                if (++cnt == BURST_SIZE) done(size);
+            }
+            public void run() {
+                IService service = channel.getRemoteService(SERVICE);
+                for (int i = 0; i < BURST_SIZE; i++) {
+                    new Command(channel, service, "list", new Object[0]) {
+                        @Override
+                        public void done(Exception error, Object[] args) {
+                            onDone(error, args);
+                        }
+                    };
+                }
+            }
+        }.get();
+        cmd_cnt += BURST_SIZE;
+        return n;
+    }
+}
@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.benchmarks;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TCP relay that simulates a slow network link: data is delayed in both directions,
+ * and, optionally, transmission rate is limited. The relay counts bytes that pass through it.
+ */
+class SimulatedLink extends Thread {
+
+    private final ServerSocket server;
+    private final int server_port;
+    private final long delay;
+    private final long rate;
+    private volatile boolean closed;
+
+    /** Number of bytes sent from the client to the server */
+    final AtomicLong bytes_up = new AtomicLong();
+
+    /** Number of bytes sent from the server to the client */
+    final AtomicLong bytes_down = new AtomicLong();
+
+    /**
+     * @param server_port - port of the server.
+     * @param delay - one way delay in nanoseconds.
+     * @param rate - link bandwidth in bytes per second, 0 means unlimited.
+     */
+    SimulatedLink(int server_port, long delay, long rate) throws Exception {
+        this.server_port = server_port;
+        this.delay = delay;
+        this.rate = rate;
+        server = new ServerSocket(0, 4, InetAddress.getByName("127.0.0.1"));
+        setName("Simulated Link");
+        setDaemon(true);
+        start();
+    }
+
+    int getPort() {
+        return server.getLocalPort();
+    }
+
+    void close() throws Exception {
+        closed = true;
+        server.close();
+    }
+
+    public void run() {
+        try {
+            while (!closed) {
+                Socket inp = server.accept();
+                Socket out = new Socket("127.0.0.1", server_port);
+                inp.setTcpNoDelay(true);
+                out.setTcpNoDelay(true);
+                pipe(inp, out, bytes_up);
+                pipe(out, inp, bytes_down);
+            }
+        }
+        catch (Exception x) {
+            if (!closed) x.printStackTrace();
+        }
+    }
+
+    private static class Chunk {
+        final long time;
+        final byte[] buf;
+
+        Chunk(long time, byte[] buf) {
+            this.time = time;
+            this.buf = buf;
+        }
+    }
+
+    private void pipe(final Socket src, final Socket dst, final AtomicLong counter) throws Exception {
+        final LinkedBlockingQueue<Chunk> queue = new LinkedBlockingQueue<Chunk>();
+        final InputStream inp = src.getInputStream();
+        final OutputStream out = dst.getOutputStream();
+        Thread reader = new Thread() {
+            public void run() {
+                /* Time when the link finishes transmitting previous data */
+                long busy = 0;
+                try {
+                    byte[] buf = new byte[0x10000];
+                    for (;;) {
+                        int n = inp.read(buf);
+                        if (n < 0) break;
+                        byte[] data = new byte[n];
+                        System.arraycopy(buf, 0, data, 0, n);
+                        counter.addAndGet(n);
+                        long time = System.nanoTime();
+                        if (rate > 0) {
+                            if (busy < time) busy = time;
+                            busy += n * 1000000000L / rate;
+                            time = busy;
+                        }
+                        queue.add(new Chunk(time + delay, data));
+                    }
+                }
+                catch (Exception x) {
+                }
+                queue.add(new Chunk(Math.max(busy, System.nanoTime()) + delay, null));
+            }
+        };
+        Thread writer = new Thread() {
+            public void run() {
+                try {
+                    for (;;) {
+                        Chunk c = queue.take();
+                        long wait = c.time - System.nanoTime();
+                        if (wait > 0) Thread.sleep(wait / 1000000, (int)(wait % 1000000));
+                        if (c.buf == null) break;
+                        out.write(c.buf);
+                        out.flush();
+                    }
+                    dst.shutdownOutput();
+                }
+                catch (Exception x) {
+                }
+            }
+        };
+        reader.setDaemon(true);
+        writer.setDaemon(true);
+        reader.start();
+        writer.start();
+    }
+}
@@ -0,0 +1,335 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tcf.core.AbstractChannel;
+import org.eclipse.tcf.core.ChannelMetrics;
+import org.eclipse.tcf.core.ChannelTCP;
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IErrorReport;
+import org.eclipse.tcf.protocol.IService;
+import org.eclipse.tcf.protocol.IServiceProvider;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.JSON;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.IMemory;
+import org.eclipse.tcf.services.IRunControl;
+import org.eclipse.tcf.util.TCFTask;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a step of a debug session with memory, disassembly and variables views open.
+ *
+ * Each operation resumes a thread with RunControl "resume" command, and, when the thread is suspended,
+ * the views read memory the way they do after a suspend: the memory view reads 1KB around the stack pointer,
+ * the disassembly view reads instructions around the PC, and then more instructions after the PC,
+ * the variables view reads local variables on the stack, then structures they point to,
+ * and then the hover reads a variable again. The operation ends when all views are updated.
+ * The end of the memory view range is beyond the end of target memory, so the reads return per-byte errors.
+ *
+ * The channel is connected through a link with 10ms round-trip time.
+ * Parameter "cache" selects whether the memory cache of the Memory service proxy is disabled ("off")
+ * or enabled ("on"). Numbers of Memory "get" commands and cache hits are printed at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SteppingMemoryBenchmark {
+
+    private static final String PROCESS_ID = "BenchmarkProcess";
+    private static final String THREAD_ID = "BenchmarkProcess.1";
+    private static final int MEM_SIZE = 0xfe80;
+    private static final long CODE_ADDR = 0x1000;
+    private static final long STACK_ADDR = 0xfd00;
+    private static final int VAR_CNT = 8;
+
+    @Param({ "off", "on" })
+    public String cache;
+
+    private SimulatedLink sim_link;
+    private IChannel channel;
+    private IRunControl.RunControlContext thread;
+    private IMemory.MemoryContext memory;
+
+    /**
+     * RunControl and Memory services of the benchmark server: one process with one thread.
+     * A step moves the PC to the next instruction and changes the stack pointer.
+     */
+    private static class TargetService implements IService {
+
+        private final String name;
+        private final byte[] mem = new byte[MEM_SIZE];
+        private long pc = CODE_ADDR;
+
+        TargetService(final IChannel channel, final String name) {
+            this.name = name;
+            for (int i = 0; i < mem.length; i++) mem[i] = (byte)i;
+            channel.addCommandServer(this, new IChannel.ICommandServer() {
+                public void command(IToken token, String cmd, byte[] data) {
+                    try {
+                        Object[] args = JSON.parseSequence(data);
+                        Object[] res = null;
+                        if (cmd.equals("getContext")) {
+                            Map<String,Object> props = new HashMap<String,Object>();
+                            props.put(IRunControl.PROP_ID, args[0]);
+                            props.put(IRunControl.PROP_PROCESS_ID, PROCESS_ID);
+                            if (name.equals(IRunControl.NAME)) {
+                                props.put(IRunControl.PROP_HAS_STATE, true);
+                                props.put(IRunControl.PROP_CAN_RESUME, 0x3f);
+                            }
+                            else {
+                                props.put(IMemory.PROP_ADDRESS_SIZE, 4);
+                            }
+                            res = new Object[]{ null, props };
+                        }
+                        else if (name.equals(IRunControl.NAME) && cmd.equals("resume")) {
+                            pc = CODE_ADDR + (pc - CODE_ADDR + 4) % 0x1000;
+                            channel.sendResult(token, JSON.toJSONSequence(new Object[]{ null }));
+                            AbstractChannel c = (AbstractChannel)channel;
+                            c.sendEvent(TargetService.this, "contextResumed", JSON.toJSONSequence(new Object[]{ THREAD_ID }));
+                            c.sendEvent(TargetService.this, "contextSuspended", JSON.toJSONSequence(new Object[]{
+                                    THREAD_ID, pc, IRunControl.REASON_STEP, null }));
+                            return;
+                        }
+                        else if (name.equals(IMemory.NAME) && cmd.equals("get")) {
+                            res = getMemory(((Number)args[1]).longValue(), ((Number)args[3]).intValue());
+                        }
+                        else {
+                            channel.rejectCommand(token);
+                            return;
+                        }
+                        channel.sendResult(token, JSON.toJSONSequence(res));
+                    }
+                    catch (Exception x) {
+                        channel.terminate(x);
+                    }
+                }
+            });
+        }
+
+        private Object[] getMemory(long addr, int size) {
+            byte[] buf = new byte[size];
+            int valid = (int)Math.max(0, Math.min(size, MEM_SIZE - addr));
+            if (valid > 0) System.arraycopy(mem, (int)addr, buf, 0, valid);
+            if (valid == size) return new Object[]{ new JSON.Binary(buf, 0, size), null, null };
+            Map<String,Object> err = new HashMap<String,Object>();
+            err.put(IErrorReport.ERROR_CODE, IErrorReport.TCF_ERROR_INV_ADDRESS);
+            err.put(IErrorReport.ERROR_FORMAT, "Invalid address");
+            Map<String,Object> range = new HashMap<String,Object>();
+            range.put(IMemory.ErrorOffset.RANGE_KEY_ADDR, addr + valid);
+            range.put(IMemory.ErrorOffset.RANGE_KEY_SIZE, size - valid);
+            range.put(IMemory.ErrorOffset.RANGE_KEY_STAT,
+                    IMemory.ErrorOffset.BYTE_INVALID | IMemory.ErrorOffset.BYTE_CANNOT_READ);
+            range.put(IMemory.ErrorOffset.RANGE_KEY_MSG, err);
+            List<Map<String,Object>> ranges = new ArrayList<Map<String,Object>>();
+            ranges.add(range);
+            return new Object[]{ new JSON.Binary(buf, 0, size), err, ranges };
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    private static boolean provider_added;
+
+    private static synchronized void addServiceProvider() {
+        if (provider_added) return;
+        provider_added = true;
+        Protocol.addServiceProvider(new IServiceProvider() {
+            public IService[] getLocalService(IChannel channel) {
+                /* Client side channels are connected to peers created by BenchmarkSupport.getServerPeer() */
+                if (channel.getRemotePeer().getID().startsWith("Benchmark:")) return null;
+                return new IService[]{
+                    new TargetService(channel, IRunControl.NAME),
+                    new TargetService(channel, IMemory.NAME),
+                };
+            }
+
+            public IService getServiceProxy(IChannel channel, String service_name) {
+                return null;
+            }
+        });
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        /* The property is read when the cache class is loaded, trials run in separate JVMs */
+        if (cache.equals("on")) System.setProperty("org.eclipse.tcf.core.memory_cache", "true");
+        /* Memory command counts printed by tearDown() are collected by channel metrics */
+        ChannelMetrics.setEnabled(true);
+        BenchmarkSupport.init();
+        addServiceProvider();
+        sim_link = new SimulatedLink(BenchmarkSupport.getServerPort(), 5000000L, 0);
+        final int port = sim_link.getPort();
+        List<IChannel> list = BenchmarkSupport.openChannels(1, new BenchmarkSupport.ChannelFactory() {
+            public IChannel openChannel() throws Exception {
+                return new ChannelTCP(BenchmarkSupport.getServerPeer("TCP"), "127.0.0.1", port);
+            }
+        });
+        channel = list.get(0);
+        thread = new TCFTask<IRunControl.RunControlContext>(channel) {
+            public void run() {
+                IRunControl rc = channel.getRemoteService(IRunControl.class);
+                rc.getContext(THREAD_ID, new IRunControl.DoneGetContext() {
+                    public void doneGetContext(IToken token, Exception error, IRunControl.RunControlContext context) {
+                        if (error != null) error(error);
+                        else done(context);
+                    }
+                });
+            }
+        }.get();
+        memory = new TCFTask<IMemory.MemoryContext>(channel) {
+            public void run() {
+                IMemory mem = channel.getRemoteService(IMemory.class);
+                mem.getContext(THREAD_ID, new IMemory.DoneGetContext() {
+                    public void doneGetContext(IToken token, Exception error, IMemory.MemoryContext context) {
+                        if (error != null) error(error);
+                        else done(context);
+                    }
+                });
+            }
+        }.get();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (channel != null) {
+            String report = new TCFTask<String>(channel) {
+                public void run() {
+                    ChannelMetrics metrics = ((AbstractChannel)channel).getMetrics();
+                    ChannelMetrics.CommandMetrics m = metrics == null ? null :
+                        metrics.getCommandMetrics(IMemory.NAME, "get");
+                    if (m == null) done(null);
+                    else done("Memory commands sent: " + m.getCount() + ", coalesced " + m.getCoalesced() +
+                            ", cache hits " + m.getCacheHits() + ", hit rate " + Math.round(m.getHitRate() * 100) + "%");
+                }
+            }.get();
+            if (report != null) {
+                System.out.println();
+                System.out.println(report);
+            }
+            BenchmarkSupport.closeChannels(Collections.singletonList(channel));
+        }
+        channel = null;
+        if (sim_link != null) sim_link.close();
+        sim_link = null;
+        System.clearProperty("org.eclipse.tcf.core.memory_cache");
+    }
+
+    @Benchmark
+    public int step() throws Exception {
+        return new TCFTask<Integer>(channel) {
+            IRunControl rc;
+            IRunControl.RunControlListener listener;
+            int pending;
+            int reads;
+
+            public void run() {
+                rc = channel.getRemoteService(IRunControl.class);
+                listener = new IRunControl.RunControlListener() {
+                    public void contextSuspended(String context, String pc, String reason, Map<String,Object> params) {
+                        if (!context.equals(THREAD_ID)) return;
+                        rc.removeListener(this);
+                        updateViews(Long.parseLong(pc));
+                    }
+                    public void contextResumed(String context) {
+                    }
+                    public void contextAdded(IRunControl.RunControlContext[] contexts) {
+                    }
+                    public void contextChanged(IRunControl.RunControlContext[] contexts) {
+                    }
+                    public void contextRemoved(String[] context_ids) {
+                    }
+                    public void containerSuspended(String context, String pc, String reason,
+                            Map<String,Object> params, String[] suspended_ids) {
+                    }
+                    public void containerResumed(String[] context_ids) {
+                    }
+                    public void contextException(String context, String msg) {
+                    }
+                };
+                rc.addListener(listener);
+                thread.resume(IRunControl.RM_STEP_INTO, 1, new IRunControl.DoneCommand() {
+                    public void doneCommand(IToken token, Exception error) {
+                        if (error != null) {
+                            rc.removeListener(listener);
+                            error(error);
+                        }
+                    }
+                });
+            }
+
+            private void updateViews(long pc) {
+                long sp = STACK_ADDR - (pc & 0xf0);
+                /* Memory view */
+                read(sp & ~0xffL, 1024, 0, 0);
+                /* Disassembly view */
+                read(pc - 64, 64, 0, 0);
+                read(pc, 64, 1, 0);
+                /* Variables view */
+                for (int i = 0; i < VAR_CNT; i++) read(sp + i * 8, 8, 2, i);
+            }
+
+            private void read(final long addr, final int size, final int view, final int n) {
+                final byte[] buf = new byte[size];
+                pending++;
+                memory.get(addr, 1, buf, 0, size, IMemory.MODE_CONTINUEONERROR, new IMemory.DoneMemory() {
+                    public void doneMemory(IToken token, IMemory.MemoryError error) {
+                        if (isDone()) return;
+                        if (error != null && !(error instanceof IMemory.ErrorOffset)) {
+                            error(error);
+                            return;
+                        }
+                        reads++;
+                        switch (view) {
+                        case 1:
+                            /* Disassembly view reads more instructions after decoding the first ones */
+                            read(addr + size, 64, 0, 0);
+                            break;
+                        case 2:
+                            /* Variables view expands a structure that the variable points to */
+                            read(addr + 256, 16, 3, n);
+                            break;
+                        case 3:
+                            /* Hover over the first variable */
+                            if (n == 0) read(addr - 256, 8, 0, 0);
+                            break;
+                        }
+                        if (--pending == 0) done(reads);
+                    }
+                });
+            }
+        }.get();
+    }
+}
@@ -0,0 +1,236 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tcf.core.ChannelTCP;
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IService;
+import org.eclipse.tcf.protocol.IServiceProvider;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.JSON;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.ILineNumbers;
+import org.eclipse.tcf.services.IMemoryMap;
+import org.eclipse.tcf.services.IRunControl;
+import org.eclipse.tcf.services.ISymbols;
+import org.eclipse.tcf.util.TCFTask;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures time to first stack trace of a debug session: a channel is opened,
+ * and source positions of FRAME_CNT stack frames are looked up with LineNumbers "mapToSource" commands.
+ *
+ * The channel is connected through a link with 10ms round-trip time. The server emulates an agent
+ * that needs LOAD_TIME to read line number tables of the symbol file when a session first asks for them.
+ * Parameter "cache" selects whether the persistent symbols cache is disabled ("off"),
+ * or enabled and filled by a previous session ("warm").
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class SymbolsCacheBenchmark {
+
+    private static final int FRAME_CNT = 32;
+    private static final long LOAD_TIME = 200;
+    private static final String CONTEXT_ID = "BenchmarkProcess";
+    private static final long FILE_ADDR = 0x400000;
+    private static final long FILE_SIZE = 0x100000;
+
+    @Param({ "off", "warm" })
+    public String cache;
+
+    /** The benchmark agent is not known to run on the host, so the cache identifies symbol files by build ID */
+    private static File sym_file;
+
+    private File cache_dir;
+    private SimulatedLink sim_link;
+
+    /**
+     * Symbols, LineNumbers, MemoryMap and RunControl services of the benchmark server.
+     */
+    private static class SymbolsService implements IService {
+
+        private final String name;
+        private boolean loaded;
+
+        SymbolsService(final IChannel channel, final String name) {
+            this.name = name;
+            channel.addCommandServer(this, new IChannel.ICommandServer() {
+                public void command(final IToken token, String cmd, byte[] data) {
+                    try {
+                        Object[] args = JSON.parseSequence(data);
+                        if (name.equals(ISymbols.NAME) && cmd.equals("getSymFileInfo")) {
+                            Map<String,Object> props = new HashMap<String,Object>();
+                            props.put("FileName", sym_file.getPath());
+                            props.put("Address", FILE_ADDR);
+                            props.put("Size", FILE_SIZE);
+                            props.put("BuildID", sym_file.getName());
+                            channel.sendResult(token, JSON.toJSONSequence(new Object[]{ null, props }));
+                        }
+                        else if (name.equals(IRunControl.NAME) && cmd.equals("getContext")) {
+                            Map<String,Object> props = new HashMap<String,Object>();
+                            props.put(IRunControl.PROP_ID, args[0]);
+                            props.put(IRunControl.PROP_PROCESS_ID, CONTEXT_ID);
+                            channel.sendResult(token, JSON.toJSONSequence(new Object[]{ null, props }));
+                        }
+                        else if (name.equals(ILineNumbers.NAME) && cmd.equals("mapToSource")) {
+                            long addr = ((Number)args[1]).longValue();
+                            List<Map<String,Object>> areas = new ArrayList<Map<String,Object>>();
+                            Map<String,Object> area = new HashMap<String,Object>();
+                            area.put("Dir", "/home/user/project/src");
+                            area.put("File", "module" + (addr >> 12 & 0xf) + ".c");
+                            area.put("SLine", (int)(addr & 0xfff) / 4 + 1);
+                            area.put("SCol", 1);
+                            area.put("ELine", (int)(addr & 0xfff) / 4 + 2);
+                            area.put("SAddr", addr & ~3L);
+                            area.put("EAddr", (addr & ~3L) + 4);
+                            area.put("IsStmt", true);
+                            areas.add(area);
+                            final byte[] res = JSON.toJSONSequence(new Object[]{ null, areas });
+                            if (loaded) {
+                                channel.sendResult(token, res);
+                            }
+                            else {
+                                /* Results are delayed until the line number tables are loaded */
+                                Protocol.invokeLater(LOAD_TIME, new Runnable() {
+                                    public void run() {
+                                        loaded = true;
+                                        if (channel.getState() == IChannel.STATE_OPEN) channel.sendResult(token, res);
+                                    }
+                                });
+                            }
+                        }
+                        else {
+                            channel.rejectCommand(token);
+                        }
+                    }
+                    catch (Exception x) {
+                        channel.terminate(x);
+                    }
+                }
+            });
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    private static boolean provider_added;
+
+    private static synchronized void addServiceProvider() {
+        if (provider_added) return;
+        provider_added = true;
+        Protocol.addServiceProvider(new IServiceProvider() {
+            public IService[] getLocalService(IChannel channel) {
+                /* Client side channels are connected to peers created by BenchmarkSupport.getServerPeer() */
+                if (channel.getRemotePeer().getID().startsWith("Benchmark:")) return null;
+                return new IService[]{
+                    new SymbolsService(channel, ISymbols.NAME),
+                    new SymbolsService(channel, ILineNumbers.NAME),
+                    new SymbolsService(channel, IMemoryMap.NAME),
+                    new SymbolsService(channel, IRunControl.NAME),
+                };
+            }
+
+            public IService getServiceProxy(IChannel channel, String service_name) {
+                return null;
+            }
+        });
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        sym_file = File.createTempFile("tcf-benchmark", ".elf");
+        sym_file.deleteOnExit();
+        if (cache.equals("warm")) {
+            cache_dir = File.createTempFile("tcf-symbols", "");
+            cache_dir.delete();
+            /* The property is read when the cache is first used */
+            System.setProperty("org.eclipse.tcf.core.symbols_cache", cache_dir.getPath());
+        }
+        BenchmarkSupport.init();
+        addServiceProvider();
+        sim_link = new SimulatedLink(BenchmarkSupport.getServerPort(), 5000000L, 0);
+        /* Previous session fills the cache */
+        firstStackTrace();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (sim_link != null) sim_link.close();
+        sim_link = null;
+        if (cache_dir != null) {
+            File[] files = cache_dir.listFiles();
+            if (files != null) {
+                for (File f : files) f.delete();
+            }
+            cache_dir.delete();
+            cache_dir = null;
+        }
+        System.clearProperty("org.eclipse.tcf.core.symbols_cache");
+    }
+
+    @Benchmark
+    public int firstStackTrace() throws Exception {
+        final int port = sim_link.getPort();
+        List<IChannel> list = BenchmarkSupport.openChannels(1, new BenchmarkSupport.ChannelFactory() {
+            public IChannel openChannel() throws Exception {
+                return new ChannelTCP(BenchmarkSupport.getServerPeer("TCP"), "127.0.0.1", port);
+            }
+        });
+        final IChannel channel = list.get(0);
+        try {
+            return new TCFTask<Integer>(channel) {
+                int cnt;
+                public void run() {
+                    ILineNumbers ln = channel.getRemoteService(ILineNumbers.class);
+                    for (int i = 0; i < FRAME_CNT; i++) {
+                        long pc = FILE_ADDR + i * 0x1234 % FILE_SIZE;
+                        ln.mapToSource(CONTEXT_ID, pc, pc + 1, new ILineNumbers.DoneMapToSource() {
+                            public void doneMapToSource(IToken token, Exception error, ILineNumbers.CodeArea[] areas) {
+                                if (isDone()) return;
+                                if (error != null) error(error);
+                                else if (areas.length != 1) error(new Exception("Invalid mapToSource result"));
+                                else if (++cnt == FRAME_CNT) done(cnt);
+                            }
+                        });
+                    }
+                }
+            }.get();
+        }
+        finally {
+            BenchmarkSupport.closeChannels(list);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.benchmarks;
+
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tcf.internal.core.TimerWheel;
+import org.eclipse.tcf.protocol.Protocol;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures delayed event scheduling while 100000 long timers are pending,
+ * which is typical for sessions with many cached contexts and view update timers.
+ *
+ * Parameter "timers" selects the timing wheel used by Protocol.schedule() ("wheel"),
+ * or the original TreeSet based timer queue ("treeset").
+ * Benchmark "addCancel" adds a timer and cancels it, like a timeout of a command that
+ * completes in time. Benchmark "expire" measures time per timer of a burst of short timers,
+ * including their dispatch.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimerBenchmark {
+
+    private static final int PENDING_CNT = 100000;
+    private static final int BURST_SIZE = 10000;
+
+    @Param({ "wheel", "treeset" })
+    public String timers;
+
+    private TimerQueue queue;
+    private final Random rnd = new Random(1);
+
+    private interface TimerQueue {
+        Object add(long delay, Runnable run);
+        boolean cancel(Object timer);
+    }
+
+    private static class WheelQueue implements TimerQueue {
+
+        private final TimerWheel wheel = new TimerWheel();
+
+        WheelQueue() {
+            wheel.start();
+        }
+
+        public Object add(long delay, Runnable run) {
+            return wheel.add(delay, run);
+        }
+
+        public boolean cancel(Object timer) {
+            return ((Protocol.Timer)timer).cancel();
+        }
+    }
+
+    /**
+     * Same as original Protocol timer queue, with added cancellation.
+     */
+    private static class TreeSetQueue extends Thread implements TimerQueue {
+
+        private final TreeSet<Timer> timer_queue = new TreeSet<Timer>();
+        private int timer_cnt;
+
+        private class Timer implements Comparable<Timer> {
+            final int id;
+            final long time;
+            final Runnable run;
+
+            Timer(long time, Runnable run) {
+                this.id = timer_cnt++;
+                this.time = time;
+                this.run = run;
+            }
+
+            public int compareTo(Timer x) {
+                if (x == this) return 0;
+                if (time < x.time) return -1;
+                if (time > x.time) return +1;
+                if (id < x.id) return -1;
+                if (id > x.id) return +1;
+                return 0;
+            }
+        }
+
+        TreeSetQueue() {
+            setDaemon(true);
+            start();
+        }
+
+        public void run() {
+            try {
+                synchronized (timer_queue) {
+                    while (true) {
+                        if (timer_queue.isEmpty()) {
+                            timer_queue.wait();
+                        }
+                        else {
+                            long time = System.currentTimeMillis();
+                            Timer t = timer_queue.first();
+                            if (t.time > time) {
+                                timer_queue.wait(t.time - time);
+                            }
+                            else {
+                                timer_queue.remove(t);
+                                Protocol.invokeLater(t.run);
+                            }
+                        }
+                    }
+                }
+            }
+            catch (InterruptedException x) {
+            }
+        }
+
+        public Object add(long delay, Runnable run) {
+            synchronized (timer_queue) {
+                Timer t = new Timer(System.currentTimeMillis() + delay, run);
+                timer_queue.add(t);
+                timer_queue.notify();
+                return t;
+            }
+        }
+
+        public boolean cancel(Object timer) {
+            synchronized (timer_queue) {
+                return timer_queue.remove(timer);
+            }
+        }
+    }
+
+    private static final Runnable nop = new Runnable() {
+        public void run() {
+        }
+    };
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkSupport.init();
+        if (timers.equals("wheel")) queue = new WheelQueue();
+        else queue = new TreeSetQueue();
+        for (int i = 0; i < PENDING_CNT; i++) {
+            queue.add(600000 + rnd.nextInt(3000000), nop);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public boolean addCancel() {
+        Object t = queue.add(1000 + rnd.nextInt(60000), nop);
+        return queue.cancel(t);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OperationsPerInvocation(BURST_SIZE)
+    public void expire() throws Exception {
+        final CountDownLatch done = new CountDownLatch(BURST_SIZE);
+        Runnable r = new Runnable() {
+            public void run() {
+                done.countDown();
+            }
+        };
+        for (int i = 0; i < BURST_SIZE; i++) queue.add(1 + rnd.nextInt(2), r);
+        done.await();
+    }
+}
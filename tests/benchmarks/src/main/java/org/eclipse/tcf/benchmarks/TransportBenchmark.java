@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.benchmarks;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tcf.core.ChannelNIO;
+import org.eclipse.tcf.core.ChannelTCP;
+import org.eclipse.tcf.core.ChannelUNIX;
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.services.IDiagnostics;
+import org.eclipse.tcf.util.TCFTask;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares transports for an agent that runs on the same host: Diagnostics "echo" latency
+ * and throughput of a channel to the local server.
+ *
+ * Parameter "transport" selects ChannelTCP over TCP loopback ("TCP"), ChannelNIO over TCP loopback ("NIO"),
+ * or ChannelUNIX over a UNIX domain socket ("UNIX"). ChannelNIO and ChannelUNIX use same selector threads,
+ * so the difference between "NIO" and "UNIX" is the cost of TCP/IP stack.
+ * "UNIX" requires Java 16 or later.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransportBenchmark {
+
+    private static final int BURST_SIZE = 1000;
+
+    @Param({ "TCP", "NIO", "UNIX" })
+    public String transport;
+
+    private IChannel channel;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        List<IChannel> list = null;
+        if (transport.equals("UNIX")) {
+            if (!ChannelUNIX.isSupported()) throw new Exception("UNIX domain sockets are not supported");
+            final String path = BenchmarkSupport.getServerSocketPath();
+            list = BenchmarkSupport.openChannels(1, new BenchmarkSupport.ChannelFactory() {
+                public IChannel openChannel() throws Exception {
+                    return new ChannelUNIX(BenchmarkSupport.getServerPeer("UNIX"), path);
+                }
+            });
+        }
+        else {
+            final int port = BenchmarkSupport.getServerPort();
+            list = BenchmarkSupport.openChannels(1, new BenchmarkSupport.ChannelFactory() {
+                public IChannel openChannel() throws Exception {
+                    if (transport.equals("NIO")) return new ChannelNIO(BenchmarkSupport.getServerPeer("TCP"), "127.0.0.1", port);
+                    return new ChannelTCP(BenchmarkSupport.getServerPeer("TCP"), "127.0.0.1", port);
+                }
+            });
+        }
+        channel = list.get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (channel != null) BenchmarkSupport.closeChannels(Collections.singletonList(channel));
+        channel = null;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String latency() throws Exception {
+        return BenchmarkSupport.echo(channel, "latency");
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(BURST_SIZE)
+    public int throughput() throws Exception {
+        return new TCFTask<Integer>(channel) {
+            int cnt;
+            public void run() {
+                IDiagnostics diag = channel.getRemoteService(IDiagnostics.class);
+                IDiagnostics.DoneEcho done = new IDiagnostics.DoneEcho() {
+                    public void doneEcho(IToken token, Throwable error, String str) {
+                        if (isDone()) return;
+                        if (error != null) error(error);
+                        else if (++cnt == BURST_SIZE) done(cnt);
+                    }
+                };
+                for (int i = 0; i < BURST_SIZE; i++) diag.echo("throughput", done);
+            }
+        }.get();
+    }
+}